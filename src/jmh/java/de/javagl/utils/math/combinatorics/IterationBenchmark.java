@@ -0,0 +1,262 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the iteration over the elements of the iterables, in
+ * the different iteration modes. <br />
+ * <br />
+ * Each invocation of a benchmark method provides a single element, so 
+ * that the average time is the time per element, and the normalized 
+ * allocation rate that is reported by <code>-prof gc</code> is the 
+ * number of bytes that are allocated per element. When the end of 
+ * the space is reached, the iteration starts again at the first 
+ * element. <br />
+ * <br />
+ * The spaces are created from input lists with n elements, and use
+ * k as the sample size. For the {@link PermutationIterable} and the
+ * {@link PowerSetIterable}, the input list contains k elements. For
+ * the {@link MixedRangeCombinationIterable}, there are k sets, each
+ * containing n elements. 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IterationBenchmark
+{
+    /**
+     * The type of the space
+     */
+    @Param({ "Choice", "Combination", "Permutation", "UnorderedCombination",
+        "SequenceWithoutRepetition", "MixedRangeCombination", "PowerSet" })
+    public String type;
+    
+    /**
+     * The number of input elements
+     */
+    @Param({ "16", "64" })
+    public int n;
+    
+    /**
+     * The sample size
+     */
+    @Param({ "3", "6", "10" })
+    public int k;
+    
+    /**
+     * The space
+     */
+    private CombinatorialSpace<Integer> space;
+    
+    /**
+     * The iterator for the list mode
+     */
+    private Iterator<List<Integer>> iterator;
+    
+    /**
+     * The iterator for the flyweight mode
+     */
+    private Iterator<List<Integer>> flyweightIterator;
+    
+    /**
+     * The tuple for the tuple mode
+     */
+    private int tuple[];
+    
+    /**
+     * The iterator for the packed mode, or <code>null</code> if the
+     * tuples of the space can not be packed
+     */
+    private PrimitiveIterator.OfLong packedIterator;
+    
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param size The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int size)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < size; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Creates the space for the current parameters
+     * 
+     * @return The space
+     */
+    CombinatorialSpace<Integer> createSpace()
+    {
+        switch (type)
+        {
+            case "Choice":
+                return new ChoiceIterable<Integer>(k, createInput(n));
+            case "Combination":
+                return new CombinationIterable<Integer>(k, createInput(n));
+            case "Permutation":
+                return new PermutationIterable<Integer>(createInput(k));
+            case "UnorderedCombination":
+                return new UnorderedCombinationIterable<Integer>(
+                    k, createInput(n));
+            case "SequenceWithoutRepetition":
+                return new SequenceWithoutRepetitionIterable<Integer>(
+                    k, createInput(n));
+            case "MixedRangeCombination":
+            {
+                List<List<Integer>> sets = new ArrayList<List<Integer>>();
+                for (int i = 0; i < k; i++)
+                {
+                    sets.add(createInput(n));
+                }
+                return new MixedRangeCombinationIterable<Integer>(sets);
+            }
+            case "PowerSet":
+                return new PowerSetIterable<Integer>(createInput(k));
+            default:
+                throw new IllegalArgumentException("Invalid type: " + type);
+        }
+    }
+    
+    /**
+     * Set up the space and the iteration state
+     * 
+     * @param params The parameters of the benchmark
+     * @throws IllegalStateException If the benchmark is the packed mode,
+     * and the tuples of the space can not be packed
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params)
+    {
+        space = createSpace();
+        iterator = space.iterator();
+        flyweightIterator = space.flyweightIterator();
+        tuple = new int[space.getTupleLength()];
+        space.unrank(0, tuple);
+        packedIterator = null;
+        if (PackedTupleCodec.canPack(space))
+        {
+            packedIterator = PackedTupleCodec.stream(space).iterator();
+        }
+        else if (params.getBenchmark().endsWith(".packed"))
+        {
+            throw new IllegalStateException(
+                "The tuples of the " + type + " space with n=" + n + 
+                " and k=" + k + " can not be packed into a long");
+        }
+    }
+    
+    /**
+     * Obtain the next element from the iterator of the space
+     * 
+     * @return The element
+     */
+    @Benchmark
+    public List<Integer> list()
+    {
+        if (!iterator.hasNext())
+        {
+            iterator = space.iterator();
+        }
+        return iterator.next();
+    }
+    
+    /**
+     * Obtain the next element from the flyweight iterator of the space
+     * 
+     * @return The element
+     */
+    @Benchmark
+    public List<Integer> flyweight()
+    {
+        if (!flyweightIterator.hasNext())
+        {
+            flyweightIterator = space.flyweightIterator();
+        }
+        return flyweightIterator.next();
+    }
+    
+    /**
+     * Advance the index tuple to the next element, without creating 
+     * a list
+     * 
+     * @param blackhole The blackhole
+     */
+    @Benchmark
+    public void tuple(Blackhole blackhole)
+    {
+        if (!space.nextTuple(tuple))
+        {
+            space.unrank(0, tuple);
+        }
+        blackhole.consume(tuple);
+    }
+    
+    /**
+     * Obtain the next packed index tuple
+     * 
+     * @return The packed tuple
+     */
+    @Benchmark
+    public long packed()
+    {
+        if (!packedIterator.hasNext())
+        {
+            packedIterator = PackedTupleCodec.stream(space).iterator();
+        }
+        return packedIterator.nextLong();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing the sequential and the parallel processing of 
+ * all elements of a space. Each invocation processes the whole space,
+ * and the results are normalized to the time per element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelBenchmark
+{
+    /**
+     * The number of input elements
+     */
+    private static final int N = 48;
+    
+    /**
+     * The sample size
+     */
+    private static final int K = 5;
+    
+    /**
+     * The number of elements of the space, which is N choose K
+     */
+    private static final int SIZE = 1712304;
+    
+    /**
+     * The space
+     */
+    private ChoiceIterable<Integer> space;
+    
+    /**
+     * Set up the space
+     */
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < N; i++)
+        {
+            input.add(i);
+        }
+        space = new ChoiceIterable<Integer>(K, input);
+        if (space.size() != SIZE)
+        {
+            throw new IllegalStateException(
+                "Expected " + SIZE + " elements, found " + space.size());
+        }
+    }
+    
+    /**
+     * Sum up the first index of all tuples, sequentially
+     * 
+     * @return The sum
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long sequentialTuples()
+    {
+        long sum = 0;
+        int tuple[] = new int[K];
+        space.unrank(0, tuple);
+        do
+        {
+            sum += tuple[0];
+        }
+        while (space.nextTuple(tuple));
+        return sum;
+    }
+    
+    /**
+     * Sum up the first index of all tuples, in parallel
+     * 
+     * @return The sum
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long parallelTuples()
+    {
+        return ParallelEnumeration.collectTuplesParallel(space, 
+            () -> new long[1], 
+            (sum, rank, tuple) -> 
+            {
+                sum[0] += tuple[0];
+                return true;
+            }, 
+            (sum0, sum1) -> 
+            {
+                sum0[0] += sum1[0];
+                return sum0;
+            })[0];
+    }
+    
+    /**
+     * Sum up the first element of all lists, sequentially
+     * 
+     * @return The sum
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long sequentialLists()
+    {
+        long sum = 0;
+        for (List<Integer> choice : space)
+        {
+            sum += choice.get(0);
+        }
+        return sum;
+    }
+    
+    /**
+     * Sum up the first element of all lists, in parallel
+     * 
+     * @return The sum
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long parallelLists()
+    {
+        LongAdder sum = new LongAdder();
+        ParallelEnumeration.forEachParallel(space, 
+            choice -> sum.add(choice.get(0)));
+        return sum.sum();
+    }
+    
+    /**
+     * Sum up the first index of all packed tuples, with a parallel 
+     * stream
+     * 
+     * @return The sum
+     */
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long parallelPacked()
+    {
+        PackedTupleCodec codec = new PackedTupleCodec(space);
+        return space.packedStream().parallel()
+            .map(packed -> codec.get(packed, 0)).sum();
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * Abstract base implementation of a {@link CombinatorialSpace}. It
+ * implements the element-based methods based on the methods that 
+ * operate on index tuples.
+ * 
+ * @param <T> The type of the elements
+ */
+abstract class AbstractCombinatorialSpace<T> implements CombinatorialSpace<T>
+{
+    /**
+     * Writes the index tuple of the given element into the given 
+     * array, if the given element is an element of this space.
+     * 
+     * @param element The element
+     * @param tuple The array that will store the index tuple
+     * @return Whether the given list is an element of this space
+     */
+    abstract boolean toTuple(List<?> element, int tuple[]);
+    
+    /**
+     * Returns an unmodifiable view on the element that is described by 
+     * the given index tuple. Changes in the given array are visible in
+     * the view. If the view is a {@link TupleView}, then they are only
+     * visible after {@link TupleView#update()} was called. The default 
+     * implementation computes the {@link #select(int[]) selection} once
+     * in each update, and should be overridden by implementations that
+     * can provide a cheaper view.
+     * 
+     * @param tuple The index tuple
+     * @return The view
+     */
+    List<T> view(int tuple[])
+    {
+        return new SelectionView<T>(this, tuple);
+    }
+    
+    /**
+     * Returns an unmodifiable view on the element of the given space 
+     * that is described by the given index tuple. If the space is an 
+     * {@link AbstractCombinatorialSpace}, then this is its 
+     * {@link #view(int[]) view}. Otherwise, it is a view that computes
+     * the {@link #select(int[]) selection} once in each update. The
+     * view has to be {@link #updateView(List) updated} before it is 
+     * accessed, and after each modification of the tuple.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param tuple The index tuple
+     * @return The view
+     */
+    static <T> List<T> viewOf(CombinatorialSpace<T> space, int tuple[])
+    {
+        if (space instanceof AbstractCombinatorialSpace<?>)
+        {
+            return ((AbstractCombinatorialSpace<T>)space).view(tuple);
+        }
+        return new SelectionView<T>(space, tuple);
+    }
+    
+    /**
+     * Updates the given view after the index tuple that it is backed by
+     * has been modified, if it is a {@link TupleView}
+     * 
+     * @param view The view
+     */
+    static void updateView(List<?> view)
+    {
+        if (view instanceof TupleView<?>)
+        {
+            ((TupleView<?>)view).update();
+        }
+    }
+    
+    /**
+     * Creates a new cursor for a sequential pass over the index tuples
+     * of this space. The default implementation delegates to the 
+     * methods of this space, and should be overridden by implementations
+     * that can cache state between the steps of a pass.
+     * 
+     * @return The cursor
+     */
+    TupleCursor<T> cursor()
+    {
+        return new TupleCursor<T>()
+        {
+            @Override
+            public void unrank(long rank, int tuple[])
+            {
+                AbstractCombinatorialSpace.this.unrank(rank, tuple);
+            }
+
+            @Override
+            public boolean nextTuple(int tuple[])
+            {
+                return AbstractCombinatorialSpace.this.nextTuple(tuple);
+            }
+
+            @Override
+            public List<T> select(int tuple[])
+            {
+                return AbstractCombinatorialSpace.this.select(tuple);
+            }
+        };
+    }
+    
+    /**
+     * Returns a new cursor for a sequential pass over the index tuples
+     * of the given space. If the space is an 
+     * {@link AbstractCombinatorialSpace}, then this is its 
+     * {@link #cursor() cursor}. Otherwise, it is a cursor that delegates
+     * to the methods of the space.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @return The cursor
+     */
+    static <T> TupleCursor<T> cursorOf(final CombinatorialSpace<T> space)
+    {
+        if (space instanceof AbstractCombinatorialSpace<?>)
+        {
+            return ((AbstractCombinatorialSpace<T>)space).cursor();
+        }
+        return new TupleCursor<T>()
+        {
+            @Override
+            public void unrank(long rank, int tuple[])
+            {
+                space.unrank(rank, tuple);
+            }
+
+            @Override
+            public boolean nextTuple(int tuple[])
+            {
+                return space.nextTuple(tuple);
+            }
+
+            @Override
+            public List<T> select(int tuple[])
+            {
+                return space.select(tuple);
+            }
+        };
+    }
+    
+    /**
+     * Implementation of a view that computes the selection of a space
+     * once in each update
+     * 
+     * @param <T> The type of the elements
+     */
+    private static final class SelectionView<T> extends TupleView<T>
+    {
+        /**
+         * The space
+         */
+        private final CombinatorialSpace<T> space;
+        
+        /**
+         * The index tuple
+         */
+        private final int tuple[];
+        
+        /**
+         * The selection for the current state of the tuple
+         */
+        private List<T> selection;
+        
+        /**
+         * Creates a new view
+         * 
+         * @param space The space
+         * @param tuple The index tuple. A reference to this array is 
+         * stored.
+         */
+        SelectionView(CombinatorialSpace<T> space, int tuple[])
+        {
+            this.space = space;
+            this.tuple = tuple;
+        }
+        
+        @Override
+        void update()
+        {
+            selection = space.select(tuple);
+        }
+        
+        @Override
+        public T get(int index)
+        {
+            return selection.get(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return selection.size();
+        }
+    }
+    
+    @Override
+    public List<T> get(long rank)
+    {
+        int tuple[] = new int[getTupleLength()];
+        unrank(rank, tuple);
+        return select(tuple);
+    }
+    
+    @Override
+    public long rank(List<?> element)
+    {
+        int tuple[] = new int[getTupleLength()];
+        if (size() == 0 || !toTuple(element, tuple))
+        {
+            return -1;
+        }
+        return rank(tuple);
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator()
+    {
+        return iterator(0, size());
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator(final long fromRank, final long toRank)
+    {
+        checkRange(fromRank, toRank, size());
+        return new Iterator<List<T>>()
+        {
+            /**
+             * The rank of the next element
+             */
+            private long current = fromRank;
+            
+            /**
+             * The index tuple of the next element. This is only
+             * computed when the first element is requested.
+             */
+            private int tuple[] = null;
+            
+            /**
+             * The cursor for advancing the tuple
+             */
+            private final TupleCursor<T> cursor = cursor();
+            
+            @Override
+            public boolean hasNext()
+            {
+                return current < toRank;
+            }
+
+            @Override
+            public List<T> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more elements");
+                }
+                if (tuple == null)
+                {
+                    tuple = new int[getTupleLength()];
+                    cursor.unrank(current, tuple);
+                }
+                List<T> result = cursor.select(tuple);
+                current++;
+                if (current < toRank)
+                {
+                    cursor.nextTuple(tuple);
+                }
+                return result;
+            }
+            
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                    "May not remove elements from a combinatorial space");
+            }
+        };
+    }
+    
+    @Override
+    public Iterator<List<T>> flyweightIterator()
+    {
+        return new ViewIterator(false);
+    }
+    
+    @Override
+    public Iterator<List<T>> viewIterator()
+    {
+        return new ViewIterator(true);
+    }
+    
+    @Override
+    public Iterable<List<T>> shard(int shardIndex, int shardCount)
+    {
+        checkShard(shardIndex, shardCount);
+        final long from = shardStart(size(), shardIndex, shardCount);
+        final long to = shardStart(size(), shardIndex + 1, shardCount);
+        return () -> iterator(from, to);
+    }
+    
+    @Override
+    public Iterable<List<T>> shard(
+        final int shardIndex, final int shardCount, final long blockSize)
+    {
+        checkShard(shardIndex, shardCount);
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The block size must be positive, but is " + blockSize);
+        }
+        return () -> new Iterator<List<T>>()
+        {
+            /**
+             * The index of the current block
+             */
+            private long block = shardIndex;
+            
+            /**
+             * The iterator over the current block
+             */
+            private Iterator<List<T>> current = blockIterator();
+            
+            /**
+             * Returns the iterator over the current block, or 
+             * <code>null</code> if the block is beyond the space
+             * 
+             * @return The iterator
+             */
+            private Iterator<List<T>> blockIterator()
+            {
+                long size = size();
+                if (size == 0 || block > (size - 1) / blockSize)
+                {
+                    return null;
+                }
+                long from = block * blockSize;
+                long to = from + Math.min(blockSize, size - from);
+                return iterator(from, to);
+            }
+            
+            @Override
+            public boolean hasNext()
+            {
+                while (current != null && !current.hasNext())
+                {
+                    block += shardCount;
+                    current = blockIterator();
+                }
+                return current != null;
+            }
+
+            @Override
+            public List<T> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more elements");
+                }
+                return current.next();
+            }
+            
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                    "May not remove elements from a combinatorial space");
+            }
+        };
+    }
+    
+    @Override
+    public Spliterator<List<T>> spliterator()
+    {
+        return new RankSpliterator<T>(this, 0, size());
+    }
+    
+    /**
+     * An iterator over all elements of this space that returns views
+     * on the elements
+     */
+    private final class ViewIterator implements Iterator<List<T>>
+    {
+        /**
+         * Whether each view should be backed by a copy of the tuple
+         */
+        private final boolean copy;
+        
+        /**
+         * The rank of the next element
+         */
+        private long current;
+        
+        /**
+         * The index tuple of the last element
+         */
+        private final int tuple[];
+        
+        /**
+         * The view that is returned when the tuple is not copied
+         */
+        private final List<T> flyweight;
+        
+        /**
+         * The cursor for advancing the tuple
+         */
+        private final TupleCursor<T> cursor;
+        
+        /**
+         * Creates a new iterator
+         * 
+         * @param copy Whether each view should be backed by a copy of 
+         * the tuple
+         */
+        ViewIterator(boolean copy)
+        {
+            this.copy = copy;
+            this.current = 0;
+            this.tuple = new int[getTupleLength()];
+            this.flyweight = copy ? null : view(tuple);
+            this.cursor = cursor();
+        }
+        
+        @Override
+        public boolean hasNext()
+        {
+            return current < size();
+        }
+
+        @Override
+        public List<T> next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException("No more elements");
+            }
+            if (current == 0)
+            {
+                cursor.unrank(0, tuple);
+            }
+            else
+            {
+                cursor.nextTuple(tuple);
+            }
+            current++;
+            List<T> result = copy ? view(tuple.clone()) : flyweight;
+            updateView(result);
+            return result;
+        }
+        
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException(
+                "May not remove elements from a combinatorial space");
+        }
+    }
+    
+    /**
+     * Makes sure that the given shard index and count are valid
+     * 
+     * @param shardIndex The shard index
+     * @param shardCount The shard count
+     * @throws IllegalArgumentException If the shard count is not 
+     * positive, or the shard index is negative or not smaller than 
+     * the shard count
+     */
+    static void checkShard(int shardIndex, int shardCount)
+    {
+        if (shardCount <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The shard count must be positive, but is " + shardCount);
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount)
+        {
+            throw new IllegalArgumentException(
+                "Shard index " + shardIndex + ", shard count " + shardCount);
+        }
+    }
+    
+    /**
+     * Returns the first rank of the shard with the given index, when
+     * a space of the given size is divided into the given number of
+     * contiguous shards whose sizes differ by at most one
+     * 
+     * @param size The size of the space
+     * @param shardIndex The shard index, which may be equal to the
+     * shard count, to obtain the end of the last shard
+     * @param shardCount The shard count
+     * @return The first rank of the shard
+     */
+    static long shardStart(long size, int shardIndex, int shardCount)
+    {
+        long quotient = size / shardCount;
+        long remainder = size % shardCount;
+        return shardIndex * quotient + Math.min(shardIndex, remainder);
+    }
+    
+    /**
+     * Makes sure that the given range of ranks is valid for a space
+     * with the given size
+     * 
+     * @param fromRank The minimum rank, inclusive
+     * @param toRank The maximum rank, exclusive
+     * @param size The size of the space
+     * @throws IndexOutOfBoundsException If the range is not valid
+     */
+    static void checkRange(long fromRank, long toRank, long size)
+    {
+        if (fromRank < 0 || toRank > size || fromRank > toRank)
+        {
+            throw new IndexOutOfBoundsException(
+                "Ranks " + fromRank + " to " + toRank + ", size " + size);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A class providing an iterator over all bracelets of a certain length 
+ * over a given set of elements. A bracelet is an equivalence class of 
+ * sequences under rotation and reversal. For a set S with n = |S|, the 
+ * number of bracelets of length k is computed by 
+ * {@link Counting#bracelets(int, int)}. Each bracelet is represented 
+ * by the lexicographically smallest sequence (with respect to the 
+ * indices of the elements) that it contains. Example:<br />
+ * <pre>
+ * S = { A,B,C }, n = |S| = 3
+ * k = 3
+ * m = 10
+ * 
+ * Bracelets:
+ * [A, A, A]
+ * [A, A, B]
+ * [A, A, C]
+ * [A, B, B]
+ * [A, B, C]
+ * [A, C, C]
+ * [B, B, B]
+ * [B, B, C]
+ * [B, C, C]
+ * [C, C, C]
+ * </pre>
+ * 
+ * The bracelets are generated from the necklaces, which are generated
+ * in constant amortized time, by checking each necklace against the 
+ * reversed sequence in linear time. The other elements of the 
+ * equivalence classes are not generated.
+ *
+ * @param <T> The type of the elements
+ */
+public final class BraceletIterable<T> implements Iterable<List<T>>
+{
+    /**
+     * The input elements
+     */
+    private final List<T> input;
+    
+    /**
+     * The length of the bracelets
+     */
+    private final int length;
+    
+    /**
+     * Creates an iterable over all bracelets of the given length, 
+     * consisting of the given elements
+     * 
+     * @param length The length of the bracelets
+     * @param input The input elements
+     * @throws IllegalArgumentException If the length is negative
+     */
+    public BraceletIterable(int length, List<? extends T> input)
+    {
+        if (length < 0)
+        {
+            throw new IllegalArgumentException(
+                "The length may not be negative, but is " + length);
+        }
+        this.input = new ArrayList<T>(input);
+        this.length = length;
+    }
+    
+    /**
+     * Returns the number of bracelets
+     * 
+     * @return The number of bracelets
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public long size()
+    {
+        return Counting.bracelets(input.size(), length);
+    }
+    
+    /**
+     * Passes the index tuples of all bracelets to the given consumer, in
+     * the order of the iterator. The array that is passed to the 
+     * consumer is reused for all bracelets.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachTuple(IntArrayConsumer consumer)
+    {
+        NecklaceGenerator generator = 
+            new NecklaceGenerator(length, input.size(), true);
+        while (generator.advance())
+        {
+            consumer.accept(generator.getWord());
+        }
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator()
+    {
+        return new NecklaceGenerator(length, input.size(), true)
+            .iterator(input);
+    }
+}
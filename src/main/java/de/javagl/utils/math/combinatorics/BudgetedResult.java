@@ -0,0 +1,197 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a {@link BudgetedSearch}. It contains the best elements
+ * that have been found until the search was stopped, and statistics 
+ * about the part of the space that was covered.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class BudgetedResult<T>
+{
+    /**
+     * The reasons why a search was stopped
+     */
+    public static enum StopReason
+    {
+        /**
+         * All elements of the space have been evaluated
+         */
+        COMPLETED,
+        
+        /**
+         * The time limit was reached
+         */
+        TIME_LIMIT,
+        
+        /**
+         * The maximum number of evaluations was reached
+         */
+        EVALUATION_LIMIT,
+        
+        /**
+         * The search was cancelled
+         */
+        CANCELLED
+    }
+    
+    /**
+     * The best elements, starting with the best one
+     */
+    private final List<ScoredElement<T>> results;
+    
+    /**
+     * The reason why the search was stopped
+     */
+    private final StopReason stopReason;
+    
+    /**
+     * The number of elements that have been evaluated
+     */
+    private final long evaluationCount;
+    
+    /**
+     * The size of the space
+     */
+    private final long size;
+    
+    /**
+     * The duration of the search, in nanoseconds
+     */
+    private final long elapsedNanos;
+    
+    /**
+     * Creates a new result
+     * 
+     * @param results The best elements, starting with the best one
+     * @param stopReason The reason why the search was stopped
+     * @param evaluationCount The number of evaluated elements
+     * @param size The size of the space
+     * @param elapsedNanos The duration of the search, in nanoseconds
+     */
+    BudgetedResult(List<ScoredElement<T>> results, StopReason stopReason, 
+        long evaluationCount, long size, long elapsedNanos)
+    {
+        this.results = Collections.unmodifiableList(results);
+        this.stopReason = stopReason;
+        this.evaluationCount = evaluationCount;
+        this.size = size;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Returns the best element that was found, or <code>null</code> 
+     * if no element was evaluated
+     * 
+     * @return The best element
+     */
+    public ScoredElement<T> getBest()
+    {
+        return results.isEmpty() ? null : results.get(0);
+    }
+    
+    /**
+     * Returns an unmodifiable list containing the best elements that 
+     * were found, starting with the best one
+     * 
+     * @return The best elements
+     */
+    public List<ScoredElement<T>> getResults()
+    {
+        return results;
+    }
+    
+    /**
+     * Returns the reason why the search was stopped
+     * 
+     * @return The stop reason
+     */
+    public StopReason getStopReason()
+    {
+        return stopReason;
+    }
+    
+    /**
+     * Returns whether all elements of the space have been evaluated,
+     * so that the results are exact
+     * 
+     * @return Whether the search was completed
+     */
+    public boolean isComplete()
+    {
+        return stopReason == StopReason.COMPLETED;
+    }
+    
+    /**
+     * Returns the number of elements that have been evaluated
+     * 
+     * @return The number of evaluated elements
+     */
+    public long getEvaluationCount()
+    {
+        return evaluationCount;
+    }
+    
+    /**
+     * Returns the fraction of the space that has been evaluated, as a
+     * value between 0.0 and 1.0
+     * 
+     * @return The coverage
+     */
+    public double getCoverage()
+    {
+        if (size == 0)
+        {
+            return 1.0;
+        }
+        return (double) evaluationCount / size;
+    }
+    
+    /**
+     * Returns the duration of the search, in nanoseconds
+     * 
+     * @return The duration
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "BudgetedResult[stopReason=" + stopReason + 
+            ", evaluationCount=" + evaluationCount + 
+            ", coverage=" + getCoverage() + ", best=" + getBest() + "]";
+    }
+}
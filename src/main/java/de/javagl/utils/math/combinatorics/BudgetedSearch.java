@@ -0,0 +1,464 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+import de.javagl.utils.math.combinatorics.BudgetedResult.StopReason;
+import de.javagl.utils.math.combinatorics.ParallelSearch.BoundedHeap;
+
+/**
+ * A search for the best elements of a {@link CombinatorialSpace} that 
+ * is bounded by a time limit and a maximum number of evaluations. When 
+ * the budget is exhausted, the search returns the best elements that 
+ * have been found so far, together with statistics about the coverage
+ * of the space. <br />
+ * <br />
+ * The budget is checked once per batch of elements, so that the 
+ * overhead is small even when evaluating an element is cheap. The
+ * search may also be cancelled from another thread. <br />
+ * <br />
+ * By default, the elements are evaluated in the order of their ranks.
+ * When the search is expected to be stopped early, the elements may 
+ * be evaluated in a pseudo-random order, using a {@link ShuffledSpace}, 
+ * so that the evaluated elements are spread evenly over the space. 
+ * The search may be performed in parallel, with 
+ * {@link ParallelEnumeration}. <br />
+ * <br />
+ * Elements with equal scores are ordered by the rank in the order of
+ * evaluation. Elements with a score that is <code>NaN</code> are 
+ * ignored. The ranks of the resulting {@link ScoredElement}s are the 
+ * ranks in the given space, regardless of the order of evaluation.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class BudgetedSearch<T>
+{
+    /**
+     * The space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The time limit, in nanoseconds, or a negative value if there 
+     * is no time limit
+     */
+    private long timeLimitNanos = -1;
+    
+    /**
+     * The maximum number of evaluations, or a negative value if there
+     * is no limit
+     */
+    private long evaluationLimit = -1;
+    
+    /**
+     * The number of elements after which the budget is checked
+     */
+    private int batchSize = 1024;
+    
+    /**
+     * The number of best elements that are kept
+     */
+    private int resultCount = 1;
+    
+    /**
+     * The key for the shuffled order, or <code>null</code> if the 
+     * elements are evaluated in the order of their ranks
+     */
+    private Long shuffleKey = null;
+    
+    /**
+     * Whether the search is performed in parallel
+     */
+    private boolean parallel = false;
+    
+    /**
+     * Whether the search was cancelled
+     */
+    private volatile boolean cancelled = false;
+    
+    /**
+     * Creates a new search over the given space
+     * 
+     * @param space The space
+     */
+    public BudgetedSearch(CombinatorialSpace<T> space)
+    {
+        this.space = space;
+    }
+    
+    /**
+     * Set the time limit for the search. By default, there is no 
+     * time limit.
+     * 
+     * @param timeLimit The time limit. A negative value means that 
+     * there is no time limit.
+     * @param unit The unit of the time limit
+     */
+    public void setTimeLimit(long timeLimit, TimeUnit unit)
+    {
+        this.timeLimitNanos = timeLimit < 0 ? -1 : unit.toNanos(timeLimit);
+    }
+    
+    /**
+     * Set the maximum number of elements that are evaluated. By 
+     * default, there is no limit. For parallel searches, the 
+     * evaluations are handed out to the tasks in batches, so the 
+     * search may stop slightly before the limit is reached.
+     * 
+     * @param evaluationLimit The evaluation limit. A negative value 
+     * means that there is no limit.
+     */
+    public void setEvaluationLimit(long evaluationLimit)
+    {
+        this.evaluationLimit = evaluationLimit < 0 ? -1 : evaluationLimit;
+    }
+    
+    /**
+     * Set the number of elements after which the time limit and the
+     * cancellation are checked. The default is 1024.
+     * 
+     * @param batchSize The batch size
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setBatchSize(int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The batchSize must be positive, but is " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Set the number of best elements that should be kept. The 
+     * default is 1.
+     * 
+     * @param resultCount The number of results
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setResultCount(int resultCount)
+    {
+        if (resultCount <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The resultCount must be positive, but is " + resultCount);
+        }
+        this.resultCount = resultCount;
+    }
+    
+    /**
+     * Set the key for evaluating the elements in a pseudo-random order.
+     * If the key is <code>null</code>, then the elements are evaluated
+     * in the order of their ranks. The default is <code>null</code>.
+     * 
+     * @param shuffleKey The key
+     */
+    public void setShuffleKey(Long shuffleKey)
+    {
+        this.shuffleKey = shuffleKey;
+    }
+    
+    /**
+     * Set whether the search should be performed in parallel. The 
+     * default is <code>false</code>.
+     * 
+     * @param parallel Whether the search is parallel
+     */
+    public void setParallel(boolean parallel)
+    {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Cancel this search. A search that is currently running will stop
+     * after the current batch, and return the results that have been
+     * found so far. All subsequent searches will return immediately. 
+     * This method may be called from any thread. 
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+    
+    /**
+     * Returns whether this search was cancelled
+     * 
+     * @return Whether the search was cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+    
+    /**
+     * Search the elements with the highest scores
+     * 
+     * @param scorer The scoring function
+     * @return The result
+     */
+    public BudgetedResult<T> maximize(
+        final ToDoubleFunction<? super List<T>> scorer)
+    {
+        return search(tuple -> scorer.applyAsDouble(space.select(tuple)), 
+            true);
+    }
+    
+    /**
+     * Search the elements with the lowest scores
+     * 
+     * @param scorer The scoring function
+     * @return The result
+     */
+    public BudgetedResult<T> minimize(
+        final ToDoubleFunction<? super List<T>> scorer)
+    {
+        return search(tuple -> scorer.applyAsDouble(space.select(tuple)), 
+            false);
+    }
+    
+    /**
+     * Search the elements whose index tuples have the highest scores.
+     * The tuple that is passed to the scoring function may not be 
+     * stored or modified.
+     * 
+     * @param scorer The scoring function
+     * @return The result
+     */
+    public BudgetedResult<T> maximizeByTuple(ToDoubleFunction<int[]> scorer)
+    {
+        return search(scorer, true);
+    }
+    
+    /**
+     * Search the elements whose index tuples have the lowest scores.
+     * The tuple that is passed to the scoring function may not be 
+     * stored or modified.
+     * 
+     * @param scorer The scoring function
+     * @return The result
+     */
+    public BudgetedResult<T> minimizeByTuple(ToDoubleFunction<int[]> scorer)
+    {
+        return search(scorer, false);
+    }
+    
+    /**
+     * Implementation of the search
+     * 
+     * @param scorer The scoring function
+     * @param maximize Whether higher scores are better
+     * @return The result
+     */
+    private BudgetedResult<T> search(
+        final ToDoubleFunction<int[]> scorer, final boolean maximize)
+    {
+        final long startNanos = System.nanoTime();
+        final Budget budget = new Budget(startNanos);
+        final CombinatorialSpace<T> order = shuffleKey == null ? 
+            space : new ShuffledSpace<T>(space, shuffleKey);
+        final int length = order.getTupleLength();
+        TupleAccumulator<BatchState> accumulator = (state, rank, tuple) ->
+        {
+            if (state.permits == 0)
+            {
+                state.permits = budget.acquire();
+                if (state.permits == 0)
+                {
+                    return false;
+                }
+            }
+            state.permits--;
+            state.evaluated++;
+            state.heap.offer(scorer.applyAsDouble(tuple), rank, tuple);
+            return true;
+        };
+        BatchState result;
+        if (parallel)
+        {
+            result = ParallelEnumeration.collectTuplesParallel(order, 
+                () -> new BatchState(resultCount, length, maximize), 
+                accumulator, 
+                (s0, s1) -> 
+                {
+                    s0.heap.addAll(s1.heap);
+                    s0.evaluated += s1.evaluated;
+                    return s0;
+                });
+        }
+        else
+        {
+            result = new BatchState(resultCount, length, maximize);
+            if (order.size() > 0)
+            {
+                int tuple[] = new int[length];
+                order.unrank(0, tuple);
+                long r = 0;
+                while (accumulator.accept(result, r, tuple) && 
+                    order.nextTuple(tuple))
+                {
+                    r++;
+                }
+            }
+        }
+        List<ScoredElement<T>> elements = 
+            result.heap.toScoredElements(order);
+        List<ScoredElement<T>> results = 
+            new ArrayList<ScoredElement<T>>(elements.size());
+        for (ScoredElement<T> e : elements)
+        {
+            int tuple[] = e.getTuple();
+            results.add(new ScoredElement<T>(space.rank(tuple), 
+                e.getScore(), tuple, e.getElement()));
+        }
+        StopReason stopReason = budget.stopReason.get();
+        if (stopReason == null)
+        {
+            stopReason = StopReason.COMPLETED;
+        }
+        return new BudgetedResult<T>(results, stopReason, 
+            result.evaluated, space.size(), System.nanoTime() - startNanos);
+    }
+    
+    /**
+     * The state of a task of the search
+     */
+    private static final class BatchState
+    {
+        /**
+         * The best elements that have been found by the task
+         */
+        final BoundedHeap heap;
+        
+        /**
+         * The number of elements that may still be evaluated before 
+         * the budget has to be checked again
+         */
+        long permits;
+        
+        /**
+         * The number of elements that have been evaluated
+         */
+        long evaluated;
+        
+        /**
+         * Creates a new state
+         * 
+         * @param resultCount The number of results
+         * @param length The length of the tuples
+         * @param maximize Whether higher scores are better
+         */
+        BatchState(int resultCount, int length, boolean maximize)
+        {
+            this.heap = new BoundedHeap(resultCount, length, maximize);
+        }
+    }
+    
+    /**
+     * The budget of one search, shared by all tasks
+     */
+    private final class Budget
+    {
+        /**
+         * The deadline, in nanoseconds
+         */
+        private final long deadlineNanos;
+        
+        /**
+         * The number of evaluations that have been handed out
+         */
+        private final AtomicLong reserved = new AtomicLong();
+        
+        /**
+         * The reason why the search was stopped, or <code>null</code>
+         */
+        final AtomicReference<StopReason> stopReason = 
+            new AtomicReference<StopReason>();
+        
+        /**
+         * Creates a new budget
+         * 
+         * @param startNanos The start time of the search
+         */
+        Budget(long startNanos)
+        {
+            this.deadlineNanos = startNanos + timeLimitNanos;
+        }
+        
+        /**
+         * Returns the number of elements that may be evaluated in the 
+         * next batch, or 0 if the budget is exhausted
+         * 
+         * @return The number of elements
+         */
+        long acquire()
+        {
+            if (stopReason.get() != null)
+            {
+                return 0;
+            }
+            if (cancelled)
+            {
+                return stop(StopReason.CANCELLED);
+            }
+            if (timeLimitNanos >= 0 && System.nanoTime() - deadlineNanos >= 0)
+            {
+                return stop(StopReason.TIME_LIMIT);
+            }
+            if (evaluationLimit < 0)
+            {
+                return batchSize;
+            }
+            long start = reserved.getAndAdd(batchSize);
+            if (start >= evaluationLimit)
+            {
+                return stop(StopReason.EVALUATION_LIMIT);
+            }
+            return Math.min(batchSize, evaluationLimit - start);
+        }
+        
+        /**
+         * Stop the search for the given reason, if it was not stopped
+         * already
+         * 
+         * @param reason The reason
+         * @return Always 0
+         */
+        private long stop(StopReason reason)
+        {
+            stopReason.compareAndSet(null, reason);
+            return 0;
+        }
+    }
+}
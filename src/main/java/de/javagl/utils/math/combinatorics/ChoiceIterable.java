@@ -27,11 +27,11 @@
 
 package de.javagl.utils.math.combinatorics;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 /**
  * A class providing an iterator over all choices of a certain number of 
@@ -53,9 +53,16 @@ import java.util.NoSuchElementException;
  * [C, D]
  * </pre>
  * 
+ * The index tuples of the {@link IndexSpace} are the strictly 
+ * increasing indices of the chosen elements. <br />
+ * <br />
+ * The elements of the input are treated as distinct, even if they 
+ * are equal. For inputs that contain equal elements, the 
+ * {@link MultisetChoiceIterable} provides each distinct choice once.
+ * 
  * @param <T> The type of the elements
  */
-public final class ChoiceIterable<T> implements Iterable<List<T>>
+public final class ChoiceIterable<T> extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -78,21 +85,169 @@ public final class ChoiceIterable<T> implements Iterable<List<T>>
      *  
      * @param sampleSize The sample size
      * @param input The input elements
+     * @throws ArithmeticException If the number of choices does not
+     * fit into a <code>long</code>
      */
     public ChoiceIterable(int sampleSize, List<T> input)
     {
         this.sampleSize = sampleSize;
         this.input = input;
- 
-        // Computation of n!, k! and (n-k)! with BigInteger to avoid overflow 
-        BigInteger nf = Utils.factorial(input.size());
-        BigInteger kf = Utils.factorial(sampleSize);
-        BigInteger nmkf = Utils.factorial(input.size() - sampleSize);
-        BigInteger divisor = kf.multiply(nmkf);
-        BigInteger result = nf.divide(divisor);
-        numElements = result.longValue();    
+        numElements = Counting.binomial(input.size(), sampleSize);
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return sampleSize;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public void unrank(long rank, int chosen[])
+    {
+        Utils.checkRank(rank, numElements);
+        
+        // There are C(n-1-c, k-1-i) choices where the element at 
+        // position i is c and the elements at the previous positions
+        // are fixed. Skip the values of c where the rank is not 
+        // contained in the respective block.
+        int n = input.size();
+        long remaining = rank;
+        int c = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            while (true)
+            {
+                long count = Counting.binomial(n - 1 - c, sampleSize - 1 - i);
+                if (remaining < count)
+                {
+                    break;
+                }
+                remaining -= count;
+                c++;
+            }
+            chosen[i] = c;
+            c++;
+        }
+    }
+    
+    @Override
+    public long rank(int chosen[])
+    {
+        int n = input.size();
+        long result = 0;
+        int c = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            for (; c < chosen[i]; c++)
+            {
+                result += Counting.binomial(n - 1 - c, sampleSize - 1 - i);
+            }
+            c = chosen[i] + 1;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int chosen[])
+    {
+        // The fist choice when choosing 3 of 5 elements consists
+        // of 0,1,2. Subsequent choices are created by increasing
+        // the last element of this sequence:
+        // 0,1,3
+        // 0,1,4
+        // until the last element of the choice has reached the
+        // maximum value. Then, the earlier elements of the 
+        // sequence are increased, while obeying the maximum 
+        // value each element may have so that there may 
+        // still be values assigned to the subsequent elements.
+        // For the example: 
+        // - The element with index 2 may have maximum value 4.
+        // - The element with index 1 may have maximum value 3.
+        // - The element with index 0 may have maximum value 2.
+        // Each time that the value of one of these elements is
+        // increased, the subsequent elements will simply receive
+        // the subsequent values.
+        int max = input.size() - 1;
+        for (int n = sampleSize - 1; n >= 0; n--, max--)
+        {
+            if (chosen[n] < max)
+            {
+                chosen[n]++;
+                for (int i = n + 1; i < sampleSize; i++)
+                {
+                    chosen[i] = chosen[i - 1] + 1;
+                }
+                return true;
+            }
+        }
+        return false;
     }
 
+    @Override
+    public List<T> select(int chosen[])
+    {
+        List<T> result = new ArrayList<T>(sampleSize);
+        for (int i = 0; i < sampleSize; i++)
+        {
+            result.add(input.get(chosen[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(int chosen[])
+    {
+        return new IndexedListView<T>(input, chosen, sampleSize);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int chosen[])
+    {
+        if (element.size() != sampleSize)
+        {
+            return false;
+        }
+        int previous = -1;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            int index = Utils.indexOf(input, element.get(i), previous + 1);
+            if (index < 0)
+            {
+                return false;
+            }
+            chosen[i] = index;
+            previous = index;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a stream of the index tuples of the elements of this 
+     * iterable, packed into <code>long</code> values with a 
+     * {@link PackedTupleCodec}. The packed values are strictly 
+     * increasing in the order of the ranks.
+     * 
+     * @return The stream
+     * @throws IllegalArgumentException If the index tuples can not
+     * be packed into a <code>long</code>
+     */
+    public LongStream packedStream()
+    {
+        return PackedTupleCodec.stream(this);
+    }
+    
     @Override
     public Iterator<List<T>> iterator()
     {
@@ -101,7 +256,7 @@ public final class ChoiceIterable<T> implements Iterable<List<T>>
             /**
              * The element counter
              */
-            private int current = 0;
+            private long current = 0;
             
             /**
              * The indices of the elements that are currently chosen
@@ -131,59 +286,15 @@ public final class ChoiceIterable<T> implements Iterable<List<T>>
                     throw new NoSuchElementException("No more elements");
                 }
                 
-                List<T> result = new ArrayList<T>(sampleSize);
-                for (int i = 0; i < sampleSize; i++)
-                {
-                    result.add(input.get(chosen[i]));
-                }
+                List<T> result = select(chosen);
                 current++;
                 if (current < numElements)
                 {
-                    increase(sampleSize - 1, input.size() - 1);
+                    nextTuple(chosen);
                 }
                 return result;
             }
  
-            
-            /**
-             * Increase the index of the element number 'n'
-             * 
-             * @param n The index of the chosen element to increase
-             * @param max The maximum value for the index
-             */
-            private void increase(int n, int max)
-            {
-                // The fist choice when choosing 3 of 5 elements consists
-                // of 0,1,2. Subsequent choices are created by increasing
-                // the last element of this sequence:
-                // 0,1,3
-                // 0,1,4
-                // until the last element of the choice has reached the
-                // maximum value. Then, the earlier elements of the 
-                // sequence are increased recursively, while obeying the 
-                // maximum value each element may have so that there may 
-                // still be values assigned to the subsequent elements.
-                // For the example: 
-                // - The element with index 2 may have maximum value 4.
-                // - The element with index 1 may have maximum value 3.
-                // - The element with index 0 may have maximum value 2.
-                // Each time that the value of one of these elements is
-                // increased, the subsequent elements will simply receive
-                // the subsequent values.
-                if (chosen[n] < max)
-                {
-                    chosen[n]++;
-                    for (int i = n + 1; i < sampleSize; i++)
-                    {
-                        chosen[i] = chosen[i - 1] + 1;
-                    }
-                }
-                else
-                {
-                    increase(n - 1, max - 1);
-                }
-            }
- 
             @Override
             public void remove()
             {
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 /**
  * A class providing an iterator over all combinations of a certain number
@@ -53,10 +54,16 @@ import java.util.NoSuchElementException;
  * [C, B]
  * [C, C]
  * </pre>
+ * 
+ * The index tuples of the {@link IndexSpace} are the indices of the 
+ * elements at each position of the combination. The rank of a 
+ * combination is the value of its index tuple, interpreted as a 
+ * number in n-ary representation. 
  *  
  * @param <T> The type of the elements
  */
-public final class CombinationIterable<T> implements Iterable<List<T>>
+public final class CombinationIterable<T> 
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -71,7 +78,7 @@ public final class CombinationIterable<T> implements Iterable<List<T>>
     /**
      * The total number of elements that the iterator will provide
      */
-    private final int numElements;
+    private final long numElements;
  
     /**
      * Creates an iterable over all multisets of 
@@ -79,14 +86,140 @@ public final class CombinationIterable<T> implements Iterable<List<T>>
      *  
      * @param sampleSize The sample size
      * @param input The input elements
+     * @throws ArithmeticException If the number of combinations does 
+     * not fit into a <code>long</code>
      */
     public CombinationIterable(int sampleSize, List<T> input)
     {
         this.sampleSize = sampleSize;
         this.input = input;
-        numElements = (int) Math.pow(input.size(), sampleSize);
+        numElements = Counting.power(input.size(), sampleSize);
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return sampleSize;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public void unrank(long rank, int chosen[])
+    {
+        Utils.checkRank(rank, numElements);
+        int n = input.size();
+        long remaining = rank;
+        for (int i = sampleSize - 1; i >= 0; i--)
+        {
+            chosen[i] = (int) (remaining % n);
+            remaining /= n;
+        }
+    }
+    
+    @Override
+    public long rank(int chosen[])
+    {
+        int n = input.size();
+        long result = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            result = result * n + chosen[i];
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int chosen[])
+    {
+        // The array of 'chosen' elements for a set of size n 
+        // effectively is a number represented in k-ary form, 
+        // and thus, this method does nothing else than count. 
+        // For example, when choosing 2 elements of a set with 
+        // n=10, the contents of 'chosen' would represent all
+        // values 
+        // 00, 01, 02,... 09,
+        // 10, 11, 12,... 19,
+        // ...
+        // 90, 91, 92, ...99
+        // with each digit indicating the index of the element
+        // of the input array that should be placed at the
+        // respective position of the output array.
+        int index = sampleSize - 1;
+        while (index >= 0)
+        {
+            if (chosen[index] < input.size() - 1)
+            {
+                chosen[index]++;
+                return true;
+            }
+            chosen[index] = 0;
+            index--;
+        }
+        return false;
     }
  
+    @Override
+    public List<T> select(int chosen[])
+    {
+        List<T> result = new ArrayList<T>(sampleSize);
+        for (int i = 0; i < sampleSize; i++)
+        {
+            result.add(input.get(chosen[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(int chosen[])
+    {
+        return new IndexedListView<T>(input, chosen, sampleSize);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int chosen[])
+    {
+        if (element.size() != sampleSize)
+        {
+            return false;
+        }
+        for (int i = 0; i < sampleSize; i++)
+        {
+            int index = input.indexOf(element.get(i));
+            if (index < 0)
+            {
+                return false;
+            }
+            chosen[i] = index;
+        }
+        return true;
+    }
+ 
+    /**
+     * Returns a stream of the index tuples of the elements of this 
+     * iterable, packed into <code>long</code> values with a 
+     * {@link PackedTupleCodec}. The packed values are strictly 
+     * increasing in the order of the ranks.
+     * 
+     * @return The stream
+     * @throws IllegalArgumentException If the index tuples can not
+     * be packed into a <code>long</code>
+     */
+    public LongStream packedStream()
+    {
+        return PackedTupleCodec.stream(this);
+    }
+    
     @Override
     public Iterator<List<T>> iterator()
     {
@@ -95,7 +228,7 @@ public final class CombinationIterable<T> implements Iterable<List<T>>
             /**
              * The element counter
              */
-            private int current = 0;
+            private long current = 0;
             
             /**
              * The indices of the elements that are currently chosen
@@ -116,48 +249,12 @@ public final class CombinationIterable<T> implements Iterable<List<T>>
                     throw new NoSuchElementException("No more elements");
                 }
                 
-                List<T> result = new ArrayList<T>(sampleSize);
-                for (int i = 0; i < sampleSize; i++)
-                {
-                    result.add(input.get(chosen[i]));
-                }
-                increase();
+                List<T> result = select(chosen);
+                nextTuple(chosen);
                 current++;
                 return result;
             }
  
-            /**
-             * Increases the k-ary representation of the selection of 
-             * elements by one.
-             */
-            private void increase()
-            {
-                // The array of 'chosen' elements for a set of size n 
-                // effectively is a number represented in k-ary form, 
-                // and thus, this method does nothing else than count. 
-                // For example, when choosing 2 elements of a set with 
-                // n=10, the contents of 'chosen' would represent all
-                // values 
-                // 00, 01, 02,... 09,
-                // 10, 11, 12,... 19,
-                // ...
-                // 90, 91, 92, ...99
-                // with each digit indicating the index of the element
-                // of the input array that should be placed at the
-                // respective position of the output array.
-                int index = chosen.length - 1;
-                while (index >= 0)
-                {
-                    if (chosen[index] < input.size() - 1)
-                    {
-                        chosen[index]++;
-                        return;
-                    }
-                    chosen[index] = 0;
-                    index--;
-                }
-            }
- 
             @Override
             public void remove()
             {
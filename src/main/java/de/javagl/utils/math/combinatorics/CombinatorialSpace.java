@@ -0,0 +1,170 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+
+/**
+ * Interface for the combinatorial structures in this package. A 
+ * combinatorial space is an iterable over lists of elements that
+ * additionally offers random access to its elements via their rank,
+ * in the order in which they are provided by the iterator. <br />
+ * <br />
+ * Each element of the space is described by an index tuple, as 
+ * defined in the {@link IndexSpace} interface. Tools that work on
+ * arbitrary spaces (for example, for processing the elements in 
+ * parallel, or for splitting the space into parts) may operate on 
+ * the index tuples, and only create the lists of elements with 
+ * {@link #select(int[])} when they are actually needed.
+ * 
+ * @param <T> The type of the elements
+ */
+public interface CombinatorialSpace<T> extends Iterable<List<T>>, IndexSpace
+{
+    /**
+     * Returns the element with the given rank. 
+     * 
+     * @param rank The rank of the element
+     * @return The element
+     * @throws IndexOutOfBoundsException If the rank is negative or 
+     * not smaller than {@link #size()}
+     */
+    List<T> get(long rank);
+    
+    /**
+     * Returns the rank of the given element. If the given list is 
+     * not an element of this space, then -1 is returned. If the 
+     * input contains duplicate elements, so that the given list 
+     * appears multiple times in this space, then the rank of one
+     * of these occurrences is returned.
+     * 
+     * @param element The element
+     * @return The rank, or -1 
+     */
+    long rank(List<?> element);
+    
+    /**
+     * Creates the element that is described by the given index tuple.
+     * The given tuple must be a valid index tuple of this space.
+     * 
+     * @param tuple The index tuple
+     * @return The element
+     */
+    List<T> select(int tuple[]);
+    
+    /**
+     * Returns an iterator over the elements whose rank is in the 
+     * given range. 
+     * 
+     * @param fromRank The minimum rank, inclusive
+     * @param toRank The maximum rank, exclusive
+     * @return The iterator
+     * @throws IndexOutOfBoundsException If the ranks are negative,
+     * larger than {@link #size()}, or fromRank is larger than toRank
+     */
+    Iterator<List<T>> iterator(long fromRank, long toRank);
+    
+    /**
+     * Returns an iterator over all elements of this space that returns 
+     * the same list in each call to <code>next</code>. <br />
+     * <br />
+     * The list is an unmodifiable view on the input elements, which 
+     * changes when the iterator is advanced. It is only valid until 
+     * the next call to <code>next</code>, and may not be stored. This 
+     * avoids creating a new list for each element, and is intended 
+     * for consumers that only read each element once.
+     * 
+     * @return The iterator
+     */
+    Iterator<List<T>> flyweightIterator();
+    
+    /**
+     * Returns an iterator over all elements of this space that returns
+     * unmodifiable views on the input elements. <br />
+     * <br />
+     * Each list only consists of a copy of the index tuple and a 
+     * reference to the input, and remains valid after the iterator
+     * is advanced. Changes in the input are visible in the lists. 
+     * 
+     * @return The iterator
+     */
+    Iterator<List<T>> viewIterator();
+    
+    /**
+     * Returns an iterable over one shard of this space. The space is
+     * divided into the given number of contiguous ranges of ranks, 
+     * whose sizes differ by at most one. The returned iterable provides
+     * the elements of the range with the given index. The shards of 
+     * all indices together cover the space exactly once. <br />
+     * <br />
+     * The iterable only computes the elements of the shard, so that
+     * it can be used for distributing the enumeration of the space
+     * among independent processes. 
+     * 
+     * @param shardIndex The index of the shard
+     * @param shardCount The number of shards
+     * @return The iterable
+     * @throws IllegalArgumentException If the shard count is not 
+     * positive, or the shard index is negative or not smaller than 
+     * the shard count
+     */
+    Iterable<List<T>> shard(int shardIndex, int shardCount);
+    
+    /**
+     * Returns an iterable over one shard of this space, using a 
+     * block-cyclic distribution. The space is divided into blocks 
+     * of the given size, and the blocks are assigned to the shards 
+     * in a round-robin fashion. The returned iterable provides the 
+     * elements of all blocks whose index modulo the shard count is 
+     * the given shard index. <br />
+     * <br />
+     * In contrast to {@link #shard(int, int)}, this interleaves the
+     * shards, which may help to balance the load when the cost of 
+     * processing the elements depends on their rank.
+     * 
+     * @param shardIndex The index of the shard
+     * @param shardCount The number of shards
+     * @param blockSize The size of the blocks
+     * @return The iterable
+     * @throws IllegalArgumentException If the shard count or the block
+     * size is not positive, or the shard index is negative or not 
+     * smaller than the shard count
+     */
+    Iterable<List<T>> shard(int shardIndex, int shardCount, long blockSize);
+    
+    /**
+     * Returns a spliterator over the elements of this space. The 
+     * spliterator is splitting the space into ranges of ranks. 
+     * 
+     * @return The spliterator
+     */
+    @Override
+    Spliterator<List<T>> spliterator();
+}
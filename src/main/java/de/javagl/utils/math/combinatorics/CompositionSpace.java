@@ -0,0 +1,415 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@link CombinatorialSpace} that is the dependent composition of 
+ * an outer space and a function that creates an inner space for each
+ * element of the outer space. The elements of this space are the 
+ * elements of all inner spaces, in the order of the outer elements 
+ * that they have been created from. Example:<br />
+ * <pre>
+ * outer = choices of 2 from { A,B,C } : [A, B], [A, C], [B, C]
+ * inner = outer element -&gt; permutations of the outer element
+ * 
+ * Composition:
+ * [A, B]
+ * [B, A]
+ * [A, C]
+ * [C, A]
+ * [B, C]
+ * [C, B]
+ * </pre>
+ * 
+ * All inner spaces must have the same size and the same tuple length,
+ * and their index bound must not be larger than the one of the inner 
+ * space for the first outer element. The rank of an element is then 
+ * the rank of the outer element, multiplied with the inner size, plus 
+ * the rank of the element in the inner space. The index tuples are 
+ * the concatenations of the index tuples of the outer and the inner
+ * elements. <br />
+ * <br />
+ * The inner spaces are not stored in this space: They are created by 
+ * applying the function whenever they are needed. The iterators, the
+ * spliterators, the shards and the view iterators of this space keep 
+ * the inner space for the current outer element, and only create a 
+ * new one when the outer element changes. But the methods of the 
+ * {@link IndexSpace} interface, like {@link #nextTuple(int[])}, and 
+ * {@link #select(int[])} create the inner space in each call, so the
+ * function should be cheap when they are used directly. The outer 
+ * space must not be modified while this space is in use. Since the 
+ * outer element can not be derived from an inner element, 
+ * {@link #rank(List)} searches all inner spaces, and should only be 
+ * used for small outer spaces.
+ * 
+ * @param <S> The type of the elements of the outer space
+ * @param <T> The type of the elements
+ */
+public final class CompositionSpace<S, T> extends AbstractCombinatorialSpace<T>
+{
+    /**
+     * The outer space
+     */
+    private final CombinatorialSpace<S> outer;
+    
+    /**
+     * The function that creates the inner spaces
+     */
+    private final Function<? super List<S>, 
+        ? extends CombinatorialSpace<? extends T>> function;
+    
+    /**
+     * The tuple length of the outer space
+     */
+    private final int outerLength;
+    
+    /**
+     * The size of each inner space
+     */
+    private final long innerSize;
+    
+    /**
+     * The tuple length of each inner space
+     */
+    private final int innerLength;
+    
+    /**
+     * The maximum of the index bounds of the outer and the inner space
+     */
+    private final int indexBound;
+    
+    /**
+     * The total number of elements
+     */
+    private final long numElements;
+    
+    /**
+     * Creates the composition of the given outer space and the inner 
+     * spaces that are created by the given function
+     * 
+     * @param outer The outer space
+     * @param function The function that creates the inner space for
+     * an element of the outer space
+     * @throws ArithmeticException If the number of elements does 
+     * not fit into a <code>long</code>
+     */
+    public CompositionSpace(CombinatorialSpace<S> outer, 
+        Function<? super List<S>, 
+            ? extends CombinatorialSpace<? extends T>> function)
+    {
+        this.outer = outer;
+        this.function = function;
+        this.outerLength = outer.getTupleLength();
+        if (outer.size() > 0)
+        {
+            CombinatorialSpace<? extends T> inner = 
+                function.apply(outer.get(0));
+            this.innerSize = inner.size();
+            this.innerLength = inner.getTupleLength();
+            this.indexBound = 
+                Math.max(outer.getIndexBound(), inner.getIndexBound());
+        }
+        else
+        {
+            this.innerSize = 0;
+            this.innerLength = 0;
+            this.indexBound = outer.getIndexBound();
+        }
+        this.numElements = Math.multiplyExact(outer.size(), innerSize);
+    }
+    
+    /**
+     * Creates the inner space for the outer element that is described 
+     * by the first entries of the given index tuple
+     * 
+     * @param tuple The index tuple
+     * @return The inner space
+     * @throws IllegalArgumentException If the inner space does not have
+     * the same size and tuple length as the first inner space
+     */
+    private CombinatorialSpace<? extends T> createInner(int tuple[])
+    {
+        int outerTuple[] = Arrays.copyOf(tuple, outerLength);
+        CombinatorialSpace<? extends T> inner = 
+            function.apply(outer.select(outerTuple));
+        if (inner.size() != innerSize || 
+            inner.getTupleLength() != innerLength)
+        {
+            throw new IllegalArgumentException(
+                "The inner space for " + Arrays.toString(outerTuple) + 
+                " has " + inner.size() + " elements and a tuple length " + 
+                "of " + inner.getTupleLength() + ", expected " + 
+                innerSize + " and " + innerLength);
+        }
+        return inner;
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return outerLength + innerLength;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return indexBound;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numElements);
+        outer.unrank(rank / innerSize, tuple);
+        unrankInner(rank % innerSize, tuple);
+    }
+    
+    /**
+     * Writes the index tuple of the element with the given rank in the
+     * inner space into the given tuple, after the outer index tuple 
+     * that it already contains
+     * 
+     * @param innerRank The rank in the inner space
+     * @param tuple The index tuple
+     */
+    private void unrankInner(long innerRank, int tuple[])
+    {
+        int innerTuple[] = new int[innerLength];
+        createInner(tuple).unrank(innerRank, innerTuple);
+        System.arraycopy(innerTuple, 0, tuple, outerLength, innerLength);
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        int innerTuple[] = Arrays.copyOfRange(
+            tuple, outerLength, outerLength + innerLength);
+        long innerRank = createInner(tuple).rank(innerTuple);
+        return outer.rank(tuple) * innerSize + innerRank;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        int innerTuple[] = Arrays.copyOfRange(
+            tuple, outerLength, outerLength + innerLength);
+        if (createInner(tuple).nextTuple(innerTuple))
+        {
+            System.arraycopy(innerTuple, 0, tuple, outerLength, innerLength);
+            return true;
+        }
+        if (!outer.nextTuple(tuple))
+        {
+            return false;
+        }
+        unrankInner(0, tuple);
+        return true;
+    }
+    
+    @Override
+    public List<T> select(int tuple[])
+    {
+        int innerTuple[] = Arrays.copyOfRange(
+            tuple, outerLength, outerLength + innerLength);
+        return new ArrayList<T>(createInner(tuple).select(innerTuple));
+    }
+    
+    /**
+     * {@inheritDoc} <br />
+     * <br />
+     * The cursor stores the inner space for the current outer element,
+     * and only creates a new inner space when the outer element changes.
+     */
+    @Override
+    TupleCursor<T> cursor()
+    {
+        return new TupleCursor<T>()
+        {
+            /**
+             * The cursor for the outer space
+             */
+            private final TupleCursor<S> outerCursor = cursorOf(outer);
+            
+            /**
+             * The outer part of the tuple that the inner space was
+             * created for
+             */
+            private final int outerTuple[] = new int[outerLength];
+            
+            /**
+             * The inner part of the tuple
+             */
+            private final int innerTuple[] = new int[innerLength];
+            
+            /**
+             * The cursor for the inner space, or <code>null</code> if it
+             * was not created yet
+             */
+            private TupleCursor<? extends T> innerCursor;
+            
+            /**
+             * Create the inner space and its cursor for the outer part 
+             * of the given tuple, if it differs from the outer part that
+             * the current inner space was created for, and store the
+             * inner part of the given tuple
+             * 
+             * @param tuple The tuple
+             */
+            private void prepare(int tuple[])
+            {
+                boolean changed = innerCursor == null;
+                for (int i = 0; i < outerLength && !changed; i++)
+                {
+                    changed = tuple[i] != outerTuple[i];
+                }
+                if (changed)
+                {
+                    System.arraycopy(tuple, 0, outerTuple, 0, outerLength);
+                    innerCursor = cursorOf(createInner(tuple));
+                }
+                System.arraycopy(tuple, outerLength, innerTuple, 0, 
+                    innerLength);
+            }
+            
+            @Override
+            public void unrank(long rank, int tuple[])
+            {
+                Utils.checkRank(rank, numElements);
+                outerCursor.unrank(rank / innerSize, tuple);
+                prepare(tuple);
+                innerCursor.unrank(rank % innerSize, innerTuple);
+                System.arraycopy(
+                    innerTuple, 0, tuple, outerLength, innerLength);
+            }
+
+            @Override
+            public boolean nextTuple(int tuple[])
+            {
+                prepare(tuple);
+                if (!innerCursor.nextTuple(innerTuple))
+                {
+                    if (!outerCursor.nextTuple(tuple))
+                    {
+                        return false;
+                    }
+                    prepare(tuple);
+                    innerCursor.unrank(0, innerTuple);
+                }
+                System.arraycopy(
+                    innerTuple, 0, tuple, outerLength, innerLength);
+                return true;
+            }
+
+            @Override
+            public List<T> select(int tuple[])
+            {
+                prepare(tuple);
+                return new ArrayList<T>(innerCursor.select(innerTuple));
+            }
+        };
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        final int outerTuple[] = new int[outerLength];
+        final int innerTuple[] = new int[innerLength];
+        return new TupleView<T>()
+        {
+            /**
+             * The view of the inner space for the outer tuple, or 
+             * <code>null</code> if it was not created yet
+             */
+            private List<? extends T> inner;
+            
+            @Override
+            void update()
+            {
+                // The inner space is only created when the outer part 
+                // of the tuple changed
+                boolean changed = inner == null;
+                for (int i = 0; i < outerLength && !changed; i++)
+                {
+                    changed = tuple[i] != outerTuple[i];
+                }
+                if (changed)
+                {
+                    System.arraycopy(tuple, 0, outerTuple, 0, outerLength);
+                    inner = viewOf(createInner(tuple), innerTuple);
+                }
+                System.arraycopy(tuple, outerLength, innerTuple, 0, 
+                    innerLength);
+                updateView(inner);
+            }
+            
+            @Override
+            public T get(int index)
+            {
+                return inner.get(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return inner.size();
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        int innerTuple[] = new int[innerLength];
+        outer.unrank(0, tuple);
+        do
+        {
+            CombinatorialSpace<? extends T> inner = createInner(tuple);
+            long innerRank = inner.rank(element);
+            if (innerRank >= 0)
+            {
+                inner.unrank(innerRank, innerTuple);
+                System.arraycopy(
+                    innerTuple, 0, tuple, outerLength, innerLength);
+                return true;
+            }
+        }
+        while (outer.nextTuple(tuple));
+        return false;
+    }
+}
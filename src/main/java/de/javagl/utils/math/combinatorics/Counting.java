@@ -0,0 +1,936 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Methods for computing the exact number of elements of combinatorial
+ * structures. <br />
+ * <br />
+ * The methods that return a <code>long</code> value are the fast path:
+ * They compute the result without creating any <code>BigInteger</code>
+ * objects, and throw an <code>ArithmeticException</code> if the result 
+ * does not fit into a <code>long</code>. The methods with the suffix 
+ * <code>Big</code> compute the same values as <code>BigInteger</code> 
+ * objects, and may be used when the results are large. <br />
+ * <br />
+ * Binomial coefficients for small values of n are looked up in a 
+ * Pascal triangle that is built lazily and shared among all threads. 
+ */
+public final class Counting
+{
+    /**
+     * The maximum number of rows of the cached Pascal triangle
+     */
+    private static final int MAX_PASCAL_ROWS = 128;
+    
+    /**
+     * The value that is stored in the Pascal triangle for entries
+     * that do not fit into a <code>long</code>
+     */
+    private static final long OVERFLOW = -1;
+    
+    /**
+     * The cached rows of the Pascal triangle. This array is only 
+     * replaced by a longer copy, and the rows are never modified
+     * after they have been published.
+     */
+    private static volatile long pascalRows[][] = new long[][] { { 1 } };
+    
+    /**
+     * The largest n for which n! fits into a <code>long</code>
+     */
+    private static final int MAX_LONG_FACTORIAL = 20;
+    
+    /**
+     * Returns the cached Pascal triangle, making sure that it contains
+     * the row with the given index
+     * 
+     * @param n The index of the row, smaller than {@link #MAX_PASCAL_ROWS}
+     * @return The Pascal triangle
+     */
+    private static long[][] getPascalRows(int n)
+    {
+        long rows[][] = pascalRows;
+        if (n < rows.length)
+        {
+            return rows;
+        }
+        synchronized (Counting.class)
+        {
+            rows = pascalRows;
+            if (n < rows.length)
+            {
+                return rows;
+            }
+            int newLength = Math.min(MAX_PASCAL_ROWS, 
+                Math.max(n + 1, rows.length * 2));
+            long newRows[][] = Arrays.copyOf(rows, newLength);
+            for (int i = rows.length; i < newLength; i++)
+            {
+                long previous[] = newRows[i - 1];
+                long row[] = new long[i + 1];
+                row[0] = 1;
+                row[i] = 1;
+                for (int j = 1; j < i; j++)
+                {
+                    long a = previous[j - 1];
+                    long b = previous[j];
+                    long sum = a + b;
+                    if (a == OVERFLOW || b == OVERFLOW || sum < 0)
+                    {
+                        sum = OVERFLOW;
+                    }
+                    row[j] = sum;
+                }
+                newRows[i] = row;
+            }
+            pascalRows = newRows;
+            return newRows;
+        }
+    }
+    
+    /**
+     * Computes the binomial coefficient n!/(k!*(n-k)!), which is the 
+     * number of ways of choosing k elements from a set of n elements.
+     * If k is negative or larger than n, then 0 is returned.
+     * 
+     * @param n The size of the set
+     * @param k The number of elements to choose
+     * @return The binomial coefficient
+     * @throws IllegalArgumentException If n is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long binomial(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        if (k < 0 || k > n)
+        {
+            return 0;
+        }
+        k = Math.min(k, n - k);
+        if (n < MAX_PASCAL_ROWS)
+        {
+            long value = getPascalRows(n)[n][k];
+            if (value == OVERFLOW)
+            {
+                throw new ArithmeticException(
+                    "Binomial coefficient (" + n + " over " + k + 
+                    ") does not fit into a long");
+            }
+            return value;
+        }
+        
+        // Compute C(n-k+i, i) from C(n-k+i-1, i-1) for i=1...k. 
+        // In each step, the division is exact. Dividing the 
+        // previous result by the GCD first avoids overflows of 
+        // intermediate results that are larger than the result.
+        long result = 1;
+        for (int i = 1; i <= k; i++)
+        {
+            long g = gcd(result, i);
+            long factor = (n - k + i) / (i / g);
+            result = multiply(result / g, factor, "binomial", n, k);
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the binomial coefficient n!/(k!*(n-k)!), which is the 
+     * number of ways of choosing k elements from a set of n elements.
+     * If k is negative or larger than n, then 0 is returned.
+     * 
+     * @param n The size of the set
+     * @param k The number of elements to choose
+     * @return The binomial coefficient
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static BigInteger binomialBig(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        if (k < 0 || k > n)
+        {
+            return BigInteger.ZERO;
+        }
+        k = Math.min(k, n - k);
+        if (n < MAX_PASCAL_ROWS)
+        {
+            long value = getPascalRows(n)[n][k];
+            if (value != OVERFLOW)
+            {
+                return BigInteger.valueOf(value);
+            }
+        }
+        return product(n - k + 1, n).divide(factorialBig(k));
+    }
+    
+    /**
+     * Computes the multinomial coefficient (k0+k1+...)!/(k0!*k1!*...),
+     * which is the number of distinct sequences that can be formed 
+     * from k0 copies of the first element, k1 copies of the second 
+     * element and so on.
+     * 
+     * @param counts The counts k0, k1, ... 
+     * @return The multinomial coefficient
+     * @throws IllegalArgumentException If any count is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long multinomial(int ... counts)
+    {
+        // The multinomial coefficient is the product of the 
+        // binomial coefficients C(k0+...+ki, ki)
+        long result = 1;
+        int sum = 0;
+        for (int count : counts)
+        {
+            checkNonNegative(count, "count");
+            sum = Math.addExact(sum, count);
+            result = multiply(result, binomial(sum, count), 
+                "multinomial", sum, count);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the multinomial coefficient (k0+k1+...)!/(k0!*k1!*...),
+     * which is the number of distinct sequences that can be formed 
+     * from k0 copies of the first element, k1 copies of the second 
+     * element and so on.
+     * 
+     * @param counts The counts k0, k1, ... 
+     * @return The multinomial coefficient
+     * @throws IllegalArgumentException If any count is negative
+     */
+    public static BigInteger multinomialBig(int ... counts)
+    {
+        BigInteger result = BigInteger.ONE;
+        int sum = 0;
+        for (int count : counts)
+        {
+            checkNonNegative(count, "count");
+            sum = Math.addExact(sum, count);
+            result = result.multiply(binomialBig(sum, count));
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the falling factorial n*(n-1)*...*(n-k+1) = n!/(n-k)!, 
+     * which is the number of sequences of k distinct elements that
+     * can be taken from a set of n elements. If k is larger than n, 
+     * then 0 is returned.
+     * 
+     * @param n The size of the set
+     * @param k The length of the sequences
+     * @return The falling factorial
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long fallingFactorial(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return 0;
+        }
+        long result = 1;
+        for (int i = n - k + 1; i <= n; i++)
+        {
+            result = multiply(result, i, "falling factorial", n, k);
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the falling factorial n*(n-1)*...*(n-k+1) = n!/(n-k)!, 
+     * which is the number of sequences of k distinct elements that
+     * can be taken from a set of n elements. If k is larger than n, 
+     * then 0 is returned.
+     * 
+     * @param n The size of the set
+     * @param k The length of the sequences
+     * @return The falling factorial
+     * @throws IllegalArgumentException If n or k is negative
+     */
+    public static BigInteger fallingFactorialBig(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return BigInteger.ZERO;
+        }
+        return product(n - k + 1, n);
+    }
+    
+    /**
+     * Computes the factorial n!, which is the number of permutations
+     * of a set of n elements.
+     * 
+     * @param n The size of the set
+     * @return The factorial
+     * @throws IllegalArgumentException If n is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>, which is the case for n &gt; 20
+     */
+    public static long factorial(int n)
+    {
+        checkNonNegative(n, "n");
+        if (n > MAX_LONG_FACTORIAL)
+        {
+            throw new ArithmeticException(
+                "Factorial of " + n + " does not fit into a long");
+        }
+        long result = 1;
+        for (int i = 2; i <= n; i++)
+        {
+            result *= i;
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the factorial n!, which is the number of permutations
+     * of a set of n elements. <br />
+     * <br />
+     * For large values of n, the product is computed by recursively
+     * splitting the range of factors into halves. This causes the 
+     * multiplications to be done with operands of similar size, which 
+     * is considerably faster than multiplying the factors one by one.
+     * 
+     * @param n The size of the set
+     * @return The factorial
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static BigInteger factorialBig(int n)
+    {
+        checkNonNegative(n, "n");
+        if (n <= MAX_LONG_FACTORIAL)
+        {
+            return BigInteger.valueOf(factorial(n));
+        }
+        return product(2, n);
+    }
+    
+    /**
+     * Computes the power n^k, which is the number of sequences of 
+     * length k of elements from a set of n elements, when elements
+     * may be repeated.
+     * 
+     * @param n The base
+     * @param k The exponent
+     * @return The power
+     * @throws IllegalArgumentException If k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long power(int n, int k)
+    {
+        checkNonNegative(k, "k");
+        if (n == 0)
+        {
+            return k == 0 ? 1 : 0;
+        }
+        if (n == 1)
+        {
+            return 1;
+        }
+        if (n == -1)
+        {
+            return (k & 1) == 0 ? 1 : -1;
+        }
+        
+        // For |n| > 1, this will overflow after at most 63 steps
+        long result = 1;
+        for (int i = 0; i < k; i++)
+        {
+            result = multiply(result, n, "power", n, k);
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the power n^k, which is the number of sequences of 
+     * length k of elements from a set of n elements, when elements
+     * may be repeated.
+     * 
+     * @param n The base
+     * @param k The exponent
+     * @return The power
+     * @throws IllegalArgumentException If k is negative
+     */
+    public static BigInteger powerBig(int n, int k)
+    {
+        checkNonNegative(k, "k");
+        return BigInteger.valueOf(n).pow(k);
+    }
+    
+    /**
+     * Computes the Catalan number C(n) = (2n)!/((n+1)!*n!). This is, 
+     * for example, the number of ways of correctly matching n pairs
+     * of parentheses.
+     * 
+     * @param n The argument
+     * @return The Catalan number
+     * @throws IllegalArgumentException If n is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long catalan(int n)
+    {
+        checkNonNegative(n, "n");
+        
+        // Compute C(i+1) = C(i) * (4i+2) / (i+2), where the division
+        // is exact, and dividing by the GCD first avoids overflows
+        // of the intermediate results
+        long result = 1;
+        for (int i = 0; i < n; i++)
+        {
+            long divisor = i + 2;
+            long g = gcd(result, divisor);
+            long factor = (4L * i + 2) / (divisor / g);
+            result = multiply(result / g, factor, "catalan", n, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the Catalan number C(n) = (2n)!/((n+1)!*n!). This is, 
+     * for example, the number of ways of correctly matching n pairs
+     * of parentheses.
+     * 
+     * @param n The argument
+     * @return The Catalan number
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static BigInteger catalanBig(int n)
+    {
+        checkNonNegative(n, "n");
+        return binomialBig(2 * n, n).divide(BigInteger.valueOf(n + 1));
+    }
+    
+    /**
+     * Computes the unsigned Stirling number of the first kind, which 
+     * is the number of permutations of n elements that consist of 
+     * exactly k cycles.
+     * 
+     * @param n The number of elements
+     * @param k The number of cycles
+     * @return The Stirling number
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long stirling1(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return 0;
+        }
+        
+        // Uses the recurrence c(i,j) = (i-1)*c(i-1,j) + c(i-1,j-1).
+        // Only the entries that contribute to c(n,k) are computed. 
+        // These are not larger than c(n,k), so none of the 
+        // computations will overflow unless the result does. 
+        long row[] = new long[k + 1];
+        row[0] = 1;
+        for (int i = 1; i <= n; i++)
+        {
+            int minJ = Math.max(1, k - (n - i));
+            int maxJ = Math.min(i, k);
+            for (int j = maxJ; j >= minJ; j--)
+            {
+                long a = multiply(i - 1, row[j], "stirling1", n, k);
+                row[j] = add(a, row[j - 1], "stirling1", n, k);
+            }
+            row[0] = 0;
+        }
+        return row[k];
+    }
+    
+    /**
+     * Computes the unsigned Stirling number of the first kind, which 
+     * is the number of permutations of n elements that consist of 
+     * exactly k cycles.
+     * 
+     * @param n The number of elements
+     * @param k The number of cycles
+     * @return The Stirling number
+     * @throws IllegalArgumentException If n or k is negative
+     */
+    public static BigInteger stirling1Big(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return BigInteger.ZERO;
+        }
+        BigInteger row[] = new BigInteger[k + 1];
+        Arrays.fill(row, BigInteger.ZERO);
+        row[0] = BigInteger.ONE;
+        for (int i = 1; i <= n; i++)
+        {
+            BigInteger factor = BigInteger.valueOf(i - 1);
+            for (int j = Math.min(i, k); j >= 1; j--)
+            {
+                row[j] = row[j].multiply(factor).add(row[j - 1]);
+            }
+            row[0] = BigInteger.ZERO;
+        }
+        return row[k];
+    }
+
+    /**
+     * Computes the Stirling number of the second kind, which is the 
+     * number of ways of partitioning a set of n elements into exactly
+     * k non-empty subsets.
+     * 
+     * @param n The number of elements
+     * @param k The number of subsets
+     * @return The Stirling number
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long stirling2(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return 0;
+        }
+        
+        // Uses the recurrence S(i,j) = j*S(i-1,j) + S(i-1,j-1).
+        // Only the entries that contribute to S(n,k) are computed. 
+        // These are not larger than S(n,k), so none of the 
+        // computations will overflow unless the result does. 
+        long row[] = new long[k + 1];
+        row[0] = 1;
+        for (int i = 1; i <= n; i++)
+        {
+            int minJ = Math.max(1, k - (n - i));
+            int maxJ = Math.min(i, k);
+            for (int j = maxJ; j >= minJ; j--)
+            {
+                long a = multiply(j, row[j], "stirling2", n, k);
+                row[j] = add(a, row[j - 1], "stirling2", n, k);
+            }
+            row[0] = 0;
+        }
+        return row[k];
+    }
+    
+    /**
+     * Computes the Stirling number of the second kind, which is the 
+     * number of ways of partitioning a set of n elements into exactly
+     * k non-empty subsets.
+     * 
+     * @param n The number of elements
+     * @param k The number of subsets
+     * @return The Stirling number
+     * @throws IllegalArgumentException If n or k is negative
+     */
+    public static BigInteger stirling2Big(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k > n)
+        {
+            return BigInteger.ZERO;
+        }
+        BigInteger row[] = new BigInteger[k + 1];
+        Arrays.fill(row, BigInteger.ZERO);
+        row[0] = BigInteger.ONE;
+        for (int i = 1; i <= n; i++)
+        {
+            for (int j = Math.min(i, k); j >= 1; j--)
+            {
+                row[j] = row[j].multiply(
+                    BigInteger.valueOf(j)).add(row[j - 1]);
+            }
+            row[0] = BigInteger.ZERO;
+        }
+        return row[k];
+    }
+    
+    /**
+     * Computes the Bell number B(n), which is the number of ways of
+     * partitioning a set of n elements into non-empty subsets. 
+     * 
+     * @param n The number of elements
+     * @return The Bell number
+     * @throws IllegalArgumentException If n is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>, which is the case for n &gt; 25
+     */
+    public static long bell(int n)
+    {
+        checkNonNegative(n, "n");
+        
+        // Uses the Bell triangle, where B(n) is the last entry of 
+        // row n-1. The entries of the rows that are computed are
+        // not larger than the result.
+        if (n == 0)
+        {
+            return 1;
+        }
+        long row[] = new long[n];
+        row[0] = 1;
+        for (int i = 1; i < n; i++)
+        {
+            long last = row[i - 1];
+            for (int j = i; j >= 1; j--)
+            {
+                row[j] = row[j - 1];
+            }
+            row[0] = last;
+            for (int j = 1; j <= i; j++)
+            {
+                row[j] = add(row[j - 1], row[j], "bell", n, 0);
+            }
+        }
+        return row[n - 1];
+    }
+
+    /**
+     * Computes the Bell number B(n), which is the number of ways of
+     * partitioning a set of n elements into non-empty subsets. 
+     * 
+     * @param n The number of elements
+     * @return The Bell number
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static BigInteger bellBig(int n)
+    {
+        checkNonNegative(n, "n");
+        BigInteger row[] = new BigInteger[n + 1];
+        row[0] = BigInteger.ONE;
+        for (int i = 1; i <= n; i++)
+        {
+            BigInteger last = row[i - 1];
+            for (int j = i; j >= 1; j--)
+            {
+                row[j] = row[j - 1];
+            }
+            row[0] = last;
+            for (int j = 1; j <= i; j++)
+            {
+                row[j] = row[j - 1].add(row[j]);
+            }
+        }
+        return row[0];
+    }
+    
+    /**
+     * Computes the number of necklaces of length k over an alphabet
+     * of n symbols, which is the number of equivalence classes of the 
+     * n<sup>k</sup> words of length k under rotation. 
+     * 
+     * @param n The number of symbols
+     * @param k The length of the necklaces
+     * @return The number of necklaces
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long necklaces(int n, int k)
+    {
+        return toLong(necklacesBig(n, k), "necklaces", n, k);
+    }
+    
+    /**
+     * Computes the number of necklaces of length k over an alphabet
+     * of n symbols, which is the number of equivalence classes of the 
+     * n<sup>k</sup> words of length k under rotation. 
+     * 
+     * @param n The number of symbols
+     * @param k The length of the necklaces
+     * @return The number of necklaces
+     * @throws IllegalArgumentException If n or k is negative
+     */
+    public static BigInteger necklacesBig(int n, int k)
+    {
+        checkNonNegative(n, "n");
+        checkNonNegative(k, "k");
+        if (k == 0)
+        {
+            return BigInteger.ONE;
+        }
+        
+        // By Burnside's lemma, this is (1/k) * sum(phi(d) * n^(k/d))
+        // over all divisors d of k
+        BigInteger sum = BigInteger.ZERO;
+        for (int d = 1; d <= k; d++)
+        {
+            if (k % d == 0)
+            {
+                sum = sum.add(BigInteger.valueOf(totient(d)).multiply(
+                    BigInteger.valueOf(n).pow(k / d)));
+            }
+        }
+        return sum.divide(BigInteger.valueOf(k));
+    }
+    
+    /**
+     * Computes the number of bracelets of length k over an alphabet
+     * of n symbols, which is the number of equivalence classes of the 
+     * n<sup>k</sup> words of length k under rotation and reversal. 
+     * 
+     * @param n The number of symbols
+     * @param k The length of the bracelets
+     * @return The number of bracelets
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public static long bracelets(int n, int k)
+    {
+        return toLong(braceletsBig(n, k), "bracelets", n, k);
+    }
+    
+    /**
+     * Computes the number of bracelets of length k over an alphabet
+     * of n symbols, which is the number of equivalence classes of the 
+     * n<sup>k</sup> words of length k under rotation and reversal. 
+     * 
+     * @param n The number of symbols
+     * @param k The length of the bracelets
+     * @return The number of bracelets
+     * @throws IllegalArgumentException If n or k is negative
+     */
+    public static BigInteger braceletsBig(int n, int k)
+    {
+        BigInteger necklaces = necklacesBig(n, k);
+        if (k == 0)
+        {
+            return necklaces;
+        }
+        
+        // Burnside's lemma for the dihedral group: The k reflections 
+        // fix n^((k+1)/2) words each for odd k, and n^(k/2+1) or 
+        // n^(k/2) words for half of them each for even k
+        BigInteger bn = BigInteger.valueOf(n);
+        BigInteger reflections;
+        if (k % 2 == 1)
+        {
+            reflections = BigInteger.valueOf(k).multiply(
+                bn.pow((k + 1) / 2));
+        }
+        else
+        {
+            reflections = BigInteger.valueOf(k / 2).multiply(
+                bn.pow(k / 2 + 1).add(bn.pow(k / 2)));
+        }
+        BigInteger rotations = necklaces.multiply(BigInteger.valueOf(k));
+        return rotations.add(reflections).divide(
+            BigInteger.valueOf(2L * k));
+    }
+    
+    /**
+     * Computes Euler's totient function of the given positive number,
+     * which is the number of values in [1,n] that are coprime to n
+     * 
+     * @param n The number
+     * @return The totient
+     */
+    private static long totient(long n)
+    {
+        long result = n;
+        long remaining = n;
+        for (long p = 2; p * p <= remaining; p++)
+        {
+            if (remaining % p == 0)
+            {
+                while (remaining % p == 0)
+                {
+                    remaining /= p;
+                }
+                result -= result / p;
+            }
+        }
+        if (remaining > 1)
+        {
+            result -= result / remaining;
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the product of all numbers in the given range, by 
+     * recursively splitting the range into halves
+     * 
+     * @param min The minimum value, inclusive
+     * @param max The maximum value, inclusive
+     * @return The product
+     */
+    private static BigInteger product(long min, long max)
+    {
+        if (min > max)
+        {
+            return BigInteger.ONE;
+        }
+        if (max - min < 4)
+        {
+            BigInteger result = BigInteger.valueOf(min);
+            for (long i = min + 1; i <= max; i++)
+            {
+                result = result.multiply(BigInteger.valueOf(i));
+            }
+            return result;
+        }
+        long mid = (min + max) >>> 1;
+        return product(min, mid).multiply(product(mid + 1, max));
+    }
+    
+    /**
+     * Computes the greatest common divisor of the given non-negative 
+     * numbers
+     * 
+     * @param a The first number
+     * @param b The second number
+     * @return The greatest common divisor
+     */
+    private static long gcd(long a, long b)
+    {
+        while (b != 0)
+        {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+    
+    /**
+     * Multiplies the given numbers, throwing an ArithmeticException 
+     * that mentions the given function and arguments if the result 
+     * overflows
+     * 
+     * @param a The first factor
+     * @param b The second factor
+     * @param function The name of the function
+     * @param n The first argument of the function
+     * @param k The second argument of the function
+     * @return The product
+     */
+    private static long multiply(long a, long b, 
+        String function, int n, int k)
+    {
+        try
+        {
+            return Math.multiplyExact(a, b);
+        }
+        catch (ArithmeticException e)
+        {
+            throw new ArithmeticException(
+                "The " + function + " for " + n + " and " + k + 
+                " does not fit into a long");
+        }
+    }
+    
+    /**
+     * Adds the given numbers, throwing an ArithmeticException that 
+     * mentions the given function and arguments if the result 
+     * overflows
+     * 
+     * @param a The first summand
+     * @param b The second summand
+     * @param function The name of the function
+     * @param n The first argument of the function
+     * @param k The second argument of the function
+     * @return The sum
+     */
+    private static long add(long a, long b, 
+        String function, int n, int k)
+    {
+        long result = a + b;
+        if (((a ^ result) & (b ^ result)) < 0)
+        {
+            throw new ArithmeticException(
+                "The " + function + " for " + n + " and " + k + 
+                " does not fit into a long");
+        }
+        return result;
+    }
+    
+    /**
+     * Converts the given value into a <code>long</code>, throwing an 
+     * ArithmeticException that mentions the given function and 
+     * arguments if it does not fit
+     * 
+     * @param value The value
+     * @param function The name of the function
+     * @param n The first argument of the function
+     * @param k The second argument of the function
+     * @return The <code>long</code> value
+     */
+    static long toLong(BigInteger value, String function, int n, int k)
+    {
+        if (value.bitLength() >= Long.SIZE)
+        {
+            throw new ArithmeticException(
+                "The " + function + " for " + n + " and " + k + 
+                " does not fit into a long");
+        }
+        return value.longValue();
+    }
+    
+    /**
+     * Makes sure that the given value is not negative
+     * 
+     * @param value The value
+     * @param name The name of the value
+     * @throws IllegalArgumentException If the value is negative
+     */
+    private static void checkNonNegative(int value, String name)
+    {
+        if (value < 0)
+        {
+            throw new IllegalArgumentException(
+                "The " + name + " may not be negative, but is " + value);
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private Counting()
+    {
+        
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+/**
+ * Interface for classes that want to be informed about the progress 
+ * of an enumeration that is observed by an {@link EnumerationMonitor}.
+ * <br />
+ * <br />
+ * The listener may, for example, log the progress, or emit events
+ * for a profiler like the Java Flight Recorder. It is called by the 
+ * threads that perform the enumeration, and thus should return 
+ * quickly. When multiple threads are using the same monitor, the 
+ * listener may be called concurrently.
+ */
+public interface EnumerationListener
+{
+    /**
+     * Will be called when a batch of elements was processed
+     * 
+     * @param monitor The monitor. Its counters already include the
+     * given batch.
+     * @param count The number of elements in the batch
+     * @param generationNanos The time that was spent for generating 
+     * the elements of the batch, in nanoseconds
+     * @param consumerNanos The time that was spent by the consumer of
+     * the elements of the batch, in nanoseconds
+     */
+    void batchCompleted(EnumerationMonitor monitor, long count, 
+        long generationNanos, long consumerNanos);
+}
@@ -0,0 +1,455 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class for observing the progress of an enumeration. <br />
+ * <br />
+ * Iterators and iterables can be wrapped with the <code>monitor</code>
+ * methods of this class. The wrappers measure the time that is spent
+ * in the <code>next</code> method of the iterator (the generation 
+ * time), and the time that is spent between two calls to 
+ * <code>next</code> (the consumer time). The counters are updated 
+ * in batches, and the {@link EnumerationListener}s are informed about 
+ * each batch. <br />
+ * <br />
+ * Multiple iterators (for example, for different shards of a space
+ * that are processed by different threads) may report to the same 
+ * monitor. The counters of the monitor are thread-safe. <br />
+ * <br />
+ * The monitoring is optional: When the static 
+ * {@link #monitor(Iterable, EnumerationMonitor)} method receives a 
+ * <code>null</code> monitor, it returns the given iterable, so that 
+ * there is no overhead when the monitoring is disabled.
+ */
+public final class EnumerationMonitor
+{
+    /**
+     * The default batch size
+     */
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    
+    /**
+     * The total number of elements, or a negative value if it is unknown
+     */
+    private final long total;
+    
+    /**
+     * The number of elements after which the counters are updated
+     */
+    private final int batchSize;
+    
+    /**
+     * The number of elements that have been processed
+     */
+    private final LongAdder count;
+    
+    /**
+     * The time that was spent for generating the elements, in 
+     * nanoseconds
+     */
+    private final LongAdder generationNanos;
+    
+    /**
+     * The time that was spent by the consumers of the elements, in
+     * nanoseconds
+     */
+    private final LongAdder consumerNanos;
+    
+    /**
+     * The time when the first iterator was created, in nanoseconds,
+     * or <code>Long.MIN_VALUE</code> if no iterator was created yet
+     */
+    private final AtomicLong startNanos;
+    
+    /**
+     * The listeners
+     */
+    private final List<EnumerationListener> listeners;
+    
+    /**
+     * Creates a new monitor for an enumeration of the given number of
+     * elements, with a default batch size
+     * 
+     * @param total The total number of elements. A negative value
+     * indicates that the number is unknown.
+     */
+    public EnumerationMonitor(long total)
+    {
+        this(total, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Creates a new monitor for an enumeration of the given number of
+     * elements, with the given batch size
+     * 
+     * @param total The total number of elements. A negative value
+     * indicates that the number is unknown.
+     * @param batchSize The number of elements after which the counters
+     * are updated and the listeners are informed
+     * @throws IllegalArgumentException If the batch size is not positive
+     */
+    public EnumerationMonitor(long total, int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The batch size must be positive, but is " + batchSize);
+        }
+        this.total = total;
+        this.batchSize = batchSize;
+        this.count = new LongAdder();
+        this.generationNanos = new LongAdder();
+        this.consumerNanos = new LongAdder();
+        this.startNanos = new AtomicLong(Long.MIN_VALUE);
+        this.listeners = new CopyOnWriteArrayList<EnumerationListener>();
+    }
+    
+    /**
+     * Add the given listener to be informed about completed batches
+     * 
+     * @param listener The listener
+     */
+    public void addEnumerationListener(EnumerationListener listener)
+    {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Remove the given listener
+     * 
+     * @param listener The listener
+     */
+    public void removeEnumerationListener(EnumerationListener listener)
+    {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Returns an iterable that provides the same elements as the given 
+     * one, reporting the progress to the given monitor. If the given
+     * monitor is <code>null</code>, then the given iterable is returned.
+     * 
+     * @param <T> The type of the elements
+     * @param iterable The iterable
+     * @param monitor The monitor. May be <code>null</code>.
+     * @return The iterable
+     */
+    public static <T> Iterable<T> monitor(
+        Iterable<T> iterable, EnumerationMonitor monitor)
+    {
+        if (monitor == null)
+        {
+            return iterable;
+        }
+        return monitor.monitor(iterable);
+    }
+    
+    /**
+     * Returns an iterable whose iterators provide the same elements as
+     * the iterators of the given iterable, reporting the progress to 
+     * this monitor.
+     * 
+     * @param <T> The type of the elements
+     * @param iterable The iterable
+     * @return The iterable
+     */
+    public <T> Iterable<T> monitor(final Iterable<T> iterable)
+    {
+        return () -> monitor(iterable.iterator());
+    }
+    
+    /**
+     * Returns an iterator that provides the same elements as the given 
+     * one, reporting the progress to this monitor. <br />
+     * <br />
+     * The counters are updated after each batch of elements, and when
+     * <code>hasNext</code> returns <code>false</code>. If the iteration 
+     * is stopped before, then the elements of the last, incomplete 
+     * batch are not counted.
+     * 
+     * @param <T> The type of the elements
+     * @param iterator The iterator
+     * @return The iterator
+     */
+    public <T> Iterator<T> monitor(final Iterator<T> iterator)
+    {
+        startNanos.compareAndSet(Long.MIN_VALUE, System.nanoTime());
+        return new Iterator<T>()
+        {
+            /**
+             * The number of elements in the current batch
+             */
+            private long batchCount = 0;
+            
+            /**
+             * The generation time of the current batch
+             */
+            private long batchGenerationNanos = 0;
+            
+            /**
+             * The consumer time of the current batch
+             */
+            private long batchConsumerNanos = 0;
+            
+            /**
+             * The time when the last element was returned, or 
+             * <code>Long.MIN_VALUE</code> if no element was returned
+             * yet, or the end of the iteration was reached
+             */
+            private long returnNanos = Long.MIN_VALUE;
+            
+            @Override
+            public boolean hasNext()
+            {
+                boolean result = iterator.hasNext();
+                if (!result && returnNanos != Long.MIN_VALUE)
+                {
+                    batchConsumerNanos += System.nanoTime() - returnNanos;
+                    returnNanos = Long.MIN_VALUE;
+                    completeBatch();
+                }
+                return result;
+            }
+
+            @Override
+            public T next()
+            {
+                long before = System.nanoTime();
+                if (returnNanos != Long.MIN_VALUE)
+                {
+                    batchConsumerNanos += before - returnNanos;
+                }
+                T result = iterator.next();
+                long after = System.nanoTime();
+                batchGenerationNanos += after - before;
+                batchCount++;
+                returnNanos = after;
+                if (batchCount >= batchSize)
+                {
+                    completeBatch();
+                }
+                return result;
+            }
+            
+            /**
+             * Report the current batch to the monitor, and reset the
+             * batch counters
+             */
+            private void completeBatch()
+            {
+                record(batchCount, batchGenerationNanos, batchConsumerNanos);
+                batchCount = 0;
+                batchGenerationNanos = 0;
+                batchConsumerNanos = 0;
+            }
+            
+            @Override
+            public void remove()
+            {
+                iterator.remove();
+            }
+        };
+    }
+    
+    /**
+     * Record the given batch in this monitor, and inform all listeners.
+     * This may be used by enumerations that do not use an iterator, 
+     * but want to report their progress to this monitor.
+     * 
+     * @param batchCount The number of elements in the batch
+     * @param batchGenerationNanos The generation time, in nanoseconds
+     * @param batchConsumerNanos The consumer time, in nanoseconds
+     */
+    public void record(long batchCount, 
+        long batchGenerationNanos, long batchConsumerNanos)
+    {
+        startNanos.compareAndSet(Long.MIN_VALUE, System.nanoTime());
+        count.add(batchCount);
+        generationNanos.add(batchGenerationNanos);
+        consumerNanos.add(batchConsumerNanos);
+        for (EnumerationListener listener : listeners)
+        {
+            listener.batchCompleted(this, 
+                batchCount, batchGenerationNanos, batchConsumerNanos);
+        }
+    }
+    
+    /**
+     * Returns the total number of elements, or a negative value if it
+     * is unknown
+     * 
+     * @return The total number of elements
+     */
+    public long getTotal()
+    {
+        return total;
+    }
+    
+    /**
+     * Returns the number of elements that have been processed
+     * 
+     * @return The number of elements
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+    
+    /**
+     * Returns the fraction of the total number of elements that have
+     * been processed, as a value between 0.0 and 1.0, or 
+     * <code>NaN</code> if the total number is unknown
+     * 
+     * @return The progress
+     */
+    public double getProgress()
+    {
+        if (total < 0)
+        {
+            return Double.NaN;
+        }
+        if (total == 0)
+        {
+            return 1.0;
+        }
+        return Math.min(1.0, (double) getCount() / total);
+    }
+    
+    /**
+     * Returns the time since the first iterator was created, in 
+     * nanoseconds
+     * 
+     * @return The elapsed time
+     */
+    public long getElapsedNanos()
+    {
+        long start = startNanos.get();
+        if (start == Long.MIN_VALUE)
+        {
+            return 0;
+        }
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * Returns the number of elements that have been processed per 
+     * second, since the first iterator was created
+     * 
+     * @return The rate
+     */
+    public double getRate()
+    {
+        long elapsed = getElapsedNanos();
+        if (elapsed <= 0)
+        {
+            return 0.0;
+        }
+        return getCount() * 1e9 / elapsed;
+    }
+    
+    /**
+     * Returns the estimated time until all elements are processed, in
+     * nanoseconds, based on the current rate. Returns -1 if the total
+     * number of elements is unknown, or no elements have been 
+     * processed yet.
+     * 
+     * @return The estimated remaining time
+     */
+    public long getEstimatedRemainingNanos()
+    {
+        long processed = getCount();
+        if (total < 0 || processed <= 0)
+        {
+            return -1;
+        }
+        long remaining = Math.max(0, total - processed);
+        return (long) ((double) remaining / processed * getElapsedNanos());
+    }
+    
+    /**
+     * Returns the time that was spent for generating the elements, 
+     * summed over all iterators, in nanoseconds
+     * 
+     * @return The generation time
+     */
+    public long getGenerationNanos()
+    {
+        return generationNanos.sum();
+    }
+    
+    /**
+     * Returns the time that was spent by the consumers of the elements, 
+     * summed over all iterators, in nanoseconds
+     * 
+     * @return The consumer time
+     */
+    public long getConsumerNanos()
+    {
+        return consumerNanos.sum();
+    }
+    
+    @Override
+    public String toString()
+    {
+        long processed = getCount();
+        StringBuilder sb = new StringBuilder();
+        sb.append(processed);
+        if (total >= 0)
+        {
+            sb.append("/").append(total);
+            sb.append(String.format(Locale.ENGLISH, " (%.1f%%)", 
+                getProgress() * 100));
+        }
+        sb.append(String.format(Locale.ENGLISH, ", %.1f elements/s", 
+            getRate()));
+        long remaining = getEstimatedRemainingNanos();
+        if (remaining >= 0)
+        {
+            sb.append(", ETA ").append(
+                TimeUnit.NANOSECONDS.toSeconds(remaining)).append("s");
+        }
+        long generation = getGenerationNanos();
+        long consumer = getConsumerNanos();
+        if (generation + consumer > 0)
+        {
+            sb.append(String.format(Locale.ENGLISH, 
+                ", generation %.1f%%", 
+                100.0 * generation / (generation + consumer)));
+        }
+        return sb.toString();
+    }
+}
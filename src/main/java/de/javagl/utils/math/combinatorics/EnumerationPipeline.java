@@ -0,0 +1,710 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A pipeline that applies a function to all elements of a 
+ * {@link CombinatorialSpace}, and passes the results to a sink. This
+ * is intended for functions that may block, for example, due to I/O. 
+ * <br />
+ * <br />
+ * Generator threads split the space into batches of index tuples, and
+ * put them into a bounded queue. Consumer tasks take the batches from
+ * the queue, and apply the function to the elements. When the queue
+ * is full, the generators block until the consumers have taken
+ * batches from the queue. <br />
+ * <br />
+ * The consumer tasks are executed with an <code>Executor</code>. By 
+ * default, a new thread is created for each consumer task. When many
+ * consumers spend most of their time blocking, an executor that 
+ * creates virtual threads (Java 21 and above) may be used, for example
+ * <code>Executors.newVirtualThreadPerTaskExecutor()</code>. <br />
+ * <br />
+ * The sink is never called concurrently. If the pipeline is 
+ * {@link #setOrdered(boolean) ordered}, then the sink receives the 
+ * results in the order of the ranks of the elements. Otherwise, it
+ * receives them in the order in which the batches are completed. <br />
+ * <br />
+ * A pipeline may only be run once. The configuration methods must be
+ * called before it is run. 
+ * 
+ * @param <T> The type of the elements
+ * @param <R> The type of the results
+ */
+public final class EnumerationPipeline<T, R>
+{
+    /**
+     * A batch of index tuples
+     */
+    private static final class Batch
+    {
+        /**
+         * The index of the batch
+         */
+        final long index;
+        
+        /**
+         * The number of tuples in this batch
+         */
+        final int count;
+        
+        /**
+         * The tuples, stored consecutively
+         */
+        final int tuples[];
+        
+        /**
+         * Creates a new batch
+         * 
+         * @param index The index of the batch
+         * @param count The number of tuples
+         * @param tuples The tuples
+         */
+        Batch(long index, int count, int tuples[])
+        {
+            this.index = index;
+            this.count = count;
+            this.tuples = tuples;
+        }
+    }
+    
+    /**
+     * The marker that is put into the queue to signal the end of the 
+     * batches to the consumers
+     */
+    private static final Batch END = new Batch(-1, 0, null);
+    
+    /**
+     * The space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The function that is applied to the elements
+     */
+    private final Function<? super List<T>, ? extends R> function;
+    
+    /**
+     * The number of consumer tasks
+     */
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    
+    /**
+     * The number of generator threads
+     */
+    private int generatorCount = 1;
+    
+    /**
+     * The number of elements in each batch
+     */
+    private int batchSize = 256;
+    
+    /**
+     * The capacity of the queue, in batches
+     */
+    private int queueCapacity = 16;
+    
+    /**
+     * Whether the results are passed to the sink in the order of 
+     * the ranks
+     */
+    private boolean ordered = false;
+    
+    /**
+     * The executor for the consumer tasks. If this is <code>null</code>,
+     * then a new thread is created for each consumer task.
+     */
+    private Executor executor = null;
+    
+    /**
+     * Whether this pipeline was already started
+     */
+    private boolean started = false;
+    
+    /**
+     * Whether this pipeline was cancelled or failed
+     */
+    private volatile boolean cancelled = false;
+    
+    /**
+     * The first exception that was caused by the function or the sink
+     */
+    private final AtomicReference<Throwable> failure = 
+        new AtomicReference<Throwable>();
+    
+    /**
+     * The queue of batches
+     */
+    private BlockingQueue<Batch> queue;
+    
+    /**
+     * The number of elements that have been processed
+     */
+    private final LongAdder processedCount = new LongAdder();
+    
+    /**
+     * The maximum number of batches that have been in the queue
+     */
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    
+    /**
+     * The time when the pipeline was started, in nanoseconds
+     */
+    private volatile long startNs;
+    
+    /**
+     * The time when the pipeline was finished, in nanoseconds, or 0
+     * if it is not finished yet
+     */
+    private volatile long endNs;
+    
+    /**
+     * The lock for calling the sink
+     */
+    private final Object sinkLock = new Object();
+    
+    /**
+     * The results of batches that have been completed but not yet 
+     * passed to the sink, in ordered mode
+     */
+    private final Map<Long, List<R>> pendingResults = 
+        new HashMap<Long, List<R>>();
+    
+    /**
+     * The index of the next batch whose results should be passed to
+     * the sink, in ordered mode
+     */
+    private long nextBatchIndex = 0;
+    
+    /**
+     * The lock for waiting until the results of preceding batches have
+     * been passed to the sink, in ordered mode
+     */
+    private final Object windowLock = new Object();
+    
+    /**
+     * The number of batches whose results have been passed to the 
+     * sink, in ordered mode. Access is synchronized on the window lock.
+     */
+    private long deliveredBatchCount = 0;
+    
+    /**
+     * Creates a new pipeline that applies the given function to all
+     * elements of the given space
+     * 
+     * @param space The space
+     * @param function The function
+     */
+    public EnumerationPipeline(CombinatorialSpace<T> space, 
+        Function<? super List<T>, ? extends R> function)
+    {
+        this.space = space;
+        this.function = function;
+    }
+    
+    /**
+     * Set the number of consumer tasks that apply the function 
+     * concurrently. The default is the number of available processors.
+     * 
+     * @param concurrency The number of consumer tasks
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setConcurrency(int concurrency)
+    {
+        this.concurrency = checkPositive(concurrency, "concurrency");
+    }
+    
+    /**
+     * Set the number of generator threads. Each generator creates 
+     * the batches of a contiguous range of ranks. The default is 1.
+     * 
+     * @param generatorCount The number of generator threads
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setGeneratorCount(int generatorCount)
+    {
+        this.generatorCount = checkPositive(generatorCount, "generatorCount");
+    }
+    
+    /**
+     * Set the number of elements in each batch. The default is 256.
+     * 
+     * @param batchSize The batch size
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = checkPositive(batchSize, "batchSize");
+    }
+    
+    /**
+     * Set the maximum number of batches that may be waiting in the 
+     * queue. The default is 16. 
+     * 
+     * @param queueCapacity The queue capacity
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    public void setQueueCapacity(int queueCapacity)
+    {
+        this.queueCapacity = checkPositive(queueCapacity, "queueCapacity");
+    }
+    
+    /**
+     * Set whether the sink should receive the results in the order of 
+     * the ranks of the elements. In this case, the results of batches 
+     * that are completed early are kept until the results of all 
+     * preceding batches have been passed to the sink. In order to limit
+     * the number of results that are kept, the generators only create 
+     * batches whose index is less than the queue capacity ahead of the
+     * next batch that has to be passed to the sink, and block until the
+     * preceding results have been passed to the sink otherwise. The
+     * default is <code>false</code>.
+     * 
+     * @param ordered Whether the results should be ordered
+     */
+    public void setOrdered(boolean ordered)
+    {
+        this.ordered = ordered;
+    }
+    
+    /**
+     * Set the executor that executes the consumer tasks. The executor 
+     * must be able to execute all consumer tasks concurrently. If it is
+     * <code>null</code>, then a new thread is created for each consumer 
+     * task. The default is <code>null</code>.
+     * 
+     * @param executor The executor
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+    
+    /**
+     * Run this pipeline, passing all results to the given sink. This
+     * method blocks until all elements have been processed, or the 
+     * pipeline was cancelled. If the function or the sink throws an 
+     * exception, then the pipeline is cancelled, and the exception is 
+     * rethrown by this method.
+     * 
+     * @param sink The sink for the results
+     * @throws InterruptedException If the calling thread is interrupted
+     * while waiting. In this case, the pipeline is cancelled.
+     * @throws IllegalStateException If this pipeline was already started
+     */
+    public void run(Consumer<? super R> sink) throws InterruptedException
+    {
+        synchronized (this)
+        {
+            if (started)
+            {
+                throw new IllegalStateException(
+                    "The pipeline was already started");
+            }
+            started = true;
+        }
+        queue = new ArrayBlockingQueue<Batch>(queueCapacity);
+        startNs = System.nanoTime();
+        
+        long size = space.size();
+        long numBatches = (size + batchSize - 1) / batchSize;
+        AtomicInteger remainingGenerators = new AtomicInteger(generatorCount);
+        for (int g = 0; g < generatorCount; g++)
+        {
+            long minBatch = numBatches * g / generatorCount;
+            long maxBatch = numBatches * (g + 1) / generatorCount;
+            Thread thread = new Thread(() -> 
+            {
+                try
+                {
+                    generate(minBatch, maxBatch);
+                }
+                catch (InterruptedException e)
+                {
+                    cancel();
+                    Thread.currentThread().interrupt();
+                }
+                finally
+                {
+                    if (remainingGenerators.decrementAndGet() == 0)
+                    {
+                        signalEnd();
+                    }
+                }
+            }, "EnumerationPipeline-generator-" + g);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        CountDownLatch consumersDone = new CountDownLatch(concurrency);
+        for (int c = 0; c < concurrency; c++)
+        {
+            Runnable consumer = () -> 
+            {
+                try
+                {
+                    consume(sink);
+                }
+                finally
+                {
+                    consumersDone.countDown();
+                }
+            };
+            if (executor != null)
+            {
+                executor.execute(consumer);
+            }
+            else
+            {
+                Thread thread = new Thread(consumer, 
+                    "EnumerationPipeline-consumer-" + c);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+        try
+        {
+            consumersDone.await();
+        }
+        catch (InterruptedException e)
+        {
+            cancel();
+            throw e;
+        }
+        finally
+        {
+            endNs = System.nanoTime();
+        }
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException)
+        {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error)
+        {
+            throw (Error) t;
+        }
+    }
+    
+    /**
+     * Create the batches with the given indices, and put them into 
+     * the queue
+     * 
+     * @param minBatch The minimum batch index, inclusive
+     * @param maxBatch The maximum batch index, exclusive
+     * @throws InterruptedException If the thread is interrupted 
+     * while waiting for the queue
+     */
+    private void generate(long minBatch, long maxBatch) 
+        throws InterruptedException
+    {
+        if (minBatch >= maxBatch)
+        {
+            return;
+        }
+        long size = space.size();
+        int length = space.getTupleLength();
+        int tuple[] = new int[length];
+        space.unrank(minBatch * batchSize, tuple);
+        for (long b = minBatch; b < maxBatch && !cancelled; b++)
+        {
+            long fromRank = b * batchSize;
+            int count = (int) Math.min(batchSize, size - fromRank);
+            int tuples[] = new int[count * length];
+            for (int i = 0; i < count; i++)
+            {
+                System.arraycopy(tuple, 0, tuples, i * length, length);
+                if (fromRank + i + 1 < size)
+                {
+                    space.nextTuple(tuple);
+                }
+            }
+            if (ordered && !awaitWindow(b))
+            {
+                break;
+            }
+            queue.put(new Batch(b, count, tuples));
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        }
+    }
+    
+    /**
+     * Wait until the batch with the given index is less than the queue 
+     * capacity ahead of the next batch whose results have to be passed
+     * to the sink, in ordered mode
+     * 
+     * @param batchIndex The batch index
+     * @return Whether the batch may be created, which is 
+     * <code>false</code> if the pipeline was cancelled while waiting
+     * @throws InterruptedException If the thread is interrupted 
+     * while waiting
+     */
+    private boolean awaitWindow(long batchIndex) throws InterruptedException
+    {
+        synchronized (windowLock)
+        {
+            while (!cancelled && 
+                batchIndex - deliveredBatchCount >= queueCapacity)
+            {
+                windowLock.wait();
+            }
+        }
+        return !cancelled;
+    }
+    
+    /**
+     * Put one end marker for each consumer into the queue
+     */
+    private void signalEnd()
+    {
+        boolean interrupted = false;
+        for (int c = 0; c < concurrency; c++)
+        {
+            while (true)
+            {
+                try
+                {
+                    queue.put(END);
+                    break;
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Take batches from the queue, apply the function to their 
+     * elements, and pass the results to the sink, until the end 
+     * marker is found
+     * 
+     * @param sink The sink
+     */
+    private void consume(Consumer<? super R> sink)
+    {
+        int length = space.getTupleLength();
+        int tuple[] = new int[length];
+        while (true)
+        {
+            Batch batch;
+            try
+            {
+                batch = queue.take();
+            }
+            catch (InterruptedException e)
+            {
+                cancel();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == END)
+            {
+                return;
+            }
+            if (cancelled)
+            {
+                continue;
+            }
+            try
+            {
+                List<R> results = new ArrayList<R>(batch.count);
+                for (int i = 0; i < batch.count; i++)
+                {
+                    System.arraycopy(
+                        batch.tuples, i * length, tuple, 0, length);
+                    results.add(function.apply(space.select(tuple)));
+                }
+                processedCount.add(batch.count);
+                deliver(batch.index, results, sink);
+            }
+            catch (RuntimeException | Error e)
+            {
+                failure.compareAndSet(null, e);
+                cancel();
+            }
+        }
+    }
+    
+    /**
+     * Pass the given results of the batch with the given index to the
+     * sink. In ordered mode, the results are stored until the results
+     * of all preceding batches have been passed to the sink.
+     * 
+     * @param batchIndex The batch index
+     * @param results The results
+     * @param sink The sink
+     */
+    private void deliver(long batchIndex, List<R> results, 
+        Consumer<? super R> sink)
+    {
+        synchronized (sinkLock)
+        {
+            if (!ordered)
+            {
+                results.forEach(sink);
+                return;
+            }
+            pendingResults.put(batchIndex, results);
+            while (!cancelled)
+            {
+                List<R> next = pendingResults.remove(nextBatchIndex);
+                if (next == null)
+                {
+                    break;
+                }
+                next.forEach(sink);
+                nextBatchIndex++;
+            }
+            synchronized (windowLock)
+            {
+                deliveredBatchCount = nextBatchIndex;
+                windowLock.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Cancel this pipeline. The generators stop creating batches, and 
+     * the consumers discard the remaining batches. This method may be 
+     * called from any thread. 
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        synchronized (windowLock)
+        {
+            windowLock.notifyAll();
+        }
+    }
+    
+    /**
+     * Returns whether this pipeline was cancelled, either explicitly or
+     * due to an exception in the function or the sink
+     * 
+     * @return Whether the pipeline was cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+    
+    /**
+     * Returns the number of elements that have been processed so far
+     * 
+     * @return The number of processed elements
+     */
+    public long getProcessedCount()
+    {
+        return processedCount.sum();
+    }
+    
+    /**
+     * Returns the number of batches that are currently waiting in 
+     * the queue
+     * 
+     * @return The queue depth
+     */
+    public int getQueueDepth()
+    {
+        BlockingQueue<Batch> q = queue;
+        return q == null ? 0 : q.size();
+    }
+    
+    /**
+     * Returns the maximum number of batches that have been waiting in 
+     * the queue. If this is usually smaller than the queue capacity, 
+     * then the consumers are faster than the generators. 
+     * 
+     * @return The maximum queue depth
+     */
+    public int getMaxQueueDepth()
+    {
+        return maxQueueDepth.get();
+    }
+    
+    /**
+     * Returns the number of elements that have been processed per 
+     * second, since the pipeline was started until it finished or 
+     * until now
+     * 
+     * @return The throughput, in elements per second
+     */
+    public double getThroughput()
+    {
+        long start = startNs;
+        if (start == 0)
+        {
+            return 0.0;
+        }
+        long end = endNs;
+        if (end == 0)
+        {
+            end = System.nanoTime();
+        }
+        double seconds = Math.max(1, end - start) * 1e-9;
+        return getProcessedCount() / seconds;
+    }
+    
+    /**
+     * Makes sure that the given value is positive
+     * 
+     * @param value The value
+     * @param name The name of the value
+     * @return The value
+     * @throws IllegalArgumentException If the value is not positive
+     */
+    private static int checkPositive(int value, String name)
+    {
+        if (value <= 0)
+        {
+            throw new IllegalArgumentException(
+                "The " + name + " must be positive, but is " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+/**
+ * Interface for classes that describe a finite, ordered set of elements,
+ * where each element is described by an <i>index tuple</i>: An array 
+ * of <code>int</code> values of a fixed length, where each value is 
+ * non-negative and smaller than the {@link #getIndexBound() index bound}.
+ * For most of the iterables in this package, the index tuple contains 
+ * the indices of the input elements that are contained in the respective 
+ * element. <br />
+ * <br />
+ * The <i>rank</i> of an element is its position in the order in which
+ * the elements are enumerated, between 0 (inclusive) and 
+ * {@link #size()} (exclusive). The methods of this interface allow 
+ * computing the index tuple for a given rank, and advancing an index 
+ * tuple to the one of the next element, without creating any objects.
+ * Implementations must allow calling these methods concurrently from
+ * multiple threads.
+ */
+public interface IndexSpace
+{
+    /**
+     * Returns the total number of elements in this space
+     * 
+     * @return The number of elements
+     */
+    long size();
+    
+    /**
+     * Returns the length of the index tuples of this space
+     * 
+     * @return The length of the index tuples
+     */
+    int getTupleLength();
+    
+    /**
+     * Returns the exclusive upper bound for the values that may 
+     * appear in the index tuples of this space
+     * 
+     * @return The index bound
+     */
+    int getIndexBound();
+    
+    /**
+     * Writes the index tuple of the element with the given rank 
+     * into the given array.
+     * 
+     * @param rank The rank of the element
+     * @param tuple The array that will store the index tuple. Its
+     * length must be at least {@link #getTupleLength()}.
+     * @throws IndexOutOfBoundsException If the rank is negative or 
+     * not smaller than {@link #size()}
+     */
+    void unrank(long rank, int tuple[]);
+    
+    /**
+     * Computes the rank of the element that is described by the given
+     * index tuple. The given tuple must be a valid index tuple of this
+     * space. Otherwise, the result is unspecified.
+     * 
+     * @param tuple The index tuple
+     * @return The rank
+     */
+    long rank(int tuple[]);
+    
+    /**
+     * Advances the given index tuple to the index tuple of the next 
+     * element, in place. If the given tuple is the one of the last 
+     * element, then <code>false</code> is returned, and the contents 
+     * of the array are unspecified.
+     * 
+     * @param tuple The index tuple
+     * @return Whether the tuple was advanced to the next element
+     */
+    boolean nextTuple(int tuple[]);
+}
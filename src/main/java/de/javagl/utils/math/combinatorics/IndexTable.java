@@ -0,0 +1,370 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * A table that stores all index tuples of an {@link IndexSpace} in a 
+ * single primitive array. The tuples are stored row by row, in the 
+ * order of their ranks. Depending on the index bound of the space, 
+ * each index is stored as a <code>byte</code>, a <code>short</code> or 
+ * an <code>int</code> value, so that the table only requires a fraction 
+ * of the memory of a list of lists. <br />
+ * <br />
+ * Instances of this class are created with 
+ * {@link Utils#asIndexTable(IndexSpace)}. They are immutable and may 
+ * be shared among threads. 
+ */
+public final class IndexTable
+{
+    /**
+     * The maximum number of entries of the table
+     */
+    private static final long MAX_ENTRIES = Integer.MAX_VALUE - 8;
+    
+    /**
+     * The minimum number of rows that are filled by one task
+     */
+    private static final int MIN_ROWS_PER_TASK = 1 << 14;
+    
+    /**
+     * The number of rows
+     */
+    private final int numRows;
+    
+    /**
+     * The number of columns, which is the length of the index tuples
+     */
+    private final int numColumns;
+    
+    /**
+     * The number of bytes that are used for storing each index
+     */
+    private final int bytesPerIndex;
+    
+    /**
+     * The indices, if they are stored as bytes
+     */
+    private final byte bytes[];
+    
+    /**
+     * The indices, if they are stored as shorts
+     */
+    private final short shorts[];
+    
+    /**
+     * The indices, if they are stored as ints
+     */
+    private final int ints[];
+    
+    /**
+     * Creates a new table containing all index tuples of the given
+     * space. The table is filled in parallel, with each task filling
+     * a range of rows by unranking the first tuple of the range and
+     * advancing it for the subsequent rows.
+     * 
+     * @param space The space
+     * @throws IllegalArgumentException If the space contains too many
+     * elements to be stored in a single array
+     */
+    IndexTable(IndexSpace space)
+    {
+        long size = space.size();
+        int columns = space.getTupleLength();
+        if (size > MAX_ENTRIES || size * columns > MAX_ENTRIES)
+        {
+            throw new IllegalArgumentException(
+                "The space with " + size + " elements and a tuple " + 
+                "length of " + columns + " is too large for a table");
+        }
+        this.numRows = (int) size;
+        this.numColumns = columns;
+        
+        int numEntries = numRows * numColumns;
+        int bound = space.getIndexBound();
+        if (bound <= (1 << Byte.SIZE))
+        {
+            bytesPerIndex = 1;
+            bytes = new byte[numEntries];
+            shorts = null;
+            ints = null;
+        }
+        else if (bound <= (1 << Short.SIZE))
+        {
+            bytesPerIndex = 2;
+            bytes = null;
+            shorts = new short[numEntries];
+            ints = null;
+        }
+        else
+        {
+            bytesPerIndex = 4;
+            bytes = null;
+            shorts = null;
+            ints = new int[numEntries];
+        }
+        
+        int numTasks = Math.max(1, numRows / MIN_ROWS_PER_TASK);
+        IntStream.range(0, numTasks).parallel().forEach(task -> 
+        {
+            int minRow = (int) ((long) numRows * task / numTasks);
+            int maxRow = (int) ((long) numRows * (task + 1) / numTasks);
+            fill(space, minRow, maxRow);
+        });
+    }
+    
+    /**
+     * Fill the given range of rows with the index tuples from the
+     * given space
+     * 
+     * @param space The space
+     * @param minRow The minimum row, inclusive
+     * @param maxRow The maximum row, exclusive
+     */
+    private void fill(IndexSpace space, int minRow, int maxRow)
+    {
+        if (minRow >= maxRow)
+        {
+            return;
+        }
+        int tuple[] = new int[numColumns];
+        space.unrank(minRow, tuple);
+        for (int row = minRow; row < maxRow; row++)
+        {
+            int offset = row * numColumns;
+            for (int c = 0; c < numColumns; c++)
+            {
+                set(offset + c, tuple[c]);
+            }
+            if (row + 1 < maxRow)
+            {
+                space.nextTuple(tuple);
+            }
+        }
+    }
+    
+    /**
+     * Set the given entry of the table
+     * 
+     * @param index The index of the entry
+     * @param value The value
+     */
+    private void set(int index, int value)
+    {
+        switch (bytesPerIndex)
+        {
+            case 1: 
+                bytes[index] = (byte) value;
+                break;
+                
+            case 2: 
+                shorts[index] = (short) value;
+                break;
+                
+            default:
+                ints[index] = value;
+                break;
+        }
+    }
+    
+    /**
+     * Returns the number of rows of this table, which is the number
+     * of elements of the space that it was created from
+     * 
+     * @return The number of rows
+     */
+    public int getNumRows()
+    {
+        return numRows;
+    }
+    
+    /**
+     * Returns the number of columns of this table, which is the 
+     * length of the index tuples of the space that it was created from
+     * 
+     * @return The number of columns
+     */
+    public int getNumColumns()
+    {
+        return numColumns;
+    }
+    
+    /**
+     * Returns the number of bytes that are used for storing each 
+     * index, namely 1, 2 or 4
+     * 
+     * @return The number of bytes per index
+     */
+    public int getBytesPerIndex()
+    {
+        return bytesPerIndex;
+    }
+    
+    /**
+     * Returns the index in the given row and column. The row is the
+     * rank of the element in the space that this table was created
+     * from.
+     * 
+     * @param row The row
+     * @param column The column
+     * @return The index
+     * @throws IndexOutOfBoundsException If the row or column is 
+     * out of range
+     */
+    public int get(int row, int column)
+    {
+        if (row < 0 || row >= numRows || column < 0 || column >= numColumns)
+        {
+            throw new IndexOutOfBoundsException(
+                "Row " + row + ", column " + column + ", size " + 
+                numRows + "x" + numColumns);
+        }
+        int index = row * numColumns + column;
+        switch (bytesPerIndex)
+        {
+            case 1: 
+                return bytes[index] & 0xFF;
+                
+            case 2: 
+                return shorts[index] & 0xFFFF;
+                
+            default:
+                return ints[index];
+        }
+    }
+    
+    /**
+     * Copies the index tuple from the given row into the given array.
+     * If the given array is <code>null</code>, then a new array will
+     * be created and returned.
+     * 
+     * @param row The row
+     * @param tuple The array that will store the result
+     * @return The array containing the index tuple
+     * @throws IndexOutOfBoundsException If the row is out of range
+     */
+    public int[] getRow(int row, int tuple[])
+    {
+        if (row < 0 || row >= numRows)
+        {
+            throw new IndexOutOfBoundsException(
+                "Row " + row + ", rows " + numRows);
+        }
+        int result[] = tuple;
+        if (result == null)
+        {
+            result = new int[numColumns];
+        }
+        copyRow(row * numColumns, result);
+        return result;
+    }
+    
+    /**
+     * Passes the index tuples of all rows to the given consumer, in 
+     * the order of their ranks. The rows are read with a sequential
+     * scan over the table. The array that is passed to the consumer
+     * is reused for all rows.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachRow(IntArrayConsumer consumer)
+    {
+        int tuple[] = new int[numColumns];
+        int offset = 0;
+        for (int row = 0; row < numRows; row++)
+        {
+            copyRow(offset, tuple);
+            consumer.accept(tuple);
+            offset += numColumns;
+        }
+    }
+    
+    /**
+     * Copies the entries of the row that starts at the given offset
+     * into the given array
+     * 
+     * @param offset The offset of the row
+     * @param tuple The target array
+     */
+    private void copyRow(int offset, int tuple[])
+    {
+        switch (bytesPerIndex)
+        {
+            case 1: 
+                for (int c = 0; c < numColumns; c++)
+                {
+                    tuple[c] = bytes[offset + c] & 0xFF;
+                }
+                break;
+                
+            case 2: 
+                for (int c = 0; c < numColumns; c++)
+                {
+                    tuple[c] = shorts[offset + c] & 0xFFFF;
+                }
+                break;
+                
+            default:
+                System.arraycopy(ints, offset, tuple, 0, numColumns);
+                break;
+        }
+    }
+    
+    /**
+     * Returns an unmodifiable view on the given row of this table
+     * 
+     * @param row The row
+     * @return The view on the row
+     * @throws IndexOutOfBoundsException If the row is out of range
+     */
+    public List<Integer> getRowView(final int row)
+    {
+        if (row < 0 || row >= numRows)
+        {
+            throw new IndexOutOfBoundsException(
+                "Row " + row + ", rows " + numRows);
+        }
+        return new AbstractList<Integer>()
+        {
+            @Override
+            public Integer get(int column)
+            {
+                return IndexTable.this.get(row, column);
+            }
+
+            @Override
+            public int size()
+            {
+                return numColumns;
+            }
+        };
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Methods for obtaining shared {@link IndexTable} instances that 
+ * contain all permutations or choices of a small number of elements. 
+ * <br />
+ * <br />
+ * The tables are built lazily, when they are requested for the first
+ * time, and are cached for subsequent requests. They are immutable, 
+ * and may be shared among threads. Iterating over a table is a 
+ * sequential scan over a <code>byte</code> array, and looking up the 
+ * tuple for a certain rank only requires computing an offset. <br />
+ * <br />
+ * The size of each table is limited to {@link #MAX_TABLE_ENTRIES} 
+ * entries. For example, the table of all permutations of 8 elements 
+ * has 8! * 8 = 322560 entries. The cache only holds soft references 
+ * to the tables, so that tables that are no longer used by the 
+ * application may be reclaimed by the garbage collector when memory 
+ * is low. They will then be built again when they are requested.
+ */
+public final class IndexTables
+{
+    /**
+     * The maximum number of entries of a table that is provided by 
+     * this class, namely 2<sup>20</sup>
+     */
+    public static final int MAX_TABLE_ENTRIES = 1 << 20;
+    
+    /**
+     * The maximum number of elements for which the tables of choices 
+     * are stored in an array, indexed by the number of chosen elements
+     * and the number of elements
+     */
+    private static final int MAX_INDEXED_CHOICE_ELEMENTS = 16;
+    
+    /**
+     * The cached tables of permutations. The table for n elements is
+     * stored at index n. Due to the {@link #MAX_TABLE_ENTRIES} limit, 
+     * there are tables for at most 8 elements.
+     */
+    private static final AtomicReferenceArray<SoftReference<IndexTable>> 
+        PERMUTATION_TABLES = 
+            new AtomicReferenceArray<SoftReference<IndexTable>>(9);
+    
+    /**
+     * The cached tables of choices of k elements from n elements, for 
+     * n &lt;= {@link #MAX_INDEXED_CHOICE_ELEMENTS}, stored at the 
+     * {@link #choiceIndex(int, int) choice index}
+     */
+    private static final AtomicReferenceArray<SoftReference<IndexTable>> 
+        CHOICE_TABLES = new AtomicReferenceArray<SoftReference<IndexTable>>(
+            (MAX_INDEXED_CHOICE_ELEMENTS + 1) * 
+            (MAX_INDEXED_CHOICE_ELEMENTS + 1));
+    
+    /**
+     * The cached tables of choices from more than 
+     * {@link #MAX_INDEXED_CHOICE_ELEMENTS} elements. The key of the 
+     * table for choices of k elements from n elements is 
+     * <code>(k &lt;&lt; 32) | n</code>. Access to this map is 
+     * synchronized on the map.
+     */
+    private static final Map<Long, SoftReference<IndexTable>> 
+        LARGE_CHOICE_TABLES = new HashMap<Long, SoftReference<IndexTable>>();
+    
+    /**
+     * Returns the table containing the index tuples of all permutations
+     * of n elements, in the order of a {@link PermutationIterable}
+     * 
+     * @param n The number of elements
+     * @return The table
+     * @throws IllegalArgumentException If n is negative, or the table 
+     * would contain more than {@link #MAX_TABLE_ENTRIES} entries
+     */
+    public static IndexTable permutations(int n)
+    {
+        if (n < 0)
+        {
+            throw new IllegalArgumentException(
+                "The number of elements may not be negative, but is " + n);
+        }
+        
+        // The table contains n! rows with n entries each
+        long entries = Math.max(1, n);
+        for (int i = 2; i <= n && entries <= MAX_TABLE_ENTRIES; i++)
+        {
+            entries *= i;
+        }
+        checkEntries(entries, "permutations of " + n + " elements");
+        IndexTable table = lookup(PERMUTATION_TABLES, n);
+        if (table == null)
+        {
+            table = store(PERMUTATION_TABLES, n, new IndexTable(
+                new PermutationIterable<Integer>(Utils.indexList(n))));
+        }
+        return table;
+    }
+    
+    /**
+     * Returns the table containing the index tuples of all choices
+     * of k elements from n elements, in the order of a 
+     * {@link ChoiceIterable}
+     * 
+     * @param n The number of elements
+     * @param k The number of chosen elements
+     * @return The table
+     * @throws IllegalArgumentException If n is negative, k is not in 
+     * [0,n], or the table would contain more than 
+     * {@link #MAX_TABLE_ENTRIES} entries
+     */
+    public static IndexTable choices(int n, int k)
+    {
+        if (n < 0)
+        {
+            throw new IllegalArgumentException(
+                "The number of elements may not be negative, but is " + n);
+        }
+        if (k < 0 || k > n)
+        {
+            throw new IllegalArgumentException(
+                "The number of chosen elements must be in [0," + n + 
+                "], but is " + k);
+        }
+        
+        // The table contains (n choose k) rows with k entries each. 
+        // The binomial coefficient is computed incrementally, as 
+        // (n-k+i choose i), stopping when it becomes too large
+        int m = Math.min(k, n - k);
+        long rows = 1;
+        for (int i = 1; i <= m && rows <= MAX_TABLE_ENTRIES; i++)
+        {
+            rows = rows * (n - m + i) / i;
+        }
+        long entries = 
+            Math.min(rows, MAX_TABLE_ENTRIES + 1L) * Math.max(1, k);
+        checkEntries(entries, "choices of " + k + " from " + n + 
+            " elements");
+        if (n <= MAX_INDEXED_CHOICE_ELEMENTS)
+        {
+            int index = choiceIndex(n, k);
+            IndexTable table = lookup(CHOICE_TABLES, index);
+            if (table == null)
+            {
+                table = store(CHOICE_TABLES, index, new IndexTable(
+                    new ChoiceIterable<Integer>(k, Utils.indexList(n))));
+            }
+            return table;
+        }
+        Long key = ((long) k << 32) | n;
+        synchronized (LARGE_CHOICE_TABLES)
+        {
+            SoftReference<IndexTable> reference = 
+                LARGE_CHOICE_TABLES.get(key);
+            IndexTable table = reference == null ? null : reference.get();
+            if (table == null)
+            {
+                removeCleared();
+                table = new IndexTable(
+                    new ChoiceIterable<Integer>(k, Utils.indexList(n)));
+                LARGE_CHOICE_TABLES.put(
+                    key, new SoftReference<IndexTable>(table));
+            }
+            return table;
+        }
+    }
+    
+    /**
+     * Returns the index of the table of choices of k elements from n 
+     * elements in the {@link #CHOICE_TABLES}
+     * 
+     * @param n The number of elements
+     * @param k The number of chosen elements
+     * @return The index
+     */
+    private static int choiceIndex(int n, int k)
+    {
+        return k * (MAX_INDEXED_CHOICE_ELEMENTS + 1) + n;
+    }
+    
+    /**
+     * Makes sure that a table with the given number of entries may be
+     * provided by this class
+     * 
+     * @param entries The number of entries
+     * @param description The description of the table
+     * @throws IllegalArgumentException If the number of entries is
+     * larger than {@link #MAX_TABLE_ENTRIES}
+     */
+    private static void checkEntries(long entries, String description)
+    {
+        if (entries > MAX_TABLE_ENTRIES)
+        {
+            throw new IllegalArgumentException(
+                "The table of " + description + " would contain more " + 
+                "than " + MAX_TABLE_ENTRIES + " entries");
+        }
+    }
+    
+    /**
+     * Returns the table that is stored at the given index of the given
+     * array, or <code>null</code> if there is no table, or it has been 
+     * reclaimed. This does not allocate any objects and does not lock.
+     * 
+     * @param tables The tables
+     * @param index The index
+     * @return The table
+     */
+    private static IndexTable lookup(
+        AtomicReferenceArray<SoftReference<IndexTable>> tables, int index)
+    {
+        SoftReference<IndexTable> reference = tables.get(index);
+        return reference == null ? null : reference.get();
+    }
+    
+    /**
+     * Store the given table at the given index of the given array, 
+     * unless another thread stored a table there in the meantime. 
+     * 
+     * @param tables The tables
+     * @param index The index
+     * @param table The table
+     * @return The table that is stored at the given index
+     */
+    private static IndexTable store(
+        AtomicReferenceArray<SoftReference<IndexTable>> tables, int index, 
+        IndexTable table)
+    {
+        SoftReference<IndexTable> created = 
+            new SoftReference<IndexTable>(table);
+        while (true)
+        {
+            SoftReference<IndexTable> reference = tables.get(index);
+            IndexTable stored = reference == null ? null : reference.get();
+            if (stored != null)
+            {
+                return stored;
+            }
+            if (tables.compareAndSet(index, reference, created))
+            {
+                return table;
+            }
+        }
+    }
+    
+    /**
+     * Remove all entries from the map of large choice tables whose 
+     * tables have been reclaimed by the garbage collector. Must be 
+     * called while holding the lock of the map.
+     */
+    private static void removeCleared()
+    {
+        Iterator<SoftReference<IndexTable>> iterator = 
+            LARGE_CHOICE_TABLES.values().iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next().get() == null)
+            {
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Removes all tables from the cache. Tables that are still 
+     * referenced by the application remain valid.
+     */
+    public static void clear()
+    {
+        for (int i = 0; i < PERMUTATION_TABLES.length(); i++)
+        {
+            PERMUTATION_TABLES.set(i, null);
+        }
+        for (int i = 0; i < CHOICE_TABLES.length(); i++)
+        {
+            CHOICE_TABLES.set(i, null);
+        }
+        synchronized (LARGE_CHOICE_TABLES)
+        {
+            LARGE_CHOICE_TABLES.clear();
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private IndexTables()
+    {
+        
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.LongStream;
+
+/**
+ * A file that stores all index tuples of an {@link IndexSpace} in a 
+ * compact binary form, and allows random access to the tuples. <br />
+ * <br />
+ * Files are created with {@link #write(IndexSpace, Path)}, and opened
+ * with {@link #open(Path)}. The file consists of a header with 32 
+ * bytes, followed by the indices of all tuples, 
+ * in the order of their ranks. Each index is stored with the minimum 
+ * number of bits that is required for the index bound of the space, 
+ * and the bits are packed into little-endian 64 bit words. <br />
+ * <br />
+ * The file is accessed via memory mapping, so that the tuples do not
+ * have to be loaded into memory. Instances of this class may be 
+ * shared among threads. 
+ */
+public final class IndexTupleFile implements Closeable
+{
+    /**
+     * The magic number at the beginning of the file
+     */
+    private static final int MAGIC = 0x43495446;
+    
+    /**
+     * The version of the file format
+     */
+    private static final int VERSION = 1;
+    
+    /**
+     * The size of the header, in bytes
+     */
+    private static final int HEADER_SIZE = 32;
+    
+    /**
+     * The number of data bytes that are covered by one mapped buffer.
+     * Each buffer additionally covers the first bytes of the next 
+     * segment, so that a 64 bit word can be read at any position.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+    
+    /**
+     * The number of bytes that each mapped buffer overlaps with 
+     * the next one, and that are appended to the end of the data
+     */
+    private static final int PADDING = 8;
+    
+    /**
+     * The minimum number of tuples that are written by one task. 
+     * This is a multiple of 64, so that the ranges of different
+     * tasks start at 64 bit word boundaries.
+     */
+    private static final long MIN_TUPLES_PER_TASK = 1 << 14;
+    
+    /**
+     * The channel of the file
+     */
+    private final FileChannel channel;
+    
+    /**
+     * The number of tuples
+     */
+    private final long numTuples;
+    
+    /**
+     * The length of the tuples
+     */
+    private final int tupleLength;
+    
+    /**
+     * The index bound
+     */
+    private final int indexBound;
+    
+    /**
+     * The number of bits that are used for storing each index
+     */
+    private final int bitsPerIndex;
+    
+    /**
+     * The mask for the bits of one index
+     */
+    private final long mask;
+    
+    /**
+     * The mapped buffers for the data segments
+     */
+    private final ByteBuffer segments[];
+    
+    /**
+     * Creates a new instance
+     * 
+     * @param channel The channel of the file
+     * @param numTuples The number of tuples
+     * @param tupleLength The length of the tuples
+     * @param indexBound The index bound
+     * @param mode The mode for mapping the file
+     * @throws IOException If an IO error occurs
+     */
+    private IndexTupleFile(FileChannel channel, long numTuples, 
+        int tupleLength, int indexBound, MapMode mode) throws IOException
+    {
+        this.channel = channel;
+        this.numTuples = numTuples;
+        this.tupleLength = tupleLength;
+        this.indexBound = indexBound;
+        this.bitsPerIndex = computeBitsPerIndex(indexBound);
+        this.mask = (1L << bitsPerIndex) - 1;
+        
+        long dataSize = computeDataSize(
+            numTuples, tupleLength, bitsPerIndex);
+        int numSegments = (int) ((dataSize - PADDING - 1) / SEGMENT_SIZE) + 1;
+        this.segments = new ByteBuffer[numSegments];
+        for (int i = 0; i < numSegments; i++)
+        {
+            long start = i * SEGMENT_SIZE;
+            long length = Math.min(SEGMENT_SIZE + PADDING, dataSize - start);
+            MappedByteBuffer buffer = 
+                channel.map(mode, HEADER_SIZE + start, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            segments[i] = buffer;
+        }
+    }
+    
+    /**
+     * Computes the number of bits that are required for storing the
+     * indices of a space with the given index bound
+     * 
+     * @param indexBound The index bound
+     * @return The number of bits
+     */
+    private static int computeBitsPerIndex(int indexBound)
+    {
+        int max = Math.max(1, indexBound) - 1;
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(max));
+    }
+    
+    /**
+     * Computes the size of the data of the file, in bytes, including 
+     * the padding
+     * 
+     * @param numTuples The number of tuples
+     * @param tupleLength The length of the tuples
+     * @param bitsPerIndex The number of bits per index
+     * @return The size of the data
+     * @throws ArithmeticException If the size does not fit into a long
+     */
+    private static long computeDataSize(
+        long numTuples, int tupleLength, int bitsPerIndex)
+    {
+        long numBits = Math.multiplyExact(
+            Math.multiplyExact(numTuples, tupleLength), bitsPerIndex);
+        long numWords = (numBits + 63) >>> 6;
+        return numWords * 8 + PADDING;
+    }
+    
+    /**
+     * Writes all index tuples of the given space into the specified 
+     * file. If the file already exists, it is overwritten. The tuples
+     * are written in parallel, with each task writing a range of 
+     * ranks.
+     * 
+     * @param space The space
+     * @param path The path of the file
+     * @throws IOException If an IO error occurs
+     * @throws ArithmeticException If the size of the file does not
+     * fit into a long
+     */
+    public static void write(IndexSpace space, Path path) throws IOException
+    {
+        final long numTuples = space.size();
+        int tupleLength = space.getTupleLength();
+        int indexBound = space.getIndexBound();
+        try (FileChannel channel = FileChannel.open(path, 
+            StandardOpenOption.CREATE, StandardOpenOption.READ, 
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putLong(numTuples);
+            header.putInt(tupleLength);
+            header.putInt(indexBound);
+            header.flip();
+            while (header.hasRemaining())
+            {
+                channel.write(header, header.position());
+            }
+            
+            final IndexTupleFile file = new IndexTupleFile(channel, 
+                numTuples, tupleLength, indexBound, MapMode.READ_WRITE);
+            final long numTasks = 
+                Math.max(1, numTuples / MIN_TUPLES_PER_TASK);
+            final long tuplesPerTask = 
+                (numTuples / numTasks + 63) & ~63L;
+            LongStream.range(0, numTasks).parallel().forEach(task -> 
+            {
+                long from = Math.min(numTuples, task * tuplesPerTask);
+                long to = task == numTasks - 1 ? numTuples : 
+                    Math.min(numTuples, from + tuplesPerTask);
+                file.fill(space, from, to);
+            });
+            for (ByteBuffer segment : file.segments)
+            {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+    
+    /**
+     * Opens the specified file for reading. The file must have been 
+     * created with {@link #write(IndexSpace, Path)}. 
+     * 
+     * @param path The path of the file
+     * @return The file
+     * @throws IOException If an IO error occurs, or the file does not
+     * have the expected format
+     */
+    public static IndexTupleFile open(Path path) throws IOException
+    {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining())
+            {
+                if (channel.read(header, header.position()) < 0)
+                {
+                    throw new IOException(
+                        "Unexpected end of file while reading header");
+                }
+            }
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version != VERSION)
+            {
+                throw new IOException(
+                    "Not an index tuple file of version " + VERSION);
+            }
+            long numTuples = header.getLong();
+            int tupleLength = header.getInt();
+            int indexBound = header.getInt();
+            long expectedSize = HEADER_SIZE + computeDataSize(numTuples, 
+                tupleLength, computeBitsPerIndex(indexBound));
+            if (channel.size() != expectedSize)
+            {
+                throw new IOException("Expected " + expectedSize + 
+                    " bytes, but the file has " + channel.size());
+            }
+            return new IndexTupleFile(channel, numTuples, 
+                tupleLength, indexBound, MapMode.READ_ONLY);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Write the index tuples of the given space for the given range
+     * of ranks into the buffers. The start of the range must be a 
+     * multiple of 64, so that different ranges do not share any 
+     * bytes.
+     * 
+     * @param space The space
+     * @param fromRank The minimum rank, inclusive
+     * @param toRank The maximum rank, exclusive
+     */
+    private void fill(IndexSpace space, long fromRank, long toRank)
+    {
+        if (fromRank >= toRank)
+        {
+            return;
+        }
+        int tuple[] = new int[tupleLength];
+        space.unrank(fromRank, tuple);
+        long wordIndex = (fromRank * tupleLength * bitsPerIndex) >>> 6;
+        long word = 0;
+        int used = 0;
+        for (long r = fromRank; r < toRank; r++)
+        {
+            for (int j = 0; j < tupleLength; j++)
+            {
+                long value = tuple[j];
+                word |= value << used;
+                used += bitsPerIndex;
+                if (used >= Long.SIZE)
+                {
+                    putWord(wordIndex, word);
+                    wordIndex++;
+                    used -= Long.SIZE;
+                    word = used == 0 ? 0 : value >>> (bitsPerIndex - used);
+                }
+            }
+            if (r + 1 < toRank)
+            {
+                space.nextTuple(tuple);
+            }
+        }
+        if (used > 0)
+        {
+            putWord(wordIndex, word);
+        }
+    }
+    
+    /**
+     * Write the given 64 bit word into the buffers
+     * 
+     * @param wordIndex The index of the word
+     * @param word The word
+     */
+    private void putWord(long wordIndex, long word)
+    {
+        long byteOffset = wordIndex * 8;
+        ByteBuffer segment = segments[(int) (byteOffset / SEGMENT_SIZE)];
+        segment.putLong((int) (byteOffset % SEGMENT_SIZE), word);
+    }
+    
+    /**
+     * Returns the number of tuples in this file
+     * 
+     * @return The number of tuples
+     */
+    public long getNumTuples()
+    {
+        return numTuples;
+    }
+    
+    /**
+     * Returns the length of the tuples in this file
+     * 
+     * @return The tuple length
+     */
+    public int getTupleLength()
+    {
+        return tupleLength;
+    }
+    
+    /**
+     * Returns the index bound of the space that was written into 
+     * this file
+     * 
+     * @return The index bound
+     */
+    public int getIndexBound()
+    {
+        return indexBound;
+    }
+    
+    /**
+     * Returns the number of bits that are used for storing each index
+     * 
+     * @return The number of bits per index
+     */
+    public int getBitsPerIndex()
+    {
+        return bitsPerIndex;
+    }
+    
+    /**
+     * Returns the value at the given position of the tuple with the 
+     * given rank
+     * 
+     * @param rank The rank of the tuple
+     * @param position The position in the tuple
+     * @return The value
+     * @throws IndexOutOfBoundsException If the rank or the position
+     * are out of range
+     */
+    public int get(long rank, int position)
+    {
+        Utils.checkRank(rank, numTuples);
+        if (position < 0 || position >= tupleLength)
+        {
+            throw new IndexOutOfBoundsException(
+                "Position " + position + ", tuple length " + tupleLength);
+        }
+        return read((rank * tupleLength + position) * bitsPerIndex);
+    }
+    
+    /**
+     * Writes the tuple with the given rank into the given array
+     * 
+     * @param rank The rank of the tuple
+     * @param tuple The array that will store the tuple. Its length
+     * must be at least the tuple length.
+     * @throws IndexOutOfBoundsException If the rank is out of range
+     */
+    public void getTuple(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numTuples);
+        long bitOffset = rank * tupleLength * bitsPerIndex;
+        for (int j = 0; j < tupleLength; j++)
+        {
+            tuple[j] = read(bitOffset);
+            bitOffset += bitsPerIndex;
+        }
+    }
+    
+    /**
+     * Read the index that starts at the given bit offset
+     * 
+     * @param bitOffset The bit offset
+     * @return The index
+     */
+    private int read(long bitOffset)
+    {
+        long byteOffset = bitOffset >>> 3;
+        ByteBuffer segment = segments[(int) (byteOffset / SEGMENT_SIZE)];
+        long word = segment.getLong((int) (byteOffset % SEGMENT_SIZE));
+        return (int) ((word >>> (bitOffset & 7)) & mask);
+    }
+    
+    /**
+     * Closes the underlying file channel. The mappings of the file may 
+     * remain valid until they are garbage collected.
+     * 
+     * @throws IOException If an IO error occurs
+     */
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
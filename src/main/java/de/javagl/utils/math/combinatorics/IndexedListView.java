@@ -0,0 +1,88 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An unmodifiable list that is a view on the elements of an input 
+ * list at the indices that are given by an index array. Changes in 
+ * the index array are visible in the view.
+ * 
+ * @param <T> The type of the elements
+ */
+final class IndexedListView<T> extends AbstractList<T> implements RandomAccess
+{
+    /**
+     * The input list
+     */
+    private final List<? extends T> input;
+    
+    /**
+     * The indices
+     */
+    private final int indices[];
+    
+    /**
+     * The size of this list
+     */
+    private final int size;
+    
+    /**
+     * Creates a new view
+     * 
+     * @param input The input list
+     * @param indices The indices. A reference to this array is stored.
+     * @param size The size of this list
+     */
+    IndexedListView(List<? extends T> input, int indices[], int size)
+    {
+        this.input = input;
+        this.indices = indices;
+        this.size = size;
+    }
+    
+    @Override
+    public T get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(
+                "Index " + index + ", size " + size);
+        }
+        return input.get(indices[index]);
+    }
+    
+    @Override
+    public int size()
+    {
+        return size;
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * A cursor over the index tuples of an {@link IndexSpace}, for the 
+ * case that only the indices are needed, and not lists of elements. 
+ * <br />
+ * <br />
+ * The static factory methods create cursors for the combinatorial 
+ * structures of this package, over the indices 0...n-1. For example,
+ * <pre>
+ * IntTupleIterator choices = IntTupleIterator.choices(5, 3);
+ * while (choices.advance())
+ * {
+ *     int chosen[] = choices.current();
+ *     ...
+ * }
+ * </pre>
+ * iterates over all choices of 3 out of 5 indices, where the array 
+ * contains the chosen indices in increasing order. The cursor keeps 
+ * a single array that is updated in place, and does not create any 
+ * objects while advancing.
+ */
+public final class IntTupleIterator
+{
+    /**
+     * The space
+     */
+    private final IndexSpace space;
+    
+    /**
+     * The rank of the next tuple
+     */
+    private long nextRank;
+    
+    /**
+     * The maximum rank, exclusive
+     */
+    private final long toRank;
+    
+    /**
+     * The current tuple
+     */
+    private final int tuple[];
+    
+    /**
+     * Whether the current tuple is valid
+     */
+    private boolean valid;
+    
+    /**
+     * Creates a new cursor over all index tuples of the given space
+     * 
+     * @param space The space
+     */
+    public IntTupleIterator(IndexSpace space)
+    {
+        this(space, 0, space.size());
+    }
+    
+    /**
+     * Creates a new cursor over the index tuples of the given space 
+     * whose ranks are in the given range
+     * 
+     * @param space The space
+     * @param fromRank The minimum rank, inclusive
+     * @param toRank The maximum rank, exclusive
+     * @throws IndexOutOfBoundsException If the ranks are negative,
+     * larger than the size of the space, or fromRank is larger 
+     * than toRank
+     */
+    public IntTupleIterator(IndexSpace space, long fromRank, long toRank)
+    {
+        AbstractCombinatorialSpace.checkRange(fromRank, toRank, space.size());
+        this.space = space;
+        this.nextRank = fromRank;
+        this.toRank = toRank;
+        this.tuple = new int[space.getTupleLength()];
+        this.valid = false;
+    }
+    
+    /**
+     * Creates a cursor over all choices of k out of the indices 
+     * 0...n-1. Each tuple contains the chosen indices in increasing 
+     * order, as for a {@link ChoiceIterable}.
+     * 
+     * @param n The number of indices
+     * @param k The number of chosen indices
+     * @return The cursor
+     */
+    public static IntTupleIterator choices(int n, int k)
+    {
+        return new IntTupleIterator(
+            new ChoiceIterable<Integer>(k, Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all permutations of the indices 0...n-1,
+     * in lexicographic order, as for a {@link PermutationIterable}.
+     * 
+     * @param n The number of indices
+     * @return The cursor
+     */
+    public static IntTupleIterator permutations(int n)
+    {
+        return new IntTupleIterator(
+            new PermutationIterable<Integer>(Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all tuples of k indices from 0...n-1, where
+     * each index may appear multiple times, as for a 
+     * {@link CombinationIterable}.
+     * 
+     * @param n The number of indices
+     * @param k The length of the tuples
+     * @return The cursor
+     */
+    public static IntTupleIterator combinations(int n, int k)
+    {
+        return new IntTupleIterator(
+            new CombinationIterable<Integer>(k, Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all multisets of k indices from 0...n-1, 
+     * where each tuple contains the indices in non-decreasing order, 
+     * as for an {@link UnorderedCombinationIterable}.
+     * 
+     * @param n The number of indices
+     * @param k The size of the multisets
+     * @return The cursor
+     */
+    public static IntTupleIterator unorderedCombinations(int n, int k)
+    {
+        return new IntTupleIterator(
+            new UnorderedCombinationIterable<Integer>(k, Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all sequences of k distinct indices from
+     * 0...n-1, as for a {@link SequenceWithoutRepetitionIterable}.
+     * 
+     * @param n The number of indices
+     * @param k The length of the sequences
+     * @return The cursor
+     */
+    public static IntTupleIterator sequences(int n, int k)
+    {
+        return new IntTupleIterator(
+            new SequenceWithoutRepetitionIterable<Integer>(
+                k, Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all subsets of the indices 0...n-1, where
+     * the value at index i of each tuple is 1 if the index i is 
+     * contained in the subset, and 0 otherwise, as for a 
+     * {@link PowerSetIterable}.
+     * 
+     * @param n The number of indices
+     * @return The cursor
+     */
+    public static IntTupleIterator subsets(int n)
+    {
+        return new IntTupleIterator(
+            new PowerSetIterable<Integer>(Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all partitions of the indices 0...n-1 into
+     * non-empty blocks, where the value at index i of each tuple is the
+     * index of the block that contains the index i, as for a 
+     * {@link SetPartitionIterable}.
+     * 
+     * @param n The number of indices
+     * @return The cursor
+     */
+    public static IntTupleIterator setPartitions(int n)
+    {
+        return new IntTupleIterator(
+            new SetPartitionIterable<Integer>(Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all partitions of the indices 0...n-1 into
+     * k non-empty blocks, where the value at index i of each tuple is 
+     * the index of the block that contains the index i, as for a 
+     * {@link SetPartitionIterable}.
+     * 
+     * @param n The number of indices
+     * @param k The number of blocks
+     * @return The cursor
+     */
+    public static IntTupleIterator setPartitions(int n, int k)
+    {
+        return new IntTupleIterator(
+            new SetPartitionIterable<Integer>(k, Utils.indexList(n)));
+    }
+    
+    /**
+     * Creates a cursor over all tuples where the value at index i is
+     * in the range 0...sizes[i]-1, as for a 
+     * {@link MixedRangeCombinationIterable}.
+     * 
+     * @param sizes The sizes of the ranges
+     * @return The cursor
+     */
+    public static IntTupleIterator mixedRange(int ... sizes)
+    {
+        List<List<Integer>> sets = new ArrayList<List<Integer>>();
+        for (int size : sizes)
+        {
+            sets.add(Utils.indexList(size));
+        }
+        return new IntTupleIterator(
+            new MixedRangeCombinationIterable<Integer>(sets));
+    }
+    
+    /**
+     * Advance this cursor to the next tuple. The first call moves the 
+     * cursor to the first tuple. 
+     * 
+     * @return Whether there was a next tuple
+     */
+    public boolean advance()
+    {
+        if (nextRank >= toRank)
+        {
+            valid = false;
+            return false;
+        }
+        if (valid)
+        {
+            space.nextTuple(tuple);
+        }
+        else
+        {
+            space.unrank(nextRank, tuple);
+            valid = true;
+        }
+        nextRank++;
+        return true;
+    }
+    
+    /**
+     * Returns the current tuple. This is the array that is updated 
+     * when the cursor is advanced. It may not be modified.
+     * 
+     * @return The current tuple
+     * @throws NoSuchElementException If the cursor is not positioned
+     * at a tuple
+     */
+    public int[] current()
+    {
+        checkValid();
+        return tuple;
+    }
+    
+    /**
+     * Returns the value at the given position of the current tuple
+     * 
+     * @param position The position
+     * @return The value
+     * @throws NoSuchElementException If the cursor is not positioned
+     * at a tuple
+     */
+    public int get(int position)
+    {
+        checkValid();
+        return tuple[position];
+    }
+    
+    /**
+     * Returns the rank of the current tuple
+     * 
+     * @return The rank
+     * @throws NoSuchElementException If the cursor is not positioned
+     * at a tuple
+     */
+    public long rank()
+    {
+        checkValid();
+        return nextRank - 1;
+    }
+    
+    /**
+     * Returns the length of the tuples
+     * 
+     * @return The tuple length
+     */
+    public int getTupleLength()
+    {
+        return tuple.length;
+    }
+    
+    /**
+     * Returns a stream of the values of the current tuple. The stream
+     * must be consumed before the cursor is advanced.
+     * 
+     * @return The stream
+     * @throws NoSuchElementException If the cursor is not positioned
+     * at a tuple
+     */
+    public IntStream stream()
+    {
+        checkValid();
+        return Arrays.stream(tuple);
+    }
+    
+    /**
+     * Advances this cursor over all remaining tuples, passing each 
+     * tuple to the given consumer. The consumer may not store or 
+     * modify the array.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachRemaining(IntArrayConsumer consumer)
+    {
+        while (advance())
+        {
+            consumer.accept(tuple);
+        }
+    }
+    
+    /**
+     * Makes sure that the cursor is positioned at a tuple
+     * 
+     * @throws NoSuchElementException If the cursor is not positioned
+     * at a tuple
+     */
+    private void checkValid()
+    {
+        if (!valid)
+        {
+            throw new NoSuchElementException(
+                "The cursor is not positioned at a tuple");
+        }
+    }
+}
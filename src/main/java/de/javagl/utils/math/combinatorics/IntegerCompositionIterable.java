@@ -0,0 +1,283 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class providing an iterator over all compositions of an integer 
+ * n into k parts, which are the ordered ways of writing n as a sum
+ * of k integers. Optionally, the parts may be restricted to a range 
+ * [min, max]. Example:<br />
+ * <pre>
+ * n = 5
+ * k = 3
+ * parts in [1, 5]
+ * m = (n-1)!/((k-1)!*(n-k)!) = 6
+ * 
+ * Compositions:
+ * [1, 1, 3]
+ * [1, 2, 2]
+ * [1, 3, 1]
+ * [2, 1, 2]
+ * [2, 2, 1]
+ * [3, 1, 1]
+ * </pre>
+ * 
+ * The compositions are provided in lexicographical order. The index 
+ * tuples of the {@link IndexSpace} are the parts themselves, and the
+ * index bound is the maximum possible part plus one. <br />
+ * <br />
+ * The number of compositions of each sum into each number of parts 
+ * is computed once when the iterable is created, and used for the 
+ * ranking and unranking. This requires (k+1)*(n+1) <code>long</code>
+ * values.
+ */
+public final class IntegerCompositionIterable 
+    extends AbstractCombinatorialSpace<Integer>
+{
+    /**
+     * The number that is split into parts
+     */
+    private final int n;
+    
+    /**
+     * The number of parts
+     */
+    private final int k;
+    
+    /**
+     * The minimum value of each part
+     */
+    private final int minPart;
+    
+    /**
+     * The maximum value of each part
+     */
+    private final int maxPart;
+    
+    /**
+     * The number of compositions of s into i parts is stored in
+     * counts[i][s]
+     */
+    private final long counts[][];
+    
+    /**
+     * Creates an iterable over all compositions of n into k positive
+     * parts
+     * 
+     * @param n The number that is split into parts
+     * @param k The number of parts
+     * @throws IllegalArgumentException If n or k is negative
+     * @throws ArithmeticException If the number of compositions does
+     * not fit into a <code>long</code>
+     */
+    public IntegerCompositionIterable(int n, int k)
+    {
+        this(n, k, 1, n);
+    }
+    
+    /**
+     * Creates an iterable over all compositions of n into k parts, 
+     * where each part is in [minPart, maxPart]
+     * 
+     * @param n The number that is split into parts
+     * @param k The number of parts
+     * @param minPart The minimum value of each part
+     * @param maxPart The maximum value of each part
+     * @throws IllegalArgumentException If n, k or minPart is negative
+     * @throws ArithmeticException If the number of compositions does
+     * not fit into a <code>long</code>
+     */
+    public IntegerCompositionIterable(int n, int k, int minPart, int maxPart)
+    {
+        IntegerPartitionIterable.checkArguments(n, k, minPart);
+        this.n = n;
+        this.k = k;
+        this.minPart = minPart;
+        this.maxPart = Math.min(maxPart, n);
+        this.counts = new long[k + 1][n + 1];
+        counts[0][0] = 1;
+        for (int i = 1; i <= k; i++)
+        {
+            // The counts for i parts are sums over a sliding window 
+            // of the counts for i-1 parts
+            long window = 0;
+            for (int s = 0; s <= n; s++)
+            {
+                if (s - minPart >= 0)
+                {
+                    window = Math.addExact(
+                        window, counts[i - 1][s - minPart]);
+                }
+                if (s - this.maxPart - 1 >= 0 && minPart <= this.maxPart)
+                {
+                    window -= counts[i - 1][s - this.maxPart - 1];
+                }
+                counts[i][s] = minPart <= this.maxPart ? window : 0;
+            }
+        }
+    }
+    
+    @Override
+    public long size()
+    {
+        return counts[k][n];
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return k;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return Math.max(0, maxPart + 1);
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, size());
+        long remaining = rank;
+        int s = n;
+        for (int j = 0; j < k; j++)
+        {
+            int r = k - j - 1;
+            for (int v = minPart; v <= Math.min(maxPart, s); v++)
+            {
+                long c = counts[r][s - v];
+                if (remaining < c)
+                {
+                    tuple[j] = v;
+                    s -= v;
+                    break;
+                }
+                remaining -= c;
+            }
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        long result = 0;
+        int s = n;
+        for (int j = 0; j < k; j++)
+        {
+            int r = k - j - 1;
+            for (int v = minPart; v < tuple[j]; v++)
+            {
+                result += counts[r][s - v];
+            }
+            s -= tuple[j];
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Find the rightmost part that can be incremented, so that the 
+        // remaining sum can still be distributed among the parts to 
+        // its right, and fill these parts with the smallest values
+        int suffixSum = 0;
+        for (int j = k - 1; j >= 0; j--)
+        {
+            int r = k - j - 1;
+            int s = suffixSum - 1;
+            if (tuple[j] < maxPart && 
+                (long) r * minPart <= s && s <= (long) r * maxPart)
+            {
+                tuple[j]++;
+                fillSmallest(tuple, j + 1, s);
+                return true;
+            }
+            suffixSum += tuple[j];
+        }
+        return false;
+    }
+    
+    /**
+     * Fill the parts of the given tuple, starting at the given index,
+     * with the lexicographically smallest values that are in the valid
+     * range and have the given sum
+     * 
+     * @param tuple The tuple
+     * @param start The start index
+     * @param sum The sum
+     */
+    private void fillSmallest(int tuple[], int start, int sum)
+    {
+        int s = sum;
+        for (int j = start; j < k; j++)
+        {
+            int r = k - j - 1;
+            int v = (int) Math.max(minPart, s - (long) r * maxPart);
+            tuple[j] = v;
+            s -= v;
+        }
+    }
+    
+    @Override
+    public List<Integer> select(int tuple[])
+    {
+        List<Integer> result = new ArrayList<Integer>(k);
+        for (int j = 0; j < k; j++)
+        {
+            result.add(tuple[j]);
+        }
+        return result;
+    }
+    
+    @Override
+    List<Integer> view(int tuple[])
+    {
+        return new IndexedListView<Integer>(
+            Utils.indexList(Math.max(0, maxPart + 1)), tuple, k);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        if (!IntegerPartitionIterable.toParts(
+            element, k, minPart, maxPart, tuple))
+        {
+            return false;
+        }
+        int sum = 0;
+        for (int j = 0; j < k; j++)
+        {
+            sum += tuple[j];
+        }
+        return sum == n;
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class providing an iterator over all partitions of an integer n 
+ * into k parts, which are the unordered ways of writing n as a sum of 
+ * k integers. Optionally, the parts may be restricted to a range 
+ * [min, max]. Example:<br />
+ * <pre>
+ * n = 8
+ * k = 3
+ * parts in [1, 8]
+ * m = 5
+ * 
+ * Partitions:
+ * [3, 3, 2]
+ * [4, 2, 2]
+ * [4, 3, 1]
+ * [5, 2, 1]
+ * [6, 1, 1]
+ * </pre>
+ * 
+ * Each partition is represented by its parts in non-increasing order, 
+ * and the partitions are provided in lexicographical order of these 
+ * representations. The index tuples of the {@link IndexSpace} are the 
+ * parts themselves, and the index bound is the maximum possible part 
+ * plus one. <br />
+ * <br />
+ * The number of partitions of each sum into each number of parts with
+ * each maximum part is computed once when the iterable is created, and
+ * used for the ranking and unranking. This requires (k+1)*(s+1)*(s+1)
+ * <code>long</code> values, where s = n - k * min is the sum that 
+ * exceeds the minimum parts, and is limited to 
+ * {@link #MAX_TABLE_ENTRIES}, so that the table requires at most 
+ * 8 MB of memory. 
+ */
+public final class IntegerPartitionIterable 
+    extends AbstractCombinatorialSpace<Integer>
+{
+    /**
+     * The maximum number of entries of the table of counts, namely
+     * 2<sup>20</sup>. Each entry is a <code>long</code> value, so 
+     * the table requires at most 8 MB.
+     */
+    public static final int MAX_TABLE_ENTRIES = 1 << 20;
+    
+    /**
+     * The number of parts
+     */
+    private final int k;
+    
+    /**
+     * The minimum value of each part
+     */
+    private final int minPart;
+    
+    /**
+     * The maximum value of each part
+     */
+    private final int maxPart;
+    
+    /**
+     * The sum that exceeds the minimum parts, n - k * minPart, or -1 
+     * if this is negative
+     */
+    private final int excess;
+    
+    /**
+     * The number of non-increasing sequences of i values in [0, m] 
+     * that have the sum s is stored in counts[i][s][m]. These are the
+     * excesses of the parts over the minimum part.
+     */
+    private final long counts[][][];
+    
+    /**
+     * Creates an iterable over all partitions of n into k positive
+     * parts
+     * 
+     * @param n The number that is split into parts
+     * @param k The number of parts
+     * @throws IllegalArgumentException If n or k is negative, or the 
+     * table of counts would be too large
+     * @throws ArithmeticException If the number of partitions does
+     * not fit into a <code>long</code>
+     */
+    public IntegerPartitionIterable(int n, int k)
+    {
+        this(n, k, 1, n);
+    }
+    
+    /**
+     * Creates an iterable over all partitions of n into k parts, 
+     * where each part is in [minPart, maxPart]
+     * 
+     * @param n The number that is split into parts
+     * @param k The number of parts
+     * @param minPart The minimum value of each part
+     * @param maxPart The maximum value of each part
+     * @throws IllegalArgumentException If n, k or minPart is negative,
+     * or the table of counts would be too large
+     * @throws ArithmeticException If the number of partitions does
+     * not fit into a <code>long</code>
+     */
+    public IntegerPartitionIterable(int n, int k, int minPart, int maxPart)
+    {
+        checkArguments(n, k, minPart);
+        this.k = k;
+        this.minPart = minPart;
+        this.maxPart = Math.min(maxPart, n);
+        long s = (long) n - (long) k * minPart;
+        
+        // For k == 0, the range of the parts is irrelevant: There is
+        // one (empty) partition of 0, and no partition of any n > 0
+        if (s < 0 || (k > 0 && this.maxPart < minPart))
+        {
+            this.excess = -1;
+            this.counts = null;
+            return;
+        }
+        this.excess = (int) s;
+        int m = Math.max(0, Math.min(this.maxPart - minPart, excess));
+        long entries = (k + 1L) * (excess + 1L) * (m + 1L);
+        if (entries > MAX_TABLE_ENTRIES)
+        {
+            throw new IllegalArgumentException(
+                "The table of counts for n=" + n + ", k=" + k + 
+                " and parts in [" + minPart + "," + maxPart + "] " + 
+                "would have " + entries + " entries");
+        }
+        this.counts = new long[k + 1][excess + 1][m + 1];
+        for (int i = 0; i <= k; i++)
+        {
+            counts[i][0][0] = 1;
+            for (int t = 0; t <= excess; t++)
+            {
+                for (int j = 1; j <= m; j++)
+                {
+                    // The largest value is either smaller than j, 
+                    // or it is j, followed by i-1 values that are 
+                    // not larger than j
+                    long c = counts[i][t][j - 1];
+                    if (i > 0 && t >= j)
+                    {
+                        c = Math.addExact(c, counts[i - 1][t - j][j]);
+                    }
+                    counts[i][t][j] = c;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Makes sure that the given arguments for a partition or 
+     * composition are not negative
+     * 
+     * @param n The number that is split into parts
+     * @param k The number of parts
+     * @param minPart The minimum part
+     * @throws IllegalArgumentException If any argument is negative
+     */
+    static void checkArguments(int n, int k, int minPart)
+    {
+        if (n < 0 || k < 0 || minPart < 0)
+        {
+            throw new IllegalArgumentException(
+                "The arguments may not be negative, but are n=" + n + 
+                ", k=" + k + ", minPart=" + minPart);
+        }
+    }
+    
+    /**
+     * Writes the given element into the given tuple, if it is a list
+     * of the given number of integers that are in the given range
+     * 
+     * @param element The element
+     * @param k The number of parts
+     * @param minPart The minimum part
+     * @param maxPart The maximum part
+     * @param tuple The tuple that will store the parts
+     * @return Whether the element was a valid list of parts
+     */
+    static boolean toParts(List<?> element, int k, 
+        int minPart, int maxPart, int tuple[])
+    {
+        if (element.size() != k)
+        {
+            return false;
+        }
+        for (int j = 0; j < k; j++)
+        {
+            Object part = element.get(j);
+            if (!(part instanceof Integer))
+            {
+                return false;
+            }
+            int value = (Integer) part;
+            if (value < minPart || value > maxPart)
+            {
+                return false;
+            }
+            tuple[j] = value;
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the number of non-increasing sequences of i values 
+     * in [0, m] that have the sum s, where m is limited to the size 
+     * of the table
+     * 
+     * @param i The number of values
+     * @param s The sum
+     * @param m The maximum value
+     * @return The count
+     */
+    private long count(int i, int s, int m)
+    {
+        long row[] = counts[i][s];
+        return row[Math.min(m, row.length - 1)];
+    }
+    
+    @Override
+    public long size()
+    {
+        if (excess < 0)
+        {
+            return 0;
+        }
+        return count(k, excess, excess);
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return k;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return Math.max(0, maxPart + 1);
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, size());
+        long remaining = rank;
+        int s = excess;
+        int bound = excess;
+        for (int j = 0; j < k; j++)
+        {
+            // Find the smallest value v for which the number of 
+            // sequences with a first value of at most v is larger 
+            // than the remaining rank
+            int i = k - j;
+            int low = 0;
+            int high = Math.min(bound, s);
+            while (low < high)
+            {
+                int mid = (low + high) >>> 1;
+                if (count(i, s, mid) > remaining)
+                {
+                    high = mid;
+                }
+                else
+                {
+                    low = mid + 1;
+                }
+            }
+            int v = low;
+            if (v > 0)
+            {
+                remaining -= count(i, s, v - 1);
+            }
+            tuple[j] = minPart + v;
+            s -= v;
+            bound = v;
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        long result = 0;
+        int s = excess;
+        for (int j = 0; j < k; j++)
+        {
+            int v = tuple[j] - minPart;
+            if (v > 0)
+            {
+                result += count(k - j, s, v - 1);
+            }
+            s -= v;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Find the rightmost part that can be incremented, so that the 
+        // remaining sum can still be distributed among the parts to 
+        // its right without exceeding it, and distribute the remaining
+        // sum among these parts as evenly as possible
+        long suffixSum = 0;
+        for (int j = k - 1; j >= 0; j--)
+        {
+            int r = k - j - 1;
+            long s = suffixSum - 1;
+            int w = tuple[j] + 1;
+            if (w <= maxPart && (j == 0 || w <= tuple[j - 1]) &&
+                (long) r * minPart <= s && s <= (long) r * w)
+            {
+                tuple[j] = w;
+                long e = s - (long) r * minPart;
+                int q = (int) (e / r);
+                int remainder = (int) (e % r);
+                for (int i = 0; i < r; i++)
+                {
+                    tuple[j + 1 + i] = minPart + q + (i < remainder ? 1 : 0);
+                }
+                return true;
+            }
+            suffixSum += tuple[j];
+        }
+        return false;
+    }
+    
+    @Override
+    public List<Integer> select(int tuple[])
+    {
+        List<Integer> result = new ArrayList<Integer>(k);
+        for (int j = 0; j < k; j++)
+        {
+            result.add(tuple[j]);
+        }
+        return result;
+    }
+    
+    @Override
+    List<Integer> view(int tuple[])
+    {
+        return new IndexedListView<Integer>(
+            Utils.indexList(Math.max(0, maxPart + 1)), tuple, k);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        if (!toParts(element, k, minPart, maxPart, tuple))
+        {
+            return false;
+        }
+        long sum = 0;
+        for (int j = 0; j < k; j++)
+        {
+            if (j > 0 && tuple[j] > tuple[j - 1])
+            {
+                return false;
+            }
+            sum += tuple[j] - minPart;
+        }
+        return sum == excess;
+    }
+}
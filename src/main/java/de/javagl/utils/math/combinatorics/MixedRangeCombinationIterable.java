@@ -27,6 +27,7 @@
 
 package de.javagl.utils.math.combinatorics;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -60,10 +61,15 @@ import java.util.NoSuchElementException;
  * [C, E, A]
  * [C, E, E]
  * </pre>
+ * 
+ * The index tuples of the {@link IndexSpace} contain, for each set,
+ * the index of the element of the set in the order of its iterator.
+ * The index bound is the size of the largest set. 
  *  
  * @param <T> The type of the elements
  */
-public final class MixedRangeCombinationIterable<T> implements Iterable<List<T>>
+public final class MixedRangeCombinationIterable<T> 
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -73,30 +79,158 @@ public final class MixedRangeCombinationIterable<T> implements Iterable<List<T>>
     /**
      * The total number of elements that the iterator will provide
      */
-    private final int numElements;
+    private final long numElements;
+    
+    /**
+     * The sizes of the input sets, at the time of construction
+     */
+    private final int sizes[];
+    
+    /**
+     * Copies of the input sets, for the random access to their elements
+     */
+    private final List<List<T>> lists;
  
     /**
      * Creates an iterable over all combinations of one element
      * of each of the given sets.
      *  
      * @param sets The input sets
+     * @throws ArithmeticException If the number of combinations does 
+     * not fit into a <code>long</code>
      */
     public MixedRangeCombinationIterable(
         List<? extends Collection<? extends T>> sets)
     {
         this.sets = sets;
-        int m = 0;
+        this.sizes = new int[sets.size()];
+        this.lists = new ArrayList<List<T>>(sets.size());
+        long m = 0;
         if (sets.size() > 0)
         {
             m = 1;
         }
-        for (Collection<? extends T> set : sets)
+        for (int i = 0; i < sets.size(); i++)
         {
-            m *= set.size();
+            lists.add(new ArrayList<T>(sets.get(i)));
+            sizes[i] = sets.get(i).size();
+            m = Math.multiplyExact(m, sizes[i]);
         }
         this.numElements = m;
     }
  
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return sizes.length;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        int max = 0;
+        for (int size : sizes)
+        {
+            max = Math.max(max, size);
+        }
+        return max;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numElements);
+        long remaining = rank;
+        for (int i = sizes.length - 1; i >= 0; i--)
+        {
+            tuple[i] = (int) (remaining % sizes[i]);
+            remaining /= sizes[i];
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        long result = 0;
+        for (int i = 0; i < sizes.length; i++)
+        {
+            result = result * sizes[i] + tuple[i];
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Count in the mixed-radix representation, where the
+        // digit i has the base sizes[i]
+        for (int i = sizes.length - 1; i >= 0; i--)
+        {
+            if (tuple[i] < sizes[i] - 1)
+            {
+                tuple[i]++;
+                return true;
+            }
+            tuple[i] = 0;
+        }
+        return false;
+    }
+ 
+    @Override
+    public List<T> select(int tuple[])
+    {
+        List<T> result = new ArrayList<T>(sizes.length);
+        for (int i = 0; i < sizes.length; i++)
+        {
+            result.add(lists.get(i).get(tuple[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        return new AbstractList<T>()
+        {
+            @Override
+            public T get(int index)
+            {
+                return lists.get(index).get(tuple[index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return sizes.length;
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        if (element.size() != sizes.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < sizes.length; i++)
+        {
+            int index = lists.get(i).indexOf(element.get(i));
+            if (index < 0)
+            {
+                return false;
+            }
+            tuple[i] = index;
+        }
+        return true;
+    }
+ 
     @Override
     public Iterator<List<T>> iterator()
     {
@@ -105,7 +239,7 @@ public final class MixedRangeCombinationIterable<T> implements Iterable<List<T>>
             /**
              * The element counter
              */
-            private int current = 0;
+            private long current = 0;
 
             /**
              * The current combination
@@ -0,0 +1,410 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A class providing an iterator over all distinct choices of a certain 
+ * number of elements from a given list that may contain equal elements.
+ * While a {@link ChoiceIterable} treats all elements of the input as 
+ * distinct, this class treats equal elements as interchangeable, so 
+ * that each distinct sub-multiset is provided only once. Example:<br />
+ * <pre>
+ * S = { A,A,A,B,C,C }, n = |S| = 6
+ * k = 2 
+ * m = 5 (instead of n!/(k!*(n-k)!) = 15)
+ * 
+ * Choices:
+ * [A, A]
+ * [A, B]
+ * [A, C]
+ * [B, C]
+ * [C, C]
+ * </pre>
+ * 
+ * Elements are considered to be equal when they are equal according
+ * to their <code>equals</code> method, or when they have equal keys 
+ * according to a given key function. The groups of equal elements 
+ * are determined once, when the iterable is created, so the elements
+ * are not compared or hashed during the iteration. The groups are 
+ * ordered by the first occurrence of one of their elements in the 
+ * input. If a choice contains c elements of one group, then these 
+ * are the first c elements of this group in the input. <br />
+ * <br />
+ * The index tuples of the {@link IndexSpace} are the non-decreasing
+ * indices of the groups of the chosen elements, where each group 
+ * index appears at most as often as the group contains elements.
+ * The choices are provided in lexicographical order of these tuples.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class MultisetChoiceIterable<T> 
+    extends AbstractCombinatorialSpace<T>
+{
+    /**
+     * The elements of each group, in the order of the input
+     */
+    private final List<List<T>> groups;
+    
+    /**
+     * The elements of all groups, ordered by their groups
+     */
+    private final List<T> elements;
+    
+    /**
+     * The number of elements in each group
+     */
+    private final int multiplicities[];
+    
+    /**
+     * The total number of elements in the groups with an index that 
+     * is at least i is stored in capacities[i]
+     */
+    private final int capacities[];
+    
+    /**
+     * The size of one sample
+     */
+    private final int sampleSize;
+    
+    /**
+     * The number of ways of choosing r elements from the groups with
+     * indices that are at least g is stored in counts[g][r]. The 
+     * values are saturated at <code>Long.MAX_VALUE</code>, but the
+     * values that are used for the ranking are not larger than the
+     * total number of choices.
+     */
+    private final long counts[][];
+    
+    /**
+     * Creates an iterable over all distinct choices of 'sampleSize' 
+     * elements taken from the given list, where elements are equal
+     * according to their <code>equals</code> method.
+     *  
+     * @param sampleSize The sample size
+     * @param input The input elements
+     * @throws IllegalArgumentException If the sample size is negative
+     * @throws ArithmeticException If the number of choices does not
+     * fit into a <code>long</code>
+     */
+    public MultisetChoiceIterable(int sampleSize, List<? extends T> input)
+    {
+        this(sampleSize, input, Function.identity());
+    }
+    
+    /**
+     * Creates an iterable over all distinct choices of 'sampleSize' 
+     * elements taken from the given list, where elements are equal
+     * when they have equal keys according to the given function.
+     *  
+     * @param sampleSize The sample size
+     * @param input The input elements
+     * @param keyFunction The function that computes the keys
+     * @throws IllegalArgumentException If the sample size is negative
+     * @throws ArithmeticException If the number of choices does not
+     * fit into a <code>long</code>
+     */
+    public MultisetChoiceIterable(int sampleSize, List<? extends T> input, 
+        Function<? super T, ?> keyFunction)
+    {
+        if (sampleSize < 0)
+        {
+            throw new IllegalArgumentException(
+                "The sample size may not be negative, but is " + 
+                sampleSize);
+        }
+        this.sampleSize = sampleSize;
+        this.groups = new ArrayList<List<T>>();
+        Map<Object, Integer> groupIndices = new HashMap<Object, Integer>();
+        for (T element : input)
+        {
+            Object key = keyFunction.apply(element);
+            Integer index = groupIndices.get(key);
+            if (index == null)
+            {
+                index = groups.size();
+                groupIndices.put(key, index);
+                groups.add(new ArrayList<T>());
+            }
+            groups.get(index).add(element);
+        }
+        
+        this.elements = new ArrayList<T>();
+        for (List<T> group : groups)
+        {
+            elements.addAll(group);
+        }
+        
+        int d = groups.size();
+        this.multiplicities = new int[d];
+        this.capacities = new int[d + 1];
+        for (int g = d - 1; g >= 0; g--)
+        {
+            multiplicities[g] = groups.get(g).size();
+            capacities[g] = capacities[g + 1] + multiplicities[g];
+        }
+        
+        this.counts = new long[d + 1][sampleSize + 1];
+        counts[d][0] = 1;
+        for (int g = d - 1; g >= 0; g--)
+        {
+            for (int r = 0; r <= sampleSize; r++)
+            {
+                long sum = 0;
+                for (int c = 0; c <= Math.min(multiplicities[g], r); c++)
+                {
+                    sum += counts[g + 1][r - c];
+                    if (sum < 0)
+                    {
+                        sum = Long.MAX_VALUE;
+                        break;
+                    }
+                }
+                counts[g][r] = sum;
+            }
+        }
+        if (counts[0][sampleSize] == Long.MAX_VALUE)
+        {
+            throw new ArithmeticException(
+                "The number of choices of " + sampleSize + " elements " + 
+                "does not fit into a long");
+        }
+    }
+    
+    /**
+     * Returns the number of groups of equal elements
+     * 
+     * @return The number of groups
+     */
+    public int getNumGroups()
+    {
+        return groups.size();
+    }
+    
+    @Override
+    public long size()
+    {
+        return counts[0][sampleSize];
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return sampleSize;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return groups.size();
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, size());
+        
+        // A tuple with more elements of a group is smaller than one 
+        // with fewer elements of the group, if the elements of the 
+        // previous groups are the same. So the number of elements of 
+        // each group is determined by skipping the blocks of the 
+        // choices with more elements of this group.
+        long remaining = rank;
+        int r = sampleSize;
+        int position = 0;
+        for (int g = 0; r > 0; g++)
+        {
+            int c = Math.min(multiplicities[g], r);
+            while (true)
+            {
+                long count = counts[g + 1][r - c];
+                if (remaining < count)
+                {
+                    break;
+                }
+                remaining -= count;
+                c--;
+            }
+            for (int i = 0; i < c; i++)
+            {
+                tuple[position++] = g;
+            }
+            r -= c;
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        long result = 0;
+        int r = sampleSize;
+        int position = 0;
+        for (int g = 0; r > 0; g++)
+        {
+            int c = 0;
+            while (position < sampleSize && tuple[position] == g)
+            {
+                position++;
+                c++;
+            }
+            for (int larger = Math.min(multiplicities[g], r); 
+                larger > c; larger--)
+            {
+                result += counts[g + 1][r - larger];
+            }
+            r -= c;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Find the rightmost position where the group index can be 
+        // incremented, so that the groups with the incremented index 
+        // and the subsequent indices can still fill the remaining 
+        // positions. Then fill these positions with the smallest 
+        // group indices, using as many elements of each group as 
+        // possible.
+        int d = groups.size();
+        for (int j = sampleSize - 1; j >= 0; j--)
+        {
+            int g = tuple[j] + 1;
+            if (g < d && capacities[g] >= sampleSize - j)
+            {
+                int available = multiplicities[g];
+                for (int i = j; i < sampleSize; i++)
+                {
+                    if (available == 0)
+                    {
+                        g++;
+                        available = multiplicities[g];
+                    }
+                    tuple[i] = g;
+                    available--;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<T> select(int tuple[])
+    {
+        List<T> result = new ArrayList<T>(sampleSize);
+        int occurrence = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            if (i > 0 && tuple[i] != tuple[i - 1])
+            {
+                occurrence = 0;
+            }
+            result.add(groups.get(tuple[i]).get(occurrence));
+            occurrence++;
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        final int indices[] = new int[sampleSize];
+        final List<T> delegate = 
+            new IndexedListView<T>(elements, indices, sampleSize);
+        return new TupleView<T>()
+        {
+            @Override
+            void update()
+            {
+                int occurrence = 0;
+                for (int i = 0; i < sampleSize; i++)
+                {
+                    if (i > 0 && tuple[i] != tuple[i - 1])
+                    {
+                        occurrence = 0;
+                    }
+                    int offset = capacities[0] - capacities[tuple[i]];
+                    indices[i] = offset + occurrence;
+                    occurrence++;
+                }
+            }
+            
+            @Override
+            public T get(int index)
+            {
+                return delegate.get(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return sampleSize;
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        if (element.size() != sampleSize)
+        {
+            return false;
+        }
+        
+        // Assign each element to the first group at or after the group
+        // of the previous element that contains it at the position of
+        // its occurrence within the group
+        int g = 0;
+        int occurrence = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            Object e = element.get(i);
+            while (g < groups.size() && 
+                (occurrence >= multiplicities[g] || 
+                !Objects.equals(groups.get(g).get(occurrence), e)))
+            {
+                g++;
+                occurrence = 0;
+            }
+            if (g == groups.size())
+            {
+                return false;
+            }
+            tuple[i] = g;
+            occurrence++;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A generator for the necklaces or bracelets of a certain length over
+ * the alphabet { 0, ..., k-1 }, in lexicographical order. Each 
+ * necklace is represented by the lexicographically smallest word of 
+ * its equivalence class under rotation. Each bracelet is represented
+ * by the lexicographically smallest word of its equivalence class 
+ * under rotation and reversal. <br />
+ * <br />
+ * The words are generated with the FKM algorithm (Fredricksen, Kessler, 
+ * Maiorana), which generates the prenecklaces in constant amortized 
+ * time, and keeps track of the length of the longest Lyndon prefix, 
+ * so that the necklaces can be identified without comparing rotations.
+ * For bracelets, each necklace is additionally compared with the 
+ * smallest rotation of its reversal, which takes linear time.
+ */
+final class NecklaceGenerator
+{
+    /**
+     * The number of symbols
+     */
+    private final int k;
+    
+    /**
+     * Whether only bracelets should be generated
+     */
+    private final boolean bracelets;
+    
+    /**
+     * The current word
+     */
+    private final int word[];
+    
+    /**
+     * A temporary array for the reversed word
+     */
+    private final int reversed[];
+    
+    /**
+     * Whether the first word was already generated
+     */
+    private boolean started;
+    
+    /**
+     * Whether all words have been generated
+     */
+    private boolean done;
+    
+    /**
+     * Creates a new generator
+     * 
+     * @param length The length of the words
+     * @param k The number of symbols
+     * @param bracelets Whether only bracelets should be generated
+     */
+    NecklaceGenerator(int length, int k, boolean bracelets)
+    {
+        this.k = k;
+        this.bracelets = bracelets;
+        this.word = new int[length];
+        this.reversed = bracelets ? new int[length] : null;
+    }
+    
+    /**
+     * Returns the current word. The returned array is modified when
+     * the generator is advanced.
+     * 
+     * @return The current word
+     */
+    int[] getWord()
+    {
+        return word;
+    }
+    
+    /**
+     * Advances the generator to the next necklace or bracelet
+     * 
+     * @return Whether there was a next necklace or bracelet
+     */
+    boolean advance()
+    {
+        if (done)
+        {
+            return false;
+        }
+        int n = word.length;
+        if (!started)
+        {
+            started = true;
+            if (n > 0 && k == 0)
+            {
+                done = true;
+                return false;
+            }
+            // The word 0...0 has a Lyndon prefix of length 1
+            if (accept(1))
+            {
+                return true;
+            }
+        }
+        while (true)
+        {
+            // Compute the next prenecklace: Increment the last symbol 
+            // that is not k-1, and repeat the resulting Lyndon word p
+            int j = n - 1;
+            while (j >= 0 && word[j] == k - 1)
+            {
+                j--;
+            }
+            if (j < 0)
+            {
+                done = true;
+                return false;
+            }
+            word[j]++;
+            int p = j + 1;
+            for (int i = p; i < n; i++)
+            {
+                word[i] = word[i - p];
+            }
+            if (accept(p))
+            {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Returns an iterator over the lists that are obtained by selecting
+     * the elements of the given input for the remaining words of this
+     * generator
+     * 
+     * @param <T> The type of the elements
+     * @param input The input, containing k elements
+     * @return The iterator
+     */
+    <T> Iterator<List<T>> iterator(final List<T> input)
+    {
+        return new Iterator<List<T>>()
+        {
+            /**
+             * Whether the current word of the generator was not 
+             * returned yet
+             */
+            private boolean pending = advance();
+            
+            @Override
+            public boolean hasNext()
+            {
+                return pending;
+            }
+
+            @Override
+            public List<T> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more elements");
+                }
+                List<T> result = new ArrayList<T>(word.length);
+                for (int i = 0; i < word.length; i++)
+                {
+                    result.add(input.get(word[i]));
+                }
+                pending = advance();
+                return result;
+            }
+            
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                    "May not remove elements from a necklace iterator");
+            }
+        };
+    }
+    
+    /**
+     * Returns whether the current prenecklace, with the given length 
+     * of its longest Lyndon prefix, should be generated
+     * 
+     * @param p The length of the longest Lyndon prefix
+     * @return Whether the word should be generated
+     */
+    private boolean accept(int p)
+    {
+        if (word.length % p != 0)
+        {
+            return false;
+        }
+        return !bracelets || isBracelet();
+    }
+    
+    /**
+     * Returns whether the current necklace is not larger than the 
+     * smallest rotation of its reversal
+     * 
+     * @return Whether the current necklace is a bracelet
+     */
+    private boolean isBracelet()
+    {
+        int n = word.length;
+        for (int i = 0; i < n; i++)
+        {
+            reversed[i] = word[n - 1 - i];
+        }
+        int start = smallestRotation(reversed);
+        for (int i = 0; i < n; i++)
+        {
+            int r = reversed[(start + i) % n];
+            if (word[i] != r)
+            {
+                return word[i] < r;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Computes the start index of the lexicographically smallest 
+     * rotation of the given word, in linear time
+     * 
+     * @param w The word
+     * @return The start index of the smallest rotation
+     */
+    private static int smallestRotation(int w[])
+    {
+        int n = w.length;
+        int i = 0;
+        int j = 1;
+        int offset = 0;
+        while (i < n && j < n && offset < n)
+        {
+            int a = w[(i + offset) % n];
+            int b = w[(j + offset) % n];
+            if (a == b)
+            {
+                offset++;
+                continue;
+            }
+            if (a > b)
+            {
+                i += offset + 1;
+            }
+            else
+            {
+                j += offset + 1;
+            }
+            if (i == j)
+            {
+                j++;
+            }
+            offset = 0;
+        }
+        return Math.min(i, j);
+    }
+}
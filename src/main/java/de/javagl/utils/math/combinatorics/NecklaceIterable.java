@@ -0,0 +1,127 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A class providing an iterator over all necklaces of a certain length 
+ * over a given set of elements. A necklace is an equivalence class of 
+ * sequences under rotation. For a set S with n = |S|, the number of 
+ * necklaces of length k is computed by 
+ * {@link Counting#necklaces(int, int)}. Each necklace is represented 
+ * by the lexicographically smallest sequence (with respect to the 
+ * indices of the elements) that it contains. Example:<br />
+ * <pre>
+ * S = { A,B }, n = |S| = 2
+ * k = 4
+ * m = 6
+ * 
+ * Necklaces:
+ * [A, A, A, A]
+ * [A, A, A, B]
+ * [A, A, B, B]
+ * [A, B, A, B]
+ * [A, B, B, B]
+ * [B, B, B, B]
+ * </pre>
+ * 
+ * The necklaces are generated directly, in constant amortized time,
+ * without generating the other elements of their equivalence classes.
+ *
+ * @param <T> The type of the elements
+ */
+public final class NecklaceIterable<T> implements Iterable<List<T>>
+{
+    /**
+     * The input elements
+     */
+    private final List<T> input;
+    
+    /**
+     * The length of the necklaces
+     */
+    private final int length;
+    
+    /**
+     * Creates an iterable over all necklaces of the given length, 
+     * consisting of the given elements
+     * 
+     * @param length The length of the necklaces
+     * @param input The input elements
+     * @throws IllegalArgumentException If the length is negative
+     */
+    public NecklaceIterable(int length, List<? extends T> input)
+    {
+        if (length < 0)
+        {
+            throw new IllegalArgumentException(
+                "The length may not be negative, but is " + length);
+        }
+        this.input = new ArrayList<T>(input);
+        this.length = length;
+    }
+    
+    /**
+     * Returns the number of necklaces
+     * 
+     * @return The number of necklaces
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public long size()
+    {
+        return Counting.necklaces(input.size(), length);
+    }
+    
+    /**
+     * Passes the index tuples of all necklaces to the given consumer, in
+     * the order of the iterator. The array that is passed to the 
+     * consumer is reused for all necklaces.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachTuple(IntArrayConsumer consumer)
+    {
+        NecklaceGenerator generator = 
+            new NecklaceGenerator(length, input.size(), false);
+        while (generator.advance())
+        {
+            consumer.accept(generator.getWord());
+        }
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator()
+    {
+        return new NecklaceGenerator(length, input.size(), false)
+            .iterator(input);
+    }
+}
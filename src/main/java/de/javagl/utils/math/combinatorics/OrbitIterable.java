@@ -0,0 +1,193 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A class providing an iterator over one representative of each orbit
+ * of the elements of a {@link CombinatorialSpace} under a 
+ * {@link PermutationGroup}. <br />
+ * <br />
+ * The group acts on the index tuples of the space, and the canonical
+ * element of each orbit is the one with the lexicographically smallest
+ * index tuple. The space must be closed under this action, which is 
+ * the case for a {@link CombinationIterable}, a 
+ * {@link PermutationIterable} or a 
+ * {@link SequenceWithoutRepetitionIterable}, for example. The elements
+ * are provided in the order of the space. Example:<br />
+ * <pre>
+ * space = permutations of { A,B,C,D }
+ * group = rotations of 4 positions
+ * 
+ * Orbit representatives (the seatings at a round table):
+ * [A, B, C, D]
+ * [A, B, D, C]
+ * [A, C, B, D]
+ * [A, C, D, B]
+ * [A, D, B, C]
+ * [A, D, C, B]
+ * </pre>
+ * 
+ * The iterator checks each index tuple of the space for whether it is
+ * canonical, without storing the elements that have already been 
+ * provided. This requires time that is proportional to the size of 
+ * the space and the order of the group, but only constant memory. 
+ * For rotations and reflections of sequences with repetitions, the
+ * {@link NecklaceIterable} and the {@link BraceletIterable} are more
+ * efficient. The number of orbits of such sequences under an arbitrary
+ * group can be computed with {@link PermutationGroup#countOrbits(int)}.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class OrbitIterable<T> implements Iterable<List<T>>
+{
+    /**
+     * The space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The group
+     */
+    private final PermutationGroup group;
+    
+    /**
+     * Creates an iterable over the representatives of the orbits of 
+     * the elements of the given space under the given group
+     * 
+     * @param space The space
+     * @param group The group
+     * @throws IllegalArgumentException If the degree of the group is 
+     * not the tuple length of the space
+     */
+    public OrbitIterable(CombinatorialSpace<T> space, PermutationGroup group)
+    {
+        if (group.getDegree() != space.getTupleLength())
+        {
+            throw new IllegalArgumentException(
+                "The degree of the group is " + group.getDegree() + 
+                ", but the tuple length of the space is " + 
+                space.getTupleLength());
+        }
+        this.space = space;
+        this.group = group;
+    }
+    
+    /**
+     * Advances the given tuple to the next canonical tuple of the 
+     * space. If the given tuple is <code>null</code>, then the first
+     * canonical tuple will be computed.
+     * 
+     * @param tuple The tuple, or <code>null</code>
+     * @return The next canonical tuple, or <code>null</code> if there
+     * are no more canonical tuples
+     */
+    private int[] nextCanonical(int tuple[])
+    {
+        int result[] = tuple;
+        if (result == null)
+        {
+            if (space.size() == 0)
+            {
+                return null;
+            }
+            result = new int[space.getTupleLength()];
+            space.unrank(0, result);
+            if (group.isCanonical(result))
+            {
+                return result;
+            }
+        }
+        while (space.nextTuple(result))
+        {
+            if (group.isCanonical(result))
+            {
+                return result;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Passes the index tuples of all canonical elements to the given 
+     * consumer, in the order of the iterator. The array that is passed
+     * to the consumer is reused for all tuples.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachTuple(IntArrayConsumer consumer)
+    {
+        int tuple[] = nextCanonical(null);
+        while (tuple != null)
+        {
+            consumer.accept(tuple);
+            tuple = nextCanonical(tuple);
+        }
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator()
+    {
+        return new Iterator<List<T>>()
+        {
+            /**
+             * The tuple of the next element, or <code>null</code> if 
+             * there are no more elements
+             */
+            private int tuple[] = nextCanonical(null);
+            
+            @Override
+            public boolean hasNext()
+            {
+                return tuple != null;
+            }
+
+            @Override
+            public List<T> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more elements");
+                }
+                List<T> result = space.select(tuple);
+                tuple = nextCanonical(tuple);
+                return result;
+            }
+            
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                    "May not remove elements from an orbit iterator");
+            }
+        };
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A codec for packing index tuples into single <code>long</code> 
+ * values. <br />
+ * <br />
+ * Each index of a tuple is stored with the minimum number of bits 
+ * that is required for the index bound. The first index of the tuple 
+ * is stored in the most significant bits, and all 64 bits of the
+ * <code>long</code> may be used. The sign bit of the packed value is 
+ * inverted, so that comparing two packed values as signed values 
+ * yields the same result as comparing the tuples lexicographically. 
+ * Consequently, the packed values may be negative. For the spaces whose 
+ * elements are enumerated in lexicographic order of their tuples, 
+ * like {@link ChoiceIterable}, {@link CombinationIterable}, 
+ * {@link UnorderedCombinationIterable} and 
+ * {@link SequenceWithoutRepetitionIterable}, the packed values 
+ * therefore are sorted in the order of the ranks. <br />
+ * <br />
+ * For example, all choices of up to 8 out of 256 elements, or of up 
+ * to 12 out of 32 elements, can be packed.
+ */
+public final class PackedTupleCodec
+{
+    /**
+     * The length of the tuples
+     */
+    private final int tupleLength;
+    
+    /**
+     * The number of bits that are used for each index
+     */
+    private final int bitsPerIndex;
+    
+    /**
+     * The mask for the bits of one index
+     */
+    private final long mask;
+    
+    /**
+     * Creates a new codec for tuples with the given length, whose 
+     * values are smaller than the given index bound
+     * 
+     * @param tupleLength The length of the tuples
+     * @param indexBound The index bound
+     * @throws IllegalArgumentException If the tuples can not be 
+     * packed into a <code>long</code>
+     */
+    public PackedTupleCodec(int tupleLength, int indexBound)
+    {
+        if (!canPack(tupleLength, indexBound))
+        {
+            throw new IllegalArgumentException(
+                "Tuples with length " + tupleLength + " and index bound " + 
+                indexBound + " can not be packed into a long");
+        }
+        this.tupleLength = tupleLength;
+        this.bitsPerIndex = computeBitsPerIndex(indexBound);
+        this.mask = (1L << bitsPerIndex) - 1;
+    }
+    
+    /**
+     * Creates a new codec for the index tuples of the given space
+     * 
+     * @param space The space
+     * @throws IllegalArgumentException If the tuples can not be 
+     * packed into a <code>long</code>
+     */
+    public PackedTupleCodec(IndexSpace space)
+    {
+        this(space.getTupleLength(), space.getIndexBound());
+    }
+    
+    /**
+     * Returns whether tuples with the given length, whose values are 
+     * smaller than the given index bound, can be packed into a 
+     * <code>long</code>
+     * 
+     * @param tupleLength The length of the tuples
+     * @param indexBound The index bound
+     * @return Whether the tuples can be packed
+     */
+    public static boolean canPack(int tupleLength, int indexBound)
+    {
+        if (tupleLength < 0 || indexBound < 0)
+        {
+            return false;
+        }
+        return (long) tupleLength * computeBitsPerIndex(indexBound) <= 
+            Long.SIZE;
+    }
+    
+    /**
+     * Returns whether the index tuples of the given space can be 
+     * packed into a <code>long</code>
+     * 
+     * @param space The space
+     * @return Whether the tuples can be packed
+     */
+    public static boolean canPack(IndexSpace space)
+    {
+        return canPack(space.getTupleLength(), space.getIndexBound());
+    }
+    
+    /**
+     * Computes the number of bits that are required for storing 
+     * indices that are smaller than the given bound
+     * 
+     * @param indexBound The index bound
+     * @return The number of bits
+     */
+    private static int computeBitsPerIndex(int indexBound)
+    {
+        int max = Math.max(1, indexBound) - 1;
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(max));
+    }
+    
+    /**
+     * Returns the length of the tuples
+     * 
+     * @return The tuple length
+     */
+    public int getTupleLength()
+    {
+        return tupleLength;
+    }
+    
+    /**
+     * Returns the number of bits that are used for storing each index
+     * 
+     * @return The number of bits per index
+     */
+    public int getBitsPerIndex()
+    {
+        return bitsPerIndex;
+    }
+    
+    /**
+     * Packs the given tuple into a <code>long</code> value
+     * 
+     * @param tuple The tuple
+     * @return The packed value
+     */
+    public long pack(int tuple[])
+    {
+        long result = 0;
+        for (int i = 0; i < tupleLength; i++)
+        {
+            result = (result << bitsPerIndex) | tuple[i];
+        }
+        return result ^ Long.MIN_VALUE;
+    }
+    
+    /**
+     * Unpacks the given value into the given tuple
+     * 
+     * @param packed The packed value
+     * @param tuple The array that will store the tuple. Its length
+     * must be at least the tuple length.
+     */
+    public void unpack(long packed, int tuple[])
+    {
+        long remaining = packed ^ Long.MIN_VALUE;
+        for (int i = tupleLength - 1; i >= 0; i--)
+        {
+            tuple[i] = (int) (remaining & mask);
+            remaining >>>= bitsPerIndex;
+        }
+    }
+    
+    /**
+     * Returns the value at the given position of the tuple that is 
+     * stored in the given packed value
+     * 
+     * @param packed The packed value
+     * @param position The position in the tuple
+     * @return The value
+     */
+    public int get(long packed, int position)
+    {
+        int shift = (tupleLength - 1 - position) * bitsPerIndex;
+        return (int) (((packed ^ Long.MIN_VALUE) >>> shift) & mask);
+    }
+    
+    /**
+     * Returns a stream of the packed index tuples of the given space, 
+     * in the order of their ranks. The stream may be processed in 
+     * parallel.
+     * 
+     * @param space The space
+     * @return The stream
+     * @throws IllegalArgumentException If the tuples can not be 
+     * packed into a <code>long</code>
+     */
+    public static LongStream stream(IndexSpace space)
+    {
+        PackedTupleCodec codec = new PackedTupleCodec(space);
+        return StreamSupport.longStream(
+            codec.new PackedSpliterator(space, 0, space.size()), false);
+    }
+    
+    /**
+     * Implementation of a spliterator over the packed index tuples of 
+     * a range of ranks of an {@link IndexSpace}. It is split by 
+     * dividing the range of ranks into halves.
+     */
+    private final class PackedSpliterator implements Spliterator.OfLong
+    {
+        /**
+         * The space
+         */
+        private final IndexSpace space;
+        
+        /**
+         * The rank of the next element
+         */
+        private long current;
+        
+        /**
+         * The maximum rank, exclusive
+         */
+        private final long toRank;
+        
+        /**
+         * The index tuple of the next element, or <code>null</code> if 
+         * it was not computed yet
+         */
+        private int tuple[];
+        
+        /**
+         * Creates a new spliterator over the given range of ranks of 
+         * the given space
+         * 
+         * @param space The space
+         * @param fromRank The minimum rank, inclusive
+         * @param toRank The maximum rank, exclusive
+         */
+        PackedSpliterator(IndexSpace space, long fromRank, long toRank)
+        {
+            this.space = space;
+            this.current = fromRank;
+            this.toRank = toRank;
+        }
+        
+        @Override
+        public boolean tryAdvance(LongConsumer action)
+        {
+            if (current >= toRank)
+            {
+                return false;
+            }
+            if (tuple == null)
+            {
+                tuple = new int[space.getTupleLength()];
+                space.unrank(current, tuple);
+            }
+            else
+            {
+                space.nextTuple(tuple);
+            }
+            current++;
+            action.accept(pack(tuple));
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(LongConsumer action)
+        {
+            while (tryAdvance(action))
+            {
+                // Nothing else to do
+            }
+        }
+        
+        @Override
+        public Spliterator.OfLong trySplit()
+        {
+            if (toRank - current < 2)
+            {
+                return null;
+            }
+            long mid = current + (toRank - current) / 2;
+            Spliterator.OfLong prefix = 
+                new PackedSpliterator(space, current, mid);
+            current = mid;
+            tuple = null;
+            return prefix;
+        }
+        
+        @Override
+        public long estimateSize()
+        {
+            return toRank - current;
+        }
+        
+        @Override
+        public int characteristics()
+        {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
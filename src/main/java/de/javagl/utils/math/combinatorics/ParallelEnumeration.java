@@ -0,0 +1,310 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Methods for processing all elements of a {@link CombinatorialSpace}
+ * in parallel. <br />
+ * <br />
+ * The space is split into ranges of ranks, which are processed by
+ * fork/join tasks. Each task only computes the index tuple of the 
+ * first element of its range via unranking, and obtains the subsequent 
+ * tuples by advancing this tuple in place. The ranges are split lazily:
+ * A task only splits off the upper half of its remaining range while 
+ * there are no surplus tasks queued for other threads, so the 
+ * granularity adapts to the actual load of the pool. <br />
+ * <br />
+ * When these methods are called from within a <code>ForkJoinPool</code>,
+ * then the tasks are executed in this pool. Otherwise, they are executed
+ * in the common pool, with the calling thread participating. 
+ */
+public final class ParallelEnumeration
+{
+    /**
+     * The minimum number of elements that are processed by one task
+     */
+    private static final long MIN_GRANULARITY = 64;
+    
+    /**
+     * The number of tasks that may be queued for other threads before
+     * a task stops splitting its range
+     */
+    private static final int SURPLUS_THRESHOLD = 2;
+    
+    /**
+     * Passes all elements of the given space to the given consumer,
+     * in parallel. The consumer must be thread-safe. The order in 
+     * which the elements are passed to the consumer is unspecified.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param consumer The consumer
+     */
+    public static <T> void forEachParallel(
+        final CombinatorialSpace<T> space, 
+        final Consumer<? super List<T>> consumer)
+    {
+        forEachTupleParallel(space, new IntArrayConsumer()
+        {
+            @Override
+            public void accept(int tuple[])
+            {
+                consumer.accept(space.select(tuple));
+            }
+        });
+    }
+    
+    /**
+     * Passes all index tuples of the given space to the given consumer,
+     * in parallel. The consumer must be thread-safe. The order in 
+     * which the tuples are passed to the consumer is unspecified. <br />
+     * <br />
+     * Each task passes the same array to the consumer, which is 
+     * modified after the consumer returns. The consumer may not
+     * store or modify the array.
+     * 
+     * @param space The space
+     * @param consumer The consumer
+     */
+    public static void forEachTupleParallel(
+        IndexSpace space, final IntArrayConsumer consumer)
+    {
+        collectTuplesParallel(space, () -> null, 
+            (container, rank, tuple) -> 
+            {
+                consumer.accept(tuple);
+                return true;
+            }, 
+            (container0, container1) -> null);
+    }
+    
+    /**
+     * Performs a reduction on the elements of the given space, in 
+     * parallel. The given identity must be an identity for the given
+     * combiner, and the accumulator and combiner must be associative,
+     * as described in <code>java.util.stream.Stream#reduce</code>. 
+     * The partial results are combined in the order of the ranks of
+     * the elements. 
+     * 
+     * @param <T> The type of the elements
+     * @param <R> The type of the result
+     * @param space The space
+     * @param identity The identity value
+     * @param accumulator The function that incorporates an element 
+     * into a partial result
+     * @param combiner The function that combines two partial results
+     * @return The result
+     */
+    public static <T, R> R reduceParallel(final CombinatorialSpace<T> space, 
+        final R identity, 
+        final BiFunction<R, ? super List<T>, R> accumulator, 
+        final BinaryOperator<R> combiner)
+    {
+        List<R> result = collectTuplesParallel(space, 
+            () -> new ArrayList<R>(Collections.singletonList(identity)), 
+            (container, rank, tuple) -> 
+            {
+                R partial = container.get(0);
+                container.set(0, 
+                    accumulator.apply(partial, space.select(tuple)));
+                return true;
+            },
+            (container0, container1) -> 
+            {
+                container0.set(0, 
+                    combiner.apply(container0.get(0), container1.get(0)));
+                return container0;
+            });
+        return result.get(0);
+    }
+    
+    /**
+     * Performs a mutable reduction on the index tuples of the given 
+     * space, in parallel. <br />
+     * <br />
+     * Each task obtains a new result container from the given 
+     * supplier, and passes the index tuples of its range of ranks, in 
+     * ascending order, to the given accumulator. The accumulator may 
+     * stop the processing of the current range by returning 
+     * <code>false</code>. The containers of all tasks are combined 
+     * with the given combiner, in the order of the ranks. 
+     * 
+     * @param <A> The type of the result container
+     * @param space The space
+     * @param supplier The supplier for the result containers
+     * @param accumulator The accumulator
+     * @param combiner The function that combines two containers. It
+     * may return one of the given containers.
+     * @return The result container
+     */
+    public static <A> A collectTuplesParallel(IndexSpace space, 
+        Supplier<? extends A> supplier, TupleAccumulator<? super A> accumulator,
+        BinaryOperator<A> combiner)
+    {
+        return new CollectTask<A>(space, supplier, accumulator, combiner, 
+            0, space.size()).invoke();
+    }
+    
+    /**
+     * Returns whether a task that is currently processing a range 
+     * of the given size should split off a part of this range
+     * 
+     * @param length The length of the remaining range
+     * @return Whether the range should be split
+     */
+    static boolean shouldSplit(long length)
+    {
+        return length > 2 * MIN_GRANULARITY && 
+            ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD;
+    }
+    
+    /**
+     * A task performing a mutable reduction of the index tuples of 
+     * a range of ranks
+     * 
+     * @param <A> The type of the result container
+     */
+    private static final class CollectTask<A> extends RecursiveTask<A>
+    {
+        /**
+         * Serial UID
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The space
+         */
+        private final IndexSpace space;
+        
+        /**
+         * The supplier for the result containers
+         */
+        private final Supplier<? extends A> supplier;
+        
+        /**
+         * The accumulator
+         */
+        private final TupleAccumulator<? super A> accumulator;
+        
+        /**
+         * The combiner
+         */
+        private final BinaryOperator<A> combiner;
+        
+        /**
+         * The minimum rank, inclusive
+         */
+        private final long fromRank;
+        
+        /**
+         * The maximum rank, exclusive
+         */
+        private final long toRank;
+        
+        /**
+         * Creates a new task
+         * 
+         * @param space The space
+         * @param supplier The supplier for the result containers
+         * @param accumulator The accumulator
+         * @param combiner The combiner
+         * @param fromRank The minimum rank, inclusive
+         * @param toRank The maximum rank, exclusive
+         */
+        CollectTask(IndexSpace space, Supplier<? extends A> supplier, 
+            TupleAccumulator<? super A> accumulator, 
+            BinaryOperator<A> combiner, long fromRank, long toRank)
+        {
+            this.space = space;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+
+        @Override
+        protected A compute()
+        {
+            long to = toRank;
+            List<CollectTask<A>> forked = new ArrayList<CollectTask<A>>();
+            while (shouldSplit(to - fromRank))
+            {
+                long mid = fromRank + (to - fromRank) / 2;
+                CollectTask<A> task = new CollectTask<A>(space, 
+                    supplier, accumulator, combiner, mid, to);
+                task.fork();
+                forked.add(task);
+                to = mid;
+            }
+            A result = supplier.get();
+            if (fromRank < to)
+            {
+                int tuple[] = new int[space.getTupleLength()];
+                space.unrank(fromRank, tuple);
+                for (long r = fromRank; r < to; r++)
+                {
+                    if (!accumulator.accept(result, r, tuple))
+                    {
+                        break;
+                    }
+                    if (r + 1 < to)
+                    {
+                        space.nextTuple(tuple);
+                    }
+                }
+            }
+            
+            // The forked tasks cover consecutive ranges in reverse
+            // order, so their results are appended in reverse order
+            for (int i = forked.size() - 1; i >= 0; i--)
+            {
+                result = combiner.apply(result, forked.get(i).join());
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ParallelEnumeration()
+    {
+        
+    }
+}
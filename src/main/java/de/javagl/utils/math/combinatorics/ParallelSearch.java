@@ -0,0 +1,782 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Methods for searching the elements of a {@link CombinatorialSpace} 
+ * that have the highest or lowest scores, or that match a predicate,
+ * in parallel. <br />
+ * <br />
+ * Each task of the {@link ParallelEnumeration} keeps the best elements
+ * of its range of ranks in a bounded heap that only stores the scores,
+ * ranks and index tuples in primitive arrays. The heaps are merged at
+ * the end, and the lists of elements are only created for the final 
+ * results. <br />
+ * <br />
+ * Elements with equal scores are ordered by their rank, so that the 
+ * results are deterministic. Elements with a score that is 
+ * <code>NaN</code> are ignored. <br />
+ * <br />
+ * The methods with the suffix <code>ByTuple</code> receive a scoring
+ * function that operates on the index tuples. This avoids creating a
+ * list for each element. The tuple that is passed to the scoring 
+ * function may not be stored or modified. <br />
+ * <br />
+ * The <code>find</code> methods stop all tasks as soon as the result
+ * is known: The tasks share a watermark that contains the lowest rank
+ * of a matching element that was found so far. A task abandons its
+ * range when it reaches this watermark. For the <code>findAny</code>
+ * methods, any match causes all tasks to stop. For the 
+ * <code>findFirst</code> methods, the tasks that process lower ranks
+ * continue, so that the result is the matching element with the 
+ * lowest rank.
+ */
+public final class ParallelSearch
+{
+    /**
+     * Returns the element of the given space that has the highest 
+     * score, or <code>null</code> if the space is empty
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best element
+     */
+    public static <T> ScoredElement<T> argMax(CombinatorialSpace<T> space, 
+        ToDoubleFunction<? super List<T>> scorer)
+    {
+        return first(topN(space, 1, scorer));
+    }
+    
+    /**
+     * Returns the element of the given space that has the lowest 
+     * score, or <code>null</code> if the space is empty
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best element
+     */
+    public static <T> ScoredElement<T> argMin(CombinatorialSpace<T> space, 
+        ToDoubleFunction<? super List<T>> scorer)
+    {
+        return first(bottomN(space, 1, scorer));
+    }
+    
+    /**
+     * Returns the n elements of the given space that have the highest
+     * scores, starting with the highest score
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param n The maximum number of elements to return
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best elements
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static <T> List<ScoredElement<T>> topN(
+        final CombinatorialSpace<T> space, int n, 
+        final ToDoubleFunction<? super List<T>> scorer)
+    {
+        return search(space, n, true, 
+            tuple -> scorer.applyAsDouble(space.select(tuple)));
+    }
+    
+    /**
+     * Returns the n elements of the given space that have the lowest
+     * scores, starting with the lowest score
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param n The maximum number of elements to return
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best elements
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static <T> List<ScoredElement<T>> bottomN(
+        final CombinatorialSpace<T> space, int n, 
+        final ToDoubleFunction<? super List<T>> scorer)
+    {
+        return search(space, n, false, 
+            tuple -> scorer.applyAsDouble(space.select(tuple)));
+    }
+    
+    /**
+     * Returns the element of the given space whose index tuple has the 
+     * highest score, or <code>null</code> if the space is empty
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best element
+     */
+    public static <T> ScoredElement<T> argMaxByTuple(
+        CombinatorialSpace<T> space, ToDoubleFunction<int[]> scorer)
+    {
+        return first(search(space, 1, true, scorer));
+    }
+    
+    /**
+     * Returns the element of the given space whose index tuple has the 
+     * lowest score, or <code>null</code> if the space is empty
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best element
+     */
+    public static <T> ScoredElement<T> argMinByTuple(
+        CombinatorialSpace<T> space, ToDoubleFunction<int[]> scorer)
+    {
+        return first(search(space, 1, false, scorer));
+    }
+    
+    /**
+     * Returns the n elements of the given space whose index tuples have
+     * the highest scores, starting with the highest score
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param n The maximum number of elements to return
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best elements
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static <T> List<ScoredElement<T>> topNByTuple(
+        CombinatorialSpace<T> space, int n, ToDoubleFunction<int[]> scorer)
+    {
+        return search(space, n, true, scorer);
+    }
+    
+    /**
+     * Returns the n elements of the given space whose index tuples have
+     * the lowest scores, starting with the lowest score
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param n The maximum number of elements to return
+     * @param scorer The scoring function, which must be thread-safe
+     * @return The best elements
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static <T> List<ScoredElement<T>> bottomNByTuple(
+        CombinatorialSpace<T> space, int n, ToDoubleFunction<int[]> scorer)
+    {
+        return search(space, n, false, scorer);
+    }
+    
+    /**
+     * Returns an element of the given space that matches the given
+     * predicate, or <code>null</code> if there is no such element.
+     * If there are multiple matching elements, then it is unspecified
+     * which of them is returned.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param predicate The predicate, which must be thread-safe
+     * @return The matching element
+     */
+    public static <T> List<T> findAny(final CombinatorialSpace<T> space, 
+        final Predicate<? super List<T>> predicate)
+    {
+        long rank = find(space, false, 
+            tuple -> predicate.test(space.select(tuple)));
+        return rank < 0 ? null : space.get(rank);
+    }
+    
+    /**
+     * Returns the element with the lowest rank in the given space that 
+     * matches the given predicate, or <code>null</code> if there is no 
+     * such element.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param predicate The predicate, which must be thread-safe
+     * @return The matching element
+     */
+    public static <T> List<T> findFirst(final CombinatorialSpace<T> space, 
+        final Predicate<? super List<T>> predicate)
+    {
+        long rank = find(space, true, 
+            tuple -> predicate.test(space.select(tuple)));
+        return rank < 0 ? null : space.get(rank);
+    }
+    
+    /**
+     * Returns the rank of an index tuple of the given space that matches 
+     * the given predicate, or -1 if there is no such tuple. If there 
+     * are multiple matching tuples, then it is unspecified which of 
+     * them is returned.
+     * 
+     * @param space The space
+     * @param predicate The predicate, which must be thread-safe
+     * @return The rank of the matching tuple
+     */
+    public static long findAnyByTuple(
+        IndexSpace space, Predicate<int[]> predicate)
+    {
+        return find(space, false, predicate);
+    }
+    
+    /**
+     * Returns the lowest rank of an index tuple of the given space that 
+     * matches the given predicate, or -1 if there is no such tuple.
+     * 
+     * @param space The space
+     * @param predicate The predicate, which must be thread-safe
+     * @return The rank of the matching tuple
+     */
+    public static long findFirstByTuple(
+        IndexSpace space, Predicate<int[]> predicate)
+    {
+        return find(space, true, predicate);
+    }
+    
+    /**
+     * Implementation of the search for a matching index tuple
+     * 
+     * @param space The space
+     * @param first Whether the matching tuple with the lowest rank
+     * should be found
+     * @param predicate The predicate
+     * @return The rank of the matching tuple, or -1
+     */
+    private static long find(IndexSpace space, boolean first, 
+        Predicate<int[]> predicate)
+    {
+        AtomicLong watermark = new AtomicLong(Long.MAX_VALUE);
+        new FindTask(space, predicate, first, watermark, 
+            0, space.size()).invoke();
+        long rank = watermark.get();
+        return rank == Long.MAX_VALUE ? -1 : rank;
+    }
+    
+    /**
+     * Returns the first element of the given list, or <code>null</code>
+     * if the list is empty
+     * 
+     * @param <T> The type of the elements
+     * @param list The list
+     * @return The first element
+     */
+    private static <T> T first(List<T> list)
+    {
+        return list.isEmpty() ? null : list.get(0);
+    }
+    
+    /**
+     * Implementation of the search for the best elements
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param n The maximum number of elements to return
+     * @param maximize Whether higher scores are better
+     * @param scorer The scoring function
+     * @return The best elements
+     * @throws IllegalArgumentException If n is negative
+     */
+    private static <T> List<ScoredElement<T>> search(
+        CombinatorialSpace<T> space, final int n, final boolean maximize,
+        final ToDoubleFunction<int[]> scorer)
+    {
+        if (n < 0)
+        {
+            throw new IllegalArgumentException(
+                "The number of results may not be negative, but is " + n);
+        }
+        if (n == 0)
+        {
+            return Collections.emptyList();
+        }
+        final int length = space.getTupleLength();
+        final int capacity = (int) Math.min(n, space.size());
+        BoundedHeap heap = ParallelEnumeration.collectTuplesParallel(space, 
+            () -> new BoundedHeap(capacity, length, maximize), 
+            (h, rank, tuple) -> 
+            {
+                h.offer(scorer.applyAsDouble(tuple), rank, tuple);
+                return true;
+            },
+            (h0, h1) -> 
+            {
+                h0.addAll(h1);
+                return h0;
+            });
+        return heap.toScoredElements(space);
+    }
+    
+    /**
+     * A heap of bounded size that keeps the best scored index tuples.
+     * The root of the heap is the worst of the stored entries, so that
+     * it can be replaced when a better entry is offered.
+     */
+    static final class BoundedHeap
+    {
+        /**
+         * The number of entries that the arrays are allocated for when
+         * the first entry is added
+         */
+        private static final int INITIAL_HEAP_CAPACITY = 16;
+        
+        /**
+         * The maximum number of entries
+         */
+        private final int capacity;
+        
+        /**
+         * The length of the tuples
+         */
+        private final int length;
+        
+        /**
+         * Whether higher scores are better
+         */
+        private final boolean maximize;
+        
+        /**
+         * The current number of entries
+         */
+        private int size;
+        
+        /**
+         * The scores of the entries
+         */
+        private double scores[];
+        
+        /**
+         * The ranks of the entries
+         */
+        private long ranks[];
+        
+        /**
+         * The tuples of the entries, stored consecutively
+         */
+        private int tuples[];
+        
+        /**
+         * Creates a new heap. The arrays for the entries are allocated
+         * lazily, and grow with the number of entries, so that a large
+         * capacity does not cause large allocations when only few
+         * entries are offered.
+         * 
+         * @param capacity The maximum number of entries
+         * @param length The length of the tuples
+         * @param maximize Whether higher scores are better
+         */
+        BoundedHeap(int capacity, int length, boolean maximize)
+        {
+            this.capacity = capacity;
+            this.length = length;
+            this.maximize = maximize;
+            this.scores = new double[0];
+            this.ranks = new long[0];
+            this.tuples = new int[0];
+        }
+        
+        /**
+         * Make sure that the arrays can store one more entry
+         */
+        private void grow()
+        {
+            if (size < scores.length)
+            {
+                return;
+            }
+            int newLength = (int) Math.min(capacity, 
+                Math.max(INITIAL_HEAP_CAPACITY, 2L * scores.length));
+            scores = Arrays.copyOf(scores, newLength);
+            ranks = Arrays.copyOf(ranks, newLength);
+            tuples = Arrays.copyOf(tuples, newLength * length);
+        }
+        
+        /**
+         * Returns whether the first given entry is better than the 
+         * second one
+         * 
+         * @param score0 The first score
+         * @param rank0 The first rank
+         * @param score1 The second score
+         * @param rank1 The second rank
+         * @return Whether the first entry is better
+         */
+        private boolean better(
+            double score0, long rank0, double score1, long rank1)
+        {
+            if (score0 != score1)
+            {
+                return maximize ? score0 > score1 : score0 < score1;
+            }
+            return rank0 < rank1;
+        }
+        
+        /**
+         * Returns whether the entry at index i is better than the 
+         * one at index j
+         * 
+         * @param i The first index
+         * @param j The second index
+         * @return Whether the first entry is better
+         */
+        private boolean better(int i, int j)
+        {
+            return better(scores[i], ranks[i], scores[j], ranks[j]);
+        }
+        
+        /**
+         * Offer the given entry to this heap. It will be added if the
+         * heap is not full yet, or if it is better than the worst entry.
+         * 
+         * @param score The score
+         * @param rank The rank
+         * @param tuple The tuple
+         */
+        void offer(double score, long rank, int tuple[])
+        {
+            offer(score, rank, tuple, 0);
+        }
+        
+        /**
+         * Offer the given entry to this heap, where the tuple is read 
+         * from the given array, starting at the given offset
+         * 
+         * @param score The score
+         * @param rank The rank
+         * @param tupleArray The array containing the tuple
+         * @param offset The offset of the tuple in the array
+         */
+        private void offer(double score, long rank, 
+            int tupleArray[], int offset)
+        {
+            if (Double.isNaN(score))
+            {
+                return;
+            }
+            if (size < capacity)
+            {
+                grow();
+                set(size, score, rank, tupleArray, offset);
+                siftUp(size);
+                size++;
+            }
+            else if (better(score, rank, scores[0], ranks[0]))
+            {
+                set(0, score, rank, tupleArray, offset);
+                siftDown(0);
+            }
+        }
+        
+        /**
+         * Offer all entries of the given heap to this heap
+         * 
+         * @param other The other heap
+         */
+        void addAll(BoundedHeap other)
+        {
+            for (int i = 0; i < other.size; i++)
+            {
+                offer(other.scores[i], other.ranks[i], 
+                    other.tuples, i * length);
+            }
+        }
+        
+        /**
+         * Set the entry at the given index
+         * 
+         * @param index The index
+         * @param score The score
+         * @param rank The rank
+         * @param tupleArray The array containing the tuple
+         * @param offset The offset of the tuple in the array
+         */
+        private void set(int index, double score, long rank, 
+            int tupleArray[], int offset)
+        {
+            scores[index] = score;
+            ranks[index] = rank;
+            System.arraycopy(tupleArray, offset, tuples, 
+                index * length, length);
+        }
+        
+        /**
+         * Swap the entries at the given indices
+         * 
+         * @param i The first index
+         * @param j The second index
+         */
+        private void swap(int i, int j)
+        {
+            double s = scores[i];
+            scores[i] = scores[j];
+            scores[j] = s;
+            long r = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = r;
+            for (int k = 0; k < length; k++)
+            {
+                int t = tuples[i * length + k];
+                tuples[i * length + k] = tuples[j * length + k];
+                tuples[j * length + k] = t;
+            }
+        }
+        
+        /**
+         * Move the entry at the given index up, until its parent is
+         * worse than the entry
+         * 
+         * @param index The index
+         */
+        private void siftUp(int index)
+        {
+            int i = index;
+            while (i > 0)
+            {
+                int parent = (i - 1) / 2;
+                if (!better(parent, i))
+                {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+        
+        /**
+         * Move the entry at the given index down, until its children
+         * are better than the entry
+         * 
+         * @param index The index
+         */
+        private void siftDown(int index)
+        {
+            int i = index;
+            while (true)
+            {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && better(worst, left))
+                {
+                    worst = left;
+                }
+                if (right < size && better(worst, right))
+                {
+                    worst = right;
+                }
+                if (worst == i)
+                {
+                    break;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+        
+        /**
+         * Create the list of scored elements from the entries of this 
+         * heap, starting with the best entry
+         * 
+         * @param <T> The type of the elements
+         * @param space The space that the tuples belong to
+         * @return The scored elements
+         */
+        <T> List<ScoredElement<T>> toScoredElements(
+            CombinatorialSpace<T> space)
+        {
+            List<ScoredElement<T>> result = 
+                new ArrayList<ScoredElement<T>>(size);
+            while (size > 0)
+            {
+                int tuple[] = new int[length];
+                System.arraycopy(tuples, 0, tuple, 0, length);
+                result.add(new ScoredElement<T>(ranks[0], scores[0], 
+                    tuple, space.select(tuple)));
+                size--;
+                swap(0, size);
+                siftDown(0);
+            }
+            Collections.reverse(result);
+            return result;
+        }
+    }
+    
+    /**
+     * A task that searches for a matching index tuple in a range
+     * of ranks
+     */
+    private static final class FindTask extends RecursiveAction
+    {
+        /**
+         * Serial UID
+         */
+        private static final long serialVersionUID = 1L;
+        
+        /**
+         * The space
+         */
+        private final IndexSpace space;
+        
+        /**
+         * The predicate
+         */
+        private final Predicate<int[]> predicate;
+        
+        /**
+         * Whether the matching tuple with the lowest rank is searched
+         */
+        private final boolean first;
+        
+        /**
+         * The lowest rank of a matching tuple that was found so far,
+         * shared by all tasks, or <code>Long.MAX_VALUE</code>
+         */
+        private final AtomicLong watermark;
+        
+        /**
+         * The minimum rank, inclusive
+         */
+        private final long fromRank;
+        
+        /**
+         * The maximum rank, exclusive
+         */
+        private final long toRank;
+        
+        /**
+         * Creates a new task
+         * 
+         * @param space The space
+         * @param predicate The predicate
+         * @param first Whether the matching tuple with the lowest rank 
+         * is searched
+         * @param watermark The shared watermark
+         * @param fromRank The minimum rank, inclusive
+         * @param toRank The maximum rank, exclusive
+         */
+        FindTask(IndexSpace space, Predicate<int[]> predicate, 
+            boolean first, AtomicLong watermark, long fromRank, long toRank)
+        {
+            this.space = space;
+            this.predicate = predicate;
+            this.first = first;
+            this.watermark = watermark;
+            this.fromRank = fromRank;
+            this.toRank = toRank;
+        }
+        
+        /**
+         * Returns whether the processing should stop at the given rank
+         * 
+         * @param rank The rank
+         * @return Whether the processing should stop
+         */
+        private boolean isDone(long rank)
+        {
+            long w = watermark.get();
+            return first ? rank >= w : w != Long.MAX_VALUE;
+        }
+        
+        /**
+         * Lower the watermark to the given rank, if it is larger
+         * 
+         * @param rank The rank
+         */
+        private void found(long rank)
+        {
+            while (true)
+            {
+                long w = watermark.get();
+                if (rank >= w || watermark.compareAndSet(w, rank))
+                {
+                    return;
+                }
+            }
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if (isDone(fromRank))
+            {
+                return;
+            }
+            long to = toRank;
+            List<FindTask> forked = new ArrayList<FindTask>();
+            while (ParallelEnumeration.shouldSplit(to - fromRank))
+            {
+                long mid = fromRank + (to - fromRank) / 2;
+                FindTask task = new FindTask(
+                    space, predicate, first, watermark, mid, to);
+                task.fork();
+                forked.add(task);
+                to = mid;
+            }
+            if (fromRank < to)
+            {
+                int tuple[] = new int[space.getTupleLength()];
+                space.unrank(fromRank, tuple);
+                for (long r = fromRank; r < to; r++)
+                {
+                    if (isDone(r))
+                    {
+                        break;
+                    }
+                    if (predicate.test(tuple))
+                    {
+                        found(r);
+                        break;
+                    }
+                    if (r + 1 < to)
+                    {
+                        space.nextTuple(tuple);
+                    }
+                }
+            }
+            for (int i = forked.size() - 1; i >= 0; i--)
+            {
+                forked.get(i).join();
+            }
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private ParallelSearch()
+    {
+        
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A group of permutations of the positions { 0, ..., degree-1 } of an
+ * index tuple, which is generated by a set of permutations. <br />
+ * <br />
+ * The group acts on index tuples by permuting their entries: The 
+ * permutation g maps the tuple t to the tuple whose entry i is 
+ * t[g[i]]. The orbit of a tuple is the set of all tuples that it is
+ * mapped to by the elements of the group. The canonical element of 
+ * an orbit is the lexicographically smallest tuple that it contains.
+ * <br />
+ * <br />
+ * All elements of the group are computed and stored when the group 
+ * is created, so the order of the group is limited to 
+ * {@link #MAX_ORDER}.
+ */
+public final class PermutationGroup
+{
+    /**
+     * The maximum order of a group, namely 2<sup>20</sup>
+     */
+    public static final int MAX_ORDER = 1 << 20;
+    
+    /**
+     * The degree of the group
+     */
+    private final int degree;
+    
+    /**
+     * The elements of the group. The first element is the identity.
+     */
+    private final List<int[]> elements;
+    
+    /**
+     * The number of cycles of each element
+     */
+    private final int cycleCounts[];
+    
+    /**
+     * Creates the group that is generated by the given permutations.
+     * Each permutation is given as an array that contains each of the 
+     * values { 0, ..., degree-1 } exactly once.
+     * 
+     * @param degree The degree of the group
+     * @param generators The generators
+     * @throws IllegalArgumentException If the degree is negative, 
+     * one of the generators is not a valid permutation of the given 
+     * degree, or the order of the group is larger than 
+     * {@link #MAX_ORDER}
+     */
+    public PermutationGroup(int degree, List<int[]> generators)
+    {
+        if (degree < 0)
+        {
+            throw new IllegalArgumentException(
+                "The degree may not be negative, but is " + degree);
+        }
+        for (int generator[] : generators)
+        {
+            checkPermutation(degree, generator);
+        }
+        this.degree = degree;
+        this.elements = Collections.unmodifiableList(
+            computeElements(degree, generators));
+        this.cycleCounts = new int[elements.size()];
+        for (int i = 0; i < elements.size(); i++)
+        {
+            cycleCounts[i] = countCycles(elements.get(i));
+        }
+    }
+    
+    /**
+     * Creates the cyclic group of the given degree, which contains the 
+     * rotations of the positions
+     * 
+     * @param degree The degree
+     * @return The group
+     * @throws IllegalArgumentException If the degree is negative
+     */
+    public static PermutationGroup cyclic(int degree)
+    {
+        List<int[]> generators = new ArrayList<int[]>();
+        if (degree > 1)
+        {
+            generators.add(rotation(degree));
+        }
+        return new PermutationGroup(degree, generators);
+    }
+    
+    /**
+     * Creates the dihedral group of the given degree, which contains 
+     * the rotations and reflections of the positions
+     * 
+     * @param degree The degree
+     * @return The group
+     * @throws IllegalArgumentException If the degree is negative
+     */
+    public static PermutationGroup dihedral(int degree)
+    {
+        List<int[]> generators = new ArrayList<int[]>();
+        if (degree > 1)
+        {
+            generators.add(rotation(degree));
+            int reflection[] = new int[degree];
+            for (int i = 0; i < degree; i++)
+            {
+                reflection[i] = degree - 1 - i;
+            }
+            generators.add(reflection);
+        }
+        return new PermutationGroup(degree, generators);
+    }
+    
+    /**
+     * Creates the symmetric group of the given degree, which contains 
+     * all permutations of the positions
+     * 
+     * @param degree The degree
+     * @return The group
+     * @throws IllegalArgumentException If the degree is negative, or
+     * the order of the group is larger than {@link #MAX_ORDER}
+     */
+    public static PermutationGroup symmetric(int degree)
+    {
+        List<int[]> generators = new ArrayList<int[]>();
+        if (degree > 1)
+        {
+            generators.add(rotation(degree));
+            int transposition[] = identity(degree);
+            transposition[0] = 1;
+            transposition[1] = 0;
+            generators.add(transposition);
+        }
+        return new PermutationGroup(degree, generators);
+    }
+    
+    /**
+     * Creates the identity permutation of the given degree
+     * 
+     * @param degree The degree
+     * @return The identity
+     */
+    private static int[] identity(int degree)
+    {
+        int result[] = new int[degree];
+        for (int i = 0; i < degree; i++)
+        {
+            result[i] = i;
+        }
+        return result;
+    }
+    
+    /**
+     * Creates the permutation that rotates the positions by one
+     * 
+     * @param degree The degree
+     * @return The rotation
+     */
+    private static int[] rotation(int degree)
+    {
+        int result[] = new int[degree];
+        for (int i = 0; i < degree; i++)
+        {
+            result[i] = (i + 1) % degree;
+        }
+        return result;
+    }
+    
+    /**
+     * Makes sure that the given array is a permutation of the given 
+     * degree
+     * 
+     * @param degree The degree
+     * @param permutation The permutation
+     * @throws IllegalArgumentException If the array is not a 
+     * permutation of the given degree
+     */
+    private static void checkPermutation(int degree, int permutation[])
+    {
+        if (permutation.length != degree)
+        {
+            throw new IllegalArgumentException(
+                "Expected a permutation of degree " + degree + 
+                ", but found " + Arrays.toString(permutation));
+        }
+        boolean found[] = new boolean[degree];
+        for (int value : permutation)
+        {
+            if (value < 0 || value >= degree || found[value])
+            {
+                throw new IllegalArgumentException(
+                    "Not a permutation: " + Arrays.toString(permutation));
+            }
+            found[value] = true;
+        }
+    }
+    
+    /**
+     * Computes all elements of the group that is generated by the given
+     * permutations, by multiplying the elements that have been found 
+     * with the generators until no new elements are found
+     * 
+     * @param degree The degree
+     * @param generators The generators
+     * @return The elements, starting with the identity
+     * @throws IllegalArgumentException If the order of the group is 
+     * larger than {@link #MAX_ORDER}
+     */
+    private static List<int[]> computeElements(
+        int degree, List<int[]> generators)
+    {
+        List<int[]> result = new ArrayList<int[]>();
+        Set<List<Integer>> found = new HashSet<List<Integer>>();
+        int identity[] = identity(degree);
+        result.add(identity);
+        found.add(asList(identity));
+        for (int e = 0; e < result.size(); e++)
+        {
+            int element[] = result.get(e);
+            for (int generator[] : generators)
+            {
+                int product[] = new int[degree];
+                for (int i = 0; i < degree; i++)
+                {
+                    product[i] = element[generator[i]];
+                }
+                if (found.add(asList(product)))
+                {
+                    if (result.size() == MAX_ORDER)
+                    {
+                        throw new IllegalArgumentException(
+                            "The order of the group is larger than " + 
+                            MAX_ORDER);
+                    }
+                    result.add(product);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a list containing the values of the given array
+     * 
+     * @param array The array
+     * @return The list
+     */
+    private static List<Integer> asList(int array[])
+    {
+        List<Integer> result = new ArrayList<Integer>(array.length);
+        for (int value : array)
+        {
+            result.add(value);
+        }
+        return result;
+    }
+    
+    /**
+     * Counts the cycles of the given permutation, including the fixed
+     * points
+     * 
+     * @param permutation The permutation
+     * @return The number of cycles
+     */
+    private static int countCycles(int permutation[])
+    {
+        boolean visited[] = new boolean[permutation.length];
+        int count = 0;
+        for (int i = 0; i < permutation.length; i++)
+        {
+            if (!visited[i])
+            {
+                count++;
+                for (int j = i; !visited[j]; j = permutation[j])
+                {
+                    visited[j] = true;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the degree of this group, which is the length of the 
+     * index tuples that it acts on
+     * 
+     * @return The degree
+     */
+    public int getDegree()
+    {
+        return degree;
+    }
+    
+    /**
+     * Returns the order of this group, which is the number of its 
+     * elements
+     * 
+     * @return The order
+     */
+    public int getOrder()
+    {
+        return elements.size();
+    }
+    
+    /**
+     * Returns an unmodifiable list containing all elements of this 
+     * group, starting with the identity. The arrays in this list must
+     * not be modified.
+     * 
+     * @return The elements
+     */
+    public List<int[]> getElements()
+    {
+        return elements;
+    }
+    
+    /**
+     * Returns whether the given index tuple is the lexicographically 
+     * smallest tuple of its orbit. This takes O(order * degree) time 
+     * in the worst case, but usually, the comparison with most of the 
+     * elements of the orbit stops after a few entries.
+     * 
+     * @param tuple The index tuple, with a length of at least the degree
+     * @return Whether the tuple is canonical
+     */
+    public boolean isCanonical(int tuple[])
+    {
+        for (int e = 1; e < elements.size(); e++)
+        {
+            int element[] = elements.get(e);
+            for (int i = 0; i < degree; i++)
+            {
+                int mapped = tuple[element[i]];
+                if (mapped != tuple[i])
+                {
+                    if (mapped < tuple[i])
+                    {
+                        return false;
+                    }
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Computes the lexicographically smallest tuple of the orbit of the
+     * given index tuple. If the given result array is <code>null</code>,
+     * then a new array will be created and returned.
+     * 
+     * @param tuple The index tuple
+     * @param result The array that will store the result
+     * @return The canonical tuple
+     */
+    public int[] canonicalize(int tuple[], int result[])
+    {
+        int best[] = Arrays.copyOf(tuple, degree);
+        int mapped[] = new int[degree];
+        for (int e = 1; e < elements.size(); e++)
+        {
+            int element[] = elements.get(e);
+            for (int i = 0; i < degree; i++)
+            {
+                mapped[i] = tuple[element[i]];
+            }
+            if (compare(mapped, best) < 0)
+            {
+                System.arraycopy(mapped, 0, best, 0, degree);
+            }
+        }
+        int r[] = result;
+        if (r == null)
+        {
+            r = new int[degree];
+        }
+        System.arraycopy(best, 0, r, 0, degree);
+        return r;
+    }
+    
+    /**
+     * Compares the given arrays lexicographically
+     * 
+     * @param a The first array
+     * @param b The second array
+     * @return The result of the comparison
+     */
+    private static int compare(int a[], int b[])
+    {
+        for (int i = 0; i < a.length; i++)
+        {
+            if (a[i] != b[i])
+            {
+                return Integer.compare(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Computes the number of orbits of the tuples with entries from 
+     * { 0, ..., k-1 } under this group, without enumerating them. By
+     * Burnside's lemma, this is the average number of tuples that are
+     * fixed by the elements of the group, and an element with c cycles
+     * fixes k<sup>c</sup> tuples.
+     * 
+     * @param k The number of possible values of each entry
+     * @return The number of orbits
+     * @throws IllegalArgumentException If k is negative
+     * @throws ArithmeticException If the result does not fit into
+     * a <code>long</code>
+     */
+    public long countOrbits(int k)
+    {
+        return Counting.toLong(countOrbitsBig(k), "orbits", degree, k);
+    }
+    
+    /**
+     * Computes the number of orbits of the tuples with entries from 
+     * { 0, ..., k-1 } under this group, without enumerating them. By
+     * Burnside's lemma, this is the average number of tuples that are
+     * fixed by the elements of the group, and an element with c cycles
+     * fixes k<sup>c</sup> tuples.
+     * 
+     * @param k The number of possible values of each entry
+     * @return The number of orbits
+     * @throws IllegalArgumentException If k is negative
+     */
+    public BigInteger countOrbitsBig(int k)
+    {
+        if (k < 0)
+        {
+            throw new IllegalArgumentException(
+                "The k may not be negative, but is " + k);
+        }
+        long counts[] = new long[degree + 1];
+        for (int cycleCount : cycleCounts)
+        {
+            counts[cycleCount]++;
+        }
+        BigInteger sum = BigInteger.ZERO;
+        BigInteger bk = BigInteger.valueOf(k);
+        for (int c = 0; c <= degree; c++)
+        {
+            if (counts[c] != 0)
+            {
+                sum = sum.add(
+                    BigInteger.valueOf(counts[c]).multiply(bk.pow(c)));
+            }
+        }
+        return sum.divide(BigInteger.valueOf(elements.size()));
+    }
+}
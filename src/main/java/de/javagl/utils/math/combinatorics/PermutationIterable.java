@@ -49,10 +49,14 @@ import java.util.NoSuchElementException;
  * [C, A, B]
  * [C, B, A]
  * </pre>
+ * 
+ * The index tuples of the {@link IndexSpace} are the permutations 
+ * of the indices of the input elements, in lexicographical order. 
  *  
  * @param <T> The type of the elements 
  */
-public final class PermutationIterable<T> implements Iterable<List<T>>
+public final class PermutationIterable<T> 
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -62,17 +66,158 @@ public final class PermutationIterable<T> implements Iterable<List<T>>
     /**
      * The total number of permutations that will be provided by the iterator
      */
-    private final int numPermutations;
+    private final long numPermutations;
  
     /**
      * Creates an iterable over all permutations of the given elements
      * 
      * @param input The input elements
+     * @throws ArithmeticException If the number of permutations does 
+     * not fit into a <code>long</code>, which is the case for more 
+     * than 20 input elements
      */
     public PermutationIterable(List<T> input)
     {
         this.input = input;
-        numPermutations = Utils.factorial(input.size()).intValue();
+        numPermutations = Counting.factorial(input.size());
+    }
+    
+    @Override
+    public long size()
+    {
+        return numPermutations;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public void unrank(long rank, int permutation[])
+    {
+        Utils.checkRank(rank, numPermutations);
+        int n = input.size();
+        for (int i = 0; i < n; i++)
+        {
+            permutation[i] = i;
+        }
+        
+        // The same computation as in the iterator, based on the 
+        // factorial representation of the rank
+        long factorial = numPermutations;
+        for (int i = 0; i < n - 1; i++)
+        {
+            factorial /= (n - i);
+            int tempIndex = (int) ((rank / factorial) % (n - i));
+            int temp = permutation[i + tempIndex];
+            for (int j = i + tempIndex; j > i; j--)
+            {
+                permutation[j] = permutation[j - 1];
+            }
+            permutation[i] = temp;
+        }
+    }
+    
+    @Override
+    public long rank(int permutation[])
+    {
+        // The digit i of the factorial representation is the number
+        // of subsequent indices that are smaller than the index i
+        int n = input.size();
+        long result = 0;
+        long factorial = numPermutations;
+        for (int i = 0; i < n - 1; i++)
+        {
+            factorial /= (n - i);
+            int digit = 0;
+            for (int j = i + 1; j < n; j++)
+            {
+                if (permutation[j] < permutation[i])
+                {
+                    digit++;
+                }
+            }
+            result += digit * factorial;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int permutation[])
+    {
+        // Find the last position i where the index is smaller than 
+        // the following one. Swap it with the smallest larger index 
+        // after it, and reverse the (descending) suffix after i
+        int n = input.size();
+        int i = n - 2;
+        while (i >= 0 && permutation[i] > permutation[i + 1])
+        {
+            i--;
+        }
+        if (i < 0)
+        {
+            return false;
+        }
+        int j = n - 1;
+        while (permutation[j] < permutation[i])
+        {
+            j--;
+        }
+        swap(permutation, i, j);
+        for (int a = i + 1, b = n - 1; a < b; a++, b--)
+        {
+            swap(permutation, a, b);
+        }
+        return true;
+    }
+    
+    @Override
+    public List<T> select(int permutation[])
+    {
+        List<T> result = new ArrayList<T>(input.size());
+        for (int i = 0; i < input.size(); i++)
+        {
+            result.add(input.get(permutation[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(int permutation[])
+    {
+        return new IndexedListView<T>(input, permutation, input.size());
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int permutation[])
+    {
+        if (element.size() != input.size())
+        {
+            return false;
+        }
+        return Utils.toDistinctIndices(input, element, permutation);
+    }
+    
+    /**
+     * Swaps the given elements of the given array
+     * 
+     * @param array The array
+     * @param i The first index
+     * @param j The second index
+     */
+    private static void swap(int array[], int i, int j)
+    {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
     }
  
     @Override
@@ -88,7 +233,7 @@ public final class PermutationIterable<T> implements Iterable<List<T>>
             /**
              * The index of the current permutation
              */
-            private int current = 0;
+            private long current = 0;
  
             @Override
             public boolean hasNext()
@@ -106,11 +251,11 @@ public final class PermutationIterable<T> implements Iterable<List<T>>
                 
                 // Adapted from http://en.wikipedia.org/wiki/Permutation
                 List<T> result = new ArrayList<T>(input);
-                int factorial = numPermutations / input.size();
+                long factorial = numPermutations / input.size();
                 for (int i = 0; i < result.size() - 1; i++)
                 {
-                    int tempIndex = (current / factorial) %
-                        (result.size() - i);
+                    int tempIndex = (int) ((current / factorial) %
+                        (result.size() - i));
                     T temp = result.get(i + tempIndex);
                     for (int j = i + tempIndex; j > i; j--)
                     {
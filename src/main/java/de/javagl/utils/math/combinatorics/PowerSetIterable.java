@@ -59,9 +59,15 @@ import java.util.NoSuchElementException;
  * i = 7, binary: 111, element: {A,B,C}
  * </pre>
  * 
+ * The index tuples of the {@link IndexSpace} are the bits of the 
+ * binary representation of i: The value at index b of the tuple 
+ * is 1 if the b'th element of the input is contained in the subset, 
+ * and 0 otherwise. 
+ * 
  * @param <T> The type of the elements
  */
-public final class PowerSetIterable<T> implements Iterable<List<T>>
+public final class PowerSetIterable<T> 
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -71,29 +77,166 @@ public final class PowerSetIterable<T> implements Iterable<List<T>>
     /**
      * The total number of elements that the iterator will provide
      */
-    private final int numElements;
+    private final long numElements;
  
     /**
      * Creates a new iterable over all elements of the power set
      * of the given elements
      * 
      * @param input The input elements
+     * @throws ArithmeticException If the number of subsets does 
+     * not fit into a <code>long</code>, which is the case for more 
+     * than 62 input elements
      */
     public PowerSetIterable(List<T> input)
     {
         this.input = input;
-        numElements = 1 << input.size();
+        numElements = Counting.power(2, input.size());
+    }
+ 
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return 2;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numElements);
+        for (int i = 0; i < input.size(); i++)
+        {
+            tuple[i] = (int) ((rank >>> i) & 1);
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        long result = 0;
+        for (int i = 0; i < input.size(); i++)
+        {
+            result |= ((long) tuple[i]) << i;
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Binary counting, where the tuple element 0 is the least
+        // significant bit
+        for (int i = 0; i < input.size(); i++)
+        {
+            if (tuple[i] == 0)
+            {
+                tuple[i] = 1;
+                return true;
+            }
+            tuple[i] = 0;
+        }
+        return false;
+    }
+ 
+    @Override
+    public List<T> select(int tuple[])
+    {
+        List<T> element = new ArrayList<T>();
+        for (int i = 0; i < input.size(); i++)
+        {
+            if (tuple[i] != 0)
+            {
+                element.add(input.get(i));
+            }
+        }
+        return element;
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        final int positions[] = new int[input.size()];
+        return new TupleView<T>()
+        {
+            /**
+             * The number of valid entries in the positions array
+             */
+            private int size;
+            
+            @Override
+            void update()
+            {
+                size = 0;
+                for (int i = 0; i < input.size(); i++)
+                {
+                    if (tuple[i] != 0)
+                    {
+                        positions[size++] = i;
+                    }
+                }
+            }
+            
+            @Override
+            public T get(int index)
+            {
+                if (index < 0 || index >= size)
+                {
+                    throw new IndexOutOfBoundsException(
+                        "Index " + index + ", size " + size);
+                }
+                return input.get(positions[index]);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        for (int i = 0; i < input.size(); i++)
+        {
+            tuple[i] = 0;
+        }
+        int previous = -1;
+        for (Object e : element)
+        {
+            int index = Utils.indexOf(input, e, previous + 1);
+            if (index < 0)
+            {
+                return false;
+            }
+            tuple[index] = 1;
+            previous = index;
+        }
+        return true;
     }
  
     @Override
-   public Iterator<List<T>> iterator()
+    public Iterator<List<T>> iterator()
     {
         return new Iterator<List<T>>()
         {
             /**
              * The current index in the power set
              */
-            private int current = 0;
+            private long current = 0;
  
             @Override
             public boolean hasNext()
@@ -117,7 +260,7 @@ public final class PowerSetIterable<T> implements Iterable<List<T>>
                 // has a '1' in its binary representation
                 for (int i = 0; i < input.size(); i++)
                 {
-                    long b = 1 << i;
+                    long b = 1L << i;
                     if ((current & b) != 0)
                     {
                         element.add(input.get(i));
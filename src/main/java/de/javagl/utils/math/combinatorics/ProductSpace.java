@@ -0,0 +1,314 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link CombinatorialSpace} that is the cartesian product of other
+ * spaces. Each element of the product is the concatenation of one 
+ * element of each of the spaces. Example:<br />
+ * <pre>
+ * A = choices of 2 from { A,B,C } : [A, B], [A, C], [B, C]
+ * B = { X,Y } (as a mixed range combination) : [X], [Y]
+ * 
+ * Product of A and B:
+ * [A, B, X]
+ * [A, B, Y]
+ * [A, C, X]
+ * [A, C, Y]
+ * [B, C, X]
+ * [B, C, Y]
+ * </pre>
+ * 
+ * The elements are ordered lexicographically by the ranks of their 
+ * parts, so that the rank of an element is computed from the ranks 
+ * of its parts like a number in a mixed-radix system, where the 
+ * last space has the lowest significance. The index tuples are the 
+ * concatenations of the index tuples of the parts. <br />
+ * <br />
+ * The spaces are not copied. They must not be modified while this
+ * space is in use. If the list of spaces is empty, then the product 
+ * is empty. 
+ * 
+ * @param <T> The type of the elements
+ */
+public final class ProductSpace<T> extends AbstractCombinatorialSpace<T>
+{
+    /**
+     * The spaces
+     */
+    private final List<CombinatorialSpace<? extends T>> spaces;
+    
+    /**
+     * The sizes of the spaces
+     */
+    private final long sizes[];
+    
+    /**
+     * The offsets of the index tuples of the spaces in the index tuples
+     * of this space
+     */
+    private final int offsets[];
+    
+    /**
+     * The tuple lengths of the spaces
+     */
+    private final int lengths[];
+    
+    /**
+     * The maximum tuple length of the spaces
+     */
+    private final int maxLength;
+    
+    /**
+     * The total number of elements
+     */
+    private final long numElements;
+    
+    /**
+     * Creates the product of the given spaces
+     * 
+     * @param spaces The spaces
+     * @throws ArithmeticException If the number of elements does 
+     * not fit into a <code>long</code>
+     */
+    public ProductSpace(List<? extends CombinatorialSpace<? extends T>> spaces)
+    {
+        this.spaces = new ArrayList<CombinatorialSpace<? extends T>>(spaces);
+        int n = spaces.size();
+        this.sizes = new long[n];
+        this.offsets = new int[n];
+        this.lengths = new int[n];
+        long m = n > 0 ? 1 : 0;
+        int offset = 0;
+        int max = 0;
+        for (int i = 0; i < n; i++)
+        {
+            CombinatorialSpace<? extends T> space = spaces.get(i);
+            sizes[i] = space.size();
+            offsets[i] = offset;
+            lengths[i] = space.getTupleLength();
+            offset += lengths[i];
+            max = Math.max(max, lengths[i]);
+            m = Math.multiplyExact(m, sizes[i]);
+        }
+        this.maxLength = max;
+        this.numElements = m;
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        int n = spaces.size();
+        if (n == 0)
+        {
+            return 0;
+        }
+        return offsets[n - 1] + lengths[n - 1];
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        int max = 0;
+        for (CombinatorialSpace<? extends T> space : spaces)
+        {
+            max = Math.max(max, space.getIndexBound());
+        }
+        return max;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numElements);
+        int part[] = new int[maxLength];
+        long remaining = rank;
+        for (int i = spaces.size() - 1; i >= 0; i--)
+        {
+            spaces.get(i).unrank(remaining % sizes[i], part);
+            System.arraycopy(part, 0, tuple, offsets[i], lengths[i]);
+            remaining /= sizes[i];
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        int part[] = new int[maxLength];
+        long result = 0;
+        for (int i = 0; i < spaces.size(); i++)
+        {
+            System.arraycopy(tuple, offsets[i], part, 0, lengths[i]);
+            result = result * sizes[i] + spaces.get(i).rank(part);
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Advance the last space. When it wraps around, reset it to
+        // its first tuple, and advance the previous one.
+        int part[] = new int[maxLength];
+        for (int i = spaces.size() - 1; i >= 0; i--)
+        {
+            CombinatorialSpace<? extends T> space = spaces.get(i);
+            System.arraycopy(tuple, offsets[i], part, 0, lengths[i]);
+            boolean advanced = space.nextTuple(part);
+            if (!advanced)
+            {
+                space.unrank(0, part);
+            }
+            System.arraycopy(part, 0, tuple, offsets[i], lengths[i]);
+            if (advanced)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<T> select(int tuple[])
+    {
+        int part[] = new int[maxLength];
+        List<T> result = new ArrayList<T>();
+        for (int i = 0; i < spaces.size(); i++)
+        {
+            System.arraycopy(tuple, offsets[i], part, 0, lengths[i]);
+            result.addAll(spaces.get(i).select(part));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        final int n = spaces.size();
+        final int parts[][] = new int[n][];
+        final List<List<? extends T>> views = 
+            new ArrayList<List<? extends T>>(n);
+        for (int i = 0; i < n; i++)
+        {
+            parts[i] = new int[lengths[i]];
+            views.add(viewOf(spaces.get(i), parts[i]));
+        }
+        final int ends[] = new int[n];
+        return new TupleView<T>()
+        {
+            @Override
+            void update()
+            {
+                int end = 0;
+                for (int i = 0; i < n; i++)
+                {
+                    System.arraycopy(tuple, offsets[i], parts[i], 0, 
+                        lengths[i]);
+                    updateView(views.get(i));
+                    end += views.get(i).size();
+                    ends[i] = end;
+                }
+            }
+            
+            @Override
+            public T get(int index)
+            {
+                if (index < 0 || index >= size())
+                {
+                    throw new IndexOutOfBoundsException(
+                        "Index " + index + ", size " + size());
+                }
+                int i = 0;
+                while (index >= ends[i])
+                {
+                    i++;
+                }
+                int start = i == 0 ? 0 : ends[i - 1];
+                return views.get(i).get(index - start);
+            }
+
+            @Override
+            public int size()
+            {
+                return n == 0 ? 0 : ends[n - 1];
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        return toTuple(element, 0, 0, tuple, new int[maxLength]);
+    }
+    
+    /**
+     * Writes the index tuples of the parts of the given element into
+     * the given tuple, starting with the given space. Since the lengths 
+     * of the elements of the spaces may vary, this tries all lengths for 
+     * the part of the current space, and returns whether the remaining
+     * parts could be matched by the remaining spaces.
+     * 
+     * @param element The element
+     * @param start The start index of the current part in the element
+     * @param index The index of the current space
+     * @param tuple The array that will store the index tuple
+     * @param part A temporary array for the tuples of the parts
+     * @return Whether the remaining part is an element of the product
+     * of the remaining spaces
+     */
+    private boolean toTuple(List<?> element, int start, int index, 
+        int tuple[], int part[])
+    {
+        if (index == spaces.size())
+        {
+            return start == element.size();
+        }
+        CombinatorialSpace<? extends T> space = spaces.get(index);
+        for (int end = start; end <= element.size(); end++)
+        {
+            long rank = space.rank(element.subList(start, end));
+            if (rank >= 0 && toTuple(element, end, index + 1, tuple, part))
+            {
+                space.unrank(rank, part);
+                System.arraycopy(part, 0, tuple, offsets[index], 
+                    lengths[index]);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+/**
+ * A pseudo-random permutation of the ranks 0...size-1, that is 
+ * determined by a key. <br />
+ * <br />
+ * The permutation is computed with a balanced Feistel network on the
+ * smallest domain of an even number of bits that contains all ranks.
+ * Values that fall outside of the range of ranks are mapped again 
+ * ("cycle-walking"), until they are inside the range. Since the 
+ * domain is less than four times as large as the range, this 
+ * requires only a few rounds on average. <br />
+ * <br />
+ * The permutation does not store any tables, and can be evaluated 
+ * for arbitrary ranks, in both directions, concurrently.
+ */
+public final class RankPermutation
+{
+    /**
+     * The number of Feistel rounds
+     */
+    private static final int ROUNDS = 6;
+    
+    /**
+     * The golden ratio constant that is used for deriving the round keys
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    
+    /**
+     * The size of the range
+     */
+    private final long size;
+    
+    /**
+     * The number of bits of each half of the domain
+     */
+    private final int halfBits;
+    
+    /**
+     * The mask for one half of the domain
+     */
+    private final long halfMask;
+    
+    /**
+     * The keys for the Feistel rounds
+     */
+    private final long roundKeys[];
+    
+    /**
+     * Creates a new permutation of the ranks 0...size-1, with the 
+     * given key.
+     * 
+     * @param size The size of the range
+     * @param key The key
+     * @throws IllegalArgumentException If the size is negative
+     */
+    public RankPermutation(long size, long key)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + size);
+        }
+        this.size = size;
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, size - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = halfBits == 32 ? 0xFFFFFFFFL : (1L << halfBits) - 1;
+        this.roundKeys = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            roundKeys[i] = Sampling.mix64(key + (i + 1) * GOLDEN_GAMMA);
+        }
+    }
+    
+    /**
+     * Returns the size of the range
+     * 
+     * @return The size
+     */
+    public long size()
+    {
+        return size;
+    }
+    
+    /**
+     * Returns the rank that the given rank is mapped to
+     * 
+     * @param rank The rank
+     * @return The mapped rank
+     * @throws IndexOutOfBoundsException If the rank is negative or 
+     * not smaller than the size
+     */
+    public long apply(long rank)
+    {
+        Utils.checkRank(rank, size);
+        long x = rank;
+        do
+        {
+            x = encrypt(x);
+        }
+        while (Long.compareUnsigned(x, size) >= 0);
+        return x;
+    }
+    
+    /**
+     * Returns the rank that is mapped to the given rank
+     * 
+     * @param rank The rank
+     * @return The rank that is mapped to the given rank
+     * @throws IndexOutOfBoundsException If the rank is negative or 
+     * not smaller than the size
+     */
+    public long inverse(long rank)
+    {
+        Utils.checkRank(rank, size);
+        long x = rank;
+        do
+        {
+            x = decrypt(x);
+        }
+        while (Long.compareUnsigned(x, size) >= 0);
+        return x;
+    }
+    
+    /**
+     * Apply the Feistel network to the given value
+     * 
+     * @param value The value
+     * @return The result
+     */
+    private long encrypt(long value)
+    {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            long t = right;
+            right = left ^ round(right, i);
+            left = t;
+        }
+        return (left << halfBits) | right;
+    }
+    
+    /**
+     * Apply the inverse of the Feistel network to the given value
+     * 
+     * @param value The value
+     * @return The result
+     */
+    private long decrypt(long value)
+    {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--)
+        {
+            long t = left;
+            left = right ^ round(left, i);
+            right = t;
+        }
+        return (left << halfBits) | right;
+    }
+    
+    /**
+     * The round function of the Feistel network
+     * 
+     * @param half The half of the value
+     * @param round The index of the round
+     * @return The result
+     */
+    private long round(long half, int round)
+    {
+        return Sampling.mix64(half ^ roundKeys[round]) & halfMask;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of a spliterator over a range of ranks of a 
+ * {@link CombinatorialSpace}. It is split by dividing the range of 
+ * ranks into halves, and only computes the index tuple of its first 
+ * element via unranking. The subsequent index tuples are obtained 
+ * by advancing this tuple.
+ * 
+ * @param <T> The type of the elements
+ */
+class RankSpliterator<T> implements Spliterator<List<T>>
+{
+    /**
+     * The space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The rank of the next element
+     */
+    private long current;
+    
+    /**
+     * The maximum rank, exclusive
+     */
+    private final long toRank;
+    
+    /**
+     * The index tuple of the next element, or <code>null</code> if 
+     * it was not computed yet
+     */
+    private int tuple[];
+    
+    /**
+     * The cursor for advancing the tuple, or <code>null</code> if it 
+     * was not created yet
+     */
+    private TupleCursor<T> cursor;
+    
+    /**
+     * Creates a new spliterator over the given range of ranks of 
+     * the given space
+     * 
+     * @param space The space
+     * @param fromRank The minimum rank, inclusive
+     * @param toRank The maximum rank, exclusive
+     */
+    RankSpliterator(CombinatorialSpace<T> space, long fromRank, long toRank)
+    {
+        this.space = space;
+        this.current = fromRank;
+        this.toRank = toRank;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action)
+    {
+        if (current >= toRank)
+        {
+            return false;
+        }
+        if (tuple == null)
+        {
+            if (cursor == null)
+            {
+                cursor = AbstractCombinatorialSpace.cursorOf(space);
+            }
+            tuple = new int[space.getTupleLength()];
+            cursor.unrank(current, tuple);
+        }
+        else
+        {
+            cursor.nextTuple(tuple);
+        }
+        current++;
+        action.accept(cursor.select(tuple));
+        return true;
+    }
+    
+    @Override
+    public void forEachRemaining(Consumer<? super List<T>> action)
+    {
+        while (tryAdvance(action))
+        {
+            // Nothing else to do
+        }
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit()
+    {
+        if (toRank - current < 2)
+        {
+            return null;
+        }
+        long mid = current + (toRank - current) / 2;
+        Spliterator<List<T>> prefix = 
+            new RankSpliterator<T>(space, current, mid);
+        current = mid;
+        tuple = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        return toRank - current;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An iterator over the elements of a {@link CombinatorialSpace} whose
+ * position can be exported and restored. <br />
+ * <br />
+ * The position is given by the rank of the next element, which can 
+ * be obtained with {@link #getRank()}. Alternatively, the index tuple
+ * of the next element can be obtained with {@link #getTuple()}. A new
+ * iterator that continues at the same position can be created by
+ * passing the rank or the tuple to the constructor. This only 
+ * requires a single <code>unrank</code> operation, regardless of the
+ * number of elements that have already been processed. <br />
+ * <br />
+ * A {@link CheckpointListener} may be attached to the iterator, which 
+ * will be informed about the position periodically, after a certain
+ * number of elements or a certain time.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class ResumableIterator<T> implements Iterator<List<T>>
+{
+    /**
+     * The space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The rank of the next element
+     */
+    private long rank;
+    
+    /**
+     * The index tuple of the next element
+     */
+    private final int tuple[];
+    
+    /**
+     * The listener that will be informed about checkpoints
+     */
+    private CheckpointListener checkpointListener;
+    
+    /**
+     * The number of elements after which a checkpoint is reported,
+     * or 0 if checkpoints are not reported based on the number of 
+     * elements
+     */
+    private long elementInterval;
+    
+    /**
+     * The time in nanoseconds after which a checkpoint is reported,
+     * or 0 if checkpoints are not reported based on the time
+     */
+    private long timeIntervalNs;
+    
+    /**
+     * The rank of the last checkpoint
+     */
+    private long checkpointRank;
+    
+    /**
+     * The time of the last checkpoint, in nanoseconds
+     */
+    private long checkpointTimeNs;
+    
+    /**
+     * Creates a new iterator over the given space, starting at the 
+     * first element
+     * 
+     * @param space The space
+     */
+    public ResumableIterator(CombinatorialSpace<T> space)
+    {
+        this(space, 0);
+    }
+    
+    /**
+     * Creates a new iterator over the given space, starting at the 
+     * element with the given rank
+     * 
+     * @param space The space
+     * @param rank The rank of the first element. If this is equal to 
+     * the size of the space, then the iterator will have no elements.
+     * @throws IndexOutOfBoundsException If the rank is negative or
+     * larger than the size of the space
+     */
+    public ResumableIterator(CombinatorialSpace<T> space, long rank)
+    {
+        AbstractCombinatorialSpace.checkRange(rank, space.size(), 
+            space.size());
+        this.space = space;
+        this.rank = rank;
+        this.tuple = new int[space.getTupleLength()];
+        if (rank < space.size())
+        {
+            space.unrank(rank, tuple);
+        }
+        this.checkpointRank = rank;
+    }
+    
+    /**
+     * Creates a new iterator over the given space, starting at the 
+     * element with the given index tuple
+     * 
+     * @param space The space
+     * @param tuple The index tuple of the first element, as it was 
+     * returned by {@link #getTuple()}
+     * @throws IllegalArgumentException If the given tuple is not a 
+     * valid index tuple of the space
+     */
+    public ResumableIterator(CombinatorialSpace<T> space, int tuple[])
+    {
+        this(space, rankOf(space, tuple));
+    }
+    
+    /**
+     * Returns the rank of the given index tuple in the given space
+     * 
+     * @param space The space
+     * @param tuple The index tuple
+     * @return The rank
+     * @throws IllegalArgumentException If the given tuple is not a 
+     * valid index tuple of the space
+     */
+    private static long rankOf(IndexSpace space, int tuple[])
+    {
+        if (tuple.length != space.getTupleLength())
+        {
+            throw new IllegalArgumentException(
+                "Expected a tuple of length " + space.getTupleLength() + 
+                ", but got " + tuple.length);
+        }
+        long rank = space.rank(tuple);
+        boolean valid = rank >= 0 && rank < space.size();
+        if (valid)
+        {
+            int check[] = new int[tuple.length];
+            space.unrank(rank, check);
+            valid = Arrays.equals(tuple, check);
+        }
+        if (!valid)
+        {
+            throw new IllegalArgumentException(
+                "The tuple is not an element of the space");
+        }
+        return rank;
+    }
+    
+    /**
+     * Set the listener that will be informed about checkpoints. The
+     * listener will be called after the given number of elements have
+     * been returned since the last checkpoint, or when the given time 
+     * has passed since the last checkpoint, whichever comes first. 
+     * The listener is only called when the next element is requested,
+     * before it is returned, so that the caller has finished all
+     * elements before the reported rank.
+     * 
+     * @param checkpointListener The listener. May be <code>null</code>
+     * to disable checkpoints.
+     * @param elementInterval The number of elements between two 
+     * checkpoints. A value of 0 disables checkpoints based on the 
+     * number of elements.
+     * @param timeInterval The time between two checkpoints. A value of 
+     * 0 disables checkpoints based on the time.
+     * @param unit The unit of the time interval
+     * @throws IllegalArgumentException If any interval is negative
+     */
+    public void setCheckpointListener(CheckpointListener checkpointListener,
+        long elementInterval, long timeInterval, TimeUnit unit)
+    {
+        if (elementInterval < 0)
+        {
+            throw new IllegalArgumentException(
+                "The element interval may not be negative, but is " + 
+                elementInterval);
+        }
+        if (timeInterval < 0)
+        {
+            throw new IllegalArgumentException(
+                "The time interval may not be negative, but is " + 
+                timeInterval);
+        }
+        this.checkpointListener = checkpointListener;
+        this.elementInterval = elementInterval;
+        this.timeIntervalNs = unit.toNanos(timeInterval);
+        this.checkpointRank = rank;
+        this.checkpointTimeNs = System.nanoTime();
+    }
+    
+    /**
+     * Returns the rank of the next element that will be returned by
+     * this iterator. If the iterator has no more elements, then this
+     * is the size of the space.
+     * 
+     * @return The rank of the next element
+     */
+    public long getRank()
+    {
+        return rank;
+    }
+    
+    /**
+     * Returns a copy of the index tuple of the next element that will 
+     * be returned by this iterator, or <code>null</code> if the 
+     * iterator has no more elements.
+     * 
+     * @return The index tuple of the next element
+     */
+    public int[] getTuple()
+    {
+        if (!hasNext())
+        {
+            return null;
+        }
+        return tuple.clone();
+    }
+    
+    @Override
+    public boolean hasNext()
+    {
+        return rank < space.size();
+    }
+    
+    @Override
+    public List<T> next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException("No more elements");
+        }
+        if (checkpointListener != null)
+        {
+            checkCheckpoint();
+        }
+        List<T> result = space.select(tuple);
+        rank++;
+        if (rank < space.size())
+        {
+            space.nextTuple(tuple);
+        }
+        return result;
+    }
+    
+    /**
+     * Inform the checkpoint listener if the number of elements or the
+     * time since the last checkpoint exceeds the respective interval
+     */
+    private void checkCheckpoint()
+    {
+        boolean report = false;
+        if (elementInterval > 0 && rank - checkpointRank >= elementInterval)
+        {
+            report = true;
+        }
+        long timeNs = 0;
+        if (timeIntervalNs > 0)
+        {
+            timeNs = System.nanoTime();
+            if (timeNs - checkpointTimeNs >= timeIntervalNs)
+            {
+                report = true;
+            }
+        }
+        if (report)
+        {
+            checkpointRank = rank;
+            checkpointTimeNs = timeIntervalNs > 0 ? timeNs : 0;
+            checkpointListener.checkpoint(rank);
+        }
+    }
+    
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException(
+            "May not remove elements from a combinatorial space");
+    }
+}
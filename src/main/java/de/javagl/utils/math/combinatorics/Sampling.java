@@ -0,0 +1,427 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Methods for creating uniformly distributed random elements of 
+ * combinatorial spaces, without enumerating the spaces. <br />
+ * <br />
+ * The methods that receive the size parameters of a space write 
+ * random index tuples into a given array, which may be reused. The 
+ * tuples have the same form as the index tuples of the corresponding
+ * iterables in this package. These methods do not have to compute 
+ * the size of the space, and can therefore also be used for spaces 
+ * whose size does not fit into a <code>long</code>. <br />
+ * <br />
+ * The methods that receive a seed create sequences of samples that 
+ * only depend on the seed: The sample with index i is computed with 
+ * a random number generator that is derived from the seed and i. 
+ * So the sequences are reproducible, even when they are processed
+ * in parallel.
+ */
+public final class Sampling
+{
+    /**
+     * The golden ratio constant that is used for deriving the seeds
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    
+    /**
+     * Writes a random choice of k out of n indices into the given 
+     * array. The indices will be strictly increasing, as in the 
+     * tuples of a {@link ChoiceIterable}. <br />
+     * <br />
+     * This uses Robert Floyd's algorithm, which only requires k 
+     * random numbers.
+     * 
+     * @param n The number of indices to choose from
+     * @param k The number of indices to choose
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least k.
+     * @throws IllegalArgumentException If n or k are negative, or k 
+     * is larger than n
+     */
+    public static void sampleChoice(
+        int n, int k, SplittableRandom random, int tuple[])
+    {
+        check(n, k);
+        int m = 0;
+        for (int j = n - k; j < n; j++)
+        {
+            int t = random.nextInt(j + 1);
+            int position = Arrays.binarySearch(tuple, 0, m, t);
+            if (position >= 0)
+            {
+                // All elements that are chosen so far are smaller
+                // than j, so it can be appended
+                tuple[m] = j;
+            }
+            else
+            {
+                int insertion = -(position + 1);
+                System.arraycopy(tuple, insertion, 
+                    tuple, insertion + 1, m - insertion);
+                tuple[insertion] = t;
+            }
+            m++;
+        }
+    }
+    
+    /**
+     * Writes a random permutation of the indices 0...n-1 into the 
+     * given array, as in the tuples of a {@link PermutationIterable}.
+     * <br />
+     * <br />
+     * This uses the Fisher-Yates shuffle.
+     * 
+     * @param n The number of indices
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least n.
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static void samplePermutation(
+        int n, SplittableRandom random, int tuple[])
+    {
+        check(n, 0);
+        for (int i = 0; i < n; i++)
+        {
+            tuple[i] = i;
+        }
+        shuffle(tuple, n, random);
+    }
+    
+    /**
+     * Writes a random sequence of k distinct indices from 0...n-1
+     * into the given array, as in the tuples of a 
+     * {@link SequenceWithoutRepetitionIterable}. 
+     * 
+     * @param n The number of indices to choose from
+     * @param k The length of the sequence
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least k.
+     * @throws IllegalArgumentException If n or k are negative, or k 
+     * is larger than n
+     */
+    public static void sampleSequence(
+        int n, int k, SplittableRandom random, int tuple[])
+    {
+        sampleChoice(n, k, random, tuple);
+        shuffle(tuple, k, random);
+    }
+    
+    /**
+     * Writes a random tuple of k indices from 0...n-1, where each 
+     * index may appear multiple times, into the given array, as in
+     * the tuples of a {@link CombinationIterable}.
+     * 
+     * @param n The number of indices to choose from
+     * @param k The length of the tuple
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least k.
+     * @throws IllegalArgumentException If n or k are negative, or n 
+     * is zero and k is positive
+     */
+    public static void sampleCombination(
+        int n, int k, SplittableRandom random, int tuple[])
+    {
+        checkMultiset(n, k);
+        for (int i = 0; i < k; i++)
+        {
+            tuple[i] = random.nextInt(n);
+        }
+    }
+    
+    /**
+     * Writes a random multiset of k indices from 0...n-1 into the
+     * given array. The indices will be non-decreasing, as in the 
+     * tuples of an {@link UnorderedCombinationIterable}. <br />
+     * <br />
+     * This chooses k out of n+k-1 positions, and maps the choice to 
+     * a multiset by subtracting the index of each position.
+     * 
+     * @param n The number of indices to choose from
+     * @param k The size of the multiset
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least k.
+     * @throws IllegalArgumentException If n or k are negative, or n 
+     * is zero and k is positive
+     */
+    public static void sampleMultiset(
+        int n, int k, SplittableRandom random, int tuple[])
+    {
+        checkMultiset(n, k);
+        if (k == 0)
+        {
+            return;
+        }
+        sampleChoice(Math.addExact(n, k - 1), k, random, tuple);
+        for (int i = 0; i < k; i++)
+        {
+            tuple[i] -= i;
+        }
+    }
+    
+    /**
+     * Writes a random subset of the indices 0...n-1 into the given 
+     * array, where the entry at index i is 1 if the index i is 
+     * contained in the subset, and 0 otherwise, as in the tuples
+     * of a {@link PowerSetIterable}.
+     * 
+     * @param n The number of indices
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least n.
+     * @throws IllegalArgumentException If n is negative
+     */
+    public static void sampleSubset(
+        int n, SplittableRandom random, int tuple[])
+    {
+        check(n, 0);
+        long bits = 0;
+        for (int i = 0; i < n; i++)
+        {
+            if ((i & 63) == 0)
+            {
+                bits = random.nextLong();
+            }
+            tuple[i] = (int) (bits & 1);
+            bits >>>= 1;
+        }
+    }
+    
+    /**
+     * Writes the index tuple of a random element of the given space
+     * into the given array. This computes a random rank and unranks it.
+     * 
+     * @param space The space
+     * @param random The random number generator
+     * @param tuple The array that will store the result. Its length
+     * must be at least the tuple length of the space.
+     * @throws IllegalArgumentException If the space is empty
+     */
+    public static void sampleTuple(
+        IndexSpace space, SplittableRandom random, int tuple[])
+    {
+        long size = space.size();
+        if (size <= 0)
+        {
+            throw new IllegalArgumentException(
+                "Can not sample from an empty space");
+        }
+        space.unrank(random.nextLong(size), tuple);
+    }
+    
+    /**
+     * Returns a random element of the given space.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param random The random number generator
+     * @return The element
+     * @throws IllegalArgumentException If the space is empty
+     */
+    public static <T> List<T> sample(
+        CombinatorialSpace<T> space, SplittableRandom random)
+    {
+        int tuple[] = new int[space.getTupleLength()];
+        sampleTuple(space, random, tuple);
+        return space.select(tuple);
+    }
+    
+    /**
+     * Returns a stream of random elements of the given space. The
+     * stream may be processed in parallel. The sequence of elements 
+     * only depends on the given seed.
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @param count The number of elements
+     * @param seed The seed
+     * @return The stream
+     * @throws IllegalArgumentException If the space is empty and the 
+     * count is positive, or the count is negative
+     */
+    public static <T> Stream<List<T>> samples(
+        final CombinatorialSpace<T> space, long count, final long seed)
+    {
+        checkCount(space, count);
+        return LongStream.range(0, count).mapToObj(
+            i -> sample(space, createRandom(seed, i)));
+    }
+    
+    /**
+     * Passes the given number of random index tuples of the given 
+     * space to the given consumer. The same array is passed to the
+     * consumer in each call. The sequence of tuples only depends on 
+     * the given seed, and corresponds to the sequence of elements
+     * that is returned by {@link #samples(CombinatorialSpace, long, long)}
+     * 
+     * @param space The space
+     * @param count The number of tuples
+     * @param seed The seed
+     * @param consumer The consumer
+     * @throws IllegalArgumentException If the space is empty and the 
+     * count is positive, or the count is negative
+     */
+    public static void sampleTuples(IndexSpace space, long count, 
+        long seed, IntArrayConsumer consumer)
+    {
+        checkCount(space, count);
+        int tuple[] = new int[space.getTupleLength()];
+        for (long i = 0; i < count; i++)
+        {
+            sampleTuple(space, createRandom(seed, i), tuple);
+            consumer.accept(tuple);
+        }
+    }
+    
+    /**
+     * Creates the random number generator for the sample with the
+     * given index in a sequence of samples with the given seed
+     * 
+     * @param seed The seed
+     * @param index The index of the sample
+     * @return The random number generator
+     */
+    static SplittableRandom createRandom(long seed, long index)
+    {
+        return new SplittableRandom(mix64(seed + (index + 1) * GOLDEN_GAMMA));
+    }
+    
+    /**
+     * Computes a 64 bit hash of the given value. This is the finalizer 
+     * of the MurmurHash3 hash function, in the variant that is used 
+     * in <code>SplittableRandom</code>.
+     * 
+     * @param value The value
+     * @return The hash
+     */
+    static long mix64(long value)
+    {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Shuffles the first n elements of the given array, using the 
+     * Fisher-Yates shuffle
+     * 
+     * @param array The array
+     * @param n The number of elements to shuffle
+     * @param random The random number generator
+     */
+    private static void shuffle(int array[], int n, SplittableRandom random)
+    {
+        for (int i = n - 1; i > 0; i--)
+        {
+            int j = random.nextInt(i + 1);
+            int t = array[i];
+            array[i] = array[j];
+            array[j] = t;
+        }
+    }
+    
+    /**
+     * Makes sure that k out of n elements may be chosen
+     * 
+     * @param n The number of elements
+     * @param k The number of elements to choose
+     * @throws IllegalArgumentException If n or k are negative, or k 
+     * is larger than n
+     */
+    private static void check(int n, int k)
+    {
+        if (n < 0 || k < 0 || k > n)
+        {
+            throw new IllegalArgumentException(
+                "Can not choose " + k + " out of " + n + " elements");
+        }
+    }
+    
+    /**
+     * Makes sure that k out of n elements may be chosen, with 
+     * repetitions
+     * 
+     * @param n The number of elements
+     * @param k The number of elements to choose
+     * @throws IllegalArgumentException If n or k are negative, or n 
+     * is zero and k is positive
+     */
+    private static void checkMultiset(int n, int k)
+    {
+        if (n < 0 || k < 0 || (n == 0 && k > 0))
+        {
+            throw new IllegalArgumentException(
+                "Can not choose " + k + " out of " + n + " elements");
+        }
+    }
+    
+    /**
+     * Makes sure that the given number of samples can be taken from
+     * the given space
+     * 
+     * @param space The space
+     * @param count The number of samples
+     * @throws IllegalArgumentException If the space is empty and the 
+     * count is positive, or the count is negative
+     */
+    private static void checkCount(IndexSpace space, long count)
+    {
+        if (count < 0)
+        {
+            throw new IllegalArgumentException(
+                "The count may not be negative, but is " + count);
+        }
+        if (count > 0 && space.size() <= 0)
+        {
+            throw new IllegalArgumentException(
+                "Can not sample from an empty space");
+        }
+    }
+    
+    /**
+     * Private constructor to prevent instantiation
+     */
+    private Sampling()
+    {
+        
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An element of a {@link CombinatorialSpace}, together with its rank,
+ * its index tuple and a score that was assigned to it. Instances of
+ * this class are returned by the methods of the {@link ParallelSearch}
+ * class.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class ScoredElement<T>
+{
+    /**
+     * The rank of the element
+     */
+    private final long rank;
+    
+    /**
+     * The score of the element
+     */
+    private final double score;
+    
+    /**
+     * The index tuple of the element
+     */
+    private final int tuple[];
+    
+    /**
+     * The element
+     */
+    private final List<T> element;
+
+    /**
+     * Creates a new scored element
+     * 
+     * @param rank The rank
+     * @param score The score
+     * @param tuple The index tuple. A reference to this array is stored.
+     * @param element The element
+     */
+    ScoredElement(long rank, double score, int tuple[], List<T> element)
+    {
+        this.rank = rank;
+        this.score = score;
+        this.tuple = tuple;
+        this.element = element;
+    }
+    
+    /**
+     * Returns the rank of the element
+     * 
+     * @return The rank
+     */
+    public long getRank()
+    {
+        return rank;
+    }
+    
+    /**
+     * Returns the score of the element
+     * 
+     * @return The score
+     */
+    public double getScore()
+    {
+        return score;
+    }
+    
+    /**
+     * Returns a copy of the index tuple of the element
+     * 
+     * @return The index tuple
+     */
+    public int[] getTuple()
+    {
+        return tuple.clone();
+    }
+    
+    /**
+     * Returns the element
+     * 
+     * @return The element
+     */
+    public List<T> getElement()
+    {
+        return element;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return "ScoredElement[rank=" + rank + ", score=" + score + 
+            ", tuple=" + Arrays.toString(tuple) + 
+            ", element=" + element + "]";
+    }
+}
@@ -1,15 +1,18 @@
 package de.javagl.utils.math.combinatorics;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 /**
  * A class providing an iterator over all sequences without repetition
  * of a certain number of elements taken from a set. For a set S with
  * n=|S|, there are m=n!/(n-k)! different sequences of k elements
- * without repetition. Example: <br />
+ * without repetition. The sequences are provided in lexicographical
+ * order of the indices of their elements. Example: <br />
  * <pre>
  * S = { A,B,C,D }, n = |S| = 4
  * k = 2
@@ -17,23 +20,26 @@ import java.util.NoSuchElementException;
  *
  * Sequences without repetition:
  * [A, B]
- * [B, A]
  * [A, C]
- * [C, A]
  * [A, D]
- * [D, A]
+ * [B, A]
  * [B, C]
- * [C, B]
  * [B, D]
- * [D, B]
+ * [C, A]
+ * [C, B]
  * [C, D]
+ * [D, A]
+ * [D, B]
  * [D, C]
  * </pre>
  *
+ * The index tuples of the {@link IndexSpace} are the indices of the 
+ * elements in the sequence.
+ *
  * @param <T> The type of the elements
  */
 public final class SequenceWithoutRepetitionIterable<T> 
-    implements Iterable<List<T>>
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -44,6 +50,19 @@ public final class SequenceWithoutRepetitionIterable<T>
      * The size of each sample that will be provided by the iterator
      */
     private final int sampleSize;
+    
+    /**
+     * The total number of elements that the iterator will provide
+     */
+    private final long numElements;
+    
+    /**
+     * The weights of the digits of the falling factorial representation
+     * of the index of a sequence. The weight of digit i is the number 
+     * of sequences that share the same first i+1 elements, namely
+     * (n-1-i)!/(n-k)!
+     */
+    private final long weights[];
  
     /**
      * Creates a new iterable over all sequences without repetition
@@ -51,52 +70,264 @@ public final class SequenceWithoutRepetitionIterable<T>
      *  
      * @param sampleSize The sample size
      * @param input The input elements
+     * @throws ArithmeticException If the number of sequences does 
+     * not fit into a <code>long</code>
      */
     public SequenceWithoutRepetitionIterable(int sampleSize, List<T> input)
     {
         this.input = input;
         this.sampleSize = sampleSize;
+        
+        int n = input.size();
+        if (n == 0 || sampleSize == 0 || sampleSize > n)
+        {
+            this.numElements = 0;
+            this.weights = new long[0];
+        }
+        else
+        {
+            this.numElements = Counting.fallingFactorial(n, sampleSize);
+            
+            // The weights are the falling factorials 
+            // (n-1-i)*(n-2-i)*...*(n-k+1), computed 
+            // starting at the last digit
+            this.weights = new long[sampleSize];
+            long w = 1;
+            for (int i = sampleSize - 1; i >= 0; i--)
+            {
+                weights[i] = w;
+                w *= n - i;
+            }
+        }
     }
- 
+    
     @Override
-    public Iterator<List<T>> iterator()
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
     {
-        if (input.size() == 0 || sampleSize == 0)
+        return sampleSize;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return input.size();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <br />
+     * The digit i of the falling factorial representation of the 
+     * rank selects the element among the ones that are not yet used 
+     * by the digits 0...i-1.
+     */
+    @Override
+    public void unrank(long rank, int chosen[])
+    {
+        Utils.checkRank(rank, numElements);
+        BitSet used = new BitSet(input.size());
+        long remaining = rank;
+        for (int i = 0; i < sampleSize; i++)
         {
-            return Collections.<List<T>>emptyList().iterator();
+            int digit = (int) (remaining / weights[i]);
+            remaining %= weights[i];
+            int c = used.nextClearBit(0);
+            for (int j = 0; j < digit; j++)
+            {
+                c = used.nextClearBit(c + 1);
+            }
+            chosen[i] = c;
+            used.set(c);
         }
-        return new Iterator<List<T>>()
+    }
+    
+    @Override
+    public long rank(int chosen[])
+    {
+        long result = 0;
+        for (int i = 0; i < sampleSize; i++)
         {
-            // Sequences without repetition may be constructed
-            // by iterating over all permutations of all
-            // choices of the given number of elements.
+            // The digit is the number of elements that are still 
+            // available and that have a smaller index
+            int digit = chosen[i];
+            for (int j = 0; j < i; j++)
+            {
+                if (chosen[j] < chosen[i])
+                {
+                    digit--;
+                }
+            }
+            result += digit * weights[i];
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int chosen[])
+    {
+        int n = input.size();
+        if (n > Long.SIZE)
+        {
+            BitSet used = new BitSet(n);
+            for (int i = 0; i < sampleSize; i++)
+            {
+                used.set(chosen[i]);
+            }
+            return increase(chosen, used);
+        }
+        
+        // The same as increase(int[], BitSet), using a single 
+        // long value as the bit mask of the used elements
+        long all = (n == Long.SIZE) ? -1L : (1L << n) - 1;
+        long used = 0;
+        for (int i = 0; i < sampleSize; i++)
+        {
+            used |= 1L << chosen[i];
+        }
+        for (int i = sampleSize - 1; i >= 0; i--)
+        {
+            used &= ~(1L << chosen[i]);
+            long larger = ~used & all & ~((2L << chosen[i]) - 1);
+            if (larger != 0)
+            {
+                int c = Long.numberOfTrailingZeros(larger);
+                chosen[i] = c;
+                used |= 1L << c;
+                for (int j = i + 1; j < sampleSize; j++)
+                {
+                    int free = Long.numberOfTrailingZeros(~used);
+                    chosen[j] = free;
+                    used |= 1L << free;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Advances the chosen indices to the lexicographically next 
+     * sequence, and updates the given flags accordingly
+     * 
+     * @param chosen The indices of the chosen elements
+     * @param used The flags indicating which elements are chosen
+     * @return Whether there was a next sequence
+     */
+    private boolean increase(int chosen[], BitSet used)
+    {
+        // Starting at the last position, release the element
+        // at the current position, and look for the next 
+        // larger one that is not used. If there is none, 
+        // continue at the previous position. Otherwise, 
+        // fill the subsequent positions with the smallest 
+        // unused elements.
+        // Most of the time, only the last position changes,
+        // so the cost per sequence is amortized constant.
+        int n = input.size();
+        for (int i = sampleSize - 1; i >= 0; i--)
+        {
+            used.clear(chosen[i]);
+            int c = used.nextClearBit(chosen[i] + 1);
+            if (c < n)
+            {
+                chosen[i] = c;
+                used.set(c);
+                int free = 0;
+                for (int j = i + 1; j < sampleSize; j++)
+                {
+                    free = used.nextClearBit(free);
+                    chosen[j] = free;
+                    used.set(free);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<T> select(int chosen[])
+    {
+        List<T> result = new ArrayList<T>(sampleSize);
+        for (int i = 0; i < sampleSize; i++)
+        {
+            result.add(input.get(chosen[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(int chosen[])
+    {
+        return new IndexedListView<T>(input, chosen, sampleSize);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int chosen[])
+    {
+        if (numElements == 0 || element.size() != sampleSize)
+        {
+            return false;
+        }
+        return Utils.toDistinctIndices(input, element, chosen);
+    }
  
+    /**
+     * Returns a stream of the index tuples of the elements of this 
+     * iterable, packed into <code>long</code> values with a 
+     * {@link PackedTupleCodec}. The packed values are strictly 
+     * increasing in the order of the ranks.
+     * 
+     * @return The stream
+     * @throws IllegalArgumentException If the index tuples can not
+     * be packed into a <code>long</code>
+     */
+    public LongStream packedStream()
+    {
+        return PackedTupleCodec.stream(this);
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator()
+    {
+        return new Iterator<List<T>>()
+        {
+            /**
+             * The element counter
+             */
+            private long current = 0;
+            
             /**
-             * The iterator over all choices
+             * The indices of the elements that are currently chosen
              */
-            private final Iterator<List<T>> choiceIterator =
-                new ChoiceIterable<T>(sampleSize, input).iterator();
+            private final int chosen[] = new int[sampleSize];
             
             /**
-             * The iterator over all permutations of the current choice
+             * The flags indicating which elements are currently chosen
              */
-            private Iterator<List<T>> permutationIterator = null;
+            private final BitSet used = new BitSet(input.size());
  
-            @Override
-            public boolean hasNext()
+            // Initialization of the first sequence
             {
-                if (permutationIterator != null &&
-                    permutationIterator.hasNext())
-                {
-                    return true;
-                }
-                if (choiceIterator.hasNext())
+                if (numElements > 0)
                 {
-                    List<T> nextChoice = choiceIterator.next();
-                    permutationIterator =
-                        new PermutationIterable<T>(nextChoice).iterator();
+                    for (int i = 0; i < sampleSize; i++)
+                    {
+                        chosen[i] = i;
+                    }
+                    used.set(0, sampleSize);
                 }
-                return permutationIterator.hasNext();
+            }
+            
+            @Override
+            public boolean hasNext()
+            {
+                return current < numElements;
             }
  
             @Override
@@ -106,15 +337,15 @@ public final class SequenceWithoutRepetitionIterable<T>
                 {
                     throw new NoSuchElementException("No more elements");
                 }
-                if (permutationIterator == null)
+                List<T> result = select(chosen);
+                current++;
+                if (current < numElements)
                 {
-                    List<T> nextChoice = choiceIterator.next();
-                    permutationIterator =
-                        new PermutationIterable<T>(nextChoice).iterator();
+                    increase(chosen, used);
                 }
-                return permutationIterator.next();
+                return result;
             }
- 
+            
             @Override
             public void remove()
             {
@@ -124,4 +355,4 @@ public final class SequenceWithoutRepetitionIterable<T>
             }
         };
     }
-}
\ No newline at end of file
+}
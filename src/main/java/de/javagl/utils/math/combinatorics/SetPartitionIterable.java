@@ -0,0 +1,553 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class providing an iterator over all partitions of a set into 
+ * non-empty blocks, optionally with a fixed number of blocks. For a 
+ * set S with n = |S|, there are B(n) partitions, where B(n) is the
+ * Bell number, and S(n,k) partitions into k blocks, where S(n,k) is
+ * the Stirling number of the second kind. Example:<br />
+ * <pre>
+ * S = { A,B,C,D }, n = |S| = 4
+ * k = 2
+ * m = S(n,k) = 7
+ * 
+ * Set partitions into 2 blocks:
+ * [[A, B, C], [D]]
+ * [[A, B, D], [C]]
+ * [[A, B], [C, D]]
+ * [[A, C, D], [B]]
+ * [[A, C], [B, D]]
+ * [[A, D], [B, C]]
+ * [[A], [B, C, D]]
+ * </pre>
+ * 
+ * The index tuples of the {@link IndexSpace} are restricted growth 
+ * strings: The value at index i is the index of the block that 
+ * contains the element i, where the blocks are ordered by their 
+ * smallest element. So the first value is 0, and each value is at 
+ * most one larger than all preceding values. The partitions are 
+ * provided in lexicographical order of these strings, and advancing
+ * a string only changes the values after the rightmost value that 
+ * could be incremented. <br />
+ * <br />
+ * The index tuples are the block assignments of the elements. When 
+ * only these assignments are required, they may be processed with
+ * {@link #forEachTuple(IntArrayConsumer)} or an 
+ * {@link IntTupleIterator#setPartitions(int)}, without creating the 
+ * lists of blocks. 
+ * 
+ * @param <T> The type of the elements
+ */
+public final class SetPartitionIterable<T> 
+    extends AbstractCombinatorialSpace<List<T>>
+{
+    /**
+     * The input elements
+     */
+    private final List<T> input;
+    
+    /**
+     * The number of blocks, or -1 if the number of blocks is not fixed
+     */
+    private final int numBlocks;
+    
+    /**
+     * The total number of elements that the iterator will provide
+     */
+    private final long numElements;
+    
+    /**
+     * The number of ways of assigning the remaining r elements to 
+     * blocks, when b blocks are already used, is stored in 
+     * completions[r][b]. Entries that are not needed because they 
+     * can not be reached are 0.
+     */
+    private final long completions[][];
+    
+    /**
+     * Creates an iterable over all partitions of the given input into
+     * non-empty blocks
+     * 
+     * @param input The input elements
+     * @throws ArithmeticException If the number of partitions does
+     * not fit into a <code>long</code>
+     */
+    public SetPartitionIterable(List<? extends T> input)
+    {
+        this(input, -1);
+    }
+    
+    /**
+     * Creates an iterable over all partitions of the given input into
+     * the given number of non-empty blocks
+     * 
+     * @param numBlocks The number of blocks
+     * @param input The input elements
+     * @throws IllegalArgumentException If the number of blocks is 
+     * negative
+     * @throws ArithmeticException If the number of partitions does
+     * not fit into a <code>long</code>
+     */
+    public SetPartitionIterable(int numBlocks, List<? extends T> input)
+    {
+        this(input, checkNumBlocks(numBlocks));
+    }
+    
+    /**
+     * Creates an iterable over all partitions of the given input into
+     * the given number of non-empty blocks
+     * 
+     * @param input The input elements
+     * @param numBlocks The number of blocks, or -1 if the number of 
+     * blocks is not fixed
+     */
+    private SetPartitionIterable(List<? extends T> input, int numBlocks)
+    {
+        this.input = new ArrayList<T>(input);
+        this.numBlocks = numBlocks;
+        int n = input.size();
+        if (numBlocks < 0)
+        {
+            this.numElements = Counting.bell(n);
+        }
+        else
+        {
+            this.numElements = Counting.stirling2(n, numBlocks);
+        }
+        
+        // Compute the number of completions for r remaining elements
+        // and b used blocks, where each of the remaining elements may
+        // be assigned to one of the b blocks or to a new block. The
+        // reachable entries are not larger than the total number of 
+        // partitions, so the saturated entries are never used.
+        int maxBlocks = numBlocks < 0 ? n : numBlocks;
+        this.completions = new long[n + 1][maxBlocks + 2];
+        for (int b = 0; b <= maxBlocks; b++)
+        {
+            completions[0][b] = (numBlocks < 0 || b == numBlocks) ? 1 : 0;
+        }
+        for (int r = 1; r <= n; r++)
+        {
+            for (int b = 0; b <= Math.min(maxBlocks, n - r); b++)
+            {
+                long existing = multiply(b, completions[r - 1][b]);
+                long created = completions[r - 1][b + 1];
+                completions[r][b] = add(existing, created);
+            }
+        }
+    }
+    
+    /**
+     * Makes sure that the given number of blocks is not negative
+     * 
+     * @param numBlocks The number of blocks
+     * @return The number of blocks
+     * @throws IllegalArgumentException If the number of blocks is 
+     * negative
+     */
+    private static int checkNumBlocks(int numBlocks)
+    {
+        if (numBlocks < 0)
+        {
+            throw new IllegalArgumentException(
+                "The number of blocks may not be negative, but is " + 
+                numBlocks);
+        }
+        return numBlocks;
+    }
+    
+    /**
+     * Adds the given non-negative values, saturating at 
+     * <code>Long.MAX_VALUE</code>
+     * 
+     * @param a The first value
+     * @param b The second value
+     * @return The sum
+     */
+    private static long add(long a, long b)
+    {
+        long result = a + b;
+        return result < 0 ? Long.MAX_VALUE : result;
+    }
+    
+    /**
+     * Multiplies the given non-negative values, saturating at 
+     * <code>Long.MAX_VALUE</code>
+     * 
+     * @param a The first value
+     * @param b The second value
+     * @return The product
+     */
+    private static long multiply(long a, long b)
+    {
+        if (a != 0 && b > Long.MAX_VALUE / a)
+        {
+            return Long.MAX_VALUE;
+        }
+        return a * b;
+    }
+    
+    /**
+     * Returns the number of blocks of the partitions, or -1 if the
+     * number of blocks is not fixed
+     * 
+     * @return The number of blocks
+     */
+    public int getNumBlocks()
+    {
+        return numBlocks;
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return numBlocks < 0 ? input.size() : numBlocks;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, numElements);
+        int n = input.size();
+        long remaining = rank;
+        int b = 0;
+        for (int i = 0; i < n; i++)
+        {
+            // Each of the b existing blocks is followed by the same
+            // number of completions, followed by those for a new block
+            int r = n - 1 - i;
+            long c = completions[r][b];
+            long existing = multiply(b, c);
+            if (remaining < existing)
+            {
+                tuple[i] = (int) (remaining / c);
+                remaining %= c;
+            }
+            else
+            {
+                tuple[i] = b;
+                remaining -= existing;
+                b++;
+            }
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        int n = input.size();
+        long result = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++)
+        {
+            int r = n - 1 - i;
+            long c = completions[r][b];
+            if (tuple[i] < b)
+            {
+                result += tuple[i] * c;
+            }
+            else
+            {
+                result += b * c;
+                b++;
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Find the rightmost value that can be incremented, so that 
+        // the required number of blocks can still be reached with 
+        // the remaining elements, in a single pass that keeps track 
+        // of the number of blocks that are used by the prefix
+        int n = input.size();
+        int index = -1;
+        int blocksAtIndex = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++)
+        {
+            int value = tuple[i];
+            if (value < b)
+            {
+                int next = value + 1;
+                int used = Math.max(b, next + 1);
+                if (canComplete(used, n - 1 - i))
+                {
+                    index = i;
+                    blocksAtIndex = used;
+                }
+            }
+            b = Math.max(b, value + 1);
+        }
+        if (index < 0)
+        {
+            return false;
+        }
+        tuple[index]++;
+        fillSmallest(tuple, index + 1, blocksAtIndex);
+        return true;
+    }
+    
+    /**
+     * Returns whether a partition with the given number of used blocks
+     * can be completed with the given number of remaining elements
+     * 
+     * @param used The number of used blocks
+     * @param remaining The number of remaining elements
+     * @return Whether the partition can be completed
+     */
+    private boolean canComplete(int used, int remaining)
+    {
+        if (numBlocks < 0)
+        {
+            return true;
+        }
+        return used <= numBlocks && used + remaining >= numBlocks;
+    }
+    
+    /**
+     * Fill the values of the given tuple, starting at the given index,
+     * with the lexicographically smallest values that are valid when
+     * the given number of blocks is already used
+     * 
+     * @param tuple The tuple
+     * @param start The start index
+     * @param used The number of used blocks
+     */
+    private void fillSmallest(int tuple[], int start, int used)
+    {
+        int n = input.size();
+        int b = used;
+        for (int i = start; i < n; i++)
+        {
+            if (numBlocks >= 0 && n - i <= numBlocks - b)
+            {
+                tuple[i] = b;
+                b++;
+            }
+            else
+            {
+                tuple[i] = 0;
+            }
+        }
+    }
+    
+    /**
+     * Passes the index tuples of all partitions to the given consumer, 
+     * in the order of the iterator. The value at index i of each tuple
+     * is the index of the block of the element i. The array that is 
+     * passed to the consumer is reused for all partitions.
+     * 
+     * @param consumer The consumer
+     */
+    public void forEachTuple(IntArrayConsumer consumer)
+    {
+        if (numElements == 0)
+        {
+            return;
+        }
+        int tuple[] = new int[input.size()];
+        unrank(0, tuple);
+        do
+        {
+            consumer.accept(tuple);
+        }
+        while (nextTuple(tuple));
+    }
+    
+    @Override
+    public List<List<T>> select(int tuple[])
+    {
+        List<List<T>> result = new ArrayList<List<T>>();
+        for (int i = 0; i < input.size(); i++)
+        {
+            int block = tuple[i];
+            if (block == result.size())
+            {
+                result.add(new ArrayList<T>());
+            }
+            result.get(block).add(input.get(i));
+        }
+        return result;
+    }
+    
+    @Override
+    List<List<T>> view(final int tuple[])
+    {
+        // The indices of the elements, sorted by their blocks, and the 
+        // start of each block in this array, which are computed once
+        // in each update by counting the elements of each block
+        final int n = input.size();
+        final int indices[] = new int[n];
+        final int starts[] = new int[n + 1];
+        final List<List<T>> blocks = new ArrayList<List<T>>(n);
+        for (int b = 0; b < n; b++)
+        {
+            final int block = b;
+            blocks.add(new AbstractList<T>()
+            {
+                @Override
+                public T get(int index)
+                {
+                    if (index < 0 || index >= size())
+                    {
+                        throw new IndexOutOfBoundsException(
+                            "Index " + index + ", size " + size());
+                    }
+                    return input.get(indices[starts[block] + index]);
+                }
+
+                @Override
+                public int size()
+                {
+                    return starts[block + 1] - starts[block];
+                }
+            });
+        }
+        return new TupleView<List<T>>()
+        {
+            /**
+             * The number of blocks
+             */
+            private int size;
+            
+            @Override
+            void update()
+            {
+                size = 0;
+                Arrays.fill(starts, 0);
+                for (int i = 0; i < n; i++)
+                {
+                    starts[tuple[i] + 1]++;
+                    size = Math.max(size, tuple[i] + 1);
+                }
+                for (int b = 0; b < size; b++)
+                {
+                    starts[b + 1] += starts[b];
+                }
+                for (int i = 0; i < n; i++)
+                {
+                    indices[starts[tuple[i]]++] = i;
+                }
+                for (int b = size; b > 0; b--)
+                {
+                    starts[b] = starts[b - 1];
+                }
+                starts[0] = 0;
+            }
+            
+            @Override
+            public List<T> get(int index)
+            {
+                if (index < 0 || index >= size)
+                {
+                    throw new IndexOutOfBoundsException(
+                        "Index " + index + ", size " + size);
+                }
+                return blocks.get(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        // Assign the elements of each block to the block, and check
+        // whether the result is a valid restricted growth string that
+        // describes the given element
+        int n = input.size();
+        boolean assigned[] = new boolean[n];
+        for (int block = 0; block < element.size(); block++)
+        {
+            Object blockObject = element.get(block);
+            if (!(blockObject instanceof List<?>))
+            {
+                return false;
+            }
+            int start = 0;
+            for (Object e : (List<?>) blockObject)
+            {
+                int index = start;
+                while (index < n && 
+                    (assigned[index] || !Objects.equals(input.get(index), e)))
+                {
+                    index++;
+                }
+                if (index == n)
+                {
+                    return false;
+                }
+                tuple[index] = block;
+                assigned[index] = true;
+                start = index + 1;
+            }
+        }
+        int b = 0;
+        for (int i = 0; i < n; i++)
+        {
+            if (!assigned[i] || tuple[i] > b)
+            {
+                return false;
+            }
+            b = Math.max(b, tuple[i] + 1);
+        }
+        if (numBlocks >= 0 && b != numBlocks)
+        {
+            return false;
+        }
+        return select(tuple).equals(element);
+    }
+}
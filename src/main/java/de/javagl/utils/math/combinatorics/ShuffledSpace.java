@@ -0,0 +1,196 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A view on a {@link CombinatorialSpace} that provides the same 
+ * elements, but in a pseudo-random order that is determined by a key.
+ * <br />
+ * <br />
+ * The element with rank r in this space is the element with rank 
+ * p(r) in the underlying space, where p is a {@link RankPermutation}.
+ * This does not require any memory that depends on the size of the
+ * space. Since this is a {@link CombinatorialSpace} itself, it can be
+ * split into ranges or shards that are processed independently, and
+ * each range will contain elements that are spread evenly over the
+ * underlying space. Example: <br />
+ * <pre>
+ * ChoiceIterable&lt;String&gt; choices = ...;
+ * ShuffledSpace&lt;String&gt; shuffled = 
+ *     new ShuffledSpace&lt;String&gt;(choices, 1234);
+ * for (List&lt;String&gt; choice : shuffled)
+ * {
+ *     // Each choice is visited exactly once
+ * }
+ * </pre>
+ * 
+ * @param <T> The type of the elements
+ */
+public final class ShuffledSpace<T> extends AbstractCombinatorialSpace<T>
+{
+    /**
+     * The underlying space
+     */
+    private final CombinatorialSpace<T> space;
+    
+    /**
+     * The permutation of the ranks
+     */
+    private final RankPermutation permutation;
+    
+    /**
+     * Creates a new shuffled view on the given space
+     * 
+     * @param space The space
+     * @param key The key that determines the order of the elements
+     */
+    public ShuffledSpace(CombinatorialSpace<T> space, long key)
+    {
+        this.space = space;
+        this.permutation = new RankPermutation(space.size(), key);
+    }
+    
+    @Override
+    public long size()
+    {
+        return space.size();
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return space.getTupleLength();
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return space.getIndexBound();
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        space.unrank(permutation.apply(rank), tuple);
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        return permutation.inverse(space.rank(tuple));
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        long next = rank(tuple) + 1;
+        if (next >= size())
+        {
+            return false;
+        }
+        unrank(next, tuple);
+        return true;
+    }
+    
+    @Override
+    public List<T> select(int tuple[])
+    {
+        return space.select(tuple);
+    }
+    
+    @Override
+    List<T> view(int tuple[])
+    {
+        return viewOf(space, tuple);
+    }
+    
+    @Override
+    public long rank(List<?> element)
+    {
+        long rank = space.rank(element);
+        if (rank < 0)
+        {
+            return -1;
+        }
+        return permutation.inverse(rank);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        long rank = space.rank(element);
+        if (rank < 0)
+        {
+            return false;
+        }
+        space.unrank(rank, tuple);
+        return true;
+    }
+    
+    @Override
+    public Iterator<List<T>> iterator(final long fromRank, final long toRank)
+    {
+        checkRange(fromRank, toRank, size());
+        return new Iterator<List<T>>()
+        {
+            /**
+             * The rank of the next element
+             */
+            private long current = fromRank;
+            
+            @Override
+            public boolean hasNext()
+            {
+                return current < toRank;
+            }
+
+            @Override
+            public List<T> next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException("No more elements");
+                }
+                List<T> result = space.get(permutation.apply(current));
+                current++;
+                return result;
+            }
+            
+            @Override
+            public void remove()
+            {
+                throw new UnsupportedOperationException(
+                    "May not remove elements from a combinatorial space");
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+/**
+ * Interface for classes that accumulate index tuples into a mutable
+ * result container, as used in 
+ * {@link ParallelEnumeration#collectTuplesParallel}. 
+ *
+ * @param <A> The type of the result container
+ */
+public interface TupleAccumulator<A>
+{
+    /**
+     * Accumulate the given index tuple into the given container. The
+     * tuple array may be reused by the caller, and should not be 
+     * stored or modified. 
+     * 
+     * @param container The container
+     * @param rank The rank of the element that the tuple belongs to
+     * @param tuple The index tuple
+     * @return Whether the remaining elements of the range of ranks that
+     * is currently processed should be accumulated. If this is 
+     * <code>false</code>, then the processing of the current range 
+     * stops. 
+     */
+    boolean accept(A container, long rank, int tuple[]);
+}
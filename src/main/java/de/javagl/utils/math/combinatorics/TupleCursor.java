@@ -0,0 +1,69 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.List;
+
+/**
+ * A cursor for a sequential pass over the index tuples of a 
+ * {@link CombinatorialSpace}. The methods have the same semantics as
+ * the methods of the space, but implementations may cache state that
+ * depends on the last tuple between the calls. Therefore, a cursor 
+ * may only be used by a single thread.
+ * 
+ * @param <T> The type of the elements
+ */
+interface TupleCursor<T>
+{
+    /**
+     * Writes the index tuple for the given rank into the given array
+     * 
+     * @param rank The rank
+     * @param tuple The tuple
+     * @see IndexSpace#unrank(long, int[])
+     */
+    void unrank(long rank, int tuple[]);
+    
+    /**
+     * Advances the given index tuple to the next tuple
+     * 
+     * @param tuple The tuple
+     * @return Whether the tuple could be advanced
+     * @see IndexSpace#nextTuple(int[])
+     */
+    boolean nextTuple(int tuple[]);
+    
+    /**
+     * Returns a new list containing the element for the given tuple
+     * 
+     * @param tuple The tuple
+     * @return The element
+     * @see CombinatorialSpace#select(int[])
+     */
+    List<T> select(int tuple[]);
+}
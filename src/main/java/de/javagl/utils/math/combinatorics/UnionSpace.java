@@ -0,0 +1,253 @@
+/*
+ * www.javagl.de - Utilities - Combinatorics
+ *
+ * Copyright (c) 2008-2013 Marco Hutter - http://www.javagl.de
+ * 
+ * Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation
+ * files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following
+ * conditions:
+ * 
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.javagl.utils.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link CombinatorialSpace} that is the disjoint union of other 
+ * spaces. It contains the elements of the first space, followed by 
+ * the elements of the second space, and so on. Example:<br />
+ * <pre>
+ * A = choices of 2 from { A,B,C } : [A, B], [A, C], [B, C]
+ * B = choices of 3 from { A,B,C } : [A, B, C]
+ * 
+ * Union of A and B:
+ * [A, B]
+ * [A, C]
+ * [B, C]
+ * [A, B, C]
+ * </pre>
+ * 
+ * The first entry of an index tuple is the index of the space that 
+ * the element belongs to. The remaining entries are the index tuple 
+ * of the element in this space, padded with zeros to the maximum
+ * tuple length of all spaces. <br />
+ * <br />
+ * The spaces are not copied. They must not be modified while this
+ * space is in use. If an element is contained in multiple spaces, 
+ * then {@link #rank(List)} returns the rank of its occurrence in the
+ * first of these spaces.
+ * 
+ * @param <T> The type of the elements
+ */
+public final class UnionSpace<T> extends AbstractCombinatorialSpace<T>
+{
+    /**
+     * The spaces
+     */
+    private final List<CombinatorialSpace<? extends T>> spaces;
+    
+    /**
+     * The ranks of the first elements of the spaces, followed by the
+     * total number of elements
+     */
+    private final long offsets[];
+    
+    /**
+     * The maximum tuple length of the spaces
+     */
+    private final int maxLength;
+    
+    /**
+     * Creates the disjoint union of the given spaces
+     * 
+     * @param spaces The spaces
+     * @throws ArithmeticException If the number of elements does 
+     * not fit into a <code>long</code>
+     */
+    public UnionSpace(List<? extends CombinatorialSpace<? extends T>> spaces)
+    {
+        this.spaces = new ArrayList<CombinatorialSpace<? extends T>>(spaces);
+        this.offsets = new long[spaces.size() + 1];
+        int max = 0;
+        for (int i = 0; i < spaces.size(); i++)
+        {
+            CombinatorialSpace<? extends T> space = spaces.get(i);
+            offsets[i + 1] = Math.addExact(offsets[i], space.size());
+            max = Math.max(max, space.getTupleLength());
+        }
+        this.maxLength = max;
+    }
+    
+    @Override
+    public long size()
+    {
+        return offsets[spaces.size()];
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return 1 + maxLength;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        int max = spaces.size();
+        for (CombinatorialSpace<? extends T> space : spaces)
+        {
+            max = Math.max(max, space.getIndexBound());
+        }
+        return max;
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        Utils.checkRank(rank, size());
+        int index = Arrays.binarySearch(offsets, rank);
+        if (index < 0)
+        {
+            index = -index - 2;
+        }
+        else
+        {
+            // Skip empty spaces that start at the same rank
+            while (offsets[index + 1] == rank)
+            {
+                index++;
+            }
+        }
+        unrank(index, rank - offsets[index], tuple);
+    }
+    
+    /**
+     * Writes the index tuple of the element with the given rank in the
+     * space with the given index into the given array
+     * 
+     * @param index The index of the space
+     * @param rank The rank of the element in the space
+     * @param tuple The array that will store the index tuple
+     */
+    private void unrank(int index, long rank, int tuple[])
+    {
+        int part[] = new int[maxLength];
+        spaces.get(index).unrank(rank, part);
+        tuple[0] = index;
+        System.arraycopy(part, 0, tuple, 1, maxLength);
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        int index = tuple[0];
+        int part[] = Arrays.copyOfRange(tuple, 1, 1 + maxLength);
+        return offsets[index] + spaces.get(index).rank(part);
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        int index = tuple[0];
+        int part[] = Arrays.copyOfRange(tuple, 1, 1 + maxLength);
+        if (spaces.get(index).nextTuple(part))
+        {
+            System.arraycopy(part, 0, tuple, 1, maxLength);
+            return true;
+        }
+        for (int i = index + 1; i < spaces.size(); i++)
+        {
+            if (spaces.get(i).size() > 0)
+            {
+                unrank(i, 0, tuple);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public List<T> select(int tuple[])
+    {
+        int index = tuple[0];
+        int part[] = Arrays.copyOfRange(tuple, 1, 1 + maxLength);
+        return new ArrayList<T>(spaces.get(index).select(part));
+    }
+    
+    @Override
+    List<T> view(final int tuple[])
+    {
+        final int parts[][] = new int[spaces.size()][];
+        final List<List<? extends T>> views = 
+            new ArrayList<List<? extends T>>(spaces.size());
+        for (int i = 0; i < spaces.size(); i++)
+        {
+            CombinatorialSpace<? extends T> space = spaces.get(i);
+            parts[i] = new int[space.getTupleLength()];
+            views.add(viewOf(space, parts[i]));
+        }
+        return new TupleView<T>()
+        {
+            /**
+             * The view of the space that contains the current element
+             */
+            private List<? extends T> current;
+            
+            @Override
+            void update()
+            {
+                int index = tuple[0];
+                System.arraycopy(tuple, 1, parts[index], 0, 
+                    parts[index].length);
+                current = views.get(index);
+                updateView(current);
+            }
+            
+            @Override
+            public T get(int index)
+            {
+                return current.get(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return current.size();
+            }
+        };
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        for (int i = 0; i < spaces.size(); i++)
+        {
+            long rank = spaces.get(i).rank(element);
+            if (rank >= 0)
+            {
+                unrank(i, rank, tuple);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -27,12 +27,12 @@
 
 package de.javagl.utils.math.combinatorics;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
 
 /**
  * A class providing an iterator over all combinations of a certain number 
@@ -58,10 +58,14 @@ import java.util.NoSuchElementException;
  * [C, D]
  * [D, D]
  * </pre>
+ * 
+ * The index tuples of the {@link IndexSpace} are the non-decreasing
+ * indices of the elements in the combination.
  *  
  * @param <T> The type of the elements
  */
-public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
+public final class UnorderedCombinationIterable<T> 
+    extends AbstractCombinatorialSpace<T>
 {
     /**
      * The input elements
@@ -76,12 +80,17 @@ public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
     /**
      * The total number of elements that the iterator will provide
      */
-    private final int numElements;
+    private final long numElements;
     
     /**
      * Internally used array for selecting the combinations
      */
     private final List<Integer> positions;
+    
+    /**
+     * The choices of positions, as described in the iterator
+     */
+    private final ChoiceIterable<Integer> positionChoices;
  
     /**
      * Creates a new iterable over all combinations of the given number
@@ -90,6 +99,8 @@ public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
      * 
      * @param length The number of elements in the combinations
      * @param input The input elements
+     * @throws ArithmeticException If the number of combinations does 
+     * not fit into a <code>long</code>
      */
     public UnorderedCombinationIterable(int length, List<T> input)
     {
@@ -97,23 +108,140 @@ public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
         this.input = input;
  
         int numPositions = input.size() + length - 1;
-        
-        // Computation of (n+k-1)!, (n-1)! and k! with BigInteger 
-        // to avoid overflow 
-        BigInteger npkm1f =  Utils.factorial(numPositions);
-        BigInteger nm1f = Utils.factorial(input.size() - 1);
-        BigInteger kf = Utils.factorial(length);
-        BigInteger divisor = kf.multiply(nm1f);
-        BigInteger result = npkm1f.divide(divisor);
-        numElements = (int)result.longValue();
+        if (length == 0)
+        {
+            numElements = 1;
+        }
+        else
+        {
+            numElements = Counting.binomial(numPositions, length);
+        }
         
         positions = new ArrayList<Integer>();
         for (int i = 0; i < numPositions; i++)
         {
             positions.add(i);
         }
+        positionChoices = new ChoiceIterable<Integer>(length, positions);
+    }
+    
+    @Override
+    public long size()
+    {
+        return numElements;
+    }
+    
+    @Override
+    public int getTupleLength()
+    {
+        return length;
+    }
+    
+    @Override
+    public int getIndexBound()
+    {
+        return input.size();
+    }
+    
+    @Override
+    public void unrank(long rank, int tuple[])
+    {
+        // The index tuple is obtained from the choice of positions 
+        // (as described in the iterator) by subtracting i from the 
+        // position i
+        Utils.checkRank(rank, numElements);
+        positionChoices.unrank(rank, tuple);
+        for (int i = 0; i < length; i++)
+        {
+            tuple[i] -= i;
+        }
+    }
+    
+    @Override
+    public long rank(int tuple[])
+    {
+        int positionChoice[] = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            positionChoice[i] = tuple[i] + i;
+        }
+        return positionChoices.rank(positionChoice);
+    }
+    
+    @Override
+    public boolean nextTuple(int tuple[])
+    {
+        // Increase the last index that can be increased, and 
+        // assign the same value to all subsequent indices
+        int max = input.size() - 1;
+        for (int i = length - 1; i >= 0; i--)
+        {
+            if (tuple[i] < max)
+            {
+                int value = tuple[i] + 1;
+                for (int j = i; j < length; j++)
+                {
+                    tuple[j] = value;
+                }
+                return true;
+            }
+        }
+        return false;
     }
  
+    @Override
+    public List<T> select(int tuple[])
+    {
+        List<T> result = new ArrayList<T>(length);
+        for (int i = 0; i < length; i++)
+        {
+            result.add(input.get(tuple[i]));
+        }
+        return result;
+    }
+    
+    @Override
+    List<T> view(int tuple[])
+    {
+        return new IndexedListView<T>(input, tuple, length);
+    }
+    
+    @Override
+    boolean toTuple(List<?> element, int tuple[])
+    {
+        if (element.size() != length)
+        {
+            return false;
+        }
+        int previous = 0;
+        for (int i = 0; i < length; i++)
+        {
+            int index = Utils.indexOf(input, element.get(i), previous);
+            if (index < 0)
+            {
+                return false;
+            }
+            tuple[i] = index;
+            previous = index;
+        }
+        return true;
+    }
+ 
+    /**
+     * Returns a stream of the index tuples of the elements of this 
+     * iterable, packed into <code>long</code> values with a 
+     * {@link PackedTupleCodec}. The packed values are strictly 
+     * increasing in the order of the ranks.
+     * 
+     * @return The stream
+     * @throws IllegalArgumentException If the index tuples can not
+     * be packed into a <code>long</code>
+     */
+    public LongStream packedStream()
+    {
+        return PackedTupleCodec.stream(this);
+    }
+    
     @Override
     public Iterator<List<T>> iterator()
     {
@@ -127,7 +255,7 @@ public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
             /**
              * The index of the current combination
              */
-            private int current = 0;
+            private long current = 0;
             
             /**
              * The iterator for selecting the positions that will 
@@ -137,9 +265,7 @@ public final class UnorderedCombinationIterable<T> implements Iterable<List<T>>
  
             // Initialization of the positionChoiceIterator
             {
-                ChoiceIterable<Integer> positionChoiceIterable = 
-                    new ChoiceIterable<Integer>(length, positions);
-                positionChoiceIterator = positionChoiceIterable.iterator();
+                positionChoiceIterator = positionChoices.iterator();
             }
  
             @Override
@@ -28,10 +28,12 @@
 package de.javagl.utils.math.combinatorics;
 
 import java.math.BigInteger;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -49,16 +51,17 @@ public class Utils
      *
      * @param n The number of which the factorial should be computed
      * @return The factorial, i.e. n!
+     * @see Counting#factorialBig(int)
      */
     public static BigInteger factorial(int n)
     {
-        BigInteger f = BigInteger.ONE;
-        for (int i = 2; i <= n; i++)
+        if (n < 2)
         {
-            f = f.multiply(BigInteger.valueOf(i));
+            return BigInteger.ONE;
         }
-        return f;
-    }    
+        return Counting.factorialBig(n);
+    }
+    
     /**
      * A magic utility method that happens to return the number of
      * bits that are set to '1' in the given number.
@@ -116,6 +119,129 @@ public class Utils
         return set;
     }
     
+    /**
+     * Returns a table containing all index tuples of the given space. 
+     * This requires considerably less memory than storing the elements 
+     * of the space as a list of lists. The table is filled in parallel.
+     * 
+     * @param space The space
+     * @return The table
+     * @throws IllegalArgumentException If the space contains too many
+     * elements to be stored in a single array
+     */
+    public static IndexTable asIndexTable(IndexSpace space)
+    {
+        return new IndexTable(space);
+    }
+    
+    /**
+     * Returns an unmodifiable list containing the values 0...n-1. The 
+     * values are not stored, but computed on demand.
+     * 
+     * @param n The size of the list
+     * @return The list
+     * @throws IllegalArgumentException If n is negative
+     */
+    static List<Integer> indexList(final int n)
+    {
+        if (n < 0)
+        {
+            throw new IllegalArgumentException(
+                "The size may not be negative, but is " + n);
+        }
+        return new AbstractList<Integer>()
+        {
+            @Override
+            public Integer get(int index)
+            {
+                if (index < 0 || index >= n)
+                {
+                    throw new IndexOutOfBoundsException(
+                        "Index " + index + ", size " + n);
+                }
+                return index;
+            }
+
+            @Override
+            public int size()
+            {
+                return n;
+            }
+        };
+    }
+    
+    /**
+     * Makes sure that the given rank is valid for a space with the
+     * given size
+     * 
+     * @param rank The rank
+     * @param size The size
+     * @throws IndexOutOfBoundsException If the rank is negative or
+     * not smaller than the size
+     */
+    static void checkRank(long rank, long size)
+    {
+        if (rank < 0 || rank >= size)
+        {
+            throw new IndexOutOfBoundsException(
+                "Rank " + rank + ", size " + size);
+        }
+    }
+    
+    /**
+     * Returns the index of the first occurrence of the given element
+     * in the given list, starting at the given index, or -1 if the 
+     * element is not found
+     * 
+     * @param list The list
+     * @param element The element
+     * @param fromIndex The index to start the search at
+     * @return The index, or -1
+     */
+    static int indexOf(List<?> list, Object element, int fromIndex)
+    {
+        for (int i = fromIndex; i < list.size(); i++)
+        {
+            if (Objects.equals(list.get(i), element))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Writes into the given array the indices of the given elements 
+     * in the given input list, where each index may only be used 
+     * once. For elements that appear multiple times in the input, 
+     * the smallest index that was not used yet is chosen.  
+     * 
+     * @param input The input list
+     * @param elements The elements
+     * @param indices The array that will store the indices
+     * @return Whether all elements could be assigned an index
+     */
+    static boolean toDistinctIndices(
+        List<?> input, List<?> elements, int indices[])
+    {
+        boolean used[] = new boolean[input.size()];
+        for (int i = 0; i < elements.size(); i++)
+        {
+            int index = indexOf(input, elements.get(i), 0);
+            while (index >= 0 && used[index])
+            {
+                index = indexOf(input, elements.get(i), index + 1);
+            }
+            if (index < 0)
+            {
+                return false;
+            }
+            used[index] = true;
+            indices[i] = index;
+        }
+        return true;
+    }
+    
     /**
      * Private constructor to prevent instantiation
      */
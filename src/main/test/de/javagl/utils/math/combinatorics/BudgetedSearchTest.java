@@ -0,0 +1,162 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import de.javagl.utils.math.combinatorics.BudgetedResult.StopReason;
+
+/**
+ * Test cases for the {@link BudgetedSearch} class.
+ */
+@RunWith(JUnit4.class)
+public class BudgetedSearchTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * The scoring function for the tests
+     */
+    private static final ToDoubleFunction<List<Integer>> SCORER = list -> 
+    {
+        int sum = 0;
+        for (int i = 0; i < list.size(); i++)
+        {
+            sum += (i + 1) * list.get(i);
+        }
+        return sum;
+    };
+    
+    /**
+     * Test whether an unbounded search returns the same results as
+     * the parallel search, in all modes
+     */
+    @Test
+    public void testComplete()
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(4, createInput(20));
+        List<ScoredElement<Integer>> expected = 
+            ParallelSearch.topN(space, 5, SCORER);
+        for (Long key : new Long[] { null, 123L })
+        {
+            for (boolean parallel : new boolean[] { false, true })
+            {
+                BudgetedSearch<Integer> search = 
+                    new BudgetedSearch<Integer>(space);
+                search.setShuffleKey(key);
+                search.setParallel(parallel);
+                search.setResultCount(5);
+                BudgetedResult<Integer> result = search.maximize(SCORER);
+                assertEquals(StopReason.COMPLETED, result.getStopReason());
+                assertTrue(result.isComplete());
+                assertEquals(space.size(), result.getEvaluationCount());
+                assertEquals(1.0, result.getCoverage(), 0.0);
+                List<ScoredElement<Integer>> actual = result.getResults();
+                assertEquals(5, actual.size());
+                for (int i = 0; i < 5; i++)
+                {
+                    assertEquals(expected.get(i).getScore(), 
+                        actual.get(i).getScore(), 0.0);
+                    ScoredElement<Integer> e = actual.get(i);
+                    assertEquals(space.get(e.getRank()), e.getElement());
+                }
+                assertEquals(expected.get(0).getRank(), 
+                    result.getBest().getRank());
+            }
+        }
+    }
+    
+    /**
+     * Test the evaluation limit, and whether the shuffled order 
+     * covers the space evenly
+     */
+    @Test
+    public void testEvaluationLimit()
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(4, createInput(20));
+        BudgetedSearch<Integer> search = new BudgetedSearch<Integer>(space);
+        search.setEvaluationLimit(1000);
+        search.setBatchSize(64);
+        BudgetedResult<Integer> result = search.minimize(SCORER);
+        assertEquals(StopReason.EVALUATION_LIMIT, result.getStopReason());
+        assertEquals(1000, result.getEvaluationCount());
+        assertEquals(1000.0 / space.size(), result.getCoverage(), 1e-12);
+        assertEquals(0, result.getBest().getRank());
+        
+        final Set<Integer> firstElements = new HashSet<Integer>();
+        search.setShuffleKey(42L);
+        search.setEvaluationLimit(100);
+        result = search.maximize(list -> 
+        {
+            firstElements.add(list.get(0));
+            return 0;
+        });
+        assertEquals(100, result.getEvaluationCount());
+        assertTrue(firstElements.size() > 8);
+        
+        search.setParallel(true);
+        result = search.maximizeByTuple(tuple -> tuple[0]);
+        assertEquals(StopReason.EVALUATION_LIMIT, result.getStopReason());
+        assertTrue(result.getEvaluationCount() <= 100);
+    }
+    
+    /**
+     * Test the time limit and the cancellation
+     */
+    @Test
+    public void testTimeLimitAndCancellation()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(14));
+        BudgetedSearch<Integer> search = new BudgetedSearch<Integer>(space);
+        search.setTimeLimit(100, TimeUnit.MILLISECONDS);
+        search.setParallel(true);
+        BudgetedResult<Integer> result = search.maximize(SCORER);
+        assertEquals(StopReason.TIME_LIMIT, result.getStopReason());
+        assertTrue(result.getEvaluationCount() > 0);
+        assertTrue(result.getCoverage() < 1.0);
+        assertTrue(result.getBest() != null);
+        assertTrue(result.getElapsedNanos() < TimeUnit.SECONDS.toNanos(10));
+        
+        search.setTimeLimit(-1, TimeUnit.MILLISECONDS);
+        search.setParallel(false);
+        final long counter[] = { 0 };
+        result = search.maximizeByTuple(tuple -> 
+        {
+            counter[0]++;
+            if (counter[0] == 5000)
+            {
+                search.cancel();
+            }
+            return 0;
+        });
+        assertEquals(StopReason.CANCELLED, result.getStopReason());
+        assertTrue(result.getEvaluationCount() < 5000 + 1024);
+    }
+}
@@ -0,0 +1,342 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link CombinatorialSpace} implementations.
+ */
+@RunWith(JUnit4.class)
+public class CombinatorialSpaceTest
+{
+    /**
+     * Creates the spaces for the tests
+     * 
+     * @return The spaces
+     */
+    private static List<CombinatorialSpace<?>> createSpaces()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E");
+        List<List<String>> sets = new ArrayList<List<String>>();
+        sets.add(Arrays.asList("A", "B", "C"));
+        sets.add(Arrays.asList("D", "E"));
+        sets.add(Arrays.asList("F", "G", "H", "I"));
+        
+        List<CombinatorialSpace<?>> spaces = 
+            new ArrayList<CombinatorialSpace<?>>();
+        spaces.add(new ChoiceIterable<String>(3, input));
+        spaces.add(new CombinationIterable<String>(3, input));
+        spaces.add(new PermutationIterable<String>(input));
+        spaces.add(new UnorderedCombinationIterable<String>(3, input));
+        spaces.add(new SequenceWithoutRepetitionIterable<String>(3, input));
+        spaces.add(new MixedRangeCombinationIterable<String>(sets));
+        spaces.add(new PowerSetIterable<String>(input));
+        spaces.add(new ProductSpace<String>(Arrays.asList(
+            new ChoiceIterable<String>(2, input), 
+            new MixedRangeCombinationIterable<String>(sets))));
+        spaces.add(new UnionSpace<String>(Arrays.asList(
+            new ChoiceIterable<String>(2, input), 
+            new ChoiceIterable<String>(3, input))));
+        spaces.add(new CompositionSpace<String, String>(
+            new ChoiceIterable<String>(3, input), 
+            e -> new PermutationIterable<String>(e)));
+        spaces.add(new IntegerPartitionIterable(8, 3));
+        spaces.add(new IntegerCompositionIterable(6, 3));
+        spaces.add(new MultisetChoiceIterable<String>(
+            3, Arrays.asList("A", "B", "A", "C", "B", "A")));
+        return spaces;
+    }
+    
+    /**
+     * Creates a shuffled view on the given space
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     * @return The shuffled space
+     */
+    private static <T> CombinatorialSpace<T> shuffled(
+        CombinatorialSpace<T> space)
+    {
+        return new ShuffledSpace<T>(space, 123);
+    }
+    
+    /**
+     * Checks whether the ranking, unranking and advancing of the index 
+     * tuples of the given space are consistent
+     * 
+     * @param space The space
+     */
+    static void checkTuples(IndexSpace space)
+    {
+        int tuple[] = new int[space.getTupleLength()];
+        int next[] = new int[space.getTupleLength()];
+        if (space.size() > 0)
+        {
+            space.unrank(0, next);
+        }
+        for (long r = 0; r < space.size(); r++)
+        {
+            space.unrank(r, tuple);
+            assertArrayEquals(tuple, next);
+            assertEquals(r, space.rank(tuple));
+            assertEquals(r < space.size() - 1, space.nextTuple(next));
+        }
+    }
+    
+    /**
+     * Test whether the ranking, unranking and advancing of the index
+     * tuples are consistent
+     */
+    @Test
+    public void testTuples()
+    {
+        for (CombinatorialSpace<?> space : createSpaces())
+        {
+            checkTuples(space);
+        }
+    }
+    
+    /**
+     * Test whether the random access methods are consistent with
+     * the order of the iterators
+     */
+    @Test
+    public void testGetAndRank()
+    {
+        for (CombinatorialSpace<?> space : createSpaces())
+        {
+            long rank = 0;
+            for (List<?> element : space)
+            {
+                assertEquals(element, space.get(rank));
+                assertEquals(rank, space.rank(element));
+                rank++;
+            }
+            assertEquals(space.size(), rank);
+            assertEquals(-1, space.rank(Arrays.asList("X")));
+        }
+    }
+    
+    /**
+     * Test the iterators over ranges of ranks
+     */
+    @Test
+    public void testRangeIterators()
+    {
+        for (CombinatorialSpace<?> space : createSpaces())
+        {
+            checkRangeIterators(space);
+        }
+    }
+    
+    /**
+     * Check the iterators over ranges of ranks of the given space
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     */
+    private static <T> void checkRangeIterators(
+        final CombinatorialSpace<T> space)
+    {
+        List<List<T>> all = Utils.asList(space);
+        long from = space.size() / 3;
+        final long to = 2 * space.size() / 3;
+        Iterator<List<T>> iterator = space.iterator(from, to);
+        List<List<T>> actual = new ArrayList<List<T>>();
+        while (iterator.hasNext())
+        {
+            actual.add(iterator.next());
+        }
+        assertEquals(all.subList((int) from, (int) to), actual);
+        assertEquals(Collections.emptyList(), 
+            Utils.asList(() -> space.iterator(to, to)));
+    }
+    
+    /**
+     * Test whether the contiguous and block-cyclic shards cover the
+     * space exactly once, in the expected order
+     */
+    @Test
+    public void testShards()
+    {
+        for (CombinatorialSpace<?> space : createSpaces())
+        {
+            checkShards(space);
+        }
+    }
+    
+    /**
+     * Check whether the contiguous and block-cyclic shards of the given
+     * space cover the space exactly once, in the expected order
+     * 
+     * @param <T> The type of the elements
+     * @param space The space
+     */
+    private static <T> void checkShards(CombinatorialSpace<T> space)
+    {
+        List<List<T>> all = Utils.asList(space);
+        for (int shardCount = 1; shardCount <= 7; shardCount++)
+        {
+            List<List<T>> contiguous = new ArrayList<List<T>>();
+            int minSize = Integer.MAX_VALUE;
+            int maxSize = 0;
+            for (int i = 0; i < shardCount; i++)
+            {
+                List<List<T>> shard = 
+                    Utils.asList(space.shard(i, shardCount));
+                contiguous.addAll(shard);
+                minSize = Math.min(minSize, shard.size());
+                maxSize = Math.max(maxSize, shard.size());
+            }
+            assertEquals(all, contiguous);
+            assertEquals(true, maxSize - minSize <= 1);
+            
+            for (long blockSize = 1; blockSize <= 4; blockSize++)
+            {
+                List<List<List<T>>> shards = new ArrayList<List<List<T>>>();
+                for (int i = 0; i < shardCount; i++)
+                {
+                    shards.add(Utils.asList(
+                        space.shard(i, shardCount, blockSize)));
+                }
+                for (int r = 0; r < all.size(); r++)
+                {
+                    int shardIndex = (int) ((r / blockSize) % shardCount);
+                    assertEquals(all.get(r), 
+                        shards.get(shardIndex).remove(0));
+                }
+                for (List<List<T>> shard : shards)
+                {
+                    assertEquals(0, shard.size());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test that an invalid shard index causes an exception
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidShard()
+    {
+        new PermutationIterable<String>(Arrays.asList("A", "B")).shard(2, 2);
+    }
+    
+    /**
+     * Test whether parallel streams that are created from the 
+     * spliterators contain all elements in the right order
+     */
+    @Test
+    public void testSpliterators()
+    {
+        for (CombinatorialSpace<?> space : createSpaces())
+        {
+            List<?> expected = Utils.asList(space);
+            List<?> actual = StreamSupport.stream(space.spliterator(), true)
+                .collect(Collectors.toList());
+            assertEquals(expected, actual);
+        }
+    }
+    
+    /**
+     * Test whether the flyweight iterator returns the same view on 
+     * the expected elements in each step
+     */
+    @Test
+    public void testFlyweightIterator()
+    {
+        List<CombinatorialSpace<?>> spaces = createSpaces();
+        spaces.add(shuffled(spaces.get(0)));
+        for (CombinatorialSpace<?> space : spaces)
+        {
+            List<?> all = Utils.asList(space);
+            Iterator<? extends List<?>> iterator = space.flyweightIterator();
+            List<?> first = null;
+            for (Object expected : all)
+            {
+                List<?> actual = iterator.next();
+                if (first == null)
+                {
+                    first = actual;
+                }
+                assertSame(first, actual);
+                assertEquals(expected, actual);
+            }
+            assertFalse(iterator.hasNext());
+        }
+    }
+    
+    /**
+     * Test whether the views of the view iterator remain valid
+     */
+    @Test
+    public void testViewIterator()
+    {
+        List<CombinatorialSpace<?>> spaces = createSpaces();
+        spaces.add(shuffled(spaces.get(0)));
+        for (CombinatorialSpace<?> space : spaces)
+        {
+            List<Object> views = new ArrayList<Object>();
+            Iterator<? extends List<?>> iterator = space.viewIterator();
+            while (iterator.hasNext())
+            {
+                views.add(iterator.next());
+            }
+            assertEquals(Utils.asList(space), views);
+        }
+    }
+    
+    /**
+     * Test whether the views may not be modified
+     */
+    @Test(expected=UnsupportedOperationException.class)
+    public void testViewIsUnmodifiable()
+    {
+        List<String> input = Arrays.asList("A", "B", "C");
+        new PermutationIterable<String>(input).viewIterator().next().set(
+            0, "X");
+    }
+    
+    /**
+     * Test the rank computation when the input contains duplicates
+     */
+    @Test
+    public void testRankWithDuplicates()
+    {
+        List<String> input = Arrays.asList("A", "A", "B");
+        ChoiceIterable<String> choices = new ChoiceIterable<String>(2, input);
+        assertEquals(0, choices.rank(Arrays.asList("A", "A")));
+        assertEquals(-1, choices.rank(Arrays.asList("B", "A")));
+        
+        PermutationIterable<String> permutations = 
+            new PermutationIterable<String>(input);
+        List<String> permutation = Arrays.asList("B", "A", "A");
+        assertEquals(permutation, 
+            permutations.get(permutations.rank(permutation)));
+    }
+    
+    /**
+     * Test whether an IndexOutOfBoundsException is thrown for 
+     * invalid ranks
+     */
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testInvalidRank()
+    {
+        List<String> input = Arrays.asList("A", "B", "C");
+        new ChoiceIterable<String>(2, input).get(3);
+    }
+}
@@ -0,0 +1,211 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link ProductSpace}, {@link UnionSpace} and
+ * {@link CompositionSpace} classes
+ */
+@RunWith(JUnit4.class)
+public class CompositeSpaceTest
+{
+    /**
+     * Checks whether the index tuples of the given space are consistent
+     * when they are created by unranking and by advancing them, and 
+     * whether the elements are the expected ones
+     * 
+     * @param space The space
+     * @param expected The expected elements
+     */
+    private static void checkSpace(
+        CombinatorialSpace<String> space, List<List<String>> expected)
+    {
+        assertEquals(expected.size(), space.size());
+        assertEquals(expected, Utils.asList(space));
+        int tuple[] = new int[space.getTupleLength()];
+        int next[] = new int[space.getTupleLength()];
+        space.unrank(0, next);
+        for (int r = 0; r < space.size(); r++)
+        {
+            space.unrank(r, tuple);
+            assertArrayEquals(tuple, next);
+            assertEquals(r, space.rank(tuple));
+            assertEquals(expected.get(r), space.select(tuple));
+            assertEquals(r, space.rank(expected.get(r)));
+            for (int index : tuple)
+            {
+                assertEquals(true, index < space.getIndexBound());
+            }
+            assertEquals(r < space.size() - 1, space.nextTuple(next));
+        }
+        assertEquals(expected, StreamSupport.stream(space.spliterator(), true)
+            .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Test the product of a choice and a mixed range combination
+     */
+    @Test
+    public void testProduct()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D");
+        List<List<String>> sets = new ArrayList<List<String>>();
+        sets.add(Arrays.asList("X", "Y"));
+        sets.add(Arrays.asList("U", "V", "W"));
+        ChoiceIterable<String> choices = new ChoiceIterable<String>(2, input);
+        MixedRangeCombinationIterable<String> grid =
+            new MixedRangeCombinationIterable<String>(sets);
+        
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> choice : choices)
+        {
+            for (List<String> point : grid)
+            {
+                List<String> element = new ArrayList<String>(choice);
+                element.addAll(point);
+                expected.add(element);
+            }
+        }
+        checkSpace(new ProductSpace<String>(
+            Arrays.asList(choices, grid)), expected);
+    }
+    
+    /**
+     * Test the product with a power set, whose elements have 
+     * different lengths
+     */
+    @Test
+    public void testProductWithPowerSet()
+    {
+        List<String> input = Arrays.asList("A", "B", "C");
+        PowerSetIterable<String> first = new PowerSetIterable<String>(input);
+        PowerSetIterable<String> second = new PowerSetIterable<String>(input);
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> a : first)
+        {
+            for (List<String> b : second)
+            {
+                List<String> element = new ArrayList<String>(a);
+                element.addAll(b);
+                expected.add(element);
+            }
+        }
+        ProductSpace<String> product = new ProductSpace<String>(
+            Arrays.asList(first, second));
+        assertEquals(expected, Utils.asList(product));
+        for (int r = 0; r < product.size(); r++)
+        {
+            assertEquals(expected.get(r), 
+                product.get(product.rank(expected.get(r))));
+        }
+    }
+    
+    /**
+     * Test the union of choices, including an empty space
+     */
+    @Test
+    public void testUnion()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D");
+        List<CombinatorialSpace<String>> spaces = 
+            new ArrayList<CombinatorialSpace<String>>();
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (int k = 1; k <= 3; k++)
+        {
+            ChoiceIterable<String> choices = 
+                new ChoiceIterable<String>(k, input);
+            spaces.add(choices);
+            spaces.add(new MixedRangeCombinationIterable<String>(
+                Collections.<List<String>>emptyList()));
+            expected.addAll(Utils.asList(choices));
+        }
+        checkSpace(new UnionSpace<String>(spaces), expected);
+    }
+    
+    /**
+     * Test the composition of choices and permutations
+     */
+    @Test
+    public void testComposition()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E");
+        ChoiceIterable<String> choices = new ChoiceIterable<String>(3, input);
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> choice : choices)
+        {
+            expected.addAll(Utils.asList(
+                new PermutationIterable<String>(choice)));
+        }
+        checkSpace(new CompositionSpace<String, String>(
+            choices, e -> new PermutationIterable<String>(e)), expected);
+    }
+    
+    /**
+     * Test whether an IllegalArgumentException is thrown when the 
+     * inner spaces of a composition have different sizes
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testCompositionWithDifferentSizes()
+    {
+        List<String> input = Arrays.asList("A", "B", "C");
+        CompositionSpace<String, String> space = 
+            new CompositionSpace<String, String>(
+                new PowerSetIterable<String>(input), 
+                e -> new PermutationIterable<String>(e));
+        space.get(space.size() - 1);
+    }
+    
+    /**
+     * Test whether the iterators of a composition space only create 
+     * the inner space when the outer element changes
+     */
+    @Test
+    public void testCompositionCreatesInnerSpacesOnce()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E");
+        final AtomicInteger calls = new AtomicInteger();
+        CompositionSpace<String, String> space = 
+            new CompositionSpace<String, String>(
+                new ChoiceIterable<String>(3, input), e -> 
+                {
+                    calls.incrementAndGet();
+                    return new PermutationIterable<String>(e);
+                });
+        long outerSize = 10;
+        
+        calls.set(0);
+        List<List<String>> all = Utils.asList(space);
+        assertEquals(outerSize, calls.get());
+        
+        calls.set(0);
+        List<List<String>> flyweights = new ArrayList<List<String>>();
+        Iterator<List<String>> iterator = space.flyweightIterator();
+        while (iterator.hasNext())
+        {
+            flyweights.add(new ArrayList<String>(iterator.next()));
+        }
+        assertEquals(all, flyweights);
+        assertEquals(2 * outerSize, calls.get());
+        
+        calls.set(0);
+        List<List<String>> streamed = 
+            StreamSupport.stream(space.spliterator(), false)
+            .collect(Collectors.toList());
+        assertEquals(all, streamed);
+        assertEquals(outerSize, calls.get());
+    }
+}
@@ -0,0 +1,199 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link Counting} class.
+ */
+@RunWith(JUnit4.class)
+public class CountingTest
+{
+    /**
+     * Computes n! in the most simple way
+     * 
+     * @param n The argument
+     * @return The factorial
+     */
+    private static BigInteger simpleFactorial(int n)
+    {
+        BigInteger f = BigInteger.ONE;
+        for (int i = 2; i <= n; i++)
+        {
+            f = f.multiply(BigInteger.valueOf(i));
+        }
+        return f;
+    }
+    
+    /**
+     * Test whether the binomial coefficients are computed correctly,
+     * with the long and the BigInteger methods
+     */
+    @Test
+    public void testBinomial()
+    {
+        BigInteger maxLong = BigInteger.valueOf(Long.MAX_VALUE);
+        for (int n = 0; n < 200; n += 7)
+        {
+            for (int k = 0; k <= n; k++)
+            {
+                BigInteger expected = simpleFactorial(n).divide(
+                    simpleFactorial(k).multiply(simpleFactorial(n - k)));
+                assertEquals(expected, Counting.binomialBig(n, k));
+                if (expected.compareTo(maxLong) <= 0)
+                {
+                    assertEquals(expected.longValue(), 
+                        Counting.binomial(n, k));
+                }
+            }
+        }
+        assertEquals(0, Counting.binomial(3, 4));
+        assertEquals(0, Counting.binomial(3, -1));
+        assertEquals(7219428434016265740L, Counting.binomial(66, 33));
+        assertEquals(1000L * 999 * 998 / 6, Counting.binomial(1000, 3));
+    }
+    
+    /**
+     * Test whether the long methods throw an ArithmeticException 
+     * when the result does not fit into a long
+     */
+    @Test(expected=ArithmeticException.class)
+    public void testBinomialOverflow()
+    {
+        Counting.binomial(68, 34);
+    }
+    
+    /**
+     * Test for the falling factorials, factorials and powers
+     */
+    @Test
+    public void testFactorials()
+    {
+        for (int n = 0; n < 60; n++)
+        {
+            assertEquals(simpleFactorial(n), Counting.factorialBig(n));
+            assertEquals(simpleFactorial(n), Utils.factorial(n));
+        }
+        for (int n = 3; n < 60; n++)
+        {
+            assertEquals(simpleFactorial(n).divide(simpleFactorial(n - 3)),
+                Counting.fallingFactorialBig(n, 3));
+        }
+        assertEquals(2432902008176640000L, Counting.factorial(20));
+        assertEquals(20L * 19 * 18 * 17 * 16 * 15, 
+            Counting.fallingFactorial(20, 6));
+        assertEquals(0, Counting.fallingFactorial(3, 4));
+        assertEquals(1L << 62, Counting.power(2, 62));
+        assertEquals(1, Counting.power(0, 0));
+        assertEquals(BigInteger.valueOf(3).pow(50), Counting.powerBig(3, 50));
+    }
+    
+    /**
+     * Test whether the factorial throws an ArithmeticException 
+     * when the result does not fit into a long
+     */
+    @Test(expected=ArithmeticException.class)
+    public void testFactorialOverflow()
+    {
+        Counting.factorial(21);
+    }
+    
+    /**
+     * Test for the multinomial coefficients
+     */
+    @Test
+    public void testMultinomial()
+    {
+        // "MISSISSIPPI": 1 M, 4 I, 4 S, 2 P
+        assertEquals(34650, Counting.multinomial(1, 4, 4, 2));
+        assertEquals(BigInteger.valueOf(34650), 
+            Counting.multinomialBig(1, 4, 4, 2));
+        assertEquals(1, Counting.multinomial());
+    }
+    
+    /**
+     * Test for the Catalan, Stirling and Bell numbers
+     */
+    @Test
+    public void testSpecialNumbers()
+    {
+        long catalan[] = { 1, 1, 2, 5, 14, 42, 132, 429, 1430, 4862 };
+        for (int n = 0; n < catalan.length; n++)
+        {
+            assertEquals(catalan[n], Counting.catalan(n));
+            assertEquals(BigInteger.valueOf(catalan[n]), 
+                Counting.catalanBig(n));
+        }
+        assertEquals(Counting.catalanBig(35).longValue(), 
+            Counting.catalan(35));
+        
+        long bell[] = { 1, 1, 2, 5, 15, 52, 203, 877, 4140, 21147 };
+        for (int n = 0; n < bell.length; n++)
+        {
+            assertEquals(bell[n], Counting.bell(n));
+            assertEquals(BigInteger.valueOf(bell[n]), Counting.bellBig(n));
+        }
+        assertEquals(Counting.bellBig(25).longValue(), Counting.bell(25));
+        
+        for (int n = 0; n < 30; n++)
+        {
+            BigInteger sum2 = BigInteger.ZERO;
+            BigInteger sum1 = BigInteger.ZERO;
+            for (int k = 0; k <= n; k++)
+            {
+                BigInteger s2 = Counting.stirling2Big(n, k);
+                BigInteger s1 = Counting.stirling1Big(n, k);
+                sum2 = sum2.add(s2);
+                sum1 = sum1.add(s1);
+                if (s2.bitLength() < 63)
+                {
+                    assertEquals(s2.longValue(), Counting.stirling2(n, k));
+                }
+                if (s1.bitLength() < 63)
+                {
+                    assertEquals(s1.longValue(), Counting.stirling1(n, k));
+                }
+            }
+            assertEquals(Counting.bellBig(n), sum2);
+            assertEquals(simpleFactorial(n), sum1);
+        }
+        assertEquals(25, Counting.stirling2(5, 3));
+        assertEquals(35, Counting.stirling1(5, 3));
+    }
+    
+    /**
+     * Test whether the Bell number throws an ArithmeticException 
+     * when the result does not fit into a long
+     */
+    @Test(expected=ArithmeticException.class)
+    public void testBellOverflow()
+    {
+        Counting.bell(26);
+    }
+    
+    /**
+     * Test the number of necklaces and bracelets against known values
+     */
+    @Test
+    public void testNecklacesAndBracelets()
+    {
+        assertEquals(1, Counting.necklaces(2, 0));
+        assertEquals(6, Counting.necklaces(2, 4));
+        assertEquals(8, Counting.necklaces(2, 5));
+        assertEquals(14, Counting.necklaces(2, 6));
+        assertEquals(51, Counting.necklaces(3, 5));
+        assertEquals(0, Counting.necklaces(0, 3));
+        assertEquals(13, Counting.bracelets(2, 6));
+        assertEquals(10, Counting.bracelets(3, 3));
+        assertEquals(39, Counting.bracelets(3, 5));
+        assertEquals(Counting.powerBig(2, 101).subtract(
+            BigInteger.valueOf(2)).divide(BigInteger.valueOf(101)).add(
+                BigInteger.valueOf(2)), Counting.necklacesBig(2, 101));
+    }
+    
+}
@@ -0,0 +1,125 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link EnumerationMonitor} class.
+ */
+@RunWith(JUnit4.class)
+public class EnumerationMonitorTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Test whether the monitor counts all elements, and informs the
+     * listeners about all batches
+     */
+    @Test
+    public void testMonitor()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(6));
+        EnumerationMonitor monitor = 
+            new EnumerationMonitor(space.size(), 100);
+        final LongAdder batches = new LongAdder();
+        final LongAdder elements = new LongAdder();
+        monitor.addEnumerationListener(
+            (m, count, generationNanos, consumerNanos) -> 
+            {
+                batches.increment();
+                elements.add(count);
+            });
+        List<List<Integer>> expected = Utils.asList(space);
+        List<List<Integer>> actual = new ArrayList<List<Integer>>();
+        for (List<Integer> permutation : monitor.monitor(space))
+        {
+            actual.add(permutation);
+            if (actual.size() == 300)
+            {
+                assertEquals(300, monitor.getCount());
+                assertEquals(300.0 / 720, monitor.getProgress(), 1e-9);
+                assertTrue(monitor.getEstimatedRemainingNanos() >= 0);
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(720, monitor.getCount());
+        assertEquals(1.0, monitor.getProgress(), 0.0);
+        assertEquals(8, batches.sum());
+        assertEquals(720, elements.sum());
+        assertTrue(monitor.getGenerationNanos() > 0);
+        assertTrue(monitor.getConsumerNanos() > 0);
+        assertEquals(0, monitor.getEstimatedRemainingNanos());
+    }
+    
+    /**
+     * Test that the consumer time is counted for elements that complete
+     * a batch
+     * 
+     * @throws InterruptedException If the thread is interrupted
+     */
+    @Test
+    public void testConsumerTimeAtBatchBoundaries() 
+        throws InterruptedException
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(1, createInput(5));
+        EnumerationMonitor monitor = new EnumerationMonitor(space.size(), 1);
+        for (List<Integer> choice : monitor.monitor(space))
+        {
+            Thread.sleep(2);
+        }
+        assertEquals(5, monitor.getCount());
+        assertTrue(monitor.getConsumerNanos() >= 5 * 2000000L);
+    }
+    
+    /**
+     * Test that monitoring with a <code>null</code> monitor returns
+     * the original iterable
+     */
+    @Test
+    public void testDisabled()
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(2, createInput(4));
+        assertSame(space, EnumerationMonitor.monitor(space, null));
+    }
+    
+    /**
+     * Test the behavior for an unknown total number of elements
+     */
+    @Test
+    public void testUnknownTotal()
+    {
+        EnumerationMonitor monitor = new EnumerationMonitor(-1);
+        monitor.record(10, 100, 200);
+        assertEquals(10, monitor.getCount());
+        assertTrue(Double.isNaN(monitor.getProgress()));
+        assertEquals(-1, monitor.getEstimatedRemainingNanos());
+        assertEquals(100, monitor.getGenerationNanos());
+        assertEquals(200, monitor.getConsumerNanos());
+    }
+}
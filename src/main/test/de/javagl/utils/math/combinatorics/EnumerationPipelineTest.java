@@ -0,0 +1,159 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link EnumerationPipeline} class.
+ */
+@RunWith(JUnit4.class)
+public class EnumerationPipelineTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Test whether an ordered pipeline passes the results to the 
+     * sink in the order of the ranks
+     * 
+     * @throws InterruptedException Not expected
+     */
+    @Test
+    public void testOrdered() throws InterruptedException
+    {
+        CombinatorialSpace<Integer> space = 
+            new ChoiceIterable<Integer>(4, createInput(16));
+        EnumerationPipeline<Integer, Long> pipeline = 
+            new EnumerationPipeline<Integer, Long>(space, space::rank);
+        pipeline.setConcurrency(8);
+        pipeline.setGeneratorCount(3);
+        pipeline.setBatchSize(17);
+        pipeline.setQueueCapacity(4);
+        pipeline.setOrdered(true);
+        List<Long> results = new ArrayList<Long>();
+        pipeline.run(results::add);
+        
+        assertEquals(space.size(), results.size());
+        for (int i = 0; i < results.size(); i++)
+        {
+            assertEquals(i, results.get(i).longValue());
+        }
+        assertEquals(space.size(), pipeline.getProcessedCount());
+        assertTrue(pipeline.getMaxQueueDepth() <= 4);
+        assertTrue(pipeline.getThroughput() > 0);
+    }
+    
+    /**
+     * Test whether an unordered pipeline with an executor passes
+     * all results to the sink
+     * 
+     * @throws InterruptedException Not expected
+     */
+    @Test
+    public void testUnorderedWithExecutor() throws InterruptedException
+    {
+        CombinatorialSpace<Integer> space = 
+            new PermutationIterable<Integer>(createInput(6));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        EnumerationPipeline<Integer, List<Integer>> pipeline = 
+            new EnumerationPipeline<Integer, List<Integer>>(
+                space, element -> element);
+        pipeline.setExecutor(executor);
+        pipeline.setConcurrency(4);
+        pipeline.setBatchSize(10);
+        List<List<Integer>> results = new ArrayList<List<Integer>>();
+        pipeline.run(results::add);
+        executor.shutdown();
+        
+        assertEquals(space.size(), results.size());
+        assertEquals(Utils.asSet(space), new HashSet<List<Integer>>(results));
+    }
+    
+    /**
+     * Test whether the generators wait in ordered mode, until the 
+     * results of the first batch have been passed to the sink
+     * 
+     * @throws InterruptedException If the test is interrupted
+     */
+    @Test
+    public void testOrderedWindow() throws InterruptedException
+    {
+        CombinatorialSpace<Integer> space = 
+            new ChoiceIterable<Integer>(1, createInput(20));
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger callsWhileBlocked = new AtomicInteger();
+        EnumerationPipeline<Integer, Integer> pipeline = 
+            new EnumerationPipeline<Integer, Integer>(space, element -> 
+            {
+                calls.incrementAndGet();
+                if (element.get(0) == 0)
+                {
+                    try
+                    {
+                        Thread.sleep(100);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    callsWhileBlocked.set(calls.get());
+                }
+                return element.get(0);
+            });
+        pipeline.setConcurrency(4);
+        pipeline.setBatchSize(1);
+        pipeline.setQueueCapacity(2);
+        pipeline.setOrdered(true);
+        List<Integer> results = new ArrayList<Integer>();
+        pipeline.run(results::add);
+        
+        assertEquals(createInput(20), results);
+        assertTrue(callsWhileBlocked.get() <= 2);
+    }
+    
+    /**
+     * Test whether an exception in the function is passed to the caller
+     * 
+     * @throws InterruptedException Not expected
+     */
+    @Test(expected=IllegalStateException.class)
+    public void testFailure() throws InterruptedException
+    {
+        CombinatorialSpace<Integer> space = 
+            new CombinationIterable<Integer>(4, createInput(10));
+        EnumerationPipeline<Integer, Object> pipeline = 
+            new EnumerationPipeline<Integer, Object>(space, element -> 
+            {
+                if (element.get(0) == 5)
+                {
+                    throw new IllegalStateException("Expected");
+                }
+                return element;
+            });
+        pipeline.run(result -> {});
+    }
+}
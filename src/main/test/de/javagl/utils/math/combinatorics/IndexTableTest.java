@@ -0,0 +1,187 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link IndexTable} class, and the consistency of
+ * the {@link IndexSpace} implementations with their iterators.
+ */
+@RunWith(JUnit4.class)
+public class IndexTableTest
+{
+    /**
+     * Creates the input for the tests
+     * 
+     * @param n The size of the input
+     * @return The input
+     */
+    private static List<String> createInput(int n)
+    {
+        List<String> input = new ArrayList<String>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(String.valueOf((char) ('A' + i)));
+        }
+        return input;
+    }
+    
+    /**
+     * Checks whether the given table contains the index tuples of 
+     * the given space, and whether the tuples that are created by 
+     * unranking, ranking and advancing the tuples are consistent.
+     * 
+     * @param space The space
+     * @param table The table
+     */
+    private static void checkTable(IndexSpace space, IndexTable table)
+    {
+        assertEquals(space.size(), table.getNumRows());
+        assertEquals(space.getTupleLength(), table.getNumColumns());
+        int tuple[] = new int[space.getTupleLength()];
+        int next[] = new int[space.getTupleLength()];
+        if (space.size() > 0)
+        {
+            space.unrank(0, next);
+        }
+        for (int r = 0; r < space.size(); r++)
+        {
+            space.unrank(r, tuple);
+            assertArrayEquals(tuple, next);
+            assertArrayEquals(tuple, table.getRow(r, null));
+            assertEquals(r, space.rank(tuple));
+            boolean hasNext = space.nextTuple(next);
+            assertEquals(r < space.size() - 1, hasNext);
+        }
+    }
+    
+    /**
+     * Checks whether the index tuples of the given space, applied to 
+     * the given input, yield the same lists as the iterator of the
+     * given iterable, and whether the table of the space is correct
+     * 
+     * @param iterable The iterable that is also an index space
+     * @param input The input that the indices refer to
+     */
+    private static <T extends Iterable<List<String>> & IndexSpace> 
+        void checkIndices(T iterable, List<String> input)
+    {
+        IndexTable table = Utils.asIndexTable(iterable);
+        checkTable(iterable, table);
+        int r = 0;
+        for (List<String> element : iterable)
+        {
+            List<String> expected = new ArrayList<String>();
+            for (int index : table.getRowView(r))
+            {
+                expected.add(input.get(index));
+            }
+            assertEquals(expected, element);
+            r++;
+        }
+        assertEquals(iterable.size(), r);
+    }
+    
+    /**
+     * Test the index tuples of the iterables whose index tuples 
+     * contain indices of the input elements
+     */
+    @Test
+    public void testIndexSpaces()
+    {
+        List<String> input = createInput(6);
+        checkIndices(new ChoiceIterable<String>(3, input), input);
+        checkIndices(new CombinationIterable<String>(3, input), input);
+        checkIndices(new PermutationIterable<String>(input), input);
+        checkIndices(new UnorderedCombinationIterable<String>(3, input), 
+            input);
+        checkIndices(new SequenceWithoutRepetitionIterable<String>(
+            3, input), input);
+    }
+    
+    /**
+     * Test the index tuples of the {@link PowerSetIterable}
+     */
+    @Test
+    public void testPowerSet()
+    {
+        List<String> input = createInput(5);
+        PowerSetIterable<String> iterable = 
+            new PowerSetIterable<String>(input);
+        IndexTable table = Utils.asIndexTable(iterable);
+        checkTable(iterable, table);
+        int r = 0;
+        for (List<String> element : iterable)
+        {
+            for (int i = 0; i < input.size(); i++)
+            {
+                assertEquals(element.contains(input.get(i)), 
+                    table.get(r, i) == 1);
+            }
+            r++;
+        }
+    }
+    
+    /**
+     * Test the index tuples of the {@link MixedRangeCombinationIterable}
+     */
+    @Test
+    public void testMixedRange()
+    {
+        List<List<String>> sets = new ArrayList<List<String>>();
+        sets.add(Arrays.asList("A", "B", "C"));
+        sets.add(Arrays.asList("D", "E"));
+        sets.add(Arrays.asList("A", "E", "F", "G"));
+        MixedRangeCombinationIterable<String> iterable = 
+            new MixedRangeCombinationIterable<String>(sets);
+        IndexTable table = Utils.asIndexTable(iterable);
+        checkTable(iterable, table);
+        Iterator<List<String>> iterator = iterable.iterator();
+        for (int r = 0; r < table.getNumRows(); r++)
+        {
+            List<String> element = iterator.next();
+            for (int i = 0; i < sets.size(); i++)
+            {
+                assertEquals(sets.get(i).get(table.get(r, i)), 
+                    element.get(i));
+            }
+        }
+        assertFalse(iterator.hasNext());
+    }
+    
+    /**
+     * Test whether large tables are filled correctly in parallel, 
+     * and whether the storage depends on the index bound
+     */
+    @Test
+    public void testLargeTables()
+    {
+        IndexSpace space = new ChoiceIterable<String>(4, createInput(40));
+        IndexTable table = Utils.asIndexTable(space);
+        assertEquals(1, table.getBytesPerIndex());
+        checkTable(space, table);
+        
+        List<Integer> largeInput = new ArrayList<Integer>();
+        for (int i = 0; i < 300; i++)
+        {
+            largeInput.add(i);
+        }
+        IndexSpace largeSpace = 
+            new SequenceWithoutRepetitionIterable<Integer>(2, largeInput);
+        IndexTable largeTable = Utils.asIndexTable(largeSpace);
+        assertEquals(2, largeTable.getBytesPerIndex());
+        checkTable(largeSpace, largeTable);
+        assertTrue(largeTable.get(largeTable.getNumRows() - 1, 0) == 299);
+    }
+}
@@ -0,0 +1,128 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link IndexTables} class
+ */
+@RunWith(JUnit4.class)
+public class IndexTablesTest
+{
+    /**
+     * Checks whether the given table contains the index tuples of the
+     * given space, in the order of their ranks, both for the random 
+     * access and for the sequential scan
+     * 
+     * @param space The space
+     * @param table The table
+     */
+    private static void checkTable(IndexSpace space, IndexTable table)
+    {
+        assertEquals(space.size(), table.getNumRows());
+        assertEquals(space.getTupleLength(), table.getNumColumns());
+        int expected[] = new int[space.getTupleLength()];
+        for (int r = 0; r < table.getNumRows(); r++)
+        {
+            space.unrank(r, expected);
+            assertArrayEquals(expected, table.getRow(r, null));
+        }
+        long counter[] = { 0 };
+        table.forEachRow(tuple -> 
+        {
+            space.unrank(counter[0], expected);
+            assertArrayEquals(expected, tuple);
+            counter[0]++;
+        });
+        assertEquals(space.size(), counter[0]);
+    }
+    
+    /**
+     * Test the tables of permutations
+     */
+    @Test
+    public void testPermutations()
+    {
+        for (int n = 0; n <= 8; n++)
+        {
+            IndexTable table = IndexTables.permutations(n);
+            checkTable(new PermutationIterable<Integer>(
+                Utils.indexList(n)), table);
+            assertEquals(1, table.getBytesPerIndex());
+            assertSame(table, IndexTables.permutations(n));
+        }
+    }
+    
+    /**
+     * Test the tables of choices
+     */
+    @Test
+    public void testChoices()
+    {
+        for (int n = 0; n <= 12; n++)
+        {
+            for (int k = 0; k <= n; k++)
+            {
+                IndexTable table = IndexTables.choices(n, k);
+                checkTable(new ChoiceIterable<Integer>(
+                    k, Utils.indexList(n)), table);
+                assertSame(table, IndexTables.choices(n, k));
+            }
+        }
+    }
+    
+    /**
+     * Test the tables of choices from many elements, and clearing the 
+     * cache
+     */
+    @Test
+    public void testLargeChoices()
+    {
+        IndexTable table = IndexTables.choices(1000, 1);
+        checkTable(new ChoiceIterable<Integer>(
+            1, Utils.indexList(1000)), table);
+        assertEquals(2, table.getBytesPerIndex());
+        assertSame(table, IndexTables.choices(1000, 1));
+        
+        IndexTable small = IndexTables.choices(4, 2);
+        IndexTables.clear();
+        assertNotSame(table, IndexTables.choices(1000, 1));
+        assertNotSame(small, IndexTables.choices(4, 2));
+    }
+    
+    /**
+     * Test whether an IllegalArgumentException is thrown for tables
+     * that are too large
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooLarge()
+    {
+        IndexTables.permutations(9);
+    }
+    
+    /**
+     * Test whether an IllegalArgumentException is thrown for tables
+     * whose size does not fit into a long
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooLargeForLong()
+    {
+        IndexTables.permutations(21);
+    }
+    
+    /**
+     * Test whether an IllegalArgumentException is thrown for tables
+     * of choices that are too large
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooManyChoices()
+    {
+        IndexTables.choices(80, 40);
+    }
+}
@@ -0,0 +1,115 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link IndexTupleFile} class.
+ */
+@RunWith(JUnit4.class)
+public class IndexTupleFileTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Writes the given space into a file, reads it, and checks whether
+     * the file contains the tuples of the space
+     * 
+     * @param space The space
+     * @param expectedBits The expected number of bits per index
+     * @throws IOException If an IO error occurs
+     */
+    private static void check(IndexSpace space, int expectedBits) 
+        throws IOException
+    {
+        Path path = Files.createTempFile("indexTupleFileTest", ".bin");
+        try
+        {
+            IndexTupleFile.write(space, path);
+            try (IndexTupleFile file = IndexTupleFile.open(path))
+            {
+                assertEquals(space.size(), file.getNumTuples());
+                assertEquals(space.getTupleLength(), file.getTupleLength());
+                assertEquals(space.getIndexBound(), file.getIndexBound());
+                assertEquals(expectedBits, file.getBitsPerIndex());
+                int expected[] = new int[space.getTupleLength()];
+                int actual[] = new int[space.getTupleLength()];
+                for (long r = 0; r < space.size(); r++)
+                {
+                    space.unrank(r, expected);
+                    file.getTuple(r, actual);
+                    assertArrayEquals(expected, actual);
+                    for (int j = 0; j < expected.length; j++)
+                    {
+                        assertEquals(expected[j], file.get(r, j));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+    
+    /**
+     * Test writing and reading different spaces
+     * 
+     * @throws IOException If an IO error occurs
+     */
+    @Test
+    public void testWriteAndRead() throws IOException
+    {
+        check(new ChoiceIterable<Integer>(5, createInput(30)), 5);
+        check(new PermutationIterable<Integer>(createInput(7)), 3);
+        check(new PowerSetIterable<Integer>(createInput(10)), 1);
+        check(new CombinationIterable<Integer>(2, createInput(3)), 2);
+        check(new ChoiceIterable<Integer>(2, createInput(1000)), 10);
+        check(new CombinationIterable<Integer>(1, createInput(100000)), 17);
+        check(new ChoiceIterable<Integer>(3, createInput(2)), 1);
+    }
+    
+    /**
+     * Test that opening a file with a wrong format causes an exception
+     * 
+     * @throws IOException If an IO error occurs
+     */
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException
+    {
+        Path path = Files.createTempFile("indexTupleFileTest", ".bin");
+        try
+        {
+            Files.write(path, new byte[64]);
+            IndexTupleFile.open(path).close();
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link IntTupleIterator} class.
+ */
+@RunWith(JUnit4.class)
+public class IntTupleIteratorTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Checks whether the given cursor provides the elements of the 
+     * given iterable, as primitive arrays
+     * 
+     * @param iterable The iterable over the indices
+     * @param cursor The cursor
+     */
+    private static void check(Iterable<List<Integer>> iterable, 
+        IntTupleIterator cursor)
+    {
+        long rank = 0;
+        for (List<Integer> element : iterable)
+        {
+            assertEquals(true, cursor.advance());
+            assertEquals(rank, cursor.rank());
+            int expected[] = new int[element.size()];
+            for (int i = 0; i < element.size(); i++)
+            {
+                expected[i] = element.get(i);
+            }
+            assertArrayEquals(expected, cursor.stream().toArray());
+            rank++;
+        }
+        assertFalse(cursor.advance());
+        assertFalse(cursor.advance());
+    }
+    
+    /**
+     * Test whether the cursors provide the same indices as the iterables
+     */
+    @Test
+    public void testFactories()
+    {
+        check(new ChoiceIterable<Integer>(3, createInput(6)), 
+            IntTupleIterator.choices(6, 3));
+        check(new PermutationIterable<Integer>(createInput(4)), 
+            IntTupleIterator.permutations(4));
+        check(new CombinationIterable<Integer>(2, createInput(3)), 
+            IntTupleIterator.combinations(3, 2));
+        check(new UnorderedCombinationIterable<Integer>(3, createInput(4)), 
+            IntTupleIterator.unorderedCombinations(4, 3));
+        check(new SequenceWithoutRepetitionIterable<Integer>(
+            2, createInput(5)), IntTupleIterator.sequences(5, 2));
+        check(new MixedRangeCombinationIterable<Integer>(Arrays.asList(
+            createInput(2), createInput(3))), 
+            IntTupleIterator.mixedRange(2, 3));
+        
+        IntTupleIterator subsets = IntTupleIterator.subsets(3);
+        int count = 0;
+        while (subsets.advance())
+        {
+            int bits = 0;
+            for (int i = 0; i < 3; i++)
+            {
+                bits |= subsets.get(i) << i;
+            }
+            assertEquals(count, bits);
+            count++;
+        }
+        assertEquals(8, count);
+    }
+    
+    /**
+     * Test the cursor over a range of ranks, and the consumer
+     */
+    @Test
+    public void testRangeAndConsumer()
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(3, createInput(7));
+        IntTupleIterator cursor = new IntTupleIterator(space, 10, 20);
+        final List<List<Integer>> actual = new ArrayList<List<Integer>>();
+        cursor.forEachRemaining(tuple -> actual.add(space.select(tuple)));
+        assertEquals(Utils.asList(space).subList(10, 20), actual);
+    }
+    
+    /**
+     * Test that accessing the tuple before advancing causes an exception
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testNotAdvanced()
+    {
+        IntTupleIterator.permutations(3).current();
+    }
+}
@@ -0,0 +1,109 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link IntegerCompositionIterable}
+ */
+@RunWith(JUnit4.class)
+public class IntegerCompositionIterableTest
+{
+    /**
+     * Computes the expected elements by filtering all sequences of 
+     * the given length with values in the given range
+     * 
+     * @param n The sum
+     * @param k The number of parts
+     * @param minPart The minimum part
+     * @param maxPart The maximum part
+     * @return The expected elements
+     */
+    private static List<List<Integer>> expected(
+        int n, int k, int minPart, int maxPart)
+    {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int v = minPart; v <= maxPart; v++)
+        {
+            values.add(v);
+        }
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        for (List<Integer> list : 
+            new CombinationIterable<Integer>(k, values))
+        {
+            int sum = 0;
+            for (int v : list)
+            {
+                sum += v;
+            }
+            if (sum == n)
+            {
+                result.add(list);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Test the elements against the filtered sequences
+     */
+    @Test
+    public void testAgainstFilteredSequences()
+    {
+        assertEquals(Arrays.asList(
+            Arrays.asList(1, 1, 3), Arrays.asList(1, 2, 2), 
+            Arrays.asList(1, 3, 1), Arrays.asList(2, 1, 2), 
+            Arrays.asList(2, 2, 1), Arrays.asList(3, 1, 1)), 
+            Utils.asList(new IntegerCompositionIterable(5, 3)));
+        for (int n = 0; n <= 9; n++)
+        {
+            for (int k = 0; k <= 4; k++)
+            {
+                for (int minPart = 0; minPart <= 2; minPart++)
+                {
+                    for (int maxPart = minPart; maxPart <= n; maxPart++)
+                    {
+                        IntegerCompositionIterable space = 
+                            new IntegerCompositionIterable(
+                                n, k, minPart, maxPart);
+                        List<List<Integer>> expected = 
+                            expected(n, k, minPart, maxPart);
+                        assertEquals(expected, Utils.asList(space));
+                        assertEquals(expected.size(), space.size());
+                        CombinatorialSpaceTest.checkTuples(space);
+                        for (int r = 0; r < expected.size(); r++)
+                        {
+                            assertEquals(r, space.rank(expected.get(r)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test the random access in a large space
+     */
+    @Test
+    public void testLarge()
+    {
+        IntegerCompositionIterable large = 
+            new IntegerCompositionIterable(100, 10);
+        assertEquals(Counting.binomial(99, 9), large.size());
+        int tuple[] = new int[10];
+        for (long r = 0; r < large.size(); r += large.size() / 1000)
+        {
+            large.unrank(r, tuple);
+            assertEquals(r, large.rank(tuple));
+            assertEquals(large.get(r), large.iterator(r, r + 1).next());
+        }
+        assertEquals(-1, large.rank(Arrays.asList("X")));
+    }
+}
@@ -0,0 +1,126 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link MultisetChoiceIterable}
+ */
+@RunWith(JUnit4.class)
+public class MultisetChoiceIterableTest
+{
+    /**
+     * Test the choices against the distinct choices of a 
+     * {@link ChoiceIterable}
+     */
+    @Test
+    public void testAgainstDistinctChoices()
+    {
+        List<String> input = 
+            Arrays.asList("A", "A", "A", "B", "C", "C", "D");
+        for (int k = 0; k <= input.size() + 1; k++)
+        {
+            Set<List<String>> distinct = new LinkedHashSet<List<String>>(
+                Utils.asList(new ChoiceIterable<String>(k, input)));
+            MultisetChoiceIterable<String> choices = 
+                new MultisetChoiceIterable<String>(k, input);
+            List<List<String>> actual = Utils.asList(choices);
+            assertEquals(new ArrayList<List<String>>(distinct), actual);
+            assertEquals(distinct.size(), choices.size());
+            CombinatorialSpaceTest.checkTuples(choices);
+            for (int r = 0; r < actual.size(); r++)
+            {
+                assertEquals(r, choices.rank(actual.get(r)));
+            }
+        }
+    }
+    
+    /**
+     * Test the example from the documentation
+     */
+    @Test
+    public void testExample()
+    {
+        List<String> input = Arrays.asList("A", "A", "A", "B", "C", "C");
+        MultisetChoiceIterable<String> choices = 
+            new MultisetChoiceIterable<String>(2, input);
+        assertEquals(3, choices.getNumGroups());
+        assertEquals(Arrays.asList(
+            Arrays.asList("A", "A"), Arrays.asList("A", "B"), 
+            Arrays.asList("A", "C"), Arrays.asList("B", "C"), 
+            Arrays.asList("C", "C")), Utils.asList(choices));
+        assertEquals(-1, choices.rank(Arrays.asList("B", "A")));
+        assertEquals(-1, choices.rank(Arrays.asList("B", "B")));
+    }
+    
+    /**
+     * Test the grouping with a key function
+     */
+    @Test
+    public void testKeyFunction()
+    {
+        List<String> input = Arrays.asList("a1", "b1", "a2", "b2", "c1");
+        MultisetChoiceIterable<String> choices = 
+            new MultisetChoiceIterable<String>(
+                2, input, s -> s.charAt(0));
+        assertEquals(Arrays.asList(
+            Arrays.asList("a1", "a2"), Arrays.asList("a1", "b1"), 
+            Arrays.asList("a1", "c1"), Arrays.asList("b1", "b2"), 
+            Arrays.asList("b1", "c1")), Utils.asList(choices));
+        assertEquals(3, choices.rank(Arrays.asList("b1", "b2")));
+        assertEquals(-1, choices.rank(Arrays.asList("b2", "b1")));
+        CombinatorialSpaceTest.checkTuples(choices);
+        
+        List<List<String>> views = new ArrayList<List<String>>();
+        Iterator<List<String>> iterator = choices.flyweightIterator();
+        while (iterator.hasNext())
+        {
+            views.add(new ArrayList<String>(iterator.next()));
+        }
+        assertEquals(Utils.asList(choices), views);
+    }
+    
+    /**
+     * Test the counts for a large input with few distinct elements
+     */
+    @Test
+    public void testLarge()
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            input.add(i % 4);
+        }
+        MultisetChoiceIterable<Integer> choices = 
+            new MultisetChoiceIterable<Integer>(500, input);
+        
+        // The number of solutions of c0+c1+c2+c3 = 500 with 0<=ci<=250
+        long expected = 0;
+        for (int c0 = 0; c0 <= 250; c0++)
+        {
+            for (int c1 = 0; c1 <= 250; c1++)
+            {
+                int rest = 500 - c0 - c1;
+                expected += Math.max(0, 
+                    Math.min(rest, 250) - Math.max(0, rest - 250) + 1);
+            }
+        }
+        assertEquals(expected, choices.size());
+        int tuple[] = new int[500];
+        for (long r = 0; r < choices.size(); r += choices.size() / 100)
+        {
+            choices.unrank(r, tuple);
+            assertEquals(r, choices.rank(tuple));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link NecklaceIterable} and the 
+ * {@link BraceletIterable}
+ */
+@RunWith(JUnit4.class)
+public class NecklaceIterableTest
+{
+    /**
+     * Returns the lexicographically smallest rotation of the given 
+     * list, or of its reversal if the reversal should be considered
+     * 
+     * @param list The list
+     * @param reversal Whether the reversal should be considered
+     * @return The smallest rotation
+     */
+    private static String smallest(List<String> list, boolean reversal)
+    {
+        String result = null;
+        List<String> candidate = new ArrayList<String>(list);
+        for (int r = 0; r < 2; r++)
+        {
+            for (int i = 0; i < Math.max(1, list.size()); i++)
+            {
+                String s = candidate.toString();
+                if (result == null || s.compareTo(result) < 0)
+                {
+                    result = s;
+                }
+                Collections.rotate(candidate, 1);
+            }
+            if (!reversal)
+            {
+                break;
+            }
+            Collections.reverse(candidate);
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the expected representatives by filtering all sequences
+     * 
+     * @param length The length
+     * @param input The input
+     * @param reversal Whether the reversal should be considered
+     * @return The expected representatives
+     */
+    private static List<List<String>> expected(
+        int length, List<String> input, boolean reversal)
+    {
+        List<List<String>> result = new ArrayList<List<String>>();
+        for (List<String> sequence : 
+            new CombinationIterable<String>(length, input))
+        {
+            if (sequence.toString().equals(smallest(sequence, reversal)))
+            {
+                result.add(sequence);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Test whether the necklaces and bracelets are the smallest 
+     * representatives of all sequences, in lexicographical order
+     */
+    @Test
+    public void testAgainstFilteredSequences()
+    {
+        List<String> input = Arrays.asList("A", "B", "C");
+        for (int k = 1; k <= 3; k++)
+        {
+            List<String> alphabet = input.subList(0, k);
+            for (int n = 0; n <= 7; n++)
+            {
+                NecklaceIterable<String> necklaces = 
+                    new NecklaceIterable<String>(n, alphabet);
+                List<List<String>> expectedNecklaces = 
+                    expected(n, alphabet, false);
+                assertEquals(expectedNecklaces, Utils.asList(necklaces));
+                assertEquals(expectedNecklaces.size(), necklaces.size());
+                
+                BraceletIterable<String> bracelets = 
+                    new BraceletIterable<String>(n, alphabet);
+                List<List<String>> expectedBracelets = 
+                    expected(n, alphabet, true);
+                assertEquals(expectedBracelets, Utils.asList(bracelets));
+                assertEquals(expectedBracelets.size(), bracelets.size());
+            }
+        }
+    }
+    
+    /**
+     * Test the tuple-based enumeration
+     */
+    @Test
+    public void testForEachTuple()
+    {
+        List<String> input = Arrays.asList("A", "B");
+        NecklaceIterable<String> necklaces = 
+            new NecklaceIterable<String>(4, input);
+        List<List<String>> actual = new ArrayList<List<String>>();
+        necklaces.forEachTuple(t -> 
+        {
+            List<String> element = new ArrayList<String>();
+            for (int index : t)
+            {
+                element.add(input.get(index));
+            }
+            actual.add(element);
+        });
+        assertEquals(Utils.asList(necklaces), actual);
+        assertEquals(6, actual.size());
+    }
+}
@@ -0,0 +1,125 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link PackedTupleCodec} class.
+ */
+@RunWith(JUnit4.class)
+public class PackedTupleCodecTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Checks whether the given packed stream contains the packed 
+     * index tuples of the given space, in increasing order
+     * 
+     * @param space The space
+     * @param stream The stream
+     */
+    private static void check(IndexSpace space, LongStream stream)
+    {
+        PackedTupleCodec codec = new PackedTupleCodec(space);
+        long packed[] = stream.toArray();
+        assertEquals(space.size(), packed.length);
+        int tuple[] = new int[space.getTupleLength()];
+        int unpacked[] = new int[space.getTupleLength()];
+        for (int r = 0; r < packed.length; r++)
+        {
+            space.unrank(r, tuple);
+            assertEquals(codec.pack(tuple), packed[r]);
+            codec.unpack(packed[r], unpacked);
+            assertArrayEquals(tuple, unpacked);
+            for (int j = 0; j < tuple.length; j++)
+            {
+                assertEquals(tuple[j], codec.get(packed[r], j));
+            }
+            if (r > 0)
+            {
+                assertTrue(packed[r - 1] < packed[r]);
+            }
+        }
+        assertArrayEquals(packed, 
+            PackedTupleCodec.stream(space).parallel().toArray());
+    }
+    
+    /**
+     * Test the packed streams of the iterables
+     */
+    @Test
+    public void testPackedStreams()
+    {
+        ChoiceIterable<Integer> choices = 
+            new ChoiceIterable<Integer>(3, createInput(20));
+        check(choices, choices.packedStream());
+        CombinationIterable<Integer> combinations = 
+            new CombinationIterable<Integer>(3, createInput(9));
+        check(combinations, combinations.packedStream());
+        UnorderedCombinationIterable<Integer> unordered = 
+            new UnorderedCombinationIterable<Integer>(4, createInput(6));
+        check(unordered, unordered.packedStream());
+        SequenceWithoutRepetitionIterable<Integer> sequences = 
+            new SequenceWithoutRepetitionIterable<Integer>(3, createInput(7));
+        check(sequences, sequences.packedStream());
+    }
+    
+    /**
+     * Test which shapes of tuples can be packed
+     */
+    @Test
+    public void testCanPack()
+    {
+        assertTrue(PackedTupleCodec.canPack(8, 256));
+        assertFalse(PackedTupleCodec.canPack(9, 256));
+        assertTrue(PackedTupleCodec.canPack(12, 32));
+        assertTrue(PackedTupleCodec.canPack(64, 2));
+        assertFalse(PackedTupleCodec.canPack(65, 2));
+        assertTrue(PackedTupleCodec.canPack(2, Integer.MAX_VALUE));
+        
+        PackedTupleCodec codec = new PackedTupleCodec(8, 256);
+        int tuple[] = { 255, 254, 253, 0, 1, 2, 255, 128 };
+        int unpacked[] = new int[8];
+        long packed = codec.pack(tuple);
+        codec.unpack(packed, unpacked);
+        assertArrayEquals(tuple, unpacked);
+        
+        int smaller[] = { 127, 255, 255, 255, 255, 255, 255, 255 };
+        assertTrue(codec.pack(smaller) < packed);
+        assertEquals(Long.MIN_VALUE, codec.pack(new int[8]));
+    }
+    
+    /**
+     * Test that a codec for tuples that do not fit into a long can not 
+     * be created
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLarge()
+    {
+        new PackedTupleCodec(9, 256);
+    }
+}
@@ -0,0 +1,102 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link ParallelEnumeration} class.
+ */
+@RunWith(JUnit4.class)
+public class ParallelEnumerationTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Test whether each element is visited exactly once
+     */
+    @Test
+    public void testForEachParallel()
+    {
+        CombinatorialSpace<Integer> space = 
+            new ChoiceIterable<Integer>(4, createInput(20));
+        Set<List<Integer>> visited = ConcurrentHashMap.newKeySet();
+        LongAdder counter = new LongAdder();
+        ParallelEnumeration.forEachParallel(space, element -> 
+        {
+            visited.add(element);
+            counter.increment();
+        });
+        assertEquals(space.size(), counter.sum());
+        assertEquals(Utils.asSet(space), visited);
+    }
+    
+    /**
+     * Test whether each index tuple is visited exactly once
+     */
+    @Test
+    public void testForEachTupleParallel()
+    {
+        IndexSpace space = 
+            new SequenceWithoutRepetitionIterable<Integer>(4, createInput(12));
+        Set<Long> ranks = ConcurrentHashMap.newKeySet();
+        ParallelEnumeration.forEachTupleParallel(space, 
+            tuple -> ranks.add(space.rank(tuple)));
+        assertEquals(space.size(), ranks.size());
+    }
+    
+    /**
+     * Test whether the reduction combines the results in the
+     * order of the ranks
+     */
+    @Test
+    public void testReduceParallel()
+    {
+        CombinatorialSpace<Integer> space = 
+            new PermutationIterable<Integer>(createInput(7));
+        List<List<Integer>> result = ParallelEnumeration.reduceParallel(
+            space, Collections.<List<Integer>>emptyList(),
+            (list, element) -> 
+            {
+                List<List<Integer>> r = new ArrayList<List<Integer>>(list);
+                r.add(element);
+                return r;
+            },
+            (list0, list1) -> 
+            {
+                List<List<Integer>> r = new ArrayList<List<Integer>>(list0);
+                r.addAll(list1);
+                return r;
+            });
+        assertEquals(Utils.asList(space), result);
+        
+        long sum = ParallelEnumeration.reduceParallel(
+            new CombinationIterable<Integer>(3, Arrays.asList(1, 2, 3)), 
+            0L, (s, element) -> s + element.get(0), Long::sum);
+        assertEquals(9 * (1 + 2 + 3), sum);
+    }
+}
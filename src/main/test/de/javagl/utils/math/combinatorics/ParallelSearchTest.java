@@ -0,0 +1,228 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link ParallelSearch} class.
+ */
+@RunWith(JUnit4.class)
+public class ParallelSearchTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * A scoring function that prefers permutations where the elements
+     * are far away from their index, with many ties
+     */
+    private static final ToDoubleFunction<List<Integer>> SCORER = list ->
+    {
+        int sum = 0;
+        for (int i = 0; i < list.size(); i++)
+        {
+            sum += Math.abs(list.get(i) - i);
+        }
+        return sum;
+    };
+    
+    /**
+     * Test whether the top-N search returns the same result as a 
+     * sequential sort that breaks ties by rank
+     */
+    @Test
+    public void testTopNMatchesSequential()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(8));
+        for (final boolean maximize : new boolean[] { true, false })
+        {
+            List<Long> ranks = new ArrayList<Long>();
+            for (long r = 0; r < space.size(); r++)
+            {
+                ranks.add(r);
+            }
+            Collections.sort(ranks, new Comparator<Long>()
+            {
+                @Override
+                public int compare(Long r0, Long r1)
+                {
+                    double s0 = SCORER.applyAsDouble(space.get(r0));
+                    double s1 = SCORER.applyAsDouble(space.get(r1));
+                    int c = maximize ? 
+                        Double.compare(s1, s0) : Double.compare(s0, s1);
+                    return c != 0 ? c : Long.compare(r0, r1);
+                }
+            });
+            List<ScoredElement<Integer>> result = maximize ?
+                ParallelSearch.topN(space, 50, SCORER) :
+                ParallelSearch.bottomN(space, 50, SCORER);
+            assertEquals(50, result.size());
+            for (int i = 0; i < result.size(); i++)
+            {
+                ScoredElement<Integer> e = result.get(i);
+                long rank = ranks.get(i);
+                assertEquals(rank, e.getRank());
+                assertEquals(space.get(rank), e.getElement());
+                assertEquals(SCORER.applyAsDouble(space.get(rank)), 
+                    e.getScore(), 0.0);
+                int tuple[] = new int[space.getTupleLength()];
+                space.unrank(rank, tuple);
+                assertArrayEquals(tuple, e.getTuple());
+            }
+        }
+    }
+    
+    /**
+     * Test the arg-max and arg-min methods
+     */
+    @Test
+    public void testArgMaxArgMin()
+    {
+        ChoiceIterable<Integer> space = 
+            new ChoiceIterable<Integer>(3, createInput(20));
+        ToDoubleFunction<List<Integer>> sum = 
+            list -> list.get(0) + list.get(1) + list.get(2);
+        assertEquals(space.size() - 1, 
+            ParallelSearch.argMax(space, sum).getRank());
+        assertEquals(0, ParallelSearch.argMin(space, sum).getRank());
+        
+        ToDoubleFunction<int[]> tupleSum = t -> t[0] + t[1] + t[2];
+        assertEquals(space.size() - 1, 
+            ParallelSearch.argMaxByTuple(space, tupleSum).getRank());
+        assertEquals(0, 
+            ParallelSearch.argMinByTuple(space, tupleSum).getRank());
+    }
+    
+    /**
+     * Test the behavior for empty spaces, NaN scores and more results
+     * than elements
+     */
+    @Test
+    public void testEdgeCases()
+    {
+        CombinationIterable<Integer> space = 
+            new CombinationIterable<Integer>(2, createInput(3));
+        assertNull(ParallelSearch.argMaxByTuple(
+            new ChoiceIterable<Integer>(3, createInput(2)), t -> 0));
+        assertEquals(0, ParallelSearch.topNByTuple(space, 0, t -> 0).size());
+        assertEquals(9, 
+            ParallelSearch.topNByTuple(space, 20, t -> 0).size());
+        assertEquals(3, ParallelSearch.topNByTuple(space, 20, 
+            t -> t[0] == 1 ? 1 : Double.NaN).size());
+        assertEquals(120, ParallelSearch.topNByTuple(
+            new ChoiceIterable<Integer>(3, createInput(10)), 
+            Integer.MAX_VALUE / 4, t -> t[0]).size());
+    }
+    
+    /**
+     * Test whether the find-first methods return the matching element
+     * with the lowest rank, and the find-any methods return a matching
+     * element
+     */
+    @Test
+    public void testFind()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(8));
+        for (int last = 0; last < 8; last++)
+        {
+            final int value = last;
+            long expected = -1;
+            for (long r = 0; r < space.size(); r++)
+            {
+                List<Integer> p = space.get(r);
+                if (p.get(7) == value && p.get(0) == 7 - value)
+                {
+                    expected = r;
+                    break;
+                }
+            }
+            List<Integer> found = ParallelSearch.findFirst(space, 
+                p -> p.get(7) == value && p.get(0) == 7 - value);
+            assertEquals(space.get(expected), found);
+            assertEquals(expected, ParallelSearch.findFirstByTuple(space, 
+                t -> t[7] == value && t[0] == 7 - value));
+            
+            List<Integer> any = ParallelSearch.findAny(space, 
+                p -> p.get(7) == value);
+            assertEquals(value, any.get(7).intValue());
+            long anyRank = ParallelSearch.findAnyByTuple(space, 
+                t -> t[7] == value);
+            assertEquals(value, space.get(anyRank).get(7).intValue());
+        }
+        assertNull(ParallelSearch.findFirst(space, p -> false));
+        assertNull(ParallelSearch.findAny(space, p -> false));
+        assertEquals(-1, ParallelSearch.findFirstByTuple(space, t -> false));
+        assertEquals(-1, ParallelSearch.findAnyByTuple(space, t -> false));
+    }
+    
+    /**
+     * Test whether the search stops early when a match was found. The
+     * search is run in a pool with a fixed parallelism, so that the 
+     * number of evaluations does not depend on the number of cores.
+     * 
+     * @throws Exception If the search fails
+     */
+    @Test
+    public void testFindStopsEarly() throws Exception
+    {
+        final PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(12));
+        final LongAdder evaluations = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            long rank = pool.submit(() -> 
+                ParallelSearch.findFirstByTuple(space, t -> 
+                {
+                    evaluations.increment();
+                    return t[0] == 0 && t[1] == 1 && t[2] == 3;
+                })).get();
+            assertEquals(space.rank(new int[] { 0, 1, 3, 2, 4, 5, 6, 7, 
+                8, 9, 10, 11 }), rank);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        assertTrue(evaluations.sum() < space.size() / 100);
+    }
+    
+    /**
+     * Test that a negative number of results causes an exception
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount()
+    {
+        ParallelSearch.topNByTuple(
+            new PowerSetIterable<Integer>(createInput(3)), -1, t -> 0);
+    }
+}
@@ -0,0 +1,177 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link PermutationGroup} and the 
+ * {@link OrbitIterable}
+ */
+@RunWith(JUnit4.class)
+public class PermutationGroupTest
+{
+    /**
+     * Collects the distinct canonical forms of the index tuples of 
+     * the given space
+     * 
+     * @param space The space
+     * @param group The group
+     * @return The canonical forms, in lexicographical order
+     */
+    private static List<List<Integer>> canonicalForms(
+        IndexSpace space, PermutationGroup group)
+    {
+        Set<List<Integer>> found = new HashSet<List<Integer>>();
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        int tuple[] = new int[space.getTupleLength()];
+        for (long r = 0; r < space.size(); r++)
+        {
+            space.unrank(r, tuple);
+            int canonical[] = group.canonicalize(tuple, null);
+            List<Integer> list = new ArrayList<Integer>();
+            for (int index : canonical)
+            {
+                list.add(index);
+            }
+            if (found.add(list))
+            {
+                result.add(list);
+            }
+        }
+        Collections.sort(result, (a, b) -> a.toString().compareTo(
+            b.toString()));
+        return result;
+    }
+    
+    /**
+     * Test the orders of the standard groups
+     */
+    @Test
+    public void testOrders()
+    {
+        assertEquals(1, PermutationGroup.cyclic(0).getOrder());
+        assertEquals(1, PermutationGroup.cyclic(1).getOrder());
+        assertEquals(6, PermutationGroup.cyclic(6).getOrder());
+        assertEquals(12, PermutationGroup.dihedral(6).getOrder());
+        assertEquals(720, PermutationGroup.symmetric(6).getOrder());
+    }
+    
+    /**
+     * Test whether the Burnside counts are equal to the number of 
+     * distinct canonical forms, and to the necklace counts
+     */
+    @Test
+    public void testCountOrbits()
+    {
+        List<int[]> generators = new ArrayList<int[]>();
+        generators.add(new int[] { 1, 0, 2, 3, 4 });
+        generators.add(new int[] { 0, 1, 3, 4, 2 });
+        PermutationGroup custom = new PermutationGroup(5, generators);
+        assertEquals(6, custom.getOrder());
+        for (int k = 0; k <= 3; k++)
+        {
+            CombinationIterable<Integer> words = 
+                new CombinationIterable<Integer>(5, Utils.indexList(k));
+            assertEquals(canonicalForms(words, custom).size(), 
+                custom.countOrbits(k));
+            assertEquals(Counting.necklaces(k, 5), 
+                PermutationGroup.cyclic(5).countOrbits(k));
+            assertEquals(Counting.bracelets(k, 5), 
+                PermutationGroup.dihedral(5).countOrbits(k));
+            assertEquals(Counting.binomial(5 + k - 1, 5),
+                PermutationGroup.symmetric(5).countOrbits(k));
+        }
+    }
+    
+    /**
+     * Test whether the orbit iterable provides the canonical elements
+     */
+    @Test
+    public void testOrbitIterable()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E");
+        PermutationIterable<String> permutations = 
+            new PermutationIterable<String>(input);
+        PermutationGroup dihedral = PermutationGroup.dihedral(5);
+        OrbitIterable<String> orbits = 
+            new OrbitIterable<String>(permutations, dihedral);
+        List<List<String>> actual = Utils.asList(orbits);
+        assertEquals(12, actual.size());
+        
+        List<List<Integer>> expected = 
+            canonicalForms(permutations, dihedral);
+        List<List<Integer>> actualTuples = new ArrayList<List<Integer>>();
+        orbits.forEachTuple(t -> 
+        {
+            List<Integer> list = new ArrayList<Integer>();
+            for (int index : t)
+            {
+                list.add(index);
+            }
+            actualTuples.add(list);
+        });
+        assertEquals(expected, actualTuples);
+        for (int i = 0; i < actual.size(); i++)
+        {
+            assertEquals(permutations.select(
+                toArray(expected.get(i))), actual.get(i));
+        }
+        
+        List<String> binary = Arrays.asList("0", "1");
+        assertEquals(Utils.asList(new NecklaceIterable<String>(6, binary)),
+            Utils.asList(new OrbitIterable<String>(
+                new CombinationIterable<String>(6, binary), 
+                PermutationGroup.cyclic(6))));
+    }
+    
+    /**
+     * Test the canonical form of a tuple
+     */
+    @Test
+    public void testCanonicalize()
+    {
+        PermutationGroup cyclic = PermutationGroup.cyclic(4);
+        int tuple[] = { 2, 1, 3, 1 };
+        assertArrayEquals(new int[] { 1, 2, 1, 3 }, 
+            cyclic.canonicalize(tuple, null));
+        assertEquals(false, cyclic.isCanonical(tuple));
+        assertEquals(true, cyclic.isCanonical(new int[] { 1, 2, 1, 3 }));
+    }
+    
+    /**
+     * Test whether an IllegalArgumentException is thrown for invalid
+     * generators
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidGenerator()
+    {
+        new PermutationGroup(3, Arrays.asList(new int[] { 0, 0, 1 }));
+    }
+    
+    /**
+     * Converts the given list into an array
+     * 
+     * @param list The list
+     * @return The array
+     */
+    private static int[] toArray(List<Integer> list)
+    {
+        int result[] = new int[list.size()];
+        for (int i = 0; i < list.size(); i++)
+        {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+}
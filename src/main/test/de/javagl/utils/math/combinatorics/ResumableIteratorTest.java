@@ -0,0 +1,145 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link ResumableIterator} class.
+ */
+@RunWith(JUnit4.class)
+public class ResumableIteratorTest
+{
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Collects the remaining elements of the given iterator
+     * 
+     * @param iterator The iterator
+     * @return The elements
+     */
+    private static List<List<Integer>> collect(
+        ResumableIterator<Integer> iterator)
+    {
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        while (iterator.hasNext())
+        {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+    
+    /**
+     * Test whether iterators that are resumed from a rank or a tuple
+     * return the same elements as the original iterator
+     */
+    @Test
+    public void testResume()
+    {
+        List<CombinatorialSpace<Integer>> spaces = 
+            new ArrayList<CombinatorialSpace<Integer>>();
+        spaces.add(new PermutationIterable<Integer>(createInput(5)));
+        spaces.add(new CombinationIterable<Integer>(3, createInput(4)));
+        spaces.add(new ChoiceIterable<Integer>(3, createInput(7)));
+        spaces.add(new SequenceWithoutRepetitionIterable<Integer>(
+            3, createInput(5)));
+        for (CombinatorialSpace<Integer> space : spaces)
+        {
+            List<List<Integer>> expected = new ArrayList<List<Integer>>();
+            for (List<Integer> element : space)
+            {
+                expected.add(element);
+            }
+            ResumableIterator<Integer> iterator = 
+                new ResumableIterator<Integer>(space);
+            for (int i = 0; i < expected.size(); i++)
+            {
+                long rank = iterator.getRank();
+                int tuple[] = iterator.getTuple();
+                List<List<Integer>> rest = expected.subList(
+                    i, expected.size());
+                assertEquals(rest, 
+                    collect(new ResumableIterator<Integer>(space, rank)));
+                assertEquals(rest, 
+                    collect(new ResumableIterator<Integer>(space, tuple)));
+                assertEquals(expected.get(i), iterator.next());
+            }
+            assertFalse(iterator.hasNext());
+            assertEquals(space.size(), iterator.getRank());
+            assertNull(iterator.getTuple());
+        }
+    }
+    
+    /**
+     * Test whether the checkpoint listener is called after the 
+     * specified number of elements, with the rank of the first
+     * element that was not returned yet
+     */
+    @Test
+    public void testCheckpoints()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(5));
+        ResumableIterator<Integer> iterator = 
+            new ResumableIterator<Integer>(space, 10);
+        final List<Long> checkpoints = new ArrayList<Long>();
+        final List<Long> returned = new ArrayList<Long>();
+        final List<List<Integer>> elements = new ArrayList<List<Integer>>();
+        iterator.setCheckpointListener(rank -> 
+        {
+            checkpoints.add(rank);
+            returned.add(10L + elements.size());
+        }, 25, 0, TimeUnit.SECONDS);
+        while (iterator.hasNext())
+        {
+            elements.add(iterator.next());
+        }
+        assertEquals(Arrays.asList(35L, 60L, 85L, 110L), checkpoints);
+        assertEquals(checkpoints, returned);
+        assertEquals(space.get(35), new ResumableIterator<Integer>(
+            space, checkpoints.get(0)).next());
+        assertEquals(space.get(35), elements.get(25));
+        
+        checkpoints.clear();
+        iterator = new ResumableIterator<Integer>(space);
+        iterator.setCheckpointListener(
+            rank -> checkpoints.add(rank), 0, 1, TimeUnit.NANOSECONDS);
+        collect(iterator);
+        assertEquals(space.size(), checkpoints.size());
+    }
+    
+    /**
+     * Test that an invalid tuple causes an exception
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTuple()
+    {
+        new ResumableIterator<Integer>(
+            new ChoiceIterable<Integer>(3, createInput(7)), 
+            new int[] { 2, 1, 0 });
+    }
+}
@@ -0,0 +1,159 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link Sampling} class.
+ */
+@RunWith(JUnit4.class)
+public class SamplingTest
+{
+    /**
+     * Interface for the samplers that are tested
+     */
+    private interface Sampler
+    {
+        /**
+         * Write a sample into the given tuple
+         * 
+         * @param random The random number generator
+         * @param tuple The tuple
+         */
+        void sample(SplittableRandom random, int tuple[]);
+    }
+    
+    /**
+     * Creates an input list with the given number of elements
+     * 
+     * @param n The number of elements
+     * @return The input
+     */
+    private static List<Integer> createInput(int n)
+    {
+        List<Integer> input = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+        {
+            input.add(i);
+        }
+        return input;
+    }
+    
+    /**
+     * Draws samples with the given sampler, and checks whether they 
+     * are valid tuples of the given space and roughly uniformly 
+     * distributed
+     * 
+     * @param space The space
+     * @param sampler The sampler
+     */
+    private static void checkUniform(IndexSpace space, Sampler sampler)
+    {
+        int size = (int) space.size();
+        int samplesPerElement = 500;
+        long counts[] = new long[size];
+        SplittableRandom random = new SplittableRandom(0);
+        int tuple[] = new int[space.getTupleLength()];
+        int check[] = new int[space.getTupleLength()];
+        for (int i = 0; i < size * samplesPerElement; i++)
+        {
+            sampler.sample(random, tuple);
+            long rank = space.rank(tuple);
+            space.unrank(rank, check);
+            assertArrayEquals(tuple, check);
+            counts[(int) rank]++;
+        }
+        for (int r = 0; r < size; r++)
+        {
+            assertTrue("Count " + counts[r] + " for rank " + r, 
+                Math.abs(counts[r] - samplesPerElement) < 
+                samplesPerElement / 4);
+        }
+    }
+    
+    /**
+     * Test whether the samplers create valid, uniformly distributed 
+     * tuples
+     */
+    @Test
+    public void testUniform()
+    {
+        checkUniform(new ChoiceIterable<Integer>(3, createInput(6)), 
+            (r, t) -> Sampling.sampleChoice(6, 3, r, t));
+        checkUniform(new PermutationIterable<Integer>(createInput(4)), 
+            (r, t) -> Sampling.samplePermutation(4, r, t));
+        checkUniform(new SequenceWithoutRepetitionIterable<Integer>(
+            2, createInput(5)), 
+            (r, t) -> Sampling.sampleSequence(5, 2, r, t));
+        checkUniform(new CombinationIterable<Integer>(2, createInput(4)), 
+            (r, t) -> Sampling.sampleCombination(4, 2, r, t));
+        checkUniform(new UnorderedCombinationIterable<Integer>(
+            3, createInput(4)), 
+            (r, t) -> Sampling.sampleMultiset(4, 3, r, t));
+        checkUniform(new PowerSetIterable<Integer>(createInput(4)), 
+            (r, t) -> Sampling.sampleSubset(4, r, t));
+        MixedRangeCombinationIterable<Integer> mixed = 
+            new MixedRangeCombinationIterable<Integer>(Arrays.asList(
+                createInput(2), createInput(3), createInput(4)));
+        checkUniform(mixed, (r, t) -> Sampling.sampleTuple(mixed, r, t));
+    }
+    
+    /**
+     * Test whether sampling works for spaces whose size does not fit 
+     * into a long
+     */
+    @Test
+    public void testLargeSpaces()
+    {
+        SplittableRandom random = new SplittableRandom(0);
+        int tuple[] = new int[100];
+        Sampling.sampleChoice(200, 100, random, tuple);
+        for (int i = 1; i < 100; i++)
+        {
+            assertTrue(tuple[i - 1] < tuple[i]);
+        }
+        Sampling.samplePermutation(100, random, tuple);
+        int sorted[] = tuple.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(i, sorted[i]);
+        }
+    }
+    
+    /**
+     * Test whether the sample streams are reproducible, also when they
+     * are processed in parallel
+     */
+    @Test
+    public void testReproducible()
+    {
+        PermutationIterable<Integer> space = 
+            new PermutationIterable<Integer>(createInput(10));
+        List<List<Integer>> expected = 
+            Sampling.samples(space, 1000, 123).collect(Collectors.toList());
+        List<List<Integer>> parallel = Sampling.samples(space, 1000, 123)
+            .parallel().collect(Collectors.toList());
+        assertEquals(expected, parallel);
+        
+        List<List<Integer>> tuples = new ArrayList<List<Integer>>();
+        Sampling.sampleTuples(space, 1000, 123, 
+            t -> tuples.add(space.select(t)));
+        assertEquals(expected, tuples);
+        
+        List<List<Integer>> other = 
+            Sampling.samples(space, 1000, 124).collect(Collectors.toList());
+        assertTrue(!expected.equals(other));
+    }
+}
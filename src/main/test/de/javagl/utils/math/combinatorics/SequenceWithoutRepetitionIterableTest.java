@@ -47,6 +47,54 @@ public class SequenceWithoutRepetitionIterableTest
         assertEquals(expected, actual);
     }
     
+    /**
+     * Test whether the sequences are provided in lexicographical order
+     */
+    @Test
+    public void testOrder()
+    {
+        int sampleSize = 2;
+        List<String> input = Arrays.asList("A", "B", "C");
+        
+        List<List<String>> actual = 
+            Utils.asList(new SequenceWithoutRepetitionIterable<String>(sampleSize, input));
+        
+        List<List<String>> expected = Arrays.asList(
+            Arrays.asList("A", "B"),
+            Arrays.asList("A", "C"),
+            Arrays.asList("B", "A"),
+            Arrays.asList("B", "C"),
+            Arrays.asList("C", "A"),
+            Arrays.asList("C", "B"));
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test whether the random access methods are consistent with
+     * the order of the iterator
+     */
+    @Test
+    public void testGetAndRank()
+    {
+        int sampleSize = 3;
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E");
+        
+        SequenceWithoutRepetitionIterable<String> iterable = 
+            new SequenceWithoutRepetitionIterable<String>(sampleSize, input);
+        assertEquals(60, iterable.size());
+        
+        long index = 0;
+        for (List<String> sequence : iterable)
+        {
+            assertEquals(sequence, iterable.get(index));
+            assertEquals(index, iterable.rank(sequence));
+            index++;
+        }
+        assertEquals(iterable.size(), index);
+        assertEquals(-1, iterable.rank(Arrays.asList("A", "A", "B")));
+        assertEquals(-1, iterable.rank(Arrays.asList("A", "B")));
+    }
+    
     /**
      * Test for empty inputs
      */
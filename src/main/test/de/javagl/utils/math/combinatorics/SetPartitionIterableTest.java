@@ -0,0 +1,181 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link SetPartitionIterable}
+ */
+@RunWith(JUnit4.class)
+public class SetPartitionIterableTest
+{
+    /**
+     * Computes the expected restricted growth strings by filtering all
+     * tuples of length n with values in [0,n)
+     * 
+     * @param n The length of the strings
+     * @param k The number of blocks, or -1 for any number of blocks
+     * @return The expected strings
+     */
+    private static List<List<Integer>> expected(int n, int k)
+    {
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        for (List<Integer> list : 
+            new CombinationIterable<Integer>(n, Utils.indexList(n)))
+        {
+            int blocks = 0;
+            boolean valid = true;
+            for (int value : list)
+            {
+                if (value > blocks)
+                {
+                    valid = false;
+                    break;
+                }
+                blocks = Math.max(blocks, value + 1);
+            }
+            if (valid && (k < 0 || blocks == k))
+            {
+                result.add(list);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns all index tuples of the given space, in the order of
+     * {@link SetPartitionIterable#forEachTuple(IntArrayConsumer)}
+     * 
+     * @param space The space
+     * @return The tuples
+     */
+    private static List<List<Integer>> tuples(
+        SetPartitionIterable<Integer> space)
+    {
+        List<List<Integer>> result = new ArrayList<List<Integer>>();
+        space.forEachTuple(t -> 
+        {
+            List<Integer> list = new ArrayList<Integer>();
+            for (int value : t)
+            {
+                list.add(value);
+            }
+            result.add(list);
+        });
+        return result;
+    }
+    
+    /**
+     * Checks whether the ranking, unranking and advancing of the index 
+     * tuples of the given space are consistent, and whether the ranks 
+     * of the elements are correct
+     * 
+     * @param space The space
+     */
+    private static void checkSpace(SetPartitionIterable<Integer> space)
+    {
+        int tuple[] = new int[space.getTupleLength()];
+        int next[] = new int[space.getTupleLength()];
+        if (space.size() > 0)
+        {
+            space.unrank(0, next);
+        }
+        for (long r = 0; r < space.size(); r++)
+        {
+            space.unrank(r, tuple);
+            assertArrayEquals(tuple, next);
+            assertEquals(r, space.rank(tuple));
+            assertEquals(r, space.rank(space.select(tuple)));
+            assertEquals(r < space.size() - 1, space.nextTuple(next));
+        }
+        Iterator<List<List<Integer>>> iterator = space.flyweightIterator();
+        for (long r = 0; r < space.size(); r++)
+        {
+            assertEquals(space.get(r), iterator.next());
+        }
+    }
+    
+    /**
+     * Test the restricted growth strings against the filtered tuples
+     */
+    @Test
+    public void testAgainstFilteredTuples()
+    {
+        for (int n = 0; n <= 7; n++)
+        {
+            List<Integer> input = Utils.indexList(n);
+            SetPartitionIterable<Integer> all = 
+                new SetPartitionIterable<Integer>(input);
+            assertEquals(Counting.bell(n), all.size());
+            assertEquals(expected(n, -1), tuples(all));
+            checkSpace(all);
+            for (int k = 0; k <= n + 1; k++)
+            {
+                SetPartitionIterable<Integer> fixed = 
+                    new SetPartitionIterable<Integer>(k, input);
+                assertEquals(Counting.stirling2(n, k), fixed.size());
+                assertEquals(expected(n, k), tuples(fixed));
+                checkSpace(fixed);
+            }
+        }
+    }
+    
+    /**
+     * Test the blocks of the partitions
+     */
+    @Test
+    public void testBlocks()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D");
+        SetPartitionIterable<String> partitions = 
+            new SetPartitionIterable<String>(2, input);
+        List<List<List<String>>> actual = Utils.asList(partitions);
+        assertEquals(7, actual.size());
+        assertEquals(Arrays.asList(
+            Arrays.asList("A", "B", "C"), Arrays.asList("D")), 
+            actual.get(0));
+        assertEquals(Arrays.asList(
+            Arrays.asList("A", "C"), Arrays.asList("B", "D")), 
+            actual.get(4));
+        assertEquals(Arrays.asList(
+            Arrays.asList("A"), Arrays.asList("B", "C", "D")), 
+            actual.get(6));
+        assertEquals(-1, partitions.rank(Arrays.asList(
+            Arrays.asList("D"), Arrays.asList("A", "B", "C"))));
+        assertEquals(-1, partitions.rank(Arrays.asList(
+            Arrays.asList("A", "B"), Arrays.asList("C"))));
+    }
+    
+    /**
+     * Test the cursor over the block assignments of a large space
+     */
+    @Test
+    public void testCursor()
+    {
+        IntTupleIterator cursor = IntTupleIterator.setPartitions(12, 4);
+        long count = 0;
+        while (cursor.advance())
+        {
+            count++;
+        }
+        assertEquals(Counting.stirling2(12, 4), count);
+        
+        cursor = IntTupleIterator.setPartitions(10);
+        count = 0;
+        while (cursor.advance())
+        {
+            assertEquals(count, cursor.rank());
+            count++;
+        }
+        assertEquals(Counting.bell(10), count);
+    }
+}
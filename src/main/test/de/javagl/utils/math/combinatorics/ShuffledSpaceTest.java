@@ -0,0 +1,120 @@
+package de.javagl.utils.math.combinatorics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Test cases for the {@link ShuffledSpace} and {@link RankPermutation}
+ * classes.
+ */
+@RunWith(JUnit4.class)
+public class ShuffledSpaceTest
+{
+    /**
+     * Test whether the rank permutations are bijections
+     */
+    @Test
+    public void testRankPermutation()
+    {
+        for (long size = 1; size < 300; size += 7)
+        {
+            RankPermutation permutation = new RankPermutation(size, size);
+            boolean seen[] = new boolean[(int) size];
+            for (long r = 0; r < size; r++)
+            {
+                long p = permutation.apply(r);
+                assertTrue(p >= 0 && p < size);
+                assertTrue(!seen[(int) p]);
+                seen[(int) p] = true;
+                assertEquals(r, permutation.inverse(p));
+            }
+        }
+        
+        RankPermutation large = new RankPermutation(Long.MAX_VALUE, 42);
+        for (long r = Long.MAX_VALUE - 100; r < Long.MAX_VALUE; r++)
+        {
+            long p = large.apply(r);
+            assertTrue(p >= 0);
+            assertEquals(r, large.inverse(p));
+        }
+    }
+    
+    /**
+     * Test whether the shuffled space contains each element exactly
+     * once, in a different order, and is consistent with the 
+     * random access methods
+     */
+    @Test
+    public void testShuffledSpace()
+    {
+        List<String> input = Arrays.asList("A", "B", "C", "D", "E", "F");
+        ChoiceIterable<String> choices = new ChoiceIterable<String>(3, input);
+        ShuffledSpace<String> shuffled = 
+            new ShuffledSpace<String>(choices, 1234);
+        
+        List<List<String>> elements = Utils.asList(shuffled);
+        assertEquals(choices.size(), elements.size());
+        assertEquals(new HashSet<List<String>>(Utils.asList(choices)), 
+            new HashSet<List<String>>(elements));
+        assertTrue(!elements.equals(Utils.asList(choices)));
+        
+        int tuple[] = new int[shuffled.getTupleLength()];
+        shuffled.unrank(0, tuple);
+        for (long r = 0; r < shuffled.size(); r++)
+        {
+            List<String> element = elements.get((int) r);
+            assertEquals(element, shuffled.get(r));
+            assertEquals(r, shuffled.rank(element));
+            assertEquals(element, shuffled.select(tuple));
+            assertEquals(r + 1 < shuffled.size(), shuffled.nextTuple(tuple));
+        }
+        
+        Set<List<String>> parallel = new HashSet<List<String>>();
+        ParallelEnumeration.forEachParallel(shuffled, e -> 
+        {
+            synchronized (parallel)
+            {
+                parallel.add(e);
+            }
+        });
+        assertEquals(new HashSet<List<String>>(elements), parallel);
+        
+        List<List<String>> other = 
+            Utils.asList(new ShuffledSpace<String>(choices, 4321));
+        assertTrue(!elements.equals(other));
+    }
+    
+    /**
+     * Test whether the first elements of a shuffled large space are
+     * spread over the whole space
+     */
+    @Test
+    public void testSpread()
+    {
+        List<List<Integer>> sets = new ArrayList<List<Integer>>();
+        for (int i = 0; i < 6; i++)
+        {
+            sets.add(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        }
+        MixedRangeCombinationIterable<Integer> space = 
+            new MixedRangeCombinationIterable<Integer>(sets);
+        ShuffledSpace<Integer> shuffled = 
+            new ShuffledSpace<Integer>(space, 7);
+        Set<Integer> firstDigits = new HashSet<Integer>();
+        for (long r = 0; r < 100; r++)
+        {
+            firstDigits.add(shuffled.get(r).get(0));
+        }
+        assertEquals(10, firstDigits.size());
+    }
+}